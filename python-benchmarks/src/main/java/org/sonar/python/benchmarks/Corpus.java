@@ -0,0 +1,113 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed Python sources the benchmarks are run on. Large and deeply nested modules are generated from the same inputs every time,
+ * so that results can be compared from one run to the next.
+ */
+public enum Corpus {
+  SMALL {
+    @Override
+    String generate() {
+      return resource("small.py");
+    }
+  },
+  LARGE {
+    @Override
+    String generate() {
+      String module = resource("small.py") + resource("fstrings.py");
+      return module.repeat(LARGE_MODULE_REPETITIONS);
+    }
+  },
+  FSTRINGS {
+    @Override
+    String generate() {
+      return resource("fstrings.py");
+    }
+  },
+  DEEP_NESTING {
+    @Override
+    String generate() {
+      StringBuilder source = new StringBuilder();
+      for (int i = 0; i < DEEP_NESTING_REPETITIONS; i++) {
+        source.append(nestedBlocks(i)).append(nestedExpression(i));
+      }
+      return source.toString();
+    }
+  };
+
+  static final String NOTEBOOK = "notebook.ipynb";
+  private static final int LARGE_MODULE_REPETITIONS = 100;
+  private static final int DEEP_NESTING_REPETITIONS = 20;
+  private static final int NESTING_DEPTH = 40;
+
+  private String source;
+
+  abstract String generate();
+
+  public String source() {
+    if (source == null) {
+      source = generate();
+    }
+    return source;
+  }
+
+  public double sizeInMegabytes() {
+    return source().getBytes(StandardCharsets.UTF_8).length / (1024.0 * 1024.0);
+  }
+
+  static String resource(String name) {
+    return classpathResource("/corpus/" + name);
+  }
+
+  static String classpathResource(String path) {
+    try (InputStream inputStream = Corpus.class.getResourceAsStream(path)) {
+      if (inputStream == null) {
+        throw new IllegalStateException("Missing benchmark resource: " + path);
+      }
+      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String nestedBlocks(int index) {
+    StringBuilder source = new StringBuilder("def nested_" + index + "(x):\n");
+    for (int depth = 1; depth <= NESTING_DEPTH; depth++) {
+      String indent = "    ".repeat(depth);
+      String keyword = switch (depth % 4) {
+        case 0 -> "if x > " + depth + ":";
+        case 1 -> "for i" + depth + " in range(x):";
+        case 2 -> "while x < " + depth + ":";
+        default -> "with open(x) as f" + depth + ":";
+      };
+      source.append(indent).append(keyword).append("\n");
+    }
+    source.append("    ".repeat(NESTING_DEPTH + 1)).append("return x\n");
+    return source.toString();
+  }
+
+  private static String nestedExpression(int index) {
+    return "value_" + index + " = " + "[(".repeat(NESTING_DEPTH) + "1" + " + x)]".repeat(NESTING_DEPTH) + "\n";
+  }
+}
@@ -0,0 +1,288 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.batch.sensor.Sensor;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.config.internal.MapSettings;
+import org.sonar.plugins.python.bandit.BanditSensor;
+import org.sonar.plugins.python.coverage.PythonCoverageSensor;
+import org.sonar.plugins.python.flake8.Flake8Sensor;
+import org.sonar.plugins.python.mypy.MypySensor;
+import org.sonar.plugins.python.pylint.PylintSensor;
+import org.sonar.plugins.python.ruff.RuffSensor;
+import org.sonar.plugins.python.warnings.AnalysisWarningsWrapper;
+import org.sonar.plugins.python.xunit.PythonXUnitSensor;
+
+/**
+ * Import of large generated reports of external tools by the sensors of the plugin, into a {@link SensorContextTester}. Each
+ * entry of a report is an issue, a covered line or a test case, spread over the lines of {@value #FILES} source files. The
+ * allocations and the peak heap usage are reported by the profilers of the {@link BenchmarkRunner}, and the size of the report as a
+ * {@link Throughput} in MB/s.
+ * <p>
+ * The report and the source files are generated on disk once per trial, as some reports are resolved against existing files. The
+ * sensor context is created again before each import, since measures cannot be saved twice on the same file.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class ExternalReportBenchmark {
+
+  static final int FILES = 1000;
+  static final int LINES_PER_FILE = 500;
+
+  public enum Report {
+    RUFF(RuffSensor.REPORT_PATH_KEY, "ruff.json") {
+      @Override
+      void write(Writer writer, int entries) throws IOException {
+        writer.write("[\n");
+        for (int entry = 0; entry < entries; entry++) {
+          writer.write(String.format(Locale.ROOT, "%s{\"code\": \"E501\", \"end_location\": {\"column\": 9, \"row\": %d}, \"filename\": \"%s\", " +
+            "\"fix\": null, \"location\": {\"column\": 1, \"row\": %d}, \"message\": \"Line too long (120 > 88)\", \"noqa_row\": %2$d, " +
+            "\"url\": \"https://docs.astral.sh/ruff/rules/line-too-long\"}\n", entry == 0 ? "" : ",", line(entry), file(entry), line(entry)));
+        }
+        writer.write("]\n");
+      }
+
+      @Override
+      Sensor sensor(SensorContextTester context) {
+        return new RuffSensor();
+      }
+    },
+    BANDIT(BanditSensor.REPORT_PATH_KEY, "bandit.json") {
+      @Override
+      void write(Writer writer, int entries) throws IOException {
+        writer.write("{\"errors\": [], \"generated_at\": \"2025-01-01T00:00:00Z\", \"metrics\": {}, \"results\": [\n");
+        for (int entry = 0; entry < entries; entry++) {
+          writer.write(String.format(Locale.ROOT, "%s{\"code\": \"%d value_%2$d = %2$d\\n\", \"filename\": \"%s\", \"issue_confidence\": \"HIGH\", " +
+            "\"issue_severity\": \"LOW\", \"issue_text\": \"Use of assert detected.\", \"line_number\": %2$d, \"line_range\": [%2$d], " +
+            "\"more_info\": \"https://bandit.readthedocs.io/en/latest/plugins/b101_assert_used.html\", \"test_id\": \"B101\", " +
+            "\"test_name\": \"assert_used\"}\n", entry == 0 ? "" : ",", line(entry), file(entry)));
+        }
+        writer.write("]}\n");
+      }
+
+      @Override
+      Sensor sensor(SensorContextTester context) {
+        return new BanditSensor();
+      }
+    },
+    PYLINT(PylintSensor.REPORT_PATH_KEY, "pylint.txt") {
+      @Override
+      void write(Writer writer, int entries) throws IOException {
+        for (int entry = 0; entry < entries; entry++) {
+          writer.write(String.format(Locale.ROOT, "%s:%d:0: C0103: Variable name \"value_%2$d\" doesn't conform to snake_case naming style (invalid-name)%n",
+            file(entry), line(entry)));
+        }
+      }
+
+      @Override
+      Sensor sensor(SensorContextTester context) {
+        return new PylintSensor();
+      }
+    },
+    FLAKE8(Flake8Sensor.REPORT_PATH_KEY, "flake8.txt") {
+      @Override
+      void write(Writer writer, int entries) throws IOException {
+        for (int entry = 0; entry < entries; entry++) {
+          writer.write(String.format(Locale.ROOT, "%s:%d:1: E501 line too long (120 > 79 characters)%n", file(entry), line(entry)));
+        }
+      }
+
+      @Override
+      Sensor sensor(SensorContextTester context) {
+        return new Flake8Sensor();
+      }
+    },
+    MYPY(MypySensor.REPORT_PATH_KEY, "mypy.txt") {
+      @Override
+      void write(Writer writer, int entries) throws IOException {
+        for (int entry = 0; entry < entries; entry++) {
+          writer.write(String.format(Locale.ROOT, "%s:%d: error: Incompatible types in assignment (expression has type \"str\", variable has type \"int\")  " +
+            "[assignment]%n", file(entry), line(entry)));
+        }
+      }
+
+      @Override
+      Sensor sensor(SensorContextTester context) {
+        return new MypySensor();
+      }
+    },
+    COBERTURA(PythonCoverageSensor.REPORT_PATHS_KEY, "coverage.xml") {
+      @Override
+      void write(Writer writer, int entries) throws IOException {
+        writer.write("<?xml version=\"1.0\" ?>\n<coverage branch-rate=\"0.5\" line-rate=\"0.5\" timestamp=\"1735689600\" version=\"7.6\">\n" +
+          "  <sources><source>.</source></sources>\n  <packages>\n");
+        int linesPerFile = Math.min(LINES_PER_FILE, Math.max(1, entries / FILES));
+        for (int file = 0; file < FILES && file * linesPerFile < entries; file++) {
+          writer.write(String.format(Locale.ROOT, "    <package name=\"package_%d\"><classes><class filename=\"%s\" name=\"module_%d\"><lines>%n",
+            file / 100, file(file), file));
+          for (int line = 1; line <= linesPerFile; line++) {
+            if (line % 10 == 0) {
+              writer.write(String.format(Locale.ROOT, "      <line branch=\"true\" condition-coverage=\"50%% (1/2)\" hits=\"1\" number=\"%d\">" +
+                "<conditions><condition coverage=\"50%%\" number=\"0\" type=\"jump\"/></conditions></line>%n", line));
+            } else {
+              writer.write(String.format(Locale.ROOT, "      <line branch=\"false\" hits=\"%d\" number=\"%d\"/>%n", line % 3, line));
+            }
+          }
+          writer.write("    </lines></class></classes></package>\n");
+        }
+        writer.write("  </packages>\n</coverage>\n");
+      }
+
+      @Override
+      Sensor sensor(SensorContextTester context) {
+        return new PythonCoverageSensor(new AnalysisWarningsWrapper());
+      }
+    },
+    XUNIT(PythonXUnitSensor.REPORT_PATH_KEY, "xunit.xml") {
+      @Override
+      void write(Writer writer, int entries) throws IOException {
+        writer.write(String.format(Locale.ROOT, "<?xml version=\"1.0\" encoding=\"utf-8\"?>%n<testsuite errors=\"0\" failures=\"%d\" name=\"pytest\" " +
+          "skips=\"0\" tests=\"%d\" time=\"%d\">%n", entries / 10, entries, entries / 1000));
+        for (int entry = 0; entry < entries; entry++) {
+          String testCase = String.format(Locale.ROOT, "  <testcase classname=\"package_%d.module_%d\" file=\"%s\" line=\"%d\" name=\"test_%d\" time=\"0.001\"",
+            entry % FILES / 100, entry % FILES, file(entry), line(entry), entry);
+          if (entry % 10 == 0) {
+            writer.write(testCase + ">\n    <failure message=\"assert 1 == 2\">AssertionError</failure>\n  </testcase>\n");
+          } else {
+            writer.write(testCase + "/>\n");
+          }
+        }
+        writer.write("</testsuite>\n");
+      }
+
+      @Override
+      Sensor sensor(SensorContextTester context) {
+        return new PythonXUnitSensor(context.config(), context.fileSystem(), new AnalysisWarningsWrapper());
+      }
+    };
+
+    private final String reportPathKey;
+    private final String fileName;
+
+    Report(String reportPathKey, String fileName) {
+      this.reportPathKey = reportPathKey;
+      this.fileName = fileName;
+    }
+
+    abstract void write(Writer writer, int entries) throws IOException;
+
+    abstract Sensor sensor(SensorContextTester context);
+  }
+
+  @Param({"RUFF", "BANDIT", "PYLINT", "FLAKE8", "MYPY", "COBERTURA", "XUNIT"})
+  public Report report;
+
+  @Param({"10000", "300000"})
+  public int entries;
+
+  private Path baseDir;
+  private final List<DefaultInputFile> inputFiles = new ArrayList<>();
+  private double sizeInMegabytes;
+  private SensorContextTester context;
+  private Sensor sensor;
+
+  @Setup(Level.Trial)
+  public void generateReport() throws IOException {
+    baseDir = Files.createTempDirectory("external-report");
+    String contents = sourceFile();
+    for (int file = 0; file < FILES; file++) {
+      Path path = baseDir.resolve(file(file));
+      Files.createDirectories(path.getParent());
+      Files.writeString(path, contents, StandardCharsets.UTF_8);
+      inputFiles.add(TestInputFileBuilder.create("moduleKey", file(file))
+        .setModuleBaseDir(baseDir)
+        .setCharset(StandardCharsets.UTF_8)
+        .setType(report == Report.XUNIT ? InputFile.Type.TEST : InputFile.Type.MAIN)
+        .setLanguage("py")
+        .initMetadata(contents)
+        .build());
+    }
+    Path reportPath = baseDir.resolve(report.fileName);
+    try (BufferedWriter writer = Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8)) {
+      report.write(writer, entries);
+    }
+    sizeInMegabytes = Files.size(reportPath) / (1024.0 * 1024.0);
+  }
+
+  @Setup(Level.Invocation)
+  public void createContext() {
+    context = SensorContextTester.create(baseDir);
+    context.setSettings(new MapSettings().setProperty(report.reportPathKey, report.fileName));
+    inputFiles.forEach(context.fileSystem()::add);
+    sensor = report.sensor(context);
+  }
+
+  @Benchmark
+  public SensorContextTester importReport(Throughput throughput) {
+    sensor.execute(context);
+    throughput.processed(sizeInMegabytes);
+    return context;
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteReport() throws IOException {
+    ScaleBenchmark.delete(baseDir);
+  }
+
+  static String file(int entry) {
+    int file = entry % FILES;
+    return "package_" + (file / 100) + "/module_" + file + ".py";
+  }
+
+  static int line(int entry) {
+    return entry / FILES % LINES_PER_FILE + 1;
+  }
+
+  private static String sourceFile() {
+    StringBuilder source = new StringBuilder();
+    for (int line = 1; line <= LINES_PER_FILE; line++) {
+      source.append("value_").append(line).append(" = ").append(line).append('\n');
+    }
+    return source.toString();
+  }
+}
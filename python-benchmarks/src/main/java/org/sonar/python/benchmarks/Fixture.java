@@ -0,0 +1,56 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.util.List;
+
+/**
+ * Small projects the semantic benchmarks are run on, each one relying on a different part of the stubs: Django, the AWS CDK, and
+ * numeric code using the standard library and numpy.
+ */
+public enum Fixture {
+  DJANGO("django_app", "polls/models.py", "polls/forms.py", "polls/views.py", "polls/urls.py"),
+  CDK("cdk_app", "app.py", "infra/storage_stack.py", "infra/api_stack.py"),
+  NUMERIC("numeric", "solver/linalg.py", "solver/stats.py");
+
+  private final String directory;
+  private final List<String> paths;
+  private List<Module> modules;
+
+  Fixture(String directory, String... paths) {
+    this.directory = directory;
+    this.paths = List.of(paths);
+  }
+
+  public List<Module> modules() {
+    if (modules == null) {
+      modules = paths.stream()
+        .map(path -> {
+          int lastSlash = path.lastIndexOf('/');
+          String packageName = lastSlash < 0 ? "" : path.substring(0, lastSlash).replace('/', '.');
+          String fileName = path.substring(lastSlash + 1);
+          String content = Corpus.classpathResource("/fixtures/" + directory + "/" + path);
+          return new Module(packageName, new BenchmarkPythonFile(directory + ":" + path, fileName, content));
+        })
+        .toList();
+    }
+    return modules;
+  }
+
+  public record Module(String packageName, BenchmarkPythonFile pythonFile) {
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.sonar.api.batch.sensor.cache.ReadCache;
+import org.sonar.api.batch.sensor.cache.WriteCache;
+
+/**
+ * Analysis cache kept in memory: entries are read from the cache of the previous analysis, and written to a new cache which
+ * becomes the previous one of the next analysis.
+ */
+class InMemoryCache implements ReadCache, WriteCache {
+
+  private final Map<String, byte[]> previousEntries;
+  private final Map<String, byte[]> entries = new HashMap<>();
+
+  InMemoryCache(Map<String, byte[]> previousEntries) {
+    this.previousEntries = previousEntries;
+  }
+
+  static InMemoryCache empty() {
+    return new InMemoryCache(Map.of());
+  }
+
+  /**
+   * Cache of the analysis following this one, whose previous entries are the ones written by this analysis.
+   */
+  InMemoryCache next() {
+    return new InMemoryCache(Map.copyOf(entries));
+  }
+
+  /**
+   * Cache with the same previous entries as this one, and none written yet, for another analysis following the same one.
+   */
+  InMemoryCache copy() {
+    return new InMemoryCache(previousEntries);
+  }
+
+  @Override
+  public InputStream read(String key) {
+    return new ByteArrayInputStream(previousEntry(key));
+  }
+
+  @Override
+  public boolean contains(String key) {
+    return previousEntries.containsKey(key);
+  }
+
+  @Override
+  public void write(String key, InputStream data) {
+    try {
+      write(key, data.readAllBytes());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void write(String key, byte[] data) {
+    if (entries.putIfAbsent(key, data) != null) {
+      throw new IllegalArgumentException("Cache already contains key " + key);
+    }
+  }
+
+  @Override
+  public void copyFromPrevious(String key) {
+    write(key, previousEntry(key));
+  }
+
+  private byte[] previousEntry(String key) {
+    byte[] value = previousEntries.get(key);
+    if (value == null) {
+      throw new IllegalArgumentException("No cache entry for key " + key);
+    }
+    return value;
+  }
+}
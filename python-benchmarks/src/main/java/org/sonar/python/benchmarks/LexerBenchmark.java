@@ -0,0 +1,66 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import com.sonar.sslr.impl.Lexer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.python.lexer.LexerState;
+import org.sonar.python.lexer.PythonLexer;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LexerBenchmark {
+
+  @Param({"SMALL", "LARGE", "FSTRINGS", "DEEP_NESTING"})
+  public Corpus corpus;
+
+  private String source;
+  private double sizeInMegabytes;
+  private LexerState lexerState;
+  private Lexer lexer;
+
+  @Setup
+  public void setup() {
+    source = corpus.source();
+    sizeInMegabytes = corpus.sizeInMegabytes();
+    lexerState = new LexerState();
+    lexer = PythonLexer.create(lexerState);
+  }
+
+  @Benchmark
+  public int lex(Throughput throughput) {
+    lexerState.reset();
+    lexer.lex(source);
+    throughput.processed(sizeInMegabytes);
+    return lexer.getTokens().size();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import com.sonar.sslr.api.AstNode;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.plugins.python.GeneratedIPythonFile;
+import org.sonar.plugins.python.IpynbNotebookParser;
+import org.sonar.plugins.python.PythonInputFile;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.python.parser.PythonParser;
+import org.sonar.python.tree.IPythonTreeMaker;
+
+/**
+ * Conversion of a notebook to Python code, then parsing of the converted code and conversion to the Python tree.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotebookBenchmark {
+
+  private PythonInputFile notebook;
+  private double notebookSizeInMegabytes;
+  private GeneratedIPythonFile convertedNotebook;
+  private String convertedSource;
+  private double convertedSizeInMegabytes;
+  private PythonParser parser;
+  private AstNode astNode;
+
+  @Setup
+  public void setup() throws IOException {
+    String contents = Corpus.resource(Corpus.NOTEBOOK);
+    InputFile inputFile = TestInputFileBuilder.create("moduleKey", Corpus.NOTEBOOK)
+      .setCharset(StandardCharsets.UTF_8)
+      .setLanguage("ipynb")
+      .setContents(contents)
+      .build();
+    notebook = () -> inputFile;
+    notebookSizeInMegabytes = megabytes(contents);
+    convertedNotebook = IpynbNotebookParser.parseNotebook(notebook).orElseThrow();
+    convertedSource = convertedNotebook.contents();
+    convertedSizeInMegabytes = megabytes(convertedSource);
+    parser = PythonParser.createIPythonParser();
+    astNode = parser.parse(convertedSource);
+  }
+
+  @Benchmark
+  public GeneratedIPythonFile convert(Throughput throughput) {
+    GeneratedIPythonFile result = IpynbNotebookParser.parseNotebook(notebook).orElseThrow();
+    throughput.processed(notebookSizeInMegabytes);
+    return result;
+  }
+
+  @Benchmark
+  public AstNode parse(Throughput throughput) {
+    AstNode result = parser.parse(convertedSource);
+    throughput.processed(convertedSizeInMegabytes);
+    return result;
+  }
+
+  @Benchmark
+  public FileInput treeMaker(Throughput throughput) {
+    FileInput fileInput = new IPythonTreeMaker(convertedNotebook.locationMap()).fileInput(astNode);
+    throughput.processed(convertedSizeInMegabytes);
+    return fileInput;
+  }
+
+  private static double megabytes(String contents) {
+    return contents.getBytes(StandardCharsets.UTF_8).length / (1024.0 * 1024.0);
+  }
+}
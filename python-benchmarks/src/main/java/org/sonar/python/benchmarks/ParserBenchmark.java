@@ -0,0 +1,76 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import com.sonar.sslr.api.AstNode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.python.parser.PythonParser;
+import org.sonar.python.tree.PythonTreeMaker;
+
+/**
+ * Parsing to an AST (lexing included), and conversion of a parsed AST to the Python tree.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+  @Param({"SMALL", "LARGE", "FSTRINGS", "DEEP_NESTING"})
+  public Corpus corpus;
+
+  private String source;
+  private double sizeInMegabytes;
+  private PythonParser parser;
+  private AstNode astNode;
+
+  @Setup
+  public void setup() {
+    source = corpus.source();
+    sizeInMegabytes = corpus.sizeInMegabytes();
+    parser = PythonParser.create();
+    astNode = parser.parse(source);
+  }
+
+  @Benchmark
+  public AstNode parse(Throughput throughput) {
+    AstNode result = parser.parse(source);
+    throughput.processed(sizeInMegabytes);
+    return result;
+  }
+
+  @Benchmark
+  public FileInput treeMaker(Throughput throughput) {
+    FileInput fileInput = new PythonTreeMaker().fileInput(astNode);
+    throughput.processed(sizeInMegabytes);
+    return fileInput;
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.rule.CheckFactory;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+
+/**
+ * Analysis of a pull request on a {@link SyntheticProject}, as done by SonarQube: the base project is analyzed first and its
+ * analysis cache becomes the previous cache of the analysis of the pull request. The files of the pull request have the
+ * {@link InputFile.Status} they would have on SonarQube, compared with the base project.
+ * <p>
+ * The numbers of skippable files are read from the flight recorder events emitted by the indexer and the scanners of the sensors.
+ */
+public final class PrAnalysis {
+
+  private static final String GLOBAL_SYMBOLS_EVENT = "org.sonar.python.GlobalSymbols";
+  private static final String SCANNER_EVENT = "org.sonar.python.Scanner";
+  private static final String RULES_EXECUTION = "rules execution";
+
+  public enum Mode {
+    /**
+     * Analysis without any cache, as for a pull request analyzed by a version of SonarQube which does not support caching.
+     */
+    FULL,
+    /**
+     * Analysis using the cache of the base project, where unchanged files can be skipped.
+     */
+    INCREMENTAL
+  }
+
+  record Result(int files, int recomputedFiles, int partiallySkippableFiles, int fullySkippableFiles, int filesScannedWithoutParsing,
+    long durationNanos) {
+  }
+
+  private final Path workDir;
+  private final List<SyntheticProject.GeneratedFile> baseFiles;
+  private final Map<String, String> baseContents;
+  private final CheckFactory checkFactory = ProjectAnalysis.sonarWayChecks();
+  private InMemoryCache baseCache;
+
+  PrAnalysis(Path workDir, SyntheticProject.Shape shape) throws IOException {
+    this.workDir = workDir;
+    this.baseFiles = SyntheticProject.writeTo(shape, Files.createDirectories(workDir.resolve("base")));
+    this.baseContents = baseFiles.stream()
+      .collect(Collectors.toMap(SyntheticProject.GeneratedFile::relativePath, SyntheticProject.GeneratedFile::contents));
+  }
+
+  /**
+   * Full analysis of the base project, whose cache is then used by the incremental analyses of the pull requests.
+   */
+  Result analyzeBase() throws IOException {
+    InMemoryCache cache = InMemoryCache.empty();
+    SensorContextTester context = ProjectAnalysis.context(workDir.resolve("base"), baseFiles, file -> InputFile.Status.ADDED);
+    context.setCacheEnabled(true);
+    context.setPreviousCache(cache);
+    context.setNextCache(cache);
+    Result result = analyze(context);
+    baseCache = cache.next();
+    return result;
+  }
+
+  /**
+   * Writes the project of the pull request of the given scenario, if not already done, and creates the context of its analysis.
+   */
+  SensorContextTester context(PrAnalysisScenario scenario, Mode mode) throws IOException {
+    if (baseCache == null) {
+      throw new IllegalStateException("The base project has to be analyzed first");
+    }
+    List<SyntheticProject.GeneratedFile> files = scenario.apply(baseFiles);
+    Path baseDir = workDir.resolve(scenario.name().toLowerCase(Locale.ROOT));
+    if (!Files.exists(baseDir)) {
+      for (SyntheticProject.GeneratedFile file : files) {
+        Path path = baseDir.resolve(file.relativePath());
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, file.contents());
+      }
+    }
+    SensorContextTester context = ProjectAnalysis.context(baseDir, files, this::status);
+    if (mode == Mode.INCREMENTAL) {
+      context.setCacheEnabled(true);
+      context.setCanSkipUnchangedFiles(true);
+      InMemoryCache cache = baseCache.copy();
+      context.setPreviousCache(cache);
+      context.setNextCache(cache);
+    }
+    return context;
+  }
+
+  void execute(SensorContextTester context) {
+    ProjectAnalysis.execute(context, checkFactory);
+  }
+
+  Result analyze(SensorContextTester context) throws IOException {
+    Path recordingFile = Files.createTempFile(workDir, "analysis", ".jfr");
+    long durationNanos;
+    try (Recording recording = new Recording()) {
+      recording.enable(GLOBAL_SYMBOLS_EVENT);
+      recording.enable(SCANNER_EVENT);
+      recording.start();
+      long start = System.nanoTime();
+      execute(context);
+      durationNanos = System.nanoTime() - start;
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+    List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+    Files.delete(recordingFile);
+    return new Result(
+      sum(events, GLOBAL_SYMBOLS_EVENT, "files"),
+      sum(events, GLOBAL_SYMBOLS_EVENT, "cacheMisses"),
+      sum(events, GLOBAL_SYMBOLS_EVENT, "cacheHits"),
+      sum(events, GLOBAL_SYMBOLS_EVENT, "fullySkippableFiles"),
+      events.stream()
+        .filter(event -> event.getEventType().getName().equals(SCANNER_EVENT) && RULES_EXECUTION.equals(event.getString("scanner")))
+        .mapToInt(event -> event.getInt("filesScannedWithoutParsing"))
+        .sum(),
+      durationNanos);
+  }
+
+  private InputFile.Status status(SyntheticProject.GeneratedFile file) {
+    String baseContent = baseContents.get(file.relativePath());
+    if (baseContent == null) {
+      return InputFile.Status.ADDED;
+    }
+    return baseContent.equals(file.contents()) ? InputFile.Status.SAME : InputFile.Status.CHANGED;
+  }
+
+  private static int sum(List<RecordedEvent> events, String eventName, String field) {
+    return events.stream()
+      .filter(event -> event.getEventType().getName().equals(eventName))
+      .mapToInt(event -> event.getInt(field))
+      .sum();
+  }
+}
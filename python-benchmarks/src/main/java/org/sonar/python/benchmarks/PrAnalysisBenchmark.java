@@ -0,0 +1,89 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+
+/**
+ * Analysis of the pull requests of the {@link PrAnalysisScenario scenarios} on a {@link SyntheticProject}, with and without the
+ * cache of the analysis of the base project. The ratio between both modes is the gain brought by the skipping of unchanged files.
+ * The numbers of skippable files are checked against a baseline by the {@link PrAnalysisGate}.
+ * <p>
+ * The base project is generated and analyzed once per trial, and the context of the analysis of the pull request is created again
+ * before each analysis.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class PrAnalysisBenchmark {
+
+  @Param({"1000", "10000"})
+  public int modules;
+
+  @Param({"NEW_FILE", "CHANGE_IN_IMPLEMENTATION", "CHANGE_IN_IMPORTED_MODULE", "CHANGE_IN_PARENT", "CHANGE_IN_PACKAGE_INIT", "DELETED_FILE"})
+  public PrAnalysisScenario scenario;
+
+  @Param({"FULL", "INCREMENTAL"})
+  public PrAnalysis.Mode mode;
+
+  private Path workDir;
+  private PrAnalysis prAnalysis;
+  private SensorContextTester context;
+
+  @Setup(Level.Trial)
+  public void analyzeBaseProject() throws IOException {
+    workDir = Files.createTempDirectory("pr-analysis");
+    prAnalysis = new PrAnalysis(workDir, new SyntheticProject.Shape(modules, 4, 3, 10, 0.05));
+    prAnalysis.analyzeBase();
+  }
+
+  @Setup(Level.Iteration)
+  public void createContext() throws IOException {
+    context = prAnalysis.context(scenario, mode);
+  }
+
+  @Benchmark
+  public SensorContextTester analyze() {
+    prAnalysis.execute(context);
+    return context;
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteProjects() throws IOException {
+    ScaleBenchmark.delete(workDir);
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.sonarsource.analyzer.commons.internal.json.simple.JSONObject;
+import org.sonarsource.analyzer.commons.internal.json.simple.JSONValue;
+import org.sonarsource.analyzer.commons.internal.json.simple.parser.JSONParser;
+import org.sonarsource.analyzer.commons.internal.json.simple.parser.ParseException;
+
+/**
+ * Regression gate of the analysis of pull requests: the {@link PrAnalysisScenario scenarios} are analyzed incrementally on a
+ * {@link SyntheticProject}, and compared with a baseline. A scenario regresses when fewer files are skippable or scanned without
+ * parsing, when more files have their global symbols recomputed, or when the ratio between the duration of its incremental
+ * analysis and the one of a full analysis of the base project exceeds the one of the baseline by more than the tolerance, relative to
+ * the ratio of the baseline.
+ * <p>
+ * Durations are the median of several analyses, which follow a few warm-up analyses, so that a single slow analysis (JIT compilation,
+ * garbage collection, noisy machine) does not make the gate fail.
+ * <p>
+ * {@code java -cp benchmarks.jar org.sonar.python.benchmarks.PrAnalysisGate [--baseline <file>] [--write <file>]}
+ * <p>
+ * The baseline defaults to the one of the benchmarks jar. The shape of the project is the one of the baseline, and the results of
+ * the current run are written to the {@code --write} file, to update the baseline. The exit code is 1 when a scenario regressed.
+ */
+public class PrAnalysisGate {
+
+  private static final String DEFAULT_BASELINE = "/pr-analysis-baseline.json";
+  private static final int WARMUP_ANALYSES = 3;
+  private static final int MEASURED_ANALYSES = 5;
+
+  private PrAnalysisGate() {
+  }
+
+  public static void main(String[] args) throws IOException, ParseException {
+    Map<String, String> options = options(args);
+    JSONObject baseline = readBaseline(options.get("--baseline"));
+    SyntheticProject.Shape shape = shape((JSONObject) baseline.get("shape"));
+    double tolerance = ((Number) baseline.get("tolerance")).doubleValue();
+    JSONObject baselineScenarios = (JSONObject) baseline.get("scenarios");
+
+    Map<String, Object> scenarios = new LinkedHashMap<>();
+    List<String> regressions = new ArrayList<>();
+    Path workDir = Files.createTempDirectory("pr-analysis");
+    try {
+      PrAnalysis prAnalysis = new PrAnalysis(workDir, shape);
+      prAnalysis.analyzeBase();
+      for (int i = 0; i < WARMUP_ANALYSES; i++) {
+        prAnalysis.analyze(prAnalysis.context(PrAnalysisScenario.NEW_FILE, PrAnalysis.Mode.FULL));
+      }
+      long fullDurationNanos = medianDurationNanos(prAnalysis, PrAnalysisScenario.NEW_FILE, PrAnalysis.Mode.FULL);
+      for (PrAnalysisScenario scenario : PrAnalysisScenario.values()) {
+        // The numbers of files do not depend on the run: they are the ones of the first analysis
+        PrAnalysis.Result result = prAnalysis.analyze(prAnalysis.context(scenario, PrAnalysis.Mode.INCREMENTAL));
+        long durationNanos = medianDurationNanos(prAnalysis, scenario, PrAnalysis.Mode.INCREMENTAL);
+        Map<String, Object> current = toJson(result, (double) durationNanos / fullDurationNanos);
+        scenarios.put(scenario.name(), current);
+        JSONObject expected = (JSONObject) baselineScenarios.get(scenario.name());
+        if (expected == null) {
+          regressions.add(scenario.name() + ": missing from the baseline");
+        } else {
+          compare(scenario.name(), expected, current, tolerance, regressions);
+        }
+        System.out.println(scenario.name() + " " + JSONValue.toJSONString(current));
+      }
+    } finally {
+      ScaleBenchmark.delete(workDir);
+    }
+
+    if (options.containsKey("--write")) {
+      Map<String, Object> results = new LinkedHashMap<>();
+      results.put("shape", toJson(shape));
+      results.put("tolerance", tolerance);
+      results.put("scenarios", scenarios);
+      Files.writeString(Path.of(options.get("--write")), JSONValue.toJSONString(results), StandardCharsets.UTF_8);
+    }
+    if (!regressions.isEmpty()) {
+      regressions.forEach(regression -> System.out.println("Regression of " + regression));
+      System.exit(1);
+    }
+    System.out.println("No regression of the PR analysis scenarios");
+  }
+
+  static long medianDurationNanos(PrAnalysis prAnalysis, PrAnalysisScenario scenario, PrAnalysis.Mode mode) throws IOException {
+    long[] durationsNanos = new long[MEASURED_ANALYSES];
+    for (int i = 0; i < MEASURED_ANALYSES; i++) {
+      durationsNanos[i] = prAnalysis.analyze(prAnalysis.context(scenario, mode)).durationNanos();
+    }
+    return median(durationsNanos);
+  }
+
+  static long median(long[] durationsNanos) {
+    long[] sorted = durationsNanos.clone();
+    Arrays.sort(sorted);
+    return sorted[sorted.length / 2];
+  }
+
+  static Map<String, String> options(String[] args) {
+    Map<String, String> options = new LinkedHashMap<>();
+    for (int i = 0; i < args.length; i += 2) {
+      if (i + 1 == args.length || !List.of("--baseline", "--write").contains(args[i])) {
+        throw new IllegalArgumentException("Expected arguments: [--baseline <file>] [--write <file>]");
+      }
+      options.put(args[i], args[i + 1]);
+    }
+    return options;
+  }
+
+  static JSONObject readBaseline(String path) throws IOException, ParseException {
+    try (InputStream in = path != null ? Files.newInputStream(Path.of(path)) : PrAnalysisGate.class.getResourceAsStream(DEFAULT_BASELINE);
+      Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+      return (JSONObject) new JSONParser().parse(reader);
+    }
+  }
+
+  static SyntheticProject.Shape shape(JSONObject shape) {
+    return new SyntheticProject.Shape(
+      ((Number) shape.get("modules")).intValue(),
+      ((Number) shape.get("importFanOut")).intValue(),
+      ((Number) shape.get("hierarchyDepth")).intValue(),
+      ((Number) shape.get("functionSize")).intValue(),
+      ((Number) shape.get("notebookShare")).doubleValue());
+  }
+
+  private static Map<String, Object> toJson(SyntheticProject.Shape shape) {
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("modules", shape.modules());
+    json.put("importFanOut", shape.importFanOut());
+    json.put("hierarchyDepth", shape.hierarchyDepth());
+    json.put("functionSize", shape.functionSize());
+    json.put("notebookShare", shape.notebookShare());
+    return json;
+  }
+
+  static Map<String, Object> toJson(PrAnalysis.Result result, double incrementalToFullRatio) {
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("files", result.files());
+    json.put("recomputedFiles", result.recomputedFiles());
+    json.put("partiallySkippableFiles", result.partiallySkippableFiles());
+    json.put("fullySkippableFiles", result.fullySkippableFiles());
+    json.put("filesScannedWithoutParsing", result.filesScannedWithoutParsing());
+    json.put("incrementalToFullRatio", Math.round(incrementalToFullRatio * 1000) / 1000.0);
+    return json;
+  }
+
+  static void compare(String scenario, JSONObject expected, Map<String, Object> current, double tolerance, List<String> regressions) {
+    for (String key : List.of("partiallySkippableFiles", "fullySkippableFiles", "filesScannedWithoutParsing")) {
+      if (value(current, key) < value(expected, key)) {
+        regressions.add(String.format(Locale.ROOT, "%s: %s decreased from %s to %s", scenario, key, expected.get(key), current.get(key)));
+      }
+    }
+    if (value(current, "recomputedFiles") > value(expected, "recomputedFiles")) {
+      regressions.add(String.format(Locale.ROOT, "%s: recomputedFiles increased from %s to %s", scenario, expected.get("recomputedFiles"),
+        current.get("recomputedFiles")));
+    }
+    if (value(current, "incrementalToFullRatio") > value(expected, "incrementalToFullRatio") * (1 + tolerance)) {
+      regressions.add(String.format(Locale.ROOT, "%s: incrementalToFullRatio increased from %s to %s", scenario,
+        expected.get("incrementalToFullRatio"), current.get("incrementalToFullRatio")));
+    }
+  }
+
+  private static double value(Map<?, ?> json, String key) {
+    return ((Number) json.get(key)).doubleValue();
+  }
+}
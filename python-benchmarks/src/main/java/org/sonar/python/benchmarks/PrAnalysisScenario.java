@@ -0,0 +1,107 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Changes of a pull request on a {@link SyntheticProject}, mirroring the scenarios of the PR analysis integration tests. Changes
+ * are made to the first module of the project, which is imported by more modules than any other.
+ */
+public enum PrAnalysisScenario {
+  NEW_FILE {
+    @Override
+    List<SyntheticProject.GeneratedFile> apply(List<SyntheticProject.GeneratedFile> files, Target target) {
+      List<SyntheticProject.GeneratedFile> changed = new ArrayList<>(files);
+      changed.add(new SyntheticProject.GeneratedFile(target.packagePath() + "/new_module.py",
+        "from " + target.moduleName() + " import " + target.functionName() + "\n\nprint(" + target.functionName() + "(1))\n"));
+      return changed;
+    }
+  },
+  CHANGE_IN_IMPLEMENTATION {
+    @Override
+    List<SyntheticProject.GeneratedFile> apply(List<SyntheticProject.GeneratedFile> files, Target target) {
+      return replace(files, target.path(), source -> source.replace(
+        "def " + target.functionName() + "(value):\n    result = value\n",
+        "def " + target.functionName() + "(value):\n    result = value * 2\n"));
+    }
+  },
+  CHANGE_IN_IMPORTED_MODULE {
+    @Override
+    List<SyntheticProject.GeneratedFile> apply(List<SyntheticProject.GeneratedFile> files, Target target) {
+      return replace(files, target.path(), source -> source.replace(
+        "def " + target.functionName() + "(value):",
+        "def " + target.functionName() + "(value, factor=1):"));
+    }
+  },
+  CHANGE_IN_PARENT {
+    @Override
+    List<SyntheticProject.GeneratedFile> apply(List<SyntheticProject.GeneratedFile> files, Target target) {
+      return replace(files, target.path(), source -> source.replace("(object):", "(dict):"));
+    }
+  },
+  CHANGE_IN_PACKAGE_INIT {
+    @Override
+    List<SyntheticProject.GeneratedFile> apply(List<SyntheticProject.GeneratedFile> files, Target target) {
+      return replace(files, target.packagePath() + "/__init__.py",
+        source -> source + "from " + target.moduleName() + " import " + target.functionName() + "\n");
+    }
+  },
+  DELETED_FILE {
+    @Override
+    List<SyntheticProject.GeneratedFile> apply(List<SyntheticProject.GeneratedFile> files, Target target) {
+      return files.stream().filter(file -> !file.relativePath().equals(target.path())).toList();
+    }
+  };
+
+  abstract List<SyntheticProject.GeneratedFile> apply(List<SyntheticProject.GeneratedFile> files, Target target);
+
+  List<SyntheticProject.GeneratedFile> apply(List<SyntheticProject.GeneratedFile> files) {
+    return apply(files, Target.firstModule(files));
+  }
+
+  private static List<SyntheticProject.GeneratedFile> replace(List<SyntheticProject.GeneratedFile> files, String path, UnaryOperator<String> change) {
+    return files.stream()
+      .map(file -> file.relativePath().equals(path) ? new SyntheticProject.GeneratedFile(path, change.apply(file.contents())) : file)
+      .toList();
+  }
+
+  record Target(String path) {
+    static Target firstModule(List<SyntheticProject.GeneratedFile> files) {
+      return files.stream()
+        .map(SyntheticProject.GeneratedFile::relativePath)
+        .filter(path -> path.endsWith(".py") && !path.endsWith("/__init__.py"))
+        .findFirst()
+        .map(Target::new)
+        .orElseThrow(() -> new IllegalStateException("The project has no module"));
+    }
+
+    String packagePath() {
+      return path.substring(0, path.lastIndexOf('/'));
+    }
+
+    String moduleName() {
+      return path.substring(0, path.length() - ".py".length()).replace('/', '.');
+    }
+
+    String functionName() {
+      return "function_" + path.substring(path.lastIndexOf('_') + 1, path.length() - ".py".length());
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Function;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.batch.rule.CheckFactory;
+import org.sonar.api.batch.rule.internal.ActiveRulesBuilder;
+import org.sonar.api.batch.rule.internal.NewActiveRule;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.issue.NoSonarFilter;
+import org.sonar.api.measures.FileLinesContext;
+import org.sonar.api.measures.FileLinesContextFactory;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.api.server.profile.BuiltInQualityProfilesDefinition;
+import org.sonar.plugins.python.IPynbSensor;
+import org.sonar.plugins.python.PythonProfile;
+import org.sonar.plugins.python.PythonSensor;
+import org.sonar.plugins.python.warnings.AnalysisWarningsWrapper;
+import org.sonar.python.checks.CheckList;
+import org.sonar.python.types.TypeShed;
+
+/**
+ * Analysis of a {@link SyntheticProject} written on disk by the Python and notebook sensors, with the rules of the Sonar way
+ * profile. Measures and "NOSONAR" comments are not saved.
+ */
+final class ProjectAnalysis {
+
+  private ProjectAnalysis() {
+  }
+
+  static CheckFactory sonarWayChecks() {
+    BuiltInQualityProfilesDefinition.Context profiles = new BuiltInQualityProfilesDefinition.Context();
+    new PythonProfile().define(profiles);
+    ActiveRulesBuilder activeRules = new ActiveRulesBuilder();
+    for (BuiltInQualityProfilesDefinition.BuiltInActiveRule rule : profiles.profile("py", "Sonar way").rules()) {
+      activeRules.addRule(new NewActiveRule.Builder().setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, rule.ruleKey())).build());
+      activeRules.addRule(new NewActiveRule.Builder().setRuleKey(RuleKey.of(CheckList.IPYTHON_REPOSITORY_KEY, rule.ruleKey())).build());
+    }
+    return new CheckFactory(activeRules.build());
+  }
+
+  static SensorContextTester context(Path baseDir, Collection<SyntheticProject.GeneratedFile> files,
+    Function<SyntheticProject.GeneratedFile, InputFile.Status> status) throws IOException {
+    SensorContextTester context = SensorContextTester.create(baseDir);
+    context.fileSystem().setWorkDir(Files.createTempDirectory(baseDir, "work"));
+    for (SyntheticProject.GeneratedFile file : files) {
+      context.fileSystem().add(TestInputFileBuilder.create("moduleKey", file.relativePath())
+        .setModuleBaseDir(baseDir)
+        .setCharset(StandardCharsets.UTF_8)
+        .setType(InputFile.Type.MAIN)
+        .setLanguage(file.isNotebook() ? "ipynb" : "py")
+        .setStatus(status.apply(file))
+        .initMetadata(file.contents())
+        .build());
+    }
+    TypeShed.resetBuiltinSymbols();
+    return context;
+  }
+
+  static void execute(SensorContextTester context, CheckFactory checkFactory) {
+    FileLinesContextFactory fileLinesContextFactory = inputFile -> NoOpFileLinesContext.INSTANCE;
+    NoSonarFilter noSonarFilter = new NoOpNoSonarFilter();
+    new PythonSensor(fileLinesContextFactory, checkFactory, noSonarFilter, new AnalysisWarningsWrapper()).execute(context);
+    new IPynbSensor(fileLinesContextFactory, checkFactory, noSonarFilter).execute(context);
+  }
+
+  private static class NoOpNoSonarFilter extends NoSonarFilter {
+    @Override
+    public NoSonarFilter noSonarInFile(InputFile inputFile, Set<Integer> noSonarLines) {
+      return this;
+    }
+  }
+
+  private enum NoOpFileLinesContext implements FileLinesContext {
+    INSTANCE;
+
+    @Override
+    public void setIntValue(String metricKey, int line, int value) {
+      // Measures are not saved
+    }
+
+    @Override
+    public void setStringValue(String metricKey, int line, String value) {
+      // Measures are not saved
+    }
+
+    @Override
+    public void save() {
+      // Measures are not saved
+    }
+  }
+}
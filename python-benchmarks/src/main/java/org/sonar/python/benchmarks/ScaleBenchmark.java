@@ -0,0 +1,108 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.rule.CheckFactory;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+
+/**
+ * Analysis of a {@link SyntheticProject} by the sensors, with the rules of the Sonar way profile, on projects of growing size. The
+ * time to analyze a project and the peak heap usage should grow linearly with the number of modules: a super-linear growth
+ * points to the indexing of the project, to its dependency graph, or to structures which are rebuilt for each file. The peak heap
+ * usage is reported by the {@link PeakHeapProfiler}.
+ * <p>
+ * The project is generated on disk once per trial, and the sensor context is created again before each analysis.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class ScaleBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  public int modules;
+
+  @Param({"4"})
+  public int importFanOut;
+
+  @Param({"3"})
+  public int hierarchyDepth;
+
+  @Param({"10"})
+  public int functionSize;
+
+  @Param({"0.05"})
+  public double notebookShare;
+
+  private Path baseDir;
+  private List<SyntheticProject.GeneratedFile> files;
+  private CheckFactory checkFactory;
+  private SensorContextTester context;
+
+  @Setup(Level.Trial)
+  public void generateProject() throws IOException {
+    baseDir = Files.createTempDirectory("synthetic-project");
+    files = SyntheticProject.writeTo(new SyntheticProject.Shape(modules, importFanOut, hierarchyDepth, functionSize, notebookShare), baseDir);
+    checkFactory = ProjectAnalysis.sonarWayChecks();
+  }
+
+  @Setup(Level.Iteration)
+  public void createContext() throws IOException {
+    context = ProjectAnalysis.context(baseDir, files, file -> InputFile.Status.ADDED);
+  }
+
+  @Benchmark
+  public SensorContextTester analyze() {
+    ProjectAnalysis.execute(context, checkFactory);
+    return context;
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteProject() throws IOException {
+    delete(baseDir);
+  }
+
+  static void delete(Path directory) throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Statement;
+import org.sonar.python.types.v2.PythonType;
+import org.sonar.python.parser.PythonParser;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.semantic.SymbolTableBuilder;
+import org.sonar.python.semantic.v2.ProjectLevelTypeTable;
+import org.sonar.python.semantic.v2.SymbolTable;
+import org.sonar.python.semantic.v2.SymbolTableBuilderV2;
+import org.sonar.python.semantic.v2.SymbolV2;
+import org.sonar.python.semantic.v2.TypeInferenceV2;
+import org.sonar.python.tree.PythonTreeMaker;
+
+/**
+ * Semantic analysis of the modules of a fixture, in the order {@link org.sonar.plugins.python.api.PythonVisitorContext} runs it:
+ * symbol table, symbol table V2, then type inference. The symbol table and type inference mutate the trees they are run on, so the
+ * trees are parsed again before each invocation, outside of the measurement.
+ * <p>
+ * Type inference falls back from the flow-sensitive inference to the AST-based one for scopes containing a try statement. The
+ * {@link InferencePath#AST_BASED} variant of a fixture has a try statement added at the beginning of every function, so that both
+ * paths are measured on the same code.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SemanticBenchmark {
+
+  public enum InferencePath {
+    FLOW_SENSITIVE,
+    AST_BASED
+  }
+
+  @Param({"DJANGO", "CDK", "NUMERIC"})
+  public Fixture fixture;
+
+  @Param({"FLOW_SENSITIVE", "AST_BASED"})
+  public InferencePath inferencePath;
+
+  private final PythonParser parser = PythonParser.create();
+  private List<Fixture.Module> modules;
+  private List<String> sources;
+  private double sizeInMegabytes;
+  private ProjectLevelSymbolTable projectLevelSymbolTable;
+
+  private List<FileInput> trees;
+  private List<FileInput> treesWithSymbols;
+  private List<SymbolTable> symbolTables;
+
+  @Setup
+  public void setup() {
+    modules = fixture.modules();
+    sources = modules.stream()
+      .map(module -> inferencePath == InferencePath.AST_BASED ? withTryStatements(module.pythonFile().content()) : module.pythonFile().content())
+      .toList();
+    sizeInMegabytes = sources.stream().mapToDouble(SemanticBenchmark::megabytes).sum();
+    projectLevelSymbolTable = ProjectLevelSymbolTable.empty();
+    for (int i = 0; i < modules.size(); i++) {
+      Fixture.Module module = modules.get(i);
+      projectLevelSymbolTable.addModule(parse(sources.get(i)), module.packageName(), module.pythonFile());
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void parseModules() {
+    trees = sources.stream().map(this::parse).toList();
+    // Type inference is run on trees which already have their symbols, as during the analysis
+    treesWithSymbols = new ArrayList<>();
+    symbolTables = new ArrayList<>();
+    for (int i = 0; i < modules.size(); i++) {
+      FileInput tree = parse(sources.get(i));
+      Fixture.Module module = modules.get(i);
+      new SymbolTableBuilder(module.packageName(), module.pythonFile(), projectLevelSymbolTable).visitFileInput(tree);
+      symbolTables.add(new SymbolTableBuilderV2(tree).build());
+      treesWithSymbols.add(tree);
+    }
+  }
+
+  @Benchmark
+  public void symbolTableBuilder(Throughput throughput) {
+    for (int i = 0; i < modules.size(); i++) {
+      Fixture.Module module = modules.get(i);
+      new SymbolTableBuilder(module.packageName(), module.pythonFile(), projectLevelSymbolTable).visitFileInput(trees.get(i));
+    }
+    throughput.processed(sizeInMegabytes);
+  }
+
+  @Benchmark
+  public void symbolTableBuilderV2(Throughput throughput, Blackhole blackhole) {
+    for (FileInput tree : trees) {
+      blackhole.consume(new SymbolTableBuilderV2(tree).build());
+    }
+    throughput.processed(sizeInMegabytes);
+  }
+
+  @Benchmark
+  public void inferTypes(Throughput throughput, Blackhole blackhole) {
+    for (int i = 0; i < modules.size(); i++) {
+      Fixture.Module module = modules.get(i);
+      ProjectLevelTypeTable typeTable = new ProjectLevelTypeTable(projectLevelSymbolTable);
+      Map<SymbolV2, Set<PythonType>> typesBySymbol = new TypeInferenceV2(typeTable, module.pythonFile(), symbolTables.get(i), module.packageName())
+        .inferTypes(treesWithSymbols.get(i));
+      blackhole.consume(typesBySymbol);
+    }
+    throughput.processed(sizeInMegabytes);
+  }
+
+  @Benchmark
+  public ProjectLevelSymbolTable projectLevelSymbolTable(Throughput throughput) {
+    ProjectLevelSymbolTable symbolTable = ProjectLevelSymbolTable.empty();
+    for (int i = 0; i < modules.size(); i++) {
+      Fixture.Module module = modules.get(i);
+      symbolTable.addModule(trees.get(i), module.packageName(), module.pythonFile());
+    }
+    throughput.processed(sizeInMegabytes);
+    return symbolTable;
+  }
+
+  private FileInput parse(String source) {
+    return new PythonTreeMaker().fileInput(parser.parse(source));
+  }
+
+  /**
+   * Adds a {@code try} statement before the first statement of the body of each function, when the body is not on the same line
+   * as the function definition.
+   */
+  private String withTryStatements(String source) {
+    List<Statement> firstStatements = new ArrayList<>();
+    parse(source).accept(new BaseTreeVisitor() {
+      @Override
+      public void visitFunctionDef(FunctionDef functionDef) {
+        Statement firstStatement = functionDef.body().statements().get(0);
+        if (firstStatement.firstToken().line() > functionDef.colon().line()) {
+          firstStatements.add(firstStatement);
+        }
+        super.visitFunctionDef(functionDef);
+      }
+    });
+    List<String> lines = new ArrayList<>(Arrays.asList(source.split("\n", -1)));
+    firstStatements.sort(Comparator.comparingInt((Statement statement) -> statement.firstToken().line()).reversed());
+    for (Statement statement : firstStatements) {
+      String indent = " ".repeat(statement.firstToken().column());
+      lines.add(statement.firstToken().line() - 1, indent + "try:\n" + indent + "    pass\n" + indent + "except Exception:\n" + indent + "    pass");
+    }
+    return String.join("\n", lines);
+  }
+
+  private static double megabytes(String source) {
+    return source.getBytes(StandardCharsets.UTF_8).length / (1024.0 * 1024.0);
+  }
+}
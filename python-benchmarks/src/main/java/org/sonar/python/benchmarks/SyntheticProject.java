@@ -0,0 +1,199 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.sonarsource.analyzer.commons.internal.json.simple.JSONValue;
+
+/**
+ * Generator of Python projects of any size, to measure how the analysis scales with the number of files. The same shape always
+ * generates the same project.
+ * <p>
+ * Modules are grouped in packages of {@link #MODULES_PER_PACKAGE} modules. Each module imports classes and functions from
+ * {@link Shape#importFanOut()} modules generated before it, and defines a hierarchy of {@link Shape#hierarchyDepth()} classes
+ * whose root may inherit from an imported class, and functions of {@link Shape#functionSize()} statements calling the imported
+ * code. A share of the modules are generated as notebooks, which are never imported.
+ * <p>
+ * Projects can also be generated on disk to be analyzed with a scanner: {@code java -cp benchmarks.jar
+ * org.sonar.python.benchmarks.SyntheticProject <directory> <modules> [<import fan-out> <hierarchy depth> <function size> <notebook share>]}
+ */
+public class SyntheticProject {
+
+  static final int MODULES_PER_PACKAGE = 100;
+  private static final long SEED = 42;
+  private static final String INDENT = "    ";
+
+  public record Shape(int modules, int importFanOut, int hierarchyDepth, int functionSize, double notebookShare) {
+  }
+
+  public record GeneratedFile(String relativePath, String contents) {
+    public boolean isNotebook() {
+      return relativePath.endsWith(".ipynb");
+    }
+  }
+
+  private final Shape shape;
+  private final Random random = new Random(SEED);
+  private final List<Integer> importableModules = new ArrayList<>();
+  private final Set<Integer> rootModules = new HashSet<>();
+
+  private SyntheticProject(Shape shape) {
+    this.shape = shape;
+  }
+
+  public static List<GeneratedFile> generate(Shape shape) {
+    return new SyntheticProject(shape).generate();
+  }
+
+  public static List<GeneratedFile> writeTo(Shape shape, Path baseDir) throws IOException {
+    List<GeneratedFile> files = generate(shape);
+    for (GeneratedFile file : files) {
+      Path path = baseDir.resolve(file.relativePath());
+      Files.createDirectories(path.getParent());
+      Files.writeString(path, file.contents(), StandardCharsets.UTF_8);
+    }
+    return files;
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2 && args.length != 6) {
+      throw new IllegalArgumentException("Expected arguments: <directory> <modules> [<import fan-out> <hierarchy depth> <function size> <notebook share>]");
+    }
+    Shape shape = args.length == 2
+      ? new Shape(Integer.parseInt(args[1]), 4, 3, 10, 0.05)
+      : new Shape(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]), Double.parseDouble(args[5]));
+    writeTo(shape, Path.of(args[0]));
+  }
+
+  private List<GeneratedFile> generate() {
+    List<GeneratedFile> files = new ArrayList<>();
+    for (int index = 0; index < shape.modules(); index++) {
+      if (index % MODULES_PER_PACKAGE == 0) {
+        files.add(new GeneratedFile(packageName(index) + "/__init__.py", ""));
+      }
+      boolean notebook = random.nextDouble() < shape.notebookShare();
+      String source = module(index);
+      if (notebook) {
+        files.add(new GeneratedFile(packageName(index) + "/notebook_" + index + ".ipynb", notebook(source)));
+      } else {
+        files.add(new GeneratedFile(packageName(index) + "/" + moduleName(index) + ".py", source));
+        importableModules.add(index);
+      }
+    }
+    return files;
+  }
+
+  private String module(int index) {
+    StringBuilder source = new StringBuilder();
+    List<Integer> imported = importedModules();
+    for (int importedIndex : imported) {
+      source.append("from ").append(packageName(importedIndex)).append('.').append(moduleName(importedIndex))
+        .append(" import ").append(className(importedIndex, shape.hierarchyDepth() - 1)).append(", ").append(functionName(importedIndex)).append('\n');
+    }
+    source.append("import os\n\n");
+    // Hierarchies span at most two modules, so that their depth does not grow with the size of the project
+    String base = imported.stream()
+      .filter(rootModules::contains)
+      .findFirst()
+      .map(importedIndex -> className(importedIndex, shape.hierarchyDepth() - 1))
+      .orElse("object");
+    if ("object".equals(base)) {
+      rootModules.add(index);
+    }
+    for (int depth = 0; depth < shape.hierarchyDepth(); depth++) {
+      source.append("\nclass ").append(className(index, depth)).append('(').append(base).append("):\n")
+        .append(INDENT).append("counter_").append(depth).append(" = ").append(depth).append("\n\n")
+        .append(INDENT).append("def method_").append(depth).append("(self, value):\n");
+      body(source, INDENT + INDENT, imported, "self.counter_" + depth);
+      base = className(index, depth);
+    }
+    source.append("\ndef ").append(functionName(index)).append("(value):\n");
+    body(source, INDENT, imported, "value");
+    return source.toString();
+  }
+
+  private List<Integer> importedModules() {
+    Set<Integer> imported = new LinkedHashSet<>();
+    int candidates = importableModules.size();
+    for (int i = 0; i < shape.importFanOut() && imported.size() < candidates; i++) {
+      imported.add(importableModules.get(random.nextInt(candidates)));
+    }
+    return new ArrayList<>(imported);
+  }
+
+  private void body(StringBuilder source, String indent, List<Integer> imported, String initialValue) {
+    source.append(indent).append("result = ").append(initialValue).append('\n');
+    for (int statement = 0; statement < shape.functionSize(); statement++) {
+      String callee = imported.isEmpty() ? "len" : functionName(imported.get(random.nextInt(imported.size())));
+      switch (random.nextInt(5)) {
+        case 0 -> source.append(indent).append("result = result + ").append(statement).append('\n');
+        case 1 -> source.append(indent).append("if result > ").append(statement).append(":\n")
+          .append(indent).append(INDENT).append("result = ").append(callee).append("(result)\n");
+        case 2 -> source.append(indent).append("for item in range(").append(statement).append("):\n")
+          .append(indent).append(INDENT).append("result += item\n");
+        case 3 -> source.append(indent).append("name = os.path.join(str(result), \"file_").append(statement).append(".txt\")\n");
+        default -> source.append(indent).append("result = ").append(callee).append("(result)\n");
+      }
+    }
+    source.append(indent).append("return result\n");
+  }
+
+  private static String notebook(String source) {
+    // One cell per top-level statement block
+    List<Object> cells = new ArrayList<>();
+    for (String block : source.split("\n\n(?=\\S)")) {
+      List<String> lines = block.lines().map(line -> line + "\n").toList();
+      cells.add(json("cell_type", "code", "execution_count", null, "metadata", json(), "outputs", List.of(), "source", lines));
+    }
+    return JSONValue.toJSONString(json("cells", cells, "metadata", json(), "nbformat", 4, "nbformat_minor", 5));
+  }
+
+  private static Map<String, Object> json(Object... keysAndValues) {
+    Map<String, Object> json = new LinkedHashMap<>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      json.put((String) keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return json;
+  }
+
+  private static String packageName(int index) {
+    return "package_" + (index / MODULES_PER_PACKAGE);
+  }
+
+  private static String moduleName(int index) {
+    return "module_" + index;
+  }
+
+  private static String className(int index, int depth) {
+    return "Class" + index + "_" + depth;
+  }
+
+  private static String functionName(int index) {
+    return "function_" + index;
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.semantic.v2.ProjectLevelTypeTable;
+import org.sonar.python.semantic.v2.typeshed.TypeShedDescriptorsProvider;
+
+/**
+ * Lookups of the stub modules and types a fixture relies on. Cold lookups are run on a new provider or type table, and include
+ * the deserialization of the stubs. Warm lookups are run on a provider or type table which already resolved them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypeShedBenchmark {
+
+  @Param({"DJANGO", "CDK", "NUMERIC"})
+  public Fixture fixture;
+
+  private List<String> modules;
+  private List<String> types;
+  private TypeShedDescriptorsProvider warmProvider;
+  private ProjectLevelTypeTable warmTypeTable;
+
+  @Setup
+  public void setup() {
+    modules = switch (fixture) {
+      case DJANGO -> List.of("builtins", "datetime", "django.db.models", "django.http", "django.urls", "django.shortcuts", "django.views.generic");
+      case CDK -> List.of("builtins", "os", "aws_cdk", "aws_cdk.aws_s3", "aws_cdk.aws_dynamodb", "aws_cdk.aws_lambda", "aws_cdk.aws_apigateway");
+      case NUMERIC -> List.of("builtins", "math", "random", "statistics", "fractions", "collections", "typing", "numpy");
+    };
+    types = switch (fixture) {
+      case DJANGO -> List.of("datetime.timedelta", "django.db.models.Model", "django.db.models.CharField", "django.http.HttpResponseRedirect",
+        "django.http.JsonResponse", "django.urls.reverse");
+      case CDK -> List.of("os.getenv", "aws_cdk.App", "aws_cdk.Stack", "aws_cdk.aws_s3.Bucket", "aws_cdk.aws_dynamodb.Table",
+        "aws_cdk.aws_lambda.Function", "aws_cdk.aws_apigateway.LambdaRestApi");
+      case NUMERIC -> List.of("math.prod", "math.isclose", "random.Random", "statistics.fmean", "fractions.Fraction", "collections.Counter",
+        "typing.List", "numpy.asarray");
+    };
+    warmProvider = new TypeShedDescriptorsProvider(Set.of());
+    modules.forEach(warmProvider::descriptorsForModule);
+    warmTypeTable = new ProjectLevelTypeTable(ProjectLevelSymbolTable.empty());
+    types.forEach(warmTypeTable::getType);
+  }
+
+  @Benchmark
+  public void descriptorsForModuleCold(Blackhole blackhole) {
+    TypeShedDescriptorsProvider provider = new TypeShedDescriptorsProvider(Set.of());
+    modules.forEach(module -> blackhole.consume(provider.descriptorsForModule(module)));
+  }
+
+  @Benchmark
+  public void descriptorsForModuleWarm(Blackhole blackhole) {
+    modules.forEach(module -> blackhole.consume(warmProvider.descriptorsForModule(module)));
+  }
+
+  @Benchmark
+  public void getTypeCold(Blackhole blackhole) {
+    ProjectLevelTypeTable typeTable = new ProjectLevelTypeTable(ProjectLevelSymbolTable.empty());
+    types.forEach(type -> blackhole.consume(typeTable.getType(type)));
+  }
+
+  @Benchmark
+  public void getTypeWarm(Blackhole blackhole) {
+    types.forEach(type -> blackhole.consume(warmTypeTable.getType(type)));
+  }
+}
@@ -0,0 +1,41 @@
+import datetime
+
+user = {"name": "Ada", "roles": ["admin", "dev"], "score": 1234.5678}
+width = 12
+precision = 3
+now = datetime.datetime(2024, 1, 1, 12, 30)
+
+greeting = f"Hello {user['name']}!"
+aligned = f"{user['name']:>{width}}|{user['score']:<{width}.{precision}f}|"
+nested = f"{'roles: ' + ', '.join(f'<{r.upper()}>' for r in user['roles'])}"
+debug = f"{user=} {width=} {precision=!r}"
+conversions = f"{user['name']!r} {user['name']!s} {user['name']!a}"
+dates = f"{now:%Y-%m-%d %H:%M} {now.year:04d}-{now.month:02d}"
+expressions = f"{width * precision + 1} {[x ** 2 for x in range(5)]} {dict(a=1)['a']}"
+escaped = f"{{literal}} {{{width}}} \N{BULLET} {width}\t{precision}\n"
+multiline = f"""
+  name:  {user["name"]}
+  roles: {", ".join(user["roles"])}
+  score: {user["score"]:,.2f}
+  ratio: {user["score"] / (width or 1):.{precision}%}
+"""
+raw = rf"\d+{width}\s*{precision!r}"
+bytes_like = fr"{greeting}\\{aligned}"
+conditional = f"{'high' if user['score'] > 1000 else 'low'} score for {user['name'].title()}"
+lambda_call = f"{(lambda x: x * 2)(width)}"
+concatenated = (f"{greeting} "
+                f"{aligned} "
+                "plain "
+                f"{nested}")
+
+
+def report(rows):
+    lines = [f"{'Name':<10}{'Score':>10}"]
+    for index, row in enumerate(rows):
+        lines.append(f"{index:3d}. {row['name']:<10}{row['score']:>10.{precision}f} {'*' * int(row['score'] // 100)}")
+    lines.append(f"{'Total':<10}{sum(r['score'] for r in rows):>10.{precision}f}")
+    return "\n".join(lines)
+
+
+def describe(value):
+    return f"{type(value).__name__}({value!r}) at {id(value):#x} -> {f'{value:>{width}}' if isinstance(value, str) else value}"
@@ -0,0 +1,78 @@
+"""Inventory management helpers."""
+import logging
+import os.path
+from collections import defaultdict
+from dataclasses import dataclass, field
+from typing import Dict, Iterable, List, Optional
+
+LOG = logging.getLogger(__name__)
+DEFAULT_LOCATION = os.path.join("data", "inventory.csv")
+
+
+class InventoryError(Exception):
+    pass
+
+
+@dataclass
+class Item:
+    sku: str
+    name: str
+    quantity: int = 0
+    tags: List[str] = field(default_factory=list)
+
+    def is_available(self) -> bool:
+        return self.quantity > 0
+
+    def __str__(self):
+        return "%s (%d)" % (self.name, self.quantity)
+
+
+class Inventory:
+    def __init__(self, items: Optional[Iterable[Item]] = None):
+        self._items: Dict[str, Item] = {}
+        self._by_tag = defaultdict(set)
+        for item in items or []:
+            self.add(item)
+
+    def add(self, item: Item) -> None:
+        if item.sku in self._items:
+            raise InventoryError("Duplicate SKU: " + item.sku)
+        self._items[item.sku] = item
+        for tag in item.tags:
+            self._by_tag[tag].add(item.sku)
+
+    def remove(self, sku: str, quantity: int = 1) -> Item:
+        try:
+            item = self._items[sku]
+        except KeyError as e:
+            raise InventoryError(sku) from e
+        if quantity > item.quantity:
+            LOG.warning("Not enough items for %s", sku)
+            quantity = item.quantity
+        item.quantity -= quantity
+        return item
+
+    def tagged(self, *tags, match_all=False):
+        skus = [self._by_tag.get(tag, set()) for tag in tags]
+        if not skus:
+            return []
+        selected = set.intersection(*skus) if match_all else set.union(*skus)
+        return sorted((self._items[sku] for sku in selected), key=lambda i: i.name)
+
+    async def refresh(self, source):
+        async with source.connect() as connection:
+            async for row in connection.rows():
+                if (item := self._items.get(row["sku"])) is not None:
+                    item.quantity = int(row.get("quantity", 0))
+        return len(self._items)
+
+
+def load(path=DEFAULT_LOCATION):
+    with open(path, encoding="utf-8") as f:
+        rows = [line.rstrip("\n").split(",") for line in f if line.strip() and not line.startswith("#")]
+    return Inventory(Item(sku, name, int(qty)) for sku, name, qty, *_ in rows)
+
+
+if __name__ == "__main__":
+    inventory = load()
+    print({sku: item.quantity for sku, item in inventory._items.items() if item.is_available()})
@@ -0,0 +1,17 @@
+import os
+
+import aws_cdk as cdk
+
+from infra.api_stack import ApiStack
+from infra.storage_stack import StorageStack
+
+app = cdk.App()
+env = cdk.Environment(account=os.getenv("CDK_DEFAULT_ACCOUNT"), region=os.getenv("CDK_DEFAULT_REGION", "eu-west-1"))
+stage = app.node.try_get_context("stage") or "dev"
+
+storage = StorageStack(app, f"Storage-{stage}", env=env, stage=stage)
+api = ApiStack(app, f"Api-{stage}", env=env, bucket=storage.bucket, table=storage.table)
+api.add_dependency(storage)
+
+cdk.Tags.of(app).add("project", "inventory")
+app.synth()
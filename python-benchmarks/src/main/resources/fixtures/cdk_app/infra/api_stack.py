@@ -0,0 +1,42 @@
+from aws_cdk import Duration, Stack
+from aws_cdk import aws_apigateway as apigateway
+from aws_cdk import aws_iam as iam
+from aws_cdk import aws_lambda as lambda_
+from aws_cdk import aws_logs as logs
+from constructs import Construct
+
+
+class ApiStack(Stack):
+    def __init__(self, scope: Construct, construct_id: str, bucket, table, **kwargs) -> None:
+        super().__init__(scope, construct_id, **kwargs)
+        handler = lambda_.Function(
+            self, "Handler",
+            runtime=lambda_.Runtime.PYTHON_3_12,
+            handler="index.handler",
+            code=lambda_.Code.from_asset("lambda"),
+            timeout=Duration.seconds(10),
+            memory_size=256,
+            environment={"BUCKET": bucket.bucket_name, "TABLE": table.table_name},
+            log_retention=logs.RetentionDays.ONE_MONTH,
+        )
+        bucket.grant_read_write(handler)
+        table.grant_read_write_data(handler)
+        handler.add_to_role_policy(iam.PolicyStatement(
+            actions=["cloudwatch:PutMetricData"],
+            resources=["*"],
+        ))
+
+        api = apigateway.LambdaRestApi(self, "Api", handler=handler, proxy=False,
+                                       deploy_options=apigateway.StageOptions(logging_level=apigateway.MethodLoggingLevel.INFO))
+        items = api.root.add_resource("items")
+        items.add_method("GET")
+        items.add_method("POST", authorization_type=apigateway.AuthorizationType.IAM)
+        item = items.add_resource("{sku}")
+        for method in ("GET", "PUT", "DELETE"):
+            item.add_method(method, authorization_type=apigateway.AuthorizationType.IAM)
+
+    def grant_invoke(self, principal):
+        try:
+            return self.node.find_child("Api").grant_invoke(principal)
+        except RuntimeError:
+            return None
@@ -0,0 +1,38 @@
+from aws_cdk import Duration, RemovalPolicy, Stack
+from aws_cdk import aws_dynamodb as dynamodb
+from aws_cdk import aws_kms as kms
+from aws_cdk import aws_s3 as s3
+from constructs import Construct
+
+
+class StorageStack(Stack):
+    def __init__(self, scope: Construct, construct_id: str, stage: str, **kwargs) -> None:
+        super().__init__(scope, construct_id, **kwargs)
+        production = stage == "prod"
+        key = kms.Key(self, "DataKey", enable_key_rotation=True)
+
+        self.bucket = s3.Bucket(
+            self, "Uploads",
+            encryption=s3.BucketEncryption.KMS,
+            encryption_key=key,
+            block_public_access=s3.BlockPublicAccess.BLOCK_ALL,
+            enforce_ssl=True,
+            versioned=production,
+            removal_policy=RemovalPolicy.RETAIN if production else RemovalPolicy.DESTROY,
+            lifecycle_rules=[s3.LifecycleRule(expiration=Duration.days(365))],
+        )
+
+        self.table = dynamodb.Table(
+            self, "Items",
+            partition_key=dynamodb.Attribute(name="sku", type=dynamodb.AttributeType.STRING),
+            sort_key=dynamodb.Attribute(name="version", type=dynamodb.AttributeType.NUMBER),
+            billing_mode=dynamodb.BillingMode.PAY_PER_REQUEST,
+            encryption=dynamodb.TableEncryption.CUSTOMER_MANAGED,
+            encryption_key=key,
+            point_in_time_recovery=production,
+        )
+        for index_name in ("by_tag", "by_owner"):
+            self.table.add_global_secondary_index(
+                index_name=index_name,
+                partition_key=dynamodb.Attribute(name=index_name[3:], type=dynamodb.AttributeType.STRING),
+            )
@@ -0,0 +1,25 @@
+from django import forms
+from django.core.exceptions import ValidationError
+
+from .models import Question
+
+
+class QuestionForm(forms.ModelForm):
+    choices = forms.CharField(widget=forms.Textarea, required=False)
+
+    class Meta:
+        model = Question
+        fields = ["question_text", "pub_date"]
+
+    def clean_question_text(self):
+        text = self.cleaned_data["question_text"].strip()
+        if not text.endswith("?"):
+            raise ValidationError("A question must end with a question mark")
+        return text
+
+    def clean_choices(self):
+        lines = [line.strip() for line in self.cleaned_data.get("choices", "").splitlines()]
+        choices = [line for line in lines if line]
+        if len(choices) < 2:
+            raise ValidationError("At least two choices are required")
+        return choices
@@ -0,0 +1,69 @@
+import math
+from fractions import Fraction
+from typing import List, Sequence
+
+Matrix = List[List[float]]
+
+
+def identity(n: int) -> Matrix:
+    return [[1.0 if i == j else 0.0 for j in range(n)] for i in range(n)]
+
+
+def transpose(a: Matrix) -> Matrix:
+    return [list(row) for row in zip(*a)]
+
+
+def multiply(a: Matrix, b: Matrix) -> Matrix:
+    bt = transpose(b)
+    return [[sum(x * y for x, y in zip(row, col)) for col in bt] for row in a]
+
+
+def lu_decomposition(a: Matrix):
+    n = len(a)
+    lower = identity(n)
+    upper = [row[:] for row in a]
+    for k in range(n):
+        pivot = upper[k][k]
+        if abs(pivot) < 1e-12:
+            raise ZeroDivisionError("Singular matrix")
+        for i in range(k + 1, n):
+            factor = upper[i][k] / pivot
+            lower[i][k] = factor
+            for j in range(k, n):
+                upper[i][j] -= factor * upper[k][j]
+    return lower, upper
+
+
+def solve(a: Matrix, b: Sequence[float]) -> List[float]:
+    lower, upper = lu_decomposition(a)
+    n = len(b)
+    y = [0.0] * n
+    for i in range(n):
+        y[i] = b[i] - sum(lower[i][j] * y[j] for j in range(i))
+    x = [0.0] * n
+    for i in reversed(range(n)):
+        x[i] = (y[i] - sum(upper[i][j] * x[j] for j in range(i + 1, n))) / upper[i][i]
+    return x
+
+
+def determinant(a: Matrix) -> float:
+    try:
+        _, upper = lu_decomposition(a)
+    except ZeroDivisionError:
+        return 0.0
+    return math.prod(upper[i][i] for i in range(len(a)))
+
+
+def exact_inverse(a: Matrix):
+    n = len(a)
+    augmented = [[Fraction(v) for v in row] + [Fraction(int(i == j)) for j in range(n)] for i, row in enumerate(a)]
+    for col in range(n):
+        pivot_row = max(range(col, n), key=lambda r: abs(augmented[r][col]))
+        augmented[col], augmented[pivot_row] = augmented[pivot_row], augmented[col]
+        pivot = augmented[col][col]
+        augmented[col] = [v / pivot for v in augmented[col]]
+        for r in range(n):
+            if r != col:
+                factor = augmented[r][col]
+                augmented[r] = [v - factor * p for v, p in zip(augmented[r], augmented[col])]
+    return [row[n:] for row in augmented]
@@ -0,0 +1,49 @@
+import math
+import random
+import statistics
+from collections import Counter
+
+import numpy as np
+
+from .linalg import multiply, solve, transpose
+
+
+def moments(values):
+    n = len(values)
+    mean = sum(values) / n
+    variance = sum((v - mean) ** 2 for v in values) / (n - 1)
+    skewness = sum((v - mean) ** 3 for v in values) / (n * variance ** 1.5)
+    return mean, variance, skewness
+
+
+def least_squares(xs, ys, degree=2):
+    design = [[x ** p for p in range(degree + 1)] for x in xs]
+    dt = transpose(design)
+    normal = multiply(dt, design)
+    rhs = [sum(a * y for a, y in zip(row, ys)) for row in dt]
+    return solve(normal, rhs)
+
+
+def bootstrap(values, iterations=1000, seed=42):
+    rng = random.Random(seed)
+    means = []
+    for _ in range(iterations):
+        sample = [rng.choice(values) for _ in values]
+        means.append(statistics.fmean(sample))
+    means.sort()
+    return means[int(0.025 * iterations)], means[int(0.975 * iterations)]
+
+
+def histogram(values, bins=10):
+    low, high = min(values), max(values)
+    width = (high - low) / bins or 1.0
+    counts = Counter(min(int((v - low) / width), bins - 1) for v in values)
+    return [counts.get(i, 0) for i in range(bins)]
+
+
+def vectorized_zscores(values):
+    array = np.asarray(values, dtype=float)
+    std = array.std(ddof=1)
+    if math.isclose(std, 0.0):
+        return np.zeros_like(array)
+    return (array - array.mean()) / std
@@ -0,0 +1,126 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonarsource.analyzer.commons.internal.json.simple.JSONObject;
+import org.sonarsource.analyzer.commons.internal.json.simple.parser.ParseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrAnalysisGateTest {
+
+  @TempDir
+  Path workDir;
+
+  @Test
+  void options() {
+    assertThat(PrAnalysisGate.options(new String[0])).isEmpty();
+    assertThat(PrAnalysisGate.options(new String[] {"--baseline", "base.json", "--write", "out.json"}))
+      .containsExactly(Map.entry("--baseline", "base.json"), Map.entry("--write", "out.json"));
+
+    assertThatThrownBy(() -> PrAnalysisGate.options(new String[] {"--unknown", "file.json"}))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Expected arguments: [--baseline <file>] [--write <file>]");
+    assertThatThrownBy(() -> PrAnalysisGate.options(new String[] {"--write"}))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void no_regression() {
+    List<String> regressions = new ArrayList<>();
+    PrAnalysisGate.compare("SCENARIO", expected(), current(10, 10, 5, 10, 1, 0.1), 0.5, regressions);
+    PrAnalysisGate.compare("SCENARIO", expected(), current(10, 10, 6, 10, 0, 0.05), 0.5, regressions);
+    // The ratio may exceed the one of the baseline within the tolerance
+    PrAnalysisGate.compare("SCENARIO", expected(), current(10, 10, 5, 10, 1, 0.149), 0.5, regressions);
+    assertThat(regressions).isEmpty();
+  }
+
+  @Test
+  void fewer_skippable_files() {
+    List<String> regressions = new ArrayList<>();
+    PrAnalysisGate.compare("SCENARIO", expected(), current(10, 9, 4, 8, 1, 0.1), 0.5, regressions);
+    assertThat(regressions).containsExactly(
+      "SCENARIO: partiallySkippableFiles decreased from 10 to 9",
+      "SCENARIO: fullySkippableFiles decreased from 5 to 4",
+      "SCENARIO: filesScannedWithoutParsing decreased from 10 to 8");
+  }
+
+  @Test
+  void more_recomputed_files() {
+    List<String> regressions = new ArrayList<>();
+    PrAnalysisGate.compare("SCENARIO", expected(), current(10, 10, 5, 10, 2, 0.1), 0.5, regressions);
+    assertThat(regressions).containsExactly("SCENARIO: recomputedFiles increased from 1 to 2");
+  }
+
+  @Test
+  void slower_incremental_analysis() {
+    List<String> regressions = new ArrayList<>();
+    PrAnalysisGate.compare("SCENARIO", expected(), current(10, 10, 5, 10, 1, 0.151), 0.5, regressions);
+    PrAnalysisGate.compare("OTHER", expected(), current(10, 10, 5, 10, 1, 0.11), 0.0, regressions);
+    assertThat(regressions).containsExactly(
+      "SCENARIO: incrementalToFullRatio increased from 0.1 to 0.151",
+      "OTHER: incrementalToFullRatio increased from 0.1 to 0.11");
+  }
+
+  @Test
+  void median() {
+    long[] durationsNanos = {50, 10, 40, 20, 30};
+    assertThat(PrAnalysisGate.median(durationsNanos)).isEqualTo(30);
+    assertThat(durationsNanos).containsExactly(50, 10, 40, 20, 30);
+    assertThat(PrAnalysisGate.median(new long[] {7})).isEqualTo(7);
+  }
+
+  @Test
+  void median_duration_of_a_scenario() throws IOException {
+    PrAnalysis prAnalysis = new PrAnalysis(workDir, new SyntheticProject.Shape(5, 2, 2, 3, 0.0));
+    prAnalysis.analyzeBase();
+    assertThat(PrAnalysisGate.medianDurationNanos(prAnalysis, PrAnalysisScenario.CHANGE_IN_IMPLEMENTATION, PrAnalysis.Mode.INCREMENTAL))
+      .isPositive();
+  }
+
+  @Test
+  void default_baseline() throws IOException, ParseException {
+    JSONObject baseline = PrAnalysisGate.readBaseline(null);
+    SyntheticProject.Shape shape = PrAnalysisGate.shape((JSONObject) baseline.get("shape"));
+    assertThat(shape.modules()).isPositive();
+    JSONObject scenarios = (JSONObject) baseline.get("scenarios");
+    for (PrAnalysisScenario scenario : PrAnalysisScenario.values()) {
+      assertThat(scenarios).containsKey(scenario.name());
+    }
+  }
+
+  private static JSONObject expected() {
+    JSONObject expected = new JSONObject();
+    expected.putAll(current(10, 10, 5, 10, 1, 0.1));
+    return expected;
+  }
+
+  private static Map<String, Object> current(int files, int partiallySkippableFiles, int fullySkippableFiles, int filesScannedWithoutParsing,
+    int recomputedFiles, double incrementalToFullRatio) {
+    PrAnalysis.Result result = new PrAnalysis.Result(files, recomputedFiles, partiallySkippableFiles, fullySkippableFiles,
+      filesScannedWithoutParsing, 0);
+    return PrAnalysisGate.toJson(result, incrementalToFullRatio);
+  }
+}
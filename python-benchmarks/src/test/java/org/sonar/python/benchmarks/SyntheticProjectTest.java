@@ -0,0 +1,78 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticProjectTest {
+
+  private static final SyntheticProject.Shape SHAPE = new SyntheticProject.Shape(250, 4, 3, 10, 0.1);
+
+  @TempDir
+  Path baseDir;
+
+  @Test
+  void same_shape_generates_same_project() {
+    List<SyntheticProject.GeneratedFile> files = SyntheticProject.generate(SHAPE);
+    assertThat(SyntheticProject.generate(SHAPE)).isEqualTo(files);
+    assertThat(SyntheticProject.generate(new SyntheticProject.Shape(250, 4, 3, 11, 0.1))).isNotEqualTo(files);
+  }
+
+  @Test
+  void shape_of_the_project() {
+    List<SyntheticProject.GeneratedFile> files = SyntheticProject.generate(SHAPE);
+    // 3 packages of at most 100 modules
+    assertThat(files).hasSize(253);
+    assertThat(files).filteredOn(file -> file.relativePath().endsWith("/__init__.py"))
+      .extracting(SyntheticProject.GeneratedFile::relativePath)
+      .containsExactly("package_0/__init__.py", "package_1/__init__.py", "package_2/__init__.py");
+    assertThat(files).filteredOn(SyntheticProject.GeneratedFile::isNotebook).isNotEmpty().hasSizeLessThan(50);
+
+    SyntheticProject.GeneratedFile firstModule = files.get(1);
+    assertThat(firstModule.relativePath()).isEqualTo("package_0/module_0.py");
+    assertThat(firstModule.contents()).doesNotContain("from ").contains("class Class0_0(object):", "class Class0_2(Class0_1):",
+      "def function_0(value):");
+    assertThat(files).filteredOn(file -> file.relativePath().equals("package_2/module_249.py"))
+      .singleElement()
+      .satisfies(file -> assertThat(file.contents().lines().filter(line -> line.startsWith("from ")).count()).isBetween(1L, 4L));
+  }
+
+  @Test
+  void notebooks() {
+    List<SyntheticProject.GeneratedFile> files = SyntheticProject.generate(new SyntheticProject.Shape(10, 2, 1, 2, 1.0));
+    assertThat(files).filteredOn(SyntheticProject.GeneratedFile::isNotebook).hasSize(10)
+      .allSatisfy(file -> assertThat(file.contents()).startsWith("{\"cells\":[{\"cell_type\":\"code\"").contains("\"nbformat\":4"));
+    // Notebooks are never imported
+    assertThat(files).noneSatisfy(file -> assertThat(file.contents()).contains("from package_0"));
+  }
+
+  @Test
+  void write_to() throws IOException {
+    List<SyntheticProject.GeneratedFile> files = SyntheticProject.writeTo(new SyntheticProject.Shape(20, 2, 2, 3, 0.1), baseDir);
+    for (SyntheticProject.GeneratedFile file : files) {
+      assertThat(Files.readString(baseDir.resolve(file.relativePath()), StandardCharsets.UTF_8)).isEqualTo(file.contents());
+    }
+  }
+}
@@ -18,7 +18,11 @@ package org.sonar.python.checks;
 
 import com.sonar.sslr.api.AstNode;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 import javax.annotation.Nullable;
 import org.sonar.check.Rule;
@@ -48,8 +52,15 @@ public class CommentedCodeCheck extends PythonSubscriptionCheck {
   private static final String DEFAULT_EXCEPTION_PATTERN = "(fmt|py\\w+):.*";
   private static final Pattern DATABRICKS_MAGIC_COMMAND_PATTERN = Pattern.compile("^\\h*(MAGIC|COMMAND).*");
   private static final PythonParser parser = PythonParser.create();
+  // Identifiers which can be directly followed by another identifier in valid code
+  private static final Set<String> KEYWORDS = Set.of(
+    "and", "as", "assert", "async", "await", "break", "case", "class", "continue", "def", "del", "elif", "else", "except", "exec", "finally",
+    "for", "from", "global", "if", "import", "in", "is", "lambda", "match", "nonlocal", "not", "or", "pass", "print", "raise", "return",
+    "try", "type", "while", "with", "yield", "None", "True", "False");
 
   private Pattern exceptionPattern;
+  // Parsing results of the comments of the current file, which often repeat the same text
+  private final Map<String, Boolean> parsedAsCode = new HashMap<>();
 
   @RuleProperty(
     key = "exception",
@@ -61,6 +72,8 @@ public class CommentedCodeCheck extends PythonSubscriptionCheck {
   public void initialize(Context context) {
     exceptionPattern = Pattern.compile(exception);
 
+    context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, ctx -> parsedAsCode.clear());
+
     context.registerSyntaxNodeConsumer(Tree.Kind.TOKEN, ctx -> {
       Token token = (Token) ctx.syntaxNode();
       List<List<Trivia>> groupedTrivias = groupTrivias(token);
@@ -83,7 +96,7 @@ public class CommentedCodeCheck extends PythonSubscriptionCheck {
     return firstElement.isTripleQuoted() && parent.is(Tree.Kind.EXPRESSION_STMT);
   }
 
-  private static void visitMultilineComment(StringLiteral stringLiteral, SubscriptionContext ctx) {
+  private void visitMultilineComment(StringLiteral stringLiteral, SubscriptionContext ctx) {
     String text = Expressions.unescape(stringLiteral);
     text = text.trim();
     if (!isEmpty(text) && isTextParsedAsCode(text)) {
@@ -141,7 +154,14 @@ public class CommentedCodeCheck extends PythonSubscriptionCheck {
     return trivia.token().line() < 3 && ENCODING_PATTERN.matcher(text).matches();
   }
 
-  private static boolean isTextParsedAsCode(String text) {
+  boolean isTextParsedAsCode(String text) {
+    if (isObviouslyNotCode(text)) {
+      return false;
+    }
+    return parsedAsCode.computeIfAbsent(text, this::parseAsCode);
+  }
+
+  boolean parseAsCode(String text) {
     try {
       AstNode astNode = parser.parse(text);
       FileInput parse = new PythonTreeMaker().fileInput(astNode);
@@ -151,6 +171,88 @@ public class CommentedCodeCheck extends PythonSubscriptionCheck {
     }
   }
 
+  /**
+   * Cheap detection of prose, which would fail to parse anyway:
+   * <ul>
+   *   <li>two identifiers separated only by spaces on the same line, none of them being a keyword,
+   *   outside of string literals and comments (e.g. "the value" in "This is the value")</li>
+   *   <li>an unterminated string literal (e.g. "don't")</li>
+   * </ul>
+   */
+  static boolean isObviouslyNotCode(String text) {
+    String previousWord = null;
+    int i = 0;
+    while (i < text.length()) {
+      char c = text.charAt(i);
+      if (Character.isLetter(c) || c == '_') {
+        int start = i;
+        while (i < text.length() && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_')) {
+          i++;
+        }
+        String word = text.substring(start, i);
+        if (previousWord != null && !KEYWORDS.contains(previousWord) && !KEYWORDS.contains(word)) {
+          return true;
+        }
+        previousWord = word;
+      } else if (c == '"' || c == '\'') {
+        if (previousWord != null && i > 0 && text.charAt(i - 1) != ' ' && previousWord.toLowerCase(Locale.ROOT).contains("f")) {
+          // f-strings can contain nested string literals using the same quotes: bail out
+          return false;
+        }
+        i = endOfStringLiteral(text, i);
+        if (i < 0) {
+          return true;
+        }
+        previousWord = null;
+      } else if (c == '#') {
+        i = text.indexOf('\n', i);
+        if (i < 0) {
+          return false;
+        }
+      } else {
+        if (c != ' ' && c != '\t') {
+          previousWord = null;
+          if (Character.isDigit(c)) {
+            i = skipNumber(text, i);
+            continue;
+          }
+        }
+        i++;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the index following the end of the string literal starting at the given index, or -1 if it is not terminated
+   */
+  private static int endOfStringLiteral(String text, int start) {
+    char quote = text.charAt(start);
+    boolean tripleQuoted = text.startsWith(String.valueOf(quote).repeat(3), start);
+    int i = start + (tripleQuoted ? 3 : 1);
+    while (i < text.length()) {
+      char c = text.charAt(i);
+      if (c == '\\') {
+        i += 2;
+      } else if (c == quote && (!tripleQuoted || text.startsWith(String.valueOf(quote).repeat(3), i))) {
+        return i + (tripleQuoted ? 3 : 1);
+      } else if (c == '\n' && !tripleQuoted) {
+        return -1;
+      } else {
+        i++;
+      }
+    }
+    return -1;
+  }
+
+  private static int skipNumber(String text, int start) {
+    int i = start;
+    while (i < text.length() && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_' || text.charAt(i) == '.')) {
+      i++;
+    }
+    return i;
+  }
+
   private static boolean isSimpleExpression(FileInput fileInput) {
     if (fileInput.statements().statements().size() > 1) {
       return false;
@@ -19,6 +19,8 @@ package org.sonar.python.checks;
 import org.junit.jupiter.api.Test;
 import org.sonar.python.checks.utils.PythonCheckVerifier;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 class CommentedCodeCheckTest {
 
   private final CommentedCodeCheck check = new CommentedCodeCheck();
@@ -39,4 +41,51 @@ class CommentedCodeCheckTest {
     PythonCheckVerifier.verify("src/test/resources/checks/commentedCodeEncoding.py", check);
   }
 
+  @Test
+  void obviously_not_code() {
+    assertThat(CommentedCodeCheck.isObviouslyNotCode("This is the value\n")).isTrue();
+    assertThat(CommentedCodeCheck.isObviouslyNotCode("don't do that\n")).isTrue();
+    assertThat(CommentedCodeCheck.isObviouslyNotCode("x = 'unterminated\n")).isTrue();
+
+    assertThat(CommentedCodeCheck.isObviouslyNotCode("if x is not None and y in z:\n  print foo\n")).isFalse();
+    assertThat(CommentedCodeCheck.isObviouslyNotCode("x = 'some words' # other words\n")).isFalse();
+    assertThat(CommentedCodeCheck.isObviouslyNotCode("x = '''some\nwords'''\ny = 'a\\'b'\n")).isFalse();
+    assertThat(CommentedCodeCheck.isObviouslyNotCode("foo(a,\n  b)\n")).isFalse();
+    assertThat(CommentedCodeCheck.isObviouslyNotCode("x = f\"{f\"nested words\"}\"\n")).isFalse();
+    assertThat(CommentedCodeCheck.isObviouslyNotCode("x = 1e5 if a else 0x1F\n")).isFalse();
+  }
+
+  @Test
+  void parsing_results_are_cached() {
+    ParseCountingCheck countingCheck = new ParseCountingCheck();
+    assertThat(countingCheck.isTextParsedAsCode("x = 42\n")).isTrue();
+    assertThat(countingCheck.isTextParsedAsCode("x = 42\n")).isTrue();
+    assertThat(countingCheck.isTextParsedAsCode("foo(42)\n")).isFalse();
+    assertThat(countingCheck.isTextParsedAsCode("foo(42)\n")).isFalse();
+    assertThat(countingCheck.parsedTexts).isEqualTo(2);
+    // Prose is not parsed at all
+    assertThat(countingCheck.isTextParsedAsCode("This is the value\n")).isFalse();
+    assertThat(countingCheck.parsedTexts).isEqualTo(2);
+  }
+
+  @Test
+  void parsing_results_are_cached_per_file() {
+    ParseCountingCheck countingCheck = new ParseCountingCheck();
+    PythonCheckVerifier.verify("src/test/resources/checks/commentedCode.py", countingCheck);
+    int parsedTextsOfFile = countingCheck.parsedTexts;
+    assertThat(parsedTextsOfFile).isPositive();
+    PythonCheckVerifier.verify("src/test/resources/checks/commentedCode.py", countingCheck);
+    assertThat(countingCheck.parsedTexts).isEqualTo(2 * parsedTextsOfFile);
+  }
+
+  private static class ParseCountingCheck extends CommentedCodeCheck {
+    private int parsedTexts = 0;
+
+    @Override
+    boolean parseAsCode(String text) {
+      parsedTexts++;
+      return super.parseAsCode(text);
+    }
+  }
+
 }
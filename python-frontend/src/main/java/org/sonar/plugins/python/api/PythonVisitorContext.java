@@ -26,10 +26,14 @@ import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
 import org.sonar.plugins.python.api.caching.CacheContext;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.python.types.v2.TypeChecker;
+import org.sonar.python.PhaseTimer;
+import org.sonar.python.VisitorContextOptions;
 import org.sonar.python.caching.CacheContextImpl;
 import org.sonar.python.semantic.ProjectLevelSymbolTable;
 import org.sonar.python.semantic.SymbolTableBuilder;
 import org.sonar.python.semantic.v2.ProjectLevelTypeTable;
+import org.sonar.python.semantic.v2.ScopeTypeInferenceCache;
+import org.sonar.python.semantic.v2.SymbolTable;
 import org.sonar.python.semantic.v2.SymbolTableBuilderV2;
 import org.sonar.python.semantic.v2.TypeInferenceV2;
 
@@ -39,6 +43,7 @@ public class PythonVisitorContext extends PythonInputFileContext {
   private final RecognitionException parsingException;
   private List<PreciseIssue> issues = new ArrayList<>();
   private final TypeChecker typeChecker;
+  private int typeInferenceFallbackScopes = 0;
 
   public PythonVisitorContext(FileInput rootTree, PythonFile pythonFile, @Nullable File workingDirectory, String packageName) {
     super(pythonFile, workingDirectory, CacheContextImpl.dummyCache(), ProjectLevelSymbolTable.empty());
@@ -68,14 +73,39 @@ public class PythonVisitorContext extends PythonInputFileContext {
 
   public PythonVisitorContext(FileInput rootTree, PythonFile pythonFile, @Nullable File workingDirectory, String packageName,
     ProjectLevelSymbolTable projectLevelSymbolTable, CacheContext cacheContext, SonarProduct sonarProduct) {
+    this(rootTree, pythonFile, workingDirectory, packageName, projectLevelSymbolTable, cacheContext, sonarProduct, VisitorContextOptions.DEFAULT);
+  }
+
+  /**
+   * See {@link VisitorContextOptions} for the internal options of the semantic analysis.
+   */
+  public PythonVisitorContext(FileInput rootTree, PythonFile pythonFile, @Nullable File workingDirectory, String packageName,
+    ProjectLevelSymbolTable projectLevelSymbolTable, CacheContext cacheContext, SonarProduct sonarProduct, VisitorContextOptions options) {
     super(pythonFile, workingDirectory, cacheContext, sonarProduct, projectLevelSymbolTable);
     this.rootTree = rootTree;
     this.parsingException = null;
-    new SymbolTableBuilder(packageName, pythonFile, projectLevelSymbolTable).visitFileInput(rootTree);
-    var symbolTable = new SymbolTableBuilderV2(rootTree)
-      .build();
-    var projectLevelTypeTable = new ProjectLevelTypeTable(projectLevelSymbolTable);
-    new TypeInferenceV2(projectLevelTypeTable, pythonFile, symbolTable, packageName).inferTypes(rootTree);
+    PhaseTimer phaseTimer = options.phaseTimer();
+    ScopeTypeInferenceCache scopeTypeInferenceCache = options.scopeTypeInferenceCache();
+    try (PhaseTimer.Phase phase = phaseTimer.start("SymbolTableBuilder")) {
+      new SymbolTableBuilder(packageName, pythonFile, projectLevelSymbolTable).visitFileInput(rootTree);
+    }
+    SymbolTable symbolTable;
+    try (PhaseTimer.Phase phase = phaseTimer.start("SymbolTableBuilderV2")) {
+      symbolTable = new SymbolTableBuilderV2(rootTree)
+        .build();
+    }
+    ProjectLevelTypeTable projectLevelTypeTable;
+    TypeInferenceV2 typeInference;
+    try (PhaseTimer.Phase phase = phaseTimer.start("TypeInferenceV2")) {
+      projectLevelTypeTable = scopeTypeInferenceCache != null ? scopeTypeInferenceCache.typeTable() : new ProjectLevelTypeTable(projectLevelSymbolTable);
+      typeInference = new TypeInferenceV2(projectLevelTypeTable, pythonFile, symbolTable, packageName, scopeTypeInferenceCache);
+      if (options.dataFlowTypeInference()) {
+        typeInference.inferTypes(rootTree);
+      } else {
+        typeInference.inferTrivialTypes(rootTree);
+      }
+    }
+    this.typeInferenceFallbackScopes = typeInference.fallbackScopes();
     this.typeChecker = new TypeChecker(projectLevelTypeTable);
   }
 
@@ -101,6 +131,13 @@ public class PythonVisitorContext extends PythonInputFileContext {
     return typeChecker;
   }
 
+  /**
+   * See {@link TypeInferenceV2#fallbackScopes()}.
+   */
+  public int typeInferenceFallbackScopes() {
+    return typeInferenceFallbackScopes;
+  }
+
   public RecognitionException parsingException() {
     return parsingException;
   }
@@ -36,6 +36,20 @@ public interface Tree {
 
   List<Tree> children();
 
+  /**
+   * @return the number of children, same as {@code children().size()} without requiring the list of children to be built
+   */
+  default int childCount() {
+    return children().size();
+  }
+
+  /**
+   * @return the child at the given index, same as {@code children().get(index)} without requiring the list of children to be built
+   */
+  default Tree child(int index) {
+    return children().get(index);
+  }
+
   enum Kind {
     ALIASED_NAME(AliasedName.class),
 
@@ -0,0 +1,178 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.Buffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Estimation of the heap retained by a graph of objects, used to find which long-lived stores use the most memory.
+ * <p>
+ * The estimation assumes a 64-bit JVM with compressed references. Objects of the analyzer are measured field by field, while JDK
+ * collections, strings and buffers are measured from their size rather than from their internal layout. Objects shared by
+ * several stores are counted in each of them, and enum constants and classes are not counted at all.
+ */
+public class HeapSizeEstimator {
+
+  private static final int OBJECT_HEADER = 12;
+  private static final int ARRAY_HEADER = 16;
+  private static final int REFERENCE = 4;
+  private static final int ALIGNMENT = 8;
+  // Approximations of the layouts of HashMap/HashSet and ArrayList
+  private static final int HASH_COLLECTION = 48;
+  private static final int HASH_ENTRY = 40;
+  private static final int LIST = 40;
+  private static final int LIST_ELEMENT = 6;
+
+  private final List<Class<?>> excludedClasses;
+  private final Map<Class<?>, Layout> layouts = new HashMap<>();
+
+  /**
+   * @param excludedClasses classes whose instances are not part of the measured graphs, typically because they are measured separately
+   */
+  public HeapSizeEstimator(Class<?>... excludedClasses) {
+    this.excludedClasses = List.of(excludedClasses);
+  }
+
+  public long estimate(@Nullable Object root) {
+    Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<Object> pending = new ArrayDeque<>();
+    Referrer referrer = reference -> {
+      if (reference != null && !isExcluded(reference) && visited.add(reference)) {
+        pending.push(reference);
+      }
+    };
+    referrer.refer(root);
+    long size = 0;
+    while (!pending.isEmpty()) {
+      size += shallowSize(pending.pop(), referrer);
+    }
+    return size;
+  }
+
+  private boolean isExcluded(Object object) {
+    return object instanceof Class || object instanceof Enum || excludedClasses.stream().anyMatch(c -> c.isInstance(object));
+  }
+
+  private long shallowSize(Object object, Referrer referrer) {
+    Class<?> objectClass = object.getClass();
+    if (objectClass.isArray()) {
+      return arraySize(object, referrer);
+    }
+    if (object instanceof String string) {
+      return align(OBJECT_HEADER + 12L) + align(ARRAY_HEADER + (long) string.length());
+    }
+    if (object instanceof Map<?, ?> map) {
+      map.forEach((key, value) -> {
+        referrer.refer(key);
+        referrer.refer(value);
+      });
+      return HASH_COLLECTION + (long) HASH_ENTRY * map.size();
+    }
+    if (object instanceof Collection<?> collection) {
+      collection.forEach(referrer::refer);
+      return collection instanceof Set ? (HASH_COLLECTION + (long) HASH_ENTRY * collection.size()) : (LIST + (long) LIST_ELEMENT * collection.size());
+    }
+    if (object instanceof Buffer buffer) {
+      // Includes the off-heap memory of direct buffers
+      return HASH_COLLECTION + (long) buffer.capacity();
+    }
+    if (objectClass.getModule().isNamed()) {
+      // Other JDK objects, whose internals are not accessible
+      return align(OBJECT_HEADER + (long) REFERENCE);
+    }
+    Layout layout = layouts.computeIfAbsent(objectClass, Layout::of);
+    for (Field field : layout.references) {
+      try {
+        referrer.refer(field.get(object));
+      } catch (IllegalAccessException e) {
+        // Not followed: the size of the field itself is counted in the layout
+      }
+    }
+    return layout.size;
+  }
+
+  private static long arraySize(Object array, Referrer referrer) {
+    Class<?> componentType = array.getClass().getComponentType();
+    int length = Array.getLength(array);
+    if (componentType.isPrimitive()) {
+      return align(ARRAY_HEADER + (long) length * primitiveSize(componentType));
+    }
+    for (Object element : (Object[]) array) {
+      referrer.refer(element);
+    }
+    return align(ARRAY_HEADER + (long) length * REFERENCE);
+  }
+
+  private static int primitiveSize(Class<?> type) {
+    if (type == long.class || type == double.class) {
+      return 8;
+    }
+    if (type == int.class || type == float.class) {
+      return 4;
+    }
+    if (type == short.class || type == char.class) {
+      return 2;
+    }
+    return 1;
+  }
+
+  private static long align(long size) {
+    return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+  }
+
+  @FunctionalInterface
+  private interface Referrer {
+    void refer(@Nullable Object reference);
+  }
+
+  private record Layout(long size, List<Field> references) {
+    static Layout of(Class<?> objectClass) {
+      long size = OBJECT_HEADER;
+      List<Field> references = new ArrayList<>();
+      for (Class<?> c = objectClass; c != null; c = c.getSuperclass()) {
+        for (Field field : c.getDeclaredFields()) {
+          if (Modifier.isStatic(field.getModifiers())) {
+            continue;
+          }
+          if (field.getType().isPrimitive()) {
+            size += primitiveSize(field.getType());
+          } else {
+            size += REFERENCE;
+            if (field.trySetAccessible()) {
+              references.add(field);
+            }
+          }
+        }
+      }
+      return new Layout(align(size), references);
+    }
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python;
+
+/**
+ * Internal hook measuring the phases of the analysis of a file which are performed by the frontend, such as the computation of the
+ * symbol tables and the type inference. Not meant to be used by custom rules.
+ */
+public interface PhaseTimer {
+
+  PhaseTimer NONE = name -> () -> {
+  };
+
+  Phase start(String name);
+
+  interface Phase extends AutoCloseable {
+    /**
+     * Stops the measure of the phase, also when it failed.
+     */
+    @Override
+    void close();
+  }
+}
@@ -48,6 +48,7 @@ import org.sonar.plugins.python.api.tree.Tree.Kind;
 import org.sonar.python.regex.PythonAnalyzerRegexSource;
 import org.sonar.python.regex.PythonRegexIssueLocation;
 import org.sonar.python.regex.RegexContext;
+import org.sonar.python.tree.FileInputImpl;
 import org.sonar.python.types.v2.TypeChecker;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.RegexParser;
@@ -60,18 +61,42 @@ public class SubscriptionVisitor {
   private final PythonVisitorContext pythonVisitorContext;
   private Tree currentElement;
   private final HashMap<String, RegexParseResult> regexCache = new HashMap<>();
+  @Nullable
+  private final ExecutionRecorder executionRecorder;
+
+  /**
+   * Receives the time spent in each execution of a check, when the cost of the rules is profiled.
+   */
+  public interface ExecutionRecorder {
+    void record(PythonCheck check, long durationNanos);
+  }
 
   public static void analyze(Collection<PythonSubscriptionCheck> checks, PythonVisitorContext pythonVisitorContext) {
-    SubscriptionVisitor subscriptionVisitor = new SubscriptionVisitor(checks, pythonVisitorContext);
+    analyze(checks, pythonVisitorContext, null);
+  }
+
+  public static void analyze(Collection<PythonSubscriptionCheck> checks, PythonVisitorContext pythonVisitorContext,
+    @Nullable ExecutionRecorder executionRecorder) {
+    SubscriptionVisitor subscriptionVisitor = new SubscriptionVisitor(checks, pythonVisitorContext, executionRecorder);
     FileInput rootTree = pythonVisitorContext.rootTree();
     if (rootTree != null) {
       subscriptionVisitor.scan(rootTree);
-      checks.forEach(PythonSubscriptionCheck::leaveFile);
+      if (executionRecorder == null) {
+        checks.forEach(PythonSubscriptionCheck::leaveFile);
+      } else {
+        for (PythonSubscriptionCheck check : checks) {
+          long start = System.nanoTime();
+          check.leaveFile();
+          executionRecorder.record(check, System.nanoTime() - start);
+        }
+      }
     }
   }
 
-  private SubscriptionVisitor(Collection<PythonSubscriptionCheck> checks, PythonVisitorContext pythonVisitorContext) {
+  private SubscriptionVisitor(Collection<PythonSubscriptionCheck> checks, PythonVisitorContext pythonVisitorContext,
+    @Nullable ExecutionRecorder executionRecorder) {
     this.pythonVisitorContext = pythonVisitorContext;
+    this.executionRecorder = executionRecorder;
     for (PythonSubscriptionCheck check : checks) {
       check.initialize((elementType, consumer) -> {
         List<SubscriptionContextImpl> elementConsumers = consumers.computeIfAbsent(elementType, c -> new ArrayList<>());
@@ -81,14 +106,23 @@ public class SubscriptionVisitor {
   }
 
   private void scan(Tree element) {
+    if (element instanceof FileInputImpl fileInput) {
+      // Only the nodes of subscribed kinds are visited, in the same order as the tree traversal below
+      fileInput.kindIndex().forEach(consumers.keySet(), node -> {
+        currentElement = node;
+        consumers.get(node.getKind()).forEach(SubscriptionContextImpl::execute);
+      });
+      return;
+    }
     Deque<Tree> stack = new ArrayDeque<>();
     stack.push(element);
     while (!stack.isEmpty()) {
       currentElement = stack.pop();
       consumers.getOrDefault(currentElement.getKind(), Collections.emptyList()).forEach(SubscriptionContextImpl::execute);
-      for (int i = currentElement.children().size() - 1; i >= 0; i--) {
-        if (currentElement.children().get(i) != null) {
-          stack.push(currentElement.children().get(i));
+      for (int i = currentElement.childCount() - 1; i >= 0; i--) {
+        Tree child = currentElement.child(i);
+        if (child != null) {
+          stack.push(child);
         }
       }
     }
@@ -104,7 +138,13 @@ public class SubscriptionVisitor {
     }
 
     public void execute() {
+      if (executionRecorder == null) {
+        consumer.accept(this);
+        return;
+      }
+      long start = System.nanoTime();
       consumer.accept(this);
+      executionRecorder.record(check, System.nanoTime() - start);
     }
 
     @Override
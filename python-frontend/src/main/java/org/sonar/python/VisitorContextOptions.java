@@ -0,0 +1,52 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python;
+
+import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.python.semantic.v2.ScopeTypeInferenceCache;
+import org.sonar.python.semantic.v2.TypeInferenceV2;
+
+/**
+ * Internal options of the semantic analysis performed when creating a {@link PythonVisitorContext}, set by the analyzer itself.
+ * Not meant to be used by custom rules.
+ *
+ * @param scopeTypeInferenceCache when provided, the type inference results of functions that are unchanged since the previous
+ *                                analysis of the same file are reused
+ * @param dataFlowTypeInference when false, only the types which do not require data flow analysis are inferred
+ *                              (see {@link TypeInferenceV2#inferTrivialTypes(FileInput)}). This is meant for files too large to be
+ *                              fully analyzed.
+ * @param phaseTimer measures the computation of the symbol tables and the type inference
+ */
+public record VisitorContextOptions(@Nullable ScopeTypeInferenceCache scopeTypeInferenceCache, boolean dataFlowTypeInference,
+  PhaseTimer phaseTimer) {
+
+  public static final VisitorContextOptions DEFAULT = new VisitorContextOptions(null, true, PhaseTimer.NONE);
+
+  public VisitorContextOptions withScopeTypeInferenceCache(@Nullable ScopeTypeInferenceCache scopeTypeInferenceCache) {
+    return new VisitorContextOptions(scopeTypeInferenceCache, dataFlowTypeInference, phaseTimer);
+  }
+
+  public VisitorContextOptions withDataFlowTypeInference(boolean dataFlowTypeInference) {
+    return new VisitorContextOptions(scopeTypeInferenceCache, dataFlowTypeInference, phaseTimer);
+  }
+
+  public VisitorContextOptions withPhaseTimer(PhaseTimer phaseTimer) {
+    return new VisitorContextOptions(scopeTypeInferenceCache, dataFlowTypeInference, phaseTimer);
+  }
+}
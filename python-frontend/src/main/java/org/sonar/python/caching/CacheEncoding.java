@@ -0,0 +1,128 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.caching;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encoding of the payloads stored in the analysis cache.
+ * <p>
+ * Payloads of at least {@link #MIN_COMPRESSED_SIZE} bytes are compressed with Deflate, using a preset dictionary made of the
+ * names that are found in most descriptors and CPD string tables. Encoded payloads start with a header made of a marker, a
+ * version and a codec byte. Smaller payloads, and payloads written before this encoding existed, have no header and are
+ * returned as-is by {@link #decode(byte[])}.
+ */
+public class CacheEncoding {
+
+  static final byte[] MARKER = {0, 'P'};
+  static final byte VERSION = 1;
+  static final byte STORED = 0;
+  static final byte DEFLATE = 1;
+  static final int HEADER_SIZE = MARKER.length + 2;
+  static final int MIN_COMPRESSED_SIZE = 64;
+
+  // Strings used the most often come last, as they are then cheaper to refer to
+  private static final byte[] DICTIONARY = String.join(" ",
+    "lambda", "yield", "async", "await", "while", "with", "except", "finally", "raise", "assert", "global", "nonlocal", "elif",
+    "typing.Optional", "typing.Union", "typing.Any", "typing.Callable", "typing.List", "typing.Dict", "typing.Tuple", "typing.",
+    "collections.", "abc.ABC", "os.path", "__main__", "__name__", "__call__", "__init__.py", "__init__", "__future__",
+    "builtins.object", "builtins.tuple", "builtins.set", "builtins.dict", "builtins.list", "builtins.bytes", "builtins.float",
+    "builtins.bool", "builtins.int", "builtins.str", "builtins.", "NoneType", "None", "True", "False", "kwargs", "args", "cls",
+    "return", "import", "from", "class", "def", "pass", "else", "for", "not", "and", "self.", "self", ".py").getBytes(StandardCharsets.UTF_8);
+
+  private CacheEncoding() {
+  }
+
+  public static byte[] encode(byte[] data) {
+    if (data.length < MIN_COMPRESSED_SIZE) {
+      // A small payload that could be mistaken for an encoded one is stored with a header
+      return hasHeader(data) ? withHeader(STORED, data, data.length) : data;
+    }
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setDictionary(DICTIONARY);
+      deflater.setInput(data);
+      deflater.finish();
+      byte[] buffer = new byte[data.length];
+      int compressedLength = 0;
+      while (!deflater.finished() && compressedLength < buffer.length) {
+        compressedLength += deflater.deflate(buffer, compressedLength, buffer.length - compressedLength);
+      }
+      if (!deflater.finished()) {
+        // Compression does not pay off
+        return withHeader(STORED, data, data.length);
+      }
+      return withHeader(DEFLATE, buffer, compressedLength);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  public static byte[] decode(byte[] payload) {
+    if (!hasHeader(payload)) {
+      return payload;
+    }
+    byte codec = payload[MARKER.length + 1];
+    if (codec == STORED) {
+      return Arrays.copyOfRange(payload, HEADER_SIZE, payload.length);
+    }
+    if (codec != DEFLATE) {
+      throw new IllegalStateException("Unknown cache payload codec: " + codec);
+    }
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(payload, HEADER_SIZE, payload.length - HEADER_SIZE);
+      ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length * 4);
+      byte[] buffer = new byte[8192];
+      while (!inflater.finished()) {
+        int length = inflater.inflate(buffer);
+        if (length == 0 && inflater.needsDictionary()) {
+          inflater.setDictionary(DICTIONARY);
+        } else if (length == 0 && inflater.needsInput()) {
+          throw new IllegalStateException("Truncated cache payload");
+        }
+        out.write(buffer, 0, length);
+      }
+      return out.toByteArray();
+    } catch (DataFormatException e) {
+      throw new IllegalStateException("Invalid cache payload", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static boolean hasHeader(byte[] data) {
+    return data.length >= HEADER_SIZE
+      && data[0] == MARKER[0]
+      && data[1] == MARKER[1]
+      && data[MARKER.length] == VERSION;
+  }
+
+  private static byte[] withHeader(byte codec, byte[] data, int length) {
+    byte[] result = new byte[HEADER_SIZE + length];
+    System.arraycopy(MARKER, 0, result, 0, MARKER.length);
+    result[MARKER.length] = VERSION;
+    result[MARKER.length + 1] = codec;
+    System.arraycopy(data, 0, result, HEADER_SIZE, length);
+    return result;
+  }
+}
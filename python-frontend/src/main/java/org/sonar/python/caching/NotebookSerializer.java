@@ -0,0 +1,88 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.caching;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.sonar.python.EscapeCharPositionInfo;
+import org.sonar.python.IPythonLocation;
+
+/**
+ * Serialization of the Python code generated from a notebook, along with the map from the lines of the generated code to their
+ * location in the notebook, so that unchanged notebooks do not have to be converted again.
+ */
+public class NotebookSerializer {
+
+  private NotebookSerializer() {
+    // Prevent instantiation
+  }
+
+  public record NotebookData(String contentHash, String pythonContent, Map<Integer, IPythonLocation> locationMap) {
+  }
+
+  public static byte[] serialize(NotebookData notebookData) throws IOException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    try (VarLengthOutputStream out = new VarLengthOutputStream(stream)) {
+      out.writeUTF(notebookData.contentHash());
+      out.writeUTF(notebookData.pythonContent());
+      out.writeInt(notebookData.locationMap().size());
+      for (Map.Entry<Integer, IPythonLocation> entry : notebookData.locationMap().entrySet()) {
+        IPythonLocation location = entry.getValue();
+        out.writeInt(entry.getKey());
+        out.writeInt(location.line());
+        out.writeInt(location.column());
+        out.writeInt(location.isCompresssed() ? 1 : 0);
+        out.writeInt(location.colOffsets().size());
+        for (EscapeCharPositionInfo colOffset : location.colOffsets()) {
+          out.writeInt(colOffset.columnInIpynbFile());
+          out.writeInt(colOffset.numberOfExtraChars());
+        }
+      }
+      out.writeUTF("END");
+    }
+    return stream.toByteArray();
+  }
+
+  public static NotebookData deserialize(byte[] bytes) throws IOException {
+    try (VarLengthInputStream in = new VarLengthInputStream(bytes)) {
+      String contentHash = in.readUTF();
+      String pythonContent = in.readUTF();
+      int locationsCount = in.readInt();
+      Map<Integer, IPythonLocation> locationMap = new LinkedHashMap<>();
+      for (int i = 0; i < locationsCount; i++) {
+        int generatedLine = in.readInt();
+        int line = in.readInt();
+        int column = in.readInt();
+        boolean isCompressed = in.readInt() == 1;
+        int colOffsetsCount = in.readInt();
+        List<EscapeCharPositionInfo> colOffsets = new ArrayList<>(colOffsetsCount);
+        for (int j = 0; j < colOffsetsCount; j++) {
+          colOffsets.add(new EscapeCharPositionInfo(in.readInt(), in.readInt()));
+        }
+        locationMap.put(generatedLine, new IPythonLocation(line, column, colOffsets, isCompressed));
+      }
+      if (!"END".equals(in.readUTF())) {
+        throw new IOException("Can't read data from cache, format corrupted");
+      }
+      return new NotebookData(contentHash, pythonContent, locationMap);
+    }
+  }
+}
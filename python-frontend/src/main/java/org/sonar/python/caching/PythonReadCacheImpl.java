@@ -16,13 +16,16 @@
  */
 package org.sonar.python.caching;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import javax.annotation.CheckForNull;
 import org.sonar.api.batch.sensor.cache.ReadCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.plugins.python.api.caching.PythonReadCache;
+import org.sonar.python.jfr.CacheReadEvent;
 
 public class PythonReadCacheImpl implements PythonReadCache {
   private static final Logger LOG = LoggerFactory.getLogger(PythonReadCacheImpl.class);
@@ -35,7 +38,21 @@ public class PythonReadCacheImpl implements PythonReadCache {
 
   @Override
   public InputStream read(String key) {
-    return readCache.read(key);
+    CacheReadEvent event = new CacheReadEvent();
+    event.begin();
+    try (var in = readCache.read(key)) {
+      byte[] data = CacheEncoding.decode(in.readAllBytes());
+      event.end();
+      if (event.shouldCommit()) {
+        event.key = key;
+        event.hit = true;
+        event.bytes = data.length;
+        event.commit();
+      }
+      return new ByteArrayInputStream(data);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
   @CheckForNull
@@ -44,11 +61,16 @@ public class PythonReadCacheImpl implements PythonReadCache {
     if (readCache.contains(key)) {
       try (var in = read(key)) {
         return in.readAllBytes();
-      } catch (IOException e) {
+      } catch (IOException | UncheckedIOException | IllegalStateException e) {
         LOG.debug("Unable to read data for key: \"{}\"", key);
       }
     } else {
       LOG.trace("Cache miss for key '{}'", key);
+      CacheReadEvent event = new CacheReadEvent();
+      if (event.shouldCommit()) {
+        event.key = key;
+        event.commit();
+      }
     }
     return null;
   }
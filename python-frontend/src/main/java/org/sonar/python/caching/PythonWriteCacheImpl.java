@@ -18,6 +18,7 @@ package org.sonar.python.caching;
 
 import org.sonar.api.batch.sensor.cache.WriteCache;
 import org.sonar.plugins.python.api.caching.PythonWriteCache;
+import org.sonar.python.jfr.CacheWriteEvent;
 
 public class PythonWriteCacheImpl implements PythonWriteCache {
 
@@ -29,7 +30,17 @@ public class PythonWriteCacheImpl implements PythonWriteCache {
 
   @Override
   public void write(String key, byte[] data) {
-    this.writeCache.write(key, data);
+    CacheWriteEvent event = new CacheWriteEvent();
+    event.begin();
+    byte[] encodedData = CacheEncoding.encode(data);
+    this.writeCache.write(key, encodedData);
+    event.end();
+    if (event.shouldCommit()) {
+      event.key = key;
+      event.bytes = data.length;
+      event.encodedBytes = encodedData.length;
+      event.commit();
+    }
   }
 
   @Override
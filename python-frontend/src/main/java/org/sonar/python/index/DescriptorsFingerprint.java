@@ -0,0 +1,117 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.index;
+
+import com.google.protobuf.MessageLite;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import org.sonar.python.types.protobuf.DescriptorsProtos;
+
+/**
+ * Canonical hash of the descriptors of a module, i.e. of the API it exposes to the other modules of the project.
+ * <p>
+ * Descriptors are hashed through their protobuf representation, so that descriptors computed during the current analysis can be
+ * compared with those read from the cache. The hash does not depend on the order of the descriptors and members (except for the
+ * parameters of functions). Definition locations are part of the hash: issues raised on other modules may have secondary
+ * locations on the declarations of this module, so moving a declaration has to be propagated to the dependent modules. Their file is
+ * not: it is an absolute path, which changes when the project is analyzed from another directory.
+ */
+public class DescriptorsFingerprint {
+
+  private DescriptorsFingerprint() {
+  }
+
+  public static byte[] of(Set<Descriptor> descriptors) {
+    DescriptorsProtos.ModuleDescriptor moduleDescriptor = canonical(DescriptorsToProtobuf.toProtobufModuleDescriptor(descriptors));
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(moduleDescriptor.toByteArray());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static DescriptorsProtos.ModuleDescriptor canonical(DescriptorsProtos.ModuleDescriptor descriptor) {
+    return DescriptorsProtos.ModuleDescriptor.newBuilder()
+      .addAllClassDescriptors(sorted(descriptor.getClassDescriptorsList(), DescriptorsFingerprint::canonical))
+      .addAllFunctionDescriptors(sorted(descriptor.getFunctionDescriptorsList(), DescriptorsFingerprint::canonical))
+      .addAllVarDescriptors(sorted(descriptor.getVarDescriptorsList(), UnaryOperator.identity()))
+      .addAllAmbiguousDescriptors(sorted(descriptor.getAmbiguousDescriptorsList(), DescriptorsFingerprint::canonical))
+      .build();
+  }
+
+  private static DescriptorsProtos.AmbiguousDescriptor canonical(DescriptorsProtos.AmbiguousDescriptor descriptor) {
+    List<DescriptorsProtos.ClassDescriptor> classDescriptors = sorted(descriptor.getClassDescriptorsList(), DescriptorsFingerprint::canonical);
+    List<DescriptorsProtos.FunctionDescriptor> functionDescriptors = sorted(descriptor.getFunctionDescriptorsList(), DescriptorsFingerprint::canonical);
+    List<DescriptorsProtos.VarDescriptor> varDescriptors = sorted(descriptor.getVarDescriptorsList(), UnaryOperator.identity());
+    return descriptor.toBuilder()
+      .clearClassDescriptors().addAllClassDescriptors(classDescriptors)
+      .clearFunctionDescriptors().addAllFunctionDescriptors(functionDescriptors)
+      .clearVarDescriptors().addAllVarDescriptors(varDescriptors)
+      .build();
+  }
+
+  private static DescriptorsProtos.ClassDescriptor canonical(DescriptorsProtos.ClassDescriptor descriptor) {
+    List<DescriptorsProtos.FunctionDescriptor> functionMembers = sorted(descriptor.getFunctionMembersList(), DescriptorsFingerprint::canonical);
+    List<DescriptorsProtos.VarDescriptor> varMembers = sorted(descriptor.getVarMembersList(), UnaryOperator.identity());
+    List<DescriptorsProtos.AmbiguousDescriptor> ambiguousMembers = sorted(descriptor.getAmbiguousMembersList(), DescriptorsFingerprint::canonical);
+    List<DescriptorsProtos.ClassDescriptor> classMembers = sorted(descriptor.getClassMembersList(), DescriptorsFingerprint::canonical);
+    DescriptorsProtos.ClassDescriptor.Builder builder = descriptor.toBuilder()
+      .clearFunctionMembers().addAllFunctionMembers(functionMembers)
+      .clearVarMembers().addAllVarMembers(varMembers)
+      .clearAmbiguousMembers().addAllAmbiguousMembers(ambiguousMembers)
+      .clearClassMembers().addAllClassMembers(classMembers);
+    if (descriptor.hasDefinitionLocation()) {
+      builder.setDefinitionLocation(withoutFile(descriptor.getDefinitionLocation()));
+    }
+    return builder.build();
+  }
+
+  private static DescriptorsProtos.FunctionDescriptor canonical(DescriptorsProtos.FunctionDescriptor descriptor) {
+    DescriptorsProtos.FunctionDescriptor.Builder builder = descriptor.toBuilder();
+    if (descriptor.hasDefinitionLocation()) {
+      builder.setDefinitionLocation(withoutFile(descriptor.getDefinitionLocation()));
+    }
+    for (int i = 0; i < descriptor.getParametersCount(); i++) {
+      DescriptorsProtos.ParameterDescriptor parameter = descriptor.getParameters(i);
+      if (parameter.hasDefinitionLocation()) {
+        builder.setParameters(i, parameter.toBuilder().setDefinitionLocation(withoutFile(parameter.getDefinitionLocation())));
+      }
+    }
+    return builder.build();
+  }
+
+  private static DescriptorsProtos.LocationInFile withoutFile(DescriptorsProtos.LocationInFile location) {
+    return location.toBuilder().clearFileId().build();
+  }
+
+  private static <T extends MessageLite> List<T> sorted(List<T> messages, UnaryOperator<T> canonicalForm) {
+    return messages.stream()
+      .map(canonicalForm)
+      .map(message -> new Serialized<>(message, message.toByteArray()))
+      .sorted(Comparator.comparing(Serialized::bytes, Arrays::compare))
+      .map(Serialized::message)
+      .toList();
+  }
+
+  private record Serialized<T>(T message, byte[] bytes) {
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.index;
+
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.sonar.python.types.protobuf.DescriptorsProtos;
+
+/**
+ * Adapts the serialized descriptors of a module to a new location of the module, for instance after its package was moved.
+ * <p>
+ * Fully qualified names starting with the former module name are rebased on the new module name. Fully qualified names starting
+ * with the former package name, which typically come from relative imports, are rebased on the new package name. Definition
+ * locations are updated to refer to the new file.
+ */
+public class DescriptorsRebaser {
+
+  private static final Set<String> FQN_FIELDS = Set.of("fullyQualifiedName", "fully_qualified_name", "superClasses", "metaClassFQN",
+    "annotatedType", "annotatedReturnType", "decorators");
+  private static final String FILE_ID_FIELD = "fileId";
+
+  private final String oldModuleName;
+  private final String newModuleName;
+  private final String oldPackagePrefix;
+  private final String newPackagePrefix;
+  private final String newFileId;
+
+  private DescriptorsRebaser(String oldModuleName, String newModuleName, String newFileId) {
+    this.oldModuleName = oldModuleName;
+    this.newModuleName = newModuleName;
+    this.oldPackagePrefix = packagePrefix(oldModuleName);
+    this.newPackagePrefix = packagePrefix(newModuleName);
+    this.newFileId = newFileId;
+  }
+
+  public static DescriptorsProtos.ModuleDescriptor rebase(DescriptorsProtos.ModuleDescriptor moduleDescriptor, String oldModuleName,
+    String newModuleName, String newFileId) {
+    return (DescriptorsProtos.ModuleDescriptor) new DescriptorsRebaser(oldModuleName, newModuleName, newFileId).rebase(moduleDescriptor);
+  }
+
+  /**
+   * @return the name of the package of a module, or an empty string for a top-level module
+   */
+  public static String packageName(String moduleName) {
+    int lastDot = moduleName.lastIndexOf('.');
+    return lastDot < 0 ? "" : moduleName.substring(0, lastDot);
+  }
+
+  public static String rebaseName(String name, String oldModuleName, String newModuleName) {
+    return new DescriptorsRebaser(oldModuleName, newModuleName, "").rebaseName(name);
+  }
+
+  private Message rebase(Message message) {
+    Message.Builder builder = message.toBuilder();
+    for (Map.Entry<FieldDescriptor, Object> field : message.getAllFields().entrySet()) {
+      FieldDescriptor fieldDescriptor = field.getKey();
+      if (fieldDescriptor.isRepeated()) {
+        List<?> values = (List<?>) field.getValue();
+        for (int i = 0; i < values.size(); i++) {
+          builder.setRepeatedField(fieldDescriptor, i, rebase(fieldDescriptor, values.get(i)));
+        }
+      } else {
+        builder.setField(fieldDescriptor, rebase(fieldDescriptor, field.getValue()));
+      }
+    }
+    return builder.build();
+  }
+
+  private Object rebase(FieldDescriptor fieldDescriptor, Object value) {
+    if (value instanceof Message message) {
+      return rebase(message);
+    }
+    if (value instanceof String string) {
+      if (FILE_ID_FIELD.equals(fieldDescriptor.getName())) {
+        return newFileId;
+      }
+      if (FQN_FIELDS.contains(fieldDescriptor.getName())) {
+        return rebaseName(string);
+      }
+    }
+    return value;
+  }
+
+  private String rebaseName(String name) {
+    if (name.equals(oldModuleName)) {
+      return newModuleName;
+    }
+    if (name.startsWith(oldModuleName + ".")) {
+      return newModuleName + name.substring(oldModuleName.length());
+    }
+    if (!oldPackagePrefix.isEmpty() && name.startsWith(oldPackagePrefix)) {
+      return newPackagePrefix + name.substring(oldPackagePrefix.length());
+    }
+    return name;
+  }
+
+  private static String packagePrefix(String moduleName) {
+    String packageName = packageName(moduleName);
+    return packageName.isEmpty() ? "" : (packageName + ".");
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Read of an entry of the analysis cache. The size is the one of the decoded entry, and is 0 on a cache miss.
+ */
+@Name("org.sonar.python.CacheRead")
+@Label("Cache Read")
+@Category({"SonarPython", "Cache"})
+@StackTrace(false)
+public class CacheReadEvent extends Event {
+
+  @Label("Key")
+  public String key;
+
+  @Label("Hit")
+  public boolean hit;
+
+  @Label("Size")
+  @DataAmount
+  public long bytes;
+}
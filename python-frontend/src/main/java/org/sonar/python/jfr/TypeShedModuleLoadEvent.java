@@ -0,0 +1,46 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Loading of the serialized stubs of a module, from one of the typeshed directories.
+ */
+@Name("org.sonar.python.TypeShedModuleLoad")
+@Label("Typeshed Module Load")
+@Category({"SonarPython", "Typeshed"})
+@StackTrace(false)
+public class TypeShedModuleLoadEvent extends Event {
+
+  @Label("Module")
+  public String moduleName;
+
+  @Label("Source Directory")
+  @Description("Typeshed directory the stubs of the module are loaded from")
+  public String sourceDirectory;
+
+  @Label("Size")
+  @DataAmount
+  public long bytes;
+}
@@ -0,0 +1,192 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.semantic;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import org.sonar.python.index.AmbiguousDescriptor;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.index.DescriptorsToProtobuf;
+import org.sonar.python.types.protobuf.DescriptorsProtos;
+
+/**
+ * Storage of the descriptors of the modules of a project, serialized in the {@code DescriptorsProtos} format in off-heap memory.
+ * <p>
+ * Only the location of each module in the off-heap chunks and the fully qualified names of the top-level descriptors are kept
+ * on-heap. Descriptors are decoded on demand, the descriptors of the most recently used modules being kept in a cache of bounded
+ * size. The space of removed modules is reclaimed by rewriting the live modules once it exceeds the space they use.
+ */
+class CompactDescriptorStorage {
+
+  static final int DEFAULT_MAX_MATERIALIZED_MODULES = 200;
+  static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+  private final int chunkSize;
+  private final List<ByteBuffer> chunks = new ArrayList<>();
+  private final Map<String, Region> regionsByModule = new HashMap<>();
+  private final Map<String, Set<String>> modulesByFQN = new HashMap<>();
+  private final Map<String, Set<Descriptor>> materializedModules;
+  private long usedBytes = 0;
+  private long wastedBytes = 0;
+
+  CompactDescriptorStorage() {
+    this(DEFAULT_MAX_MATERIALIZED_MODULES, DEFAULT_CHUNK_SIZE);
+  }
+
+  CompactDescriptorStorage(int maxMaterializedModules, int chunkSize) {
+    this.chunkSize = chunkSize;
+    this.materializedModules = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Set<Descriptor>> eldest) {
+        return size() > maxMaterializedModules;
+      }
+    };
+  }
+
+  void put(String moduleName, Set<Descriptor> descriptors) {
+    remove(moduleName);
+    byte[] bytes = DescriptorsToProtobuf.toProtobufModuleDescriptor(descriptors).toByteArray();
+    regionsByModule.put(moduleName, write(bytes));
+    usedBytes += bytes.length;
+    descriptors.stream()
+      .map(Descriptor::fullyQualifiedName)
+      .filter(fqn -> fqn != null)
+      .forEach(fqn -> modulesByFQN.merge(fqn, Set.of(moduleName), CompactDescriptorStorage::union));
+  }
+
+  void remove(String moduleName) {
+    Region region = regionsByModule.remove(moduleName);
+    if (region == null) {
+      return;
+    }
+    Set<Descriptor> descriptors = read(region);
+    materializedModules.remove(moduleName);
+    usedBytes -= region.length();
+    wastedBytes += region.length();
+    descriptors.stream()
+      .map(Descriptor::fullyQualifiedName)
+      .filter(fqn -> fqn != null)
+      .forEach(fqn -> modulesByFQN.computeIfPresent(fqn, (k, modules) -> without(modules, moduleName)));
+    if (wastedBytes > usedBytes && wastedBytes > chunkSize) {
+      compact();
+    }
+  }
+
+  @CheckForNull
+  Set<Descriptor> get(String moduleName) {
+    Set<Descriptor> descriptors = materializedModules.get(moduleName);
+    if (descriptors != null) {
+      return descriptors;
+    }
+    Region region = regionsByModule.get(moduleName);
+    if (region == null) {
+      return null;
+    }
+    descriptors = read(region);
+    materializedModules.put(moduleName, descriptors);
+    return descriptors;
+  }
+
+  @CheckForNull
+  Descriptor descriptorWithFQN(String fullyQualifiedName) {
+    Set<String> moduleNames = modulesByFQN.get(fullyQualifiedName);
+    if (moduleNames == null) {
+      return null;
+    }
+    Set<Descriptor> descriptors = new HashSet<>();
+    for (String moduleName : moduleNames) {
+      Set<Descriptor> moduleDescriptors = get(moduleName);
+      if (moduleDescriptors != null) {
+        moduleDescriptors.stream().filter(d -> fullyQualifiedName.equals(d.fullyQualifiedName())).forEach(descriptors::add);
+      }
+    }
+    if (descriptors.isEmpty()) {
+      return null;
+    }
+    return descriptors.size() == 1 ? descriptors.iterator().next() : AmbiguousDescriptor.create(descriptors);
+  }
+
+  Set<String> moduleNames() {
+    return regionsByModule.keySet();
+  }
+
+  long usedBytes() {
+    return usedBytes;
+  }
+
+  int chunksCount() {
+    return chunks.size();
+  }
+
+  private Region write(byte[] bytes) {
+    ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+    if (chunk == null || chunk.remaining() < bytes.length) {
+      chunk = ByteBuffer.allocateDirect(Math.max(chunkSize, bytes.length));
+      chunks.add(chunk);
+    }
+    int offset = chunk.position();
+    chunk.put(bytes);
+    return new Region(chunks.size() - 1, offset, bytes.length);
+  }
+
+  private Set<Descriptor> read(Region region) {
+    ByteBuffer bytes = chunks.get(region.chunk()).slice(region.offset(), region.length());
+    try {
+      return DescriptorsToProtobuf.fromProtobuf(DescriptorsProtos.ModuleDescriptor.parseFrom(bytes));
+    } catch (InvalidProtocolBufferException e) {
+      throw new IllegalStateException("Invalid serialized descriptors", e);
+    }
+  }
+
+  private void compact() {
+    List<ByteBuffer> previousChunks = new ArrayList<>(chunks);
+    chunks.clear();
+    for (Map.Entry<String, Region> entry : regionsByModule.entrySet()) {
+      Region region = entry.getValue();
+      byte[] bytes = new byte[region.length()];
+      previousChunks.get(region.chunk()).get(region.offset(), bytes);
+      entry.setValue(write(bytes));
+    }
+    wastedBytes = 0;
+  }
+
+  private static Set<String> union(Set<String> first, Set<String> second) {
+    Set<String> union = new HashSet<>(first);
+    union.addAll(second);
+    return union;
+  }
+
+  private static Set<String> without(Set<String> modules, String moduleName) {
+    if (modules.size() == 1) {
+      return modules.contains(moduleName) ? null : modules;
+    }
+    Set<String> remaining = new HashSet<>(modules);
+    remaining.remove(moduleName);
+    return remaining;
+  }
+
+  private record Region(int chunk, int offset, int length) {
+  }
+}
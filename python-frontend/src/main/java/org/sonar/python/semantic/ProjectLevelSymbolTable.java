@@ -16,10 +16,13 @@
  */
 package org.sonar.python.semantic;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -33,6 +36,7 @@ import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.RegularArgument;
+import org.sonar.python.HeapSizeEstimator;
 import org.sonar.python.index.AmbiguousDescriptor;
 import org.sonar.python.index.Descriptor;
 import org.sonar.python.index.DescriptorUtils;
@@ -57,8 +61,10 @@ public class ProjectLevelSymbolTable {
   private final PythonTypeToDescriptorConverter pythonTypeToDescriptorConverter = new PythonTypeToDescriptorConverter();
   private final Map<String, Set<Descriptor>> globalDescriptorsByModuleName;
   private Map<String, Descriptor> globalDescriptorsByFQN;
+  private CompactDescriptorStorage compactStorage = null;
   private final Set<String> djangoViewsFQN = new HashSet<>();
   private final Map<String, Set<String>> importsByModule = new HashMap<>();
+  private final Map<String, Set<String>> importersByModule = new HashMap<>();
   private final Set<String> projectBasePackages = new HashSet<>();
   private TypeShedDescriptorsProvider typeShedDescriptorsProvider = null;
   private Set<Symbol> cachedSymbols = null;
@@ -82,11 +88,32 @@ public class ProjectLevelSymbolTable {
     this.globalDescriptorsByModuleName = new HashMap<>();
   }
 
+  /**
+   * Stores the descriptors of the modules serialized off-heap from now on, instead of keeping them as objects for the whole
+   * analysis. Descriptors are then decoded on demand, which bounds the heap used by the table for large projects.
+   */
+  public void enableCompactStorage() {
+    if (compactStorage != null) {
+      return;
+    }
+    compactStorage = new CompactDescriptorStorage();
+    globalDescriptorsByModuleName.forEach(compactStorage::put);
+    globalDescriptorsByModuleName.clear();
+    globalDescriptorsByFQN = null;
+  }
+
   public void removeModule(String packageName, String fileName) {
     String fullyQualifiedModuleName = SymbolUtils.fullyQualifiedModuleName(packageName, fileName);
-    globalDescriptorsByModuleName.remove(fullyQualifiedModuleName);
-    // ensure globalDescriptorsByFQN is re-computed
-    this.globalDescriptorsByFQN = null;
+    if (compactStorage != null) {
+      compactStorage.remove(fullyQualifiedModuleName);
+      setImports(fullyQualifiedModuleName, null);
+      return;
+    }
+    Set<Descriptor> removedDescriptors = globalDescriptorsByModuleName.remove(fullyQualifiedModuleName);
+    if (removedDescriptors != null && globalDescriptorsByFQN != null) {
+      removeModuleFromGlobalSymbolsByFQN(removedDescriptors);
+    }
+    setImports(fullyQualifiedModuleName, null);
   }
 
   public void addModule(FileInput fileInput, String packageName, PythonFile pythonFile) {
@@ -94,7 +121,7 @@ public class ProjectLevelSymbolTable {
     var symbolTable = new SymbolTableBuilderV2(fileInput).build();
     var typeInferenceV2 = new TypeInferenceV2(new BasicTypeTable(new ProjectLevelTypeTable(this)), pythonFile, symbolTable, packageName);
     var typesBySymbol = typeInferenceV2.inferTypes(fileInput);
-    importsByModule.put(fullyQualifiedModuleName, typeInferenceV2.importedModulesFQN());
+    setImports(fullyQualifiedModuleName, typeInferenceV2.importedModulesFQN());
     var moduleDescriptors = typesBySymbol.entrySet()
       .stream()
       .filter(entry -> isNotMissingType(entry.getValue()))
@@ -107,13 +134,51 @@ public class ProjectLevelSymbolTable {
         || entry.getKey().usages().stream().anyMatch(u -> u.kind().equals(UsageV2.Kind.IMPORT))))
       .map(Map.Entry::getValue)
       .collect(Collectors.toSet());
-    globalDescriptorsByModuleName.put(fullyQualifiedModuleName, moduleDescriptors);
-    addModuleToGlobalSymbolsByFQN(moduleDescriptors);
+    replaceModuleDescriptors(fullyQualifiedModuleName, moduleDescriptors);
 
     DjangoViewsVisitor djangoViewsVisitor = new DjangoViewsVisitor(fullyQualifiedModuleName);
     fileInput.accept(djangoViewsVisitor);
   }
 
+  /**
+   * Adds a module whose descriptors and imports were computed during a previous analysis, without parsing it again.
+   */
+  public void addModule(String fullyQualifiedModuleName, Set<Descriptor> moduleDescriptors, Set<String> importedModulesFQN) {
+    setImports(fullyQualifiedModuleName, importedModulesFQN);
+    replaceModuleDescriptors(fullyQualifiedModuleName, moduleDescriptors);
+  }
+
+  private void replaceModuleDescriptors(String fullyQualifiedModuleName, Set<Descriptor> moduleDescriptors) {
+    if (compactStorage != null) {
+      compactStorage.put(fullyQualifiedModuleName, moduleDescriptors);
+      return;
+    }
+    Set<Descriptor> previousDescriptors = globalDescriptorsByModuleName.put(fullyQualifiedModuleName, moduleDescriptors);
+    if (globalDescriptorsByFQN != null) {
+      if (previousDescriptors != null) {
+        removeModuleFromGlobalSymbolsByFQN(previousDescriptors);
+      }
+      addModuleToGlobalSymbolsByFQN(moduleDescriptors);
+    }
+  }
+
+  private void setImports(String fullyQualifiedModuleName, @Nullable Set<String> importedModulesFQN) {
+    Set<String> previousImports = importedModulesFQN == null ? importsByModule.remove(fullyQualifiedModuleName) :
+      importsByModule.put(fullyQualifiedModuleName, importedModulesFQN);
+    if (previousImports != null) {
+      for (String importedModule : previousImports) {
+        Set<String> importers = importersByModule.get(importedModule);
+        importers.remove(fullyQualifiedModuleName);
+        if (importers.isEmpty()) {
+          importersByModule.remove(importedModule);
+        }
+      }
+    }
+    if (importedModulesFQN != null) {
+      importedModulesFQN.forEach(importedModule -> importersByModule.computeIfAbsent(importedModule, k -> new HashSet<>()).add(fullyQualifiedModuleName));
+    }
+  }
+
   private static boolean isNotMissingType(Set<PythonType> types) {
     return !types.isEmpty() && types.stream().noneMatch(UnknownType.UnresolvedImportType.class::isInstance);
   }
@@ -122,7 +187,37 @@ public class ProjectLevelSymbolTable {
     Map<String, Descriptor> moduleDescriptorsByFQN = descriptors.stream()
       .filter(d -> d.fullyQualifiedName() != null)
       .collect(Collectors.toMap(Descriptor::fullyQualifiedName, Function.identity(), AmbiguousDescriptor::create));
-    globalDescriptorsByFQN().putAll(moduleDescriptorsByFQN);
+    Map<String, Descriptor> descriptorsByFQN = globalDescriptorsByFQN();
+    moduleDescriptorsByFQN.forEach((fqn, descriptor) -> descriptorsByFQN.merge(fqn, descriptor, AmbiguousDescriptor::create));
+  }
+
+  /**
+   * Only the entries of the given descriptors are updated, instead of recomputing the whole map from the descriptors of all modules.
+   */
+  private void removeModuleFromGlobalSymbolsByFQN(Set<Descriptor> descriptors) {
+    Map<String, Set<Descriptor>> removedDescriptorsByFQN = new HashMap<>();
+    descriptors.stream()
+      .filter(d -> d.fullyQualifiedName() != null)
+      .forEach(d -> removedDescriptorsByFQN.computeIfAbsent(d.fullyQualifiedName(), k -> new HashSet<>()).addAll(alternatives(d)));
+    removedDescriptorsByFQN.forEach((fqn, removedDescriptors) -> {
+      Descriptor descriptor = globalDescriptorsByFQN.get(fqn);
+      if (descriptor == null) {
+        return;
+      }
+      Set<Descriptor> remainingDescriptors = new HashSet<>(alternatives(descriptor));
+      remainingDescriptors.removeAll(removedDescriptors);
+      if (remainingDescriptors.isEmpty()) {
+        globalDescriptorsByFQN.remove(fqn);
+      } else if (remainingDescriptors.size() == 1) {
+        globalDescriptorsByFQN.put(fqn, remainingDescriptors.iterator().next());
+      } else {
+        globalDescriptorsByFQN.put(fqn, AmbiguousDescriptor.create(remainingDescriptors));
+      }
+    });
+  }
+
+  private static Set<Descriptor> alternatives(Descriptor descriptor) {
+    return descriptor instanceof AmbiguousDescriptor ambiguousDescriptor ? ambiguousDescriptor.alternatives() : Set.of(descriptor);
   }
 
   private Map<String, Descriptor> globalDescriptorsByFQN() {
@@ -148,13 +243,13 @@ public class ProjectLevelSymbolTable {
   public Symbol getSymbol(@Nullable String fullyQualifiedName, @Nullable String localSymbolName,
                           Map<Descriptor, Symbol> createdSymbolsByDescriptor, Map<String, Symbol> createdSymbolsByFqn) {
     if (fullyQualifiedName == null) return null;
-    Descriptor descriptor = globalDescriptorsByFQN().get(fullyQualifiedName);
+    Descriptor descriptor = compactStorage != null ? compactStorage.descriptorWithFQN(fullyQualifiedName) : globalDescriptorsByFQN().get(fullyQualifiedName);
     return descriptor == null ? null : DescriptorUtils.symbolFromDescriptor(descriptor, this, localSymbolName, createdSymbolsByDescriptor, createdSymbolsByFqn);
   }
 
   @CheckForNull
   public Set<Symbol> getSymbolsFromModule(@Nullable String moduleName) {
-    Set<Descriptor> descriptors = globalDescriptorsByModuleName.get(moduleName);
+    Set<Descriptor> descriptors = getDescriptorsFromModule(moduleName);
     if (descriptors == null) {
       return null;
     }
@@ -166,6 +261,9 @@ public class ProjectLevelSymbolTable {
 
   @CheckForNull
   public Set<Descriptor> getDescriptorsFromModule(@Nullable String moduleName) {
+    if (compactStorage != null) {
+      return moduleName == null ? null : compactStorage.get(moduleName);
+    }
     return globalDescriptorsByModuleName.get(moduleName);
   }
 
@@ -174,18 +272,60 @@ public class ProjectLevelSymbolTable {
   }
 
   public void insertEntry(String moduleName, Set<Descriptor> descriptors) {
-    this.globalDescriptorsByModuleName.put(moduleName, descriptors);
+    replaceModuleDescriptors(moduleName, descriptors);
+  }
+
+  /**
+   * Returns the modules of the project which depend, directly or transitively, on the given module: the modules importing it or
+   * one of its parent packages.
+   */
+  public Set<String> dependentModules(String fullyQualifiedModuleName) {
+    Set<String> dependentModules = new HashSet<>();
+    Deque<String> workList = new ArrayDeque<>();
+    workList.add(fullyQualifiedModuleName);
+    while (!workList.isEmpty()) {
+      String moduleName = workList.poll();
+      for (String importedName = moduleName; importedName != null; importedName = parentPackage(importedName)) {
+        for (String importer : importersByModule.getOrDefault(importedName, Set.of())) {
+          if (dependentModules.add(importer)) {
+            workList.add(importer);
+          }
+        }
+      }
+    }
+    dependentModules.remove(fullyQualifiedModuleName);
+    return dependentModules;
+  }
+
+  @CheckForNull
+  private static String parentPackage(String moduleName) {
+    int lastDot = moduleName.lastIndexOf('.');
+    return lastDot < 0 ? null : moduleName.substring(0, lastDot);
   }
 
   @CheckForNull
   public Set<Descriptor> descriptorsForModule(String moduleName) {
-    return globalDescriptorsByModuleName.get(moduleName);
+    return getDescriptorsFromModule(moduleName);
   }
 
   public boolean isDjangoView(@Nullable String fqn) {
     return djangoViewsFQN.contains(fqn);
   }
 
+  /**
+   * Fully qualified names of the Django views registered by the modules added so far.
+   */
+  public Set<String> djangoViews() {
+    return Collections.unmodifiableSet(djangoViewsFQN);
+  }
+
+  /**
+   * Registers Django views found while adding modules to another project level symbol table.
+   */
+  public void addDjangoViews(Collection<String> fullyQualifiedNames) {
+    djangoViewsFQN.addAll(fullyQualifiedNames);
+  }
+
   public void addProjectPackage(String projectPackage) {
     projectBasePackages.add(projectPackage.split("\\.", 2)[0]);
   }
@@ -201,6 +341,17 @@ public class ProjectLevelSymbolTable {
     return typeShedDescriptorsProvider;
   }
 
+  /**
+   * Estimated heap size, in bytes, of the descriptors of the project (including those stored off-heap) and of the typeshed
+   * descriptors loaded so far. The typeshed descriptors provider is not created if it has not been used yet.
+   */
+  public Map<String, Long> estimatedSizes() {
+    Map<String, Long> sizes = new LinkedHashMap<>();
+    sizes.put("ProjectLevelSymbolTable", new HeapSizeEstimator(TypeShedDescriptorsProvider.class).estimate(this));
+    sizes.put("TypeShedDescriptorsProvider", new HeapSizeEstimator().estimate(typeShedDescriptorsProvider));
+    return sizes;
+  }
+
   /**
    * Returns stub symbols to be used by SonarSecurity.
    * Ambiguous symbols that only contain class symbols are disambiguated with latest Python version.
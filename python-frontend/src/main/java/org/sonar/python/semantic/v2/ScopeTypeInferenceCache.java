@@ -0,0 +1,275 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.semantic.v2;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.BinaryExpression;
+import org.sonar.plugins.python.api.tree.ClassDef;
+import org.sonar.plugins.python.api.tree.Expression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.Token;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.UnaryExpression;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.tree.BinaryExpressionImpl;
+import org.sonar.python.tree.NameImpl;
+import org.sonar.python.tree.TreeUtils;
+import org.sonar.python.tree.UnaryExpressionImpl;
+import org.sonar.python.types.v2.Member;
+import org.sonar.python.types.v2.ObjectType;
+import org.sonar.python.types.v2.PythonType;
+import org.sonar.python.types.v2.UnionType;
+
+/**
+ * Per-file cache of the function-level type inference results, meant for repeated analyses of the same file (e.g. in SonarLint).
+ * <p>
+ * Each function is fingerprinted by the hash of its tokens. As long as the module "skeleton" (every token outside of function bodies)
+ * is unchanged, the types computed by the flow-sensitive (or AST-based) inference of an unchanged function are replayed on the new tree
+ * instead of building its control flow graph and running the fixpoint again.
+ * <p>
+ * Results referencing types declared in the analyzed module are never reused, as those types are re-created on each analysis.
+ * The cache owns the {@link ProjectLevelTypeTable} used for inference so that reused types keep their identity.
+ * It must be discarded whenever the project-level symbol table changes.
+ */
+public class ScopeTypeInferenceCache {
+
+  private static final Tree.Kind[] SCOPE_ESCAPING_KINDS = {Tree.Kind.GLOBAL_STMT, Tree.Kind.NONLOCAL_STMT};
+
+  private final ProjectLevelTypeTable typeTable;
+  private String moduleFingerprint = null;
+  private Map<String, List<TypeUpdate>> resultsByScopeKey = new HashMap<>();
+  private Map<String, List<TypeUpdate>> currentResultsByScopeKey = new HashMap<>();
+  private final Map<String, Integer> occurrencesByScopeKey = new HashMap<>();
+  private int reusedScopes = 0;
+  private int recomputedScopes = 0;
+
+  public ScopeTypeInferenceCache(ProjectLevelSymbolTable projectLevelSymbolTable) {
+    this.typeTable = new ProjectLevelTypeTable(projectLevelSymbolTable);
+  }
+
+  public ProjectLevelTypeTable typeTable() {
+    return typeTable;
+  }
+
+  public int reusedScopes() {
+    return reusedScopes;
+  }
+
+  public int recomputedScopes() {
+    return recomputedScopes;
+  }
+
+  void startModule(FileInput fileInput) {
+    String fingerprint = moduleFingerprint(fileInput);
+    if (!fingerprint.equals(moduleFingerprint)) {
+      resultsByScopeKey = new HashMap<>();
+    }
+    moduleFingerprint = fingerprint;
+    currentResultsByScopeKey = new HashMap<>();
+    occurrencesByScopeKey.clear();
+    reusedScopes = 0;
+    recomputedScopes = 0;
+  }
+
+  void inferOrReuse(FunctionDef functionDef, Runnable inference) {
+    String scopeKey = scopeKey(functionDef);
+    List<TypeUpdate> cached = resultsByScopeKey.get(scopeKey);
+    List<Expression> typedExpressions = typedExpressions(functionDef);
+    if (cached != null && cached.stream().allMatch(update -> update.index() < typedExpressions.size())) {
+      cached.forEach(update -> setType(typedExpressions.get(update.index()), update.type()));
+      currentResultsByScopeKey.put(scopeKey, cached);
+      reusedScopes++;
+      return;
+    }
+    PythonType[] typesBefore = typedExpressions.stream().map(Expression::typeV2).toArray(PythonType[]::new);
+    inference.run();
+    List<TypeUpdate> updates = new ArrayList<>();
+    for (int i = 0; i < typesBefore.length; i++) {
+      PythonType typeAfter = typedExpressions.get(i).typeV2();
+      if (typeAfter != typesBefore[i]) {
+        updates.add(new TypeUpdate(i, typeAfter));
+      }
+    }
+    currentResultsByScopeKey.put(scopeKey, updates);
+    recomputedScopes++;
+  }
+
+  void endModule(FileInput fileInput) {
+    Set<PythonType> moduleDeclaredTypes = moduleDeclaredTypes(fileInput);
+    currentResultsByScopeKey.values().removeIf(updates -> updates.stream().anyMatch(update -> referencesAny(update.type(), moduleDeclaredTypes)));
+    resultsByScopeKey = currentResultsByScopeKey;
+    currentResultsByScopeKey = new HashMap<>();
+  }
+
+  /**
+   * Nested functions depend on the types of their enclosing functions: the whole outermost enclosing function is hashed.
+   */
+  private String scopeKey(FunctionDef functionDef) {
+    StringBuilder path = new StringBuilder(functionDef.name().name());
+    Tree outermostFunction = functionDef;
+    Tree parent = TreeUtils.firstAncestorOfKind(functionDef, Tree.Kind.FUNCDEF, Tree.Kind.CLASSDEF);
+    while (parent != null) {
+      if (parent instanceof ClassDef classDef) {
+        path.insert(0, classDef.name().name() + ".");
+      } else {
+        path.insert(0, ((FunctionDef) parent).name().name() + ".");
+        outermostFunction = parent;
+      }
+      parent = TreeUtils.firstAncestorOfKind(parent, Tree.Kind.FUNCDEF, Tree.Kind.CLASSDEF);
+    }
+    MessageDigest digest = newDigest();
+    TreeUtils.tokens(outermostFunction).forEach(token -> update(digest, token));
+    String key = path + ":" + HexFormat.of().formatHex(digest.digest());
+    int occurrence = occurrencesByScopeKey.merge(key, 1, Integer::sum);
+    return key + "#" + occurrence;
+  }
+
+  /**
+   * Hash of every token outside function bodies.
+   * Functions containing "global" or "nonlocal" statements can change the types of enclosing scopes: they are fully part of the skeleton.
+   */
+  static String moduleFingerprint(FileInput fileInput) {
+    Set<Token> excludedTokens = Collections.newSetFromMap(new IdentityHashMap<>());
+    fileInput.accept(new BaseTreeVisitor() {
+      @Override
+      public void visitFunctionDef(FunctionDef functionDef) {
+        if (TreeUtils.hasDescendant(functionDef, t -> t.is(SCOPE_ESCAPING_KINDS))) {
+          super.visitFunctionDef(functionDef);
+        } else {
+          excludedTokens.addAll(TreeUtils.tokens(functionDef.body()));
+        }
+      }
+    });
+    MessageDigest digest = newDigest();
+    TreeUtils.tokens(fileInput).stream()
+      .filter(token -> !excludedTokens.contains(token))
+      .forEach(token -> update(digest, token));
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static void update(MessageDigest digest, Token token) {
+    digest.update(token.type().getName().getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+    digest.update(token.value().getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Expressions whose type may be updated by the function-level inference, in a deterministic order.
+   */
+  private static List<Expression> typedExpressions(FunctionDef functionDef) {
+    List<Expression> expressions = new ArrayList<>();
+    functionDef.accept(new BaseTreeVisitor() {
+      @Override
+      public void visitName(Name name) {
+        expressions.add(name);
+        super.visitName(name);
+      }
+
+      @Override
+      public void visitBinaryExpression(BinaryExpression binaryExpression) {
+        expressions.add(binaryExpression);
+        super.visitBinaryExpression(binaryExpression);
+      }
+
+      @Override
+      public void visitUnaryExpression(UnaryExpression unaryExpression) {
+        expressions.add(unaryExpression);
+        super.visitUnaryExpression(unaryExpression);
+      }
+    });
+    return expressions;
+  }
+
+  private static void setType(Expression expression, PythonType type) {
+    if (expression instanceof NameImpl name) {
+      name.typeV2(type);
+    } else if (expression instanceof BinaryExpressionImpl binaryExpression) {
+      binaryExpression.typeV2(type);
+    } else if (expression instanceof UnaryExpressionImpl unaryExpression) {
+      unaryExpression.typeV2(type);
+    }
+  }
+
+  private static Set<PythonType> moduleDeclaredTypes(FileInput fileInput) {
+    Set<PythonType> declaredTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+    fileInput.accept(new BaseTreeVisitor() {
+      @Override
+      public void visitFunctionDef(FunctionDef functionDef) {
+        declaredTypes.add(functionDef.name().typeV2());
+        super.visitFunctionDef(functionDef);
+      }
+
+      @Override
+      public void visitClassDef(ClassDef classDef) {
+        declaredTypes.add(classDef.name().typeV2());
+        super.visitClassDef(classDef);
+      }
+    });
+    return declaredTypes;
+  }
+
+  private static boolean referencesAny(PythonType type, Set<PythonType> types) {
+    Set<PythonType> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<PythonType> workList = new ArrayDeque<>();
+    workList.push(type);
+    while (!workList.isEmpty()) {
+      PythonType current = workList.pop();
+      if (types.contains(current)) {
+        return true;
+      }
+      if (!visited.add(current)) {
+        continue;
+      }
+      if (current instanceof ObjectType objectType) {
+        workList.push(objectType.unwrappedType());
+        objectType.attributes().forEach(workList::push);
+        objectType.members().stream().map(Member::type).forEach(workList::push);
+      } else if (current instanceof UnionType unionType) {
+        unionType.candidates().forEach(workList::push);
+      }
+    }
+    return false;
+  }
+
+  private record TypeUpdate(int index, @Nullable PythonType type) {
+  }
+}
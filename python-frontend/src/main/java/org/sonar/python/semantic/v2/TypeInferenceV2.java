@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
 import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
@@ -49,32 +50,66 @@ public class TypeInferenceV2 {
   private final SymbolTable symbolTable;
   private final PythonFile pythonFile;
   private final String fullyQualifiedModuleName;
+  private final ScopeTypeInferenceCache scopeTypeInferenceCache;
   private Set<String> importedModulesFQN;
+  private int fallbackScopes = 0;
 
   public TypeInferenceV2(TypeTable projectLevelTypeTable, PythonFile pythonFile, SymbolTable symbolTable, String packageName) {
+    this(projectLevelTypeTable, pythonFile, symbolTable, packageName, null);
+  }
+
+  public TypeInferenceV2(TypeTable projectLevelTypeTable, PythonFile pythonFile, SymbolTable symbolTable, String packageName,
+    @Nullable ScopeTypeInferenceCache scopeTypeInferenceCache) {
     this.projectLevelTypeTable = projectLevelTypeTable;
     this.symbolTable = symbolTable;
     this.pythonFile = pythonFile;
     this.fullyQualifiedModuleName = SymbolUtils.fullyQualifiedModuleName(packageName, pythonFile.fileName());
+    this.scopeTypeInferenceCache = scopeTypeInferenceCache;
   }
 
   public Map<SymbolV2, Set<PythonType>> inferTypes(FileInput fileInput) {
-    TrivialTypeInferenceVisitor trivialTypeInferenceVisitor = new TrivialTypeInferenceVisitor(projectLevelTypeTable, pythonFile, fullyQualifiedModuleName);
-    this.importedModulesFQN = trivialTypeInferenceVisitor.importedModulesFQN();
-    fileInput.accept(trivialTypeInferenceVisitor);
+    inferTrivialTypes(fileInput);
 
     var typesBySymbol = inferTypesAndMemberAccessSymbols(fileInput);
 
+    if (scopeTypeInferenceCache != null) {
+      scopeTypeInferenceCache.startModule(fileInput);
+    }
     fileInput.accept(new BaseTreeVisitor() {
       @Override
       public void visitFunctionDef(FunctionDef funcDef) {
         super.visitFunctionDef(funcDef);
-        inferTypesAndMemberAccessSymbols(funcDef);
+        if (scopeTypeInferenceCache != null) {
+          scopeTypeInferenceCache.inferOrReuse(funcDef, () -> inferTypesAndMemberAccessSymbols(funcDef));
+        } else {
+          inferTypesAndMemberAccessSymbols(funcDef);
+        }
       }
     });
+    if (scopeTypeInferenceCache != null) {
+      scopeTypeInferenceCache.endModule(fileInput);
+    }
     return typesBySymbol;
   }
 
+  /**
+   * Only infers the types that do not require data flow analysis (declarations, imports, literals...).
+   * Neither the flow-sensitive nor the AST-based type inference of module and function scopes is run.
+   */
+  public void inferTrivialTypes(FileInput fileInput) {
+    TrivialTypeInferenceVisitor trivialTypeInferenceVisitor = new TrivialTypeInferenceVisitor(projectLevelTypeTable, pythonFile, fullyQualifiedModuleName);
+    this.importedModulesFQN = trivialTypeInferenceVisitor.importedModulesFQN();
+    fileInput.accept(trivialTypeInferenceVisitor);
+  }
+
+  /**
+   * Number of scopes whose types were not inferred by the flow-sensitive type inference: scopes containing a try statement, for which
+   * the AST-based type inference is used instead, and scopes whose control flow graph could not be built.
+   */
+  public int fallbackScopes() {
+    return fallbackScopes;
+  }
+
   private Map<SymbolV2, Set<PythonType>> inferTypesAndMemberAccessSymbols(FileInput fileInput) {
     StatementList statements = fileInput.statements();
     if (statements == null) {
@@ -123,12 +158,14 @@ public class TypeInferenceV2 {
     statements.accept(tryStatementVisitor);
     if (tryStatementVisitor.hasTryStatement()) {
       // CFG doesn't model precisely try-except statements. Hence we fallback to AST based type inference
+      fallbackScopes++;
       return new AstBasedTypeInference(propagationVisitor.propagationsByLhs(), projectLevelTypeTable)
         .process(getTrackedVars(declaredVariables, assignedNames));
     }
 
     ControlFlowGraph cfg = controlFlowGraphSupplier.get();
     if (cfg == null) {
+      fallbackScopes++;
       return Map.of();
     }
     assignedNames.addAll(annotatedParameterNames);
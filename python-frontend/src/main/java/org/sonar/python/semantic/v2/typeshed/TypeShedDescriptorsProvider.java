@@ -16,6 +16,7 @@
  */
 package org.sonar.python.semantic.v2.typeshed;
 
+import com.google.common.io.CountingInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -36,6 +37,7 @@ import org.sonar.plugins.python.api.PythonVersionUtils;
 import org.sonar.python.index.ClassDescriptor;
 import org.sonar.python.index.Descriptor;
 import org.sonar.python.index.ModuleDescriptor;
+import org.sonar.python.jfr.TypeShedModuleLoadEvent;
 import org.sonar.python.types.protobuf.SymbolsProtos.ModuleSymbol;
 
 import static org.sonar.plugins.python.api.types.BuiltinTypes.NONE_TYPE;
@@ -116,12 +118,22 @@ public class TypeShedDescriptorsProvider {
 
   private Map<String, Descriptor> getModuleDescriptors(String moduleName, String dirName) {
     String fileName = MODULES_TO_DISAMBIGUATE.getOrDefault(moduleName, moduleName);
+    TypeShedModuleLoadEvent event = new TypeShedModuleLoadEvent();
+    event.begin();
     InputStream resource = this.getClass().getResourceAsStream(dirName + fileName + ".protobuf");
     if (resource == null) {
       return Collections.emptyMap();
     }
-    var moduleSymbol = deserializedModule(moduleName, resource);
+    CountingInputStream countingResource = new CountingInputStream(resource);
+    var moduleSymbol = deserializedModule(moduleName, countingResource);
     var moduleDescriptor = moduleConverter.convert(moduleSymbol);
+    event.end();
+    if (event.shouldCommit()) {
+      event.moduleName = moduleName;
+      event.sourceDirectory = dirName;
+      event.bytes = countingResource.getCount();
+      event.commit();
+    }
     return Optional.ofNullable(moduleDescriptor).map(ModuleDescriptor::members).orElseGet(Map::of);
   }
 
@@ -58,6 +58,16 @@ public class ArgListImpl extends PyTree implements ArgList {
     return children;
   }
 
+  @Override
+  public int childCount() {
+    return interleavedCount(arguments, commas);
+  }
+
+  @Override
+  public Tree child(int index) {
+    return interleavedChild(index, arguments, commas);
+  }
+
   @Override
   public Kind getKind() {
     return Tree.Kind.ARG_LIST;
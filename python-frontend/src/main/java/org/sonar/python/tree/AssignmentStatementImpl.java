@@ -85,4 +85,18 @@ public class AssignmentStatementImpl extends SimpleStatement implements Assignme
     children.addAll(separators.elements());
     return children;
   }
+
+  @Override
+  public int childCount() {
+    return interleavedCount(lhsExpressions, assignTokens) + 1 + separators.elements().size();
+  }
+
+  @Override
+  public Tree child(int index) {
+    int lhsCount = interleavedCount(lhsExpressions, assignTokens);
+    if (index < lhsCount) {
+      return interleavedChild(index, lhsExpressions, assignTokens);
+    }
+    return index == lhsCount ? assignedValue : separators.elements().get(index - lhsCount - 1);
+  }
 }
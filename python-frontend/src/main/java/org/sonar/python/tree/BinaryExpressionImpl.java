@@ -109,6 +109,16 @@ public class BinaryExpressionImpl extends PyTree implements BinaryExpression, Ha
     return Stream.of(leftOperand, operator, rightOperand).filter(Objects::nonNull).toList();
   }
 
+  @Override
+  public int childCount() {
+    return nonNullCount(leftOperand, operator, rightOperand);
+  }
+
+  @Override
+  public Tree child(int index) {
+    return nonNullChild(index, leftOperand, operator, rightOperand);
+  }
+
   @Override
   public InferredType type() {
     if (is(Kind.AND, Kind.OR)) {
@@ -111,6 +111,16 @@ public class CallExpressionImpl extends PyTree implements CallExpression, HasTyp
     return Stream.of(callee, leftPar, argumentList, rightPar).filter(Objects::nonNull).toList();
   }
 
+  @Override
+  public int childCount() {
+    return nonNullCount(callee, leftPar, argumentList, rightPar);
+  }
+
+  @Override
+  public Tree child(int index) {
+    return nonNullChild(index, callee, leftPar, argumentList, rightPar);
+  }
+
   @Override
   public InferredType type() {
     Symbol calleeSymbol = calleeSymbol();
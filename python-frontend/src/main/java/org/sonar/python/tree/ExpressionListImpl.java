@@ -66,4 +66,14 @@ public class ExpressionListImpl extends PyTree implements ExpressionList {
     }
     return children;
   }
+
+  @Override
+  public int childCount() {
+    return interleavedCount(expressions, commas);
+  }
+
+  @Override
+  public Tree child(int index) {
+    return interleavedChild(index, expressions, commas);
+  }
 }
@@ -55,6 +55,16 @@ public class ExpressionStatementImpl extends SimpleStatement implements Expressi
     return Stream.of(expressions, separators.elements()).flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
   }
 
+  @Override
+  public int childCount() {
+    return expressions.size() + separators.elements().size();
+  }
+
+  @Override
+  public Tree child(int index) {
+    return index < expressions.size() ? expressions.get(index) : separators.elements().get(index - expressions.size());
+  }
+
   @Override
   public Token separator() {
     return separators.last();
@@ -37,6 +37,7 @@ public class FileInputImpl extends PyTree implements FileInput {
   private final Token endOfFile;
   private final StringLiteral docstring;
   private final Set<Symbol> globalVariables = new HashSet<>();
+  private TreeKindIndex kindIndex;
 
   public FileInputImpl(@Nullable StatementList statements, Token endOfFile, @Nullable StringLiteral docstring) {
     this.statements = statements;
@@ -70,6 +71,16 @@ public class FileInputImpl extends PyTree implements FileInput {
     globalVariables.add(globalVariable);
   }
 
+  /**
+   * Nodes of this file grouped by kind. Built lazily on first access, so that parses which never dispatch subscriptions do not pay for it.
+   */
+  public TreeKindIndex kindIndex() {
+    if (kindIndex == null) {
+      kindIndex = TreeKindIndex.build(this);
+    }
+    return kindIndex;
+  }
+
   @Override
   public void accept(TreeVisitor visitor) {
     visitor.visitFileInput(this);
@@ -50,4 +50,14 @@ public class InExpressionImpl extends BinaryExpressionImpl implements InExpressi
   public List<Tree> computeChildren() {
     return Stream.of(leftOperand(), notToken, operator(), rightOperand()).filter(Objects::nonNull).toList();
   }
+
+  @Override
+  public int childCount() {
+    return nonNullCount(leftOperand(), notToken, operator(), rightOperand());
+  }
+
+  @Override
+  public Tree child(int index) {
+    return nonNullChild(index, leftOperand(), notToken, operator(), rightOperand());
+  }
 }
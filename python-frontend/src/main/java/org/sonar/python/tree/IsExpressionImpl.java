@@ -50,4 +50,14 @@ public class IsExpressionImpl extends BinaryExpressionImpl implements IsExpressi
   public List<Tree> computeChildren() {
     return Stream.of(leftOperand(), operator(), notToken, rightOperand()).filter(Objects::nonNull).toList();
   }
+
+  @Override
+  public int childCount() {
+    return nonNullCount(leftOperand(), operator(), notToken, rightOperand());
+  }
+
+  @Override
+  public Tree child(int index) {
+    return nonNullChild(index, leftOperand(), operator(), notToken, rightOperand());
+  }
 }
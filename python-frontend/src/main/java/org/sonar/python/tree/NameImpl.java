@@ -78,6 +78,16 @@ public class NameImpl extends PyTree implements Name {
     return Collections.singletonList(token);
   }
 
+  @Override
+  public int childCount() {
+    return 1;
+  }
+
+  @Override
+  public Tree child(int index) {
+    return nonNullChild(index, token, null, null);
+  }
+
   @CheckForNull
   @Override
   public Symbol symbol() {
@@ -81,6 +81,16 @@ public class NumericLiteralImpl extends PyTree implements NumericLiteral {
     return Collections.singletonList(token);
   }
 
+  @Override
+  public int childCount() {
+    return 1;
+  }
+
+  @Override
+  public Tree child(int index) {
+    return nonNullChild(index, token, null, null);
+  }
+
   @Override
   public InferredType type() {
     return type;
@@ -102,4 +102,14 @@ public class ParameterImpl extends PyTree implements Parameter {
   public List<Tree> computeChildren() {
     return Stream.of(starToken, name, annotation, equalToken, defaultValue).filter(Objects::nonNull).toList();
   }
+
+  @Override
+  public int childCount() {
+    return nonNullCount(starToken, name, annotation, equalToken, defaultValue);
+  }
+
+  @Override
+  public Tree child(int index) {
+    return nonNullChild(index, starToken, name, annotation, equalToken, defaultValue);
+  }
 }
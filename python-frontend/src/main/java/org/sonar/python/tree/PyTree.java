@@ -17,6 +17,7 @@
 package org.sonar.python.tree;
 
 import java.util.List;
+import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
 
@@ -43,11 +44,10 @@ public abstract class PyTree implements Tree {
   @Override
   public Token firstToken() {
     if (firstToken == null) {
-      List<Tree> children = children();
-      if (children.isEmpty()) {
+      if (childCount() == 0) {
         this.firstToken = null;
       } else {
-        Tree first = children.get(0);
+        Tree first = child(0);
         this.firstToken = first.is(Kind.TOKEN) ? (Token) first : first.firstToken();
       }
     }
@@ -57,11 +57,11 @@ public abstract class PyTree implements Tree {
   @Override
   public Token lastToken() {
     if (lastToken == null) {
-      List<Tree> children = children();
-      if (children.isEmpty()) {
+      int childCount = childCount();
+      if (childCount == 0) {
         this.firstToken = null;
       } else {
-        Tree last = children.get(children.size() - 1);
+        Tree last = child(childCount - 1);
         this.lastToken = last.is(Kind.TOKEN) ? (Token) last : last.lastToken();
       }
     }
@@ -86,4 +86,76 @@ public abstract class PyTree implements Tree {
     }
     return childs;
   }
+
+  /**
+   * Default implementation relying on {@link #children()}, which materializes and retains the list of children.
+   * Frequent node types override it to read their fields directly.
+   */
+  @Override
+  public int childCount() {
+    return children().size();
+  }
+
+  @Override
+  public Tree child(int index) {
+    return children().get(index);
+  }
+
+  static int nonNullCount(@Nullable Tree first, @Nullable Tree second, @Nullable Tree third) {
+    return (first == null ? 0 : 1) + (second == null ? 0 : 1) + (third == null ? 0 : 1);
+  }
+
+  static int nonNullCount(@Nullable Tree first, @Nullable Tree second, @Nullable Tree third, @Nullable Tree fourth) {
+    return nonNullCount(first, second, third) + (fourth == null ? 0 : 1);
+  }
+
+  static int nonNullCount(@Nullable Tree first, @Nullable Tree second, @Nullable Tree third, @Nullable Tree fourth, @Nullable Tree fifth) {
+    return nonNullCount(first, second, third, fourth) + (fifth == null ? 0 : 1);
+  }
+
+  /**
+   * @return the child at the given index among the non-null given trees
+   */
+  static Tree nonNullChild(int index, @Nullable Tree first, @Nullable Tree second, @Nullable Tree third) {
+    return nonNullChild(index, first, second, third, null, null);
+  }
+
+  static Tree nonNullChild(int index, @Nullable Tree first, @Nullable Tree second, @Nullable Tree third, @Nullable Tree fourth) {
+    return nonNullChild(index, first, second, third, fourth, null);
+  }
+
+  static Tree nonNullChild(int index, @Nullable Tree first, @Nullable Tree second, @Nullable Tree third, @Nullable Tree fourth, @Nullable Tree fifth) {
+    int remaining = index;
+    if (first != null && remaining-- == 0) {
+      return first;
+    }
+    if (second != null && remaining-- == 0) {
+      return second;
+    }
+    if (third != null && remaining-- == 0) {
+      return third;
+    }
+    if (fourth != null && remaining-- == 0) {
+      return fourth;
+    }
+    if (fifth != null && remaining == 0) {
+      return fifth;
+    }
+    throw new IndexOutOfBoundsException(index);
+  }
+
+  /**
+   * Number of children of a list of elements interleaved with their separators, extra separators being ignored.
+   */
+  static int interleavedCount(List<? extends Tree> elements, List<? extends Tree> separators) {
+    return elements.size() + Math.min(elements.size(), separators.size());
+  }
+
+  static Tree interleavedChild(int index, List<? extends Tree> elements, List<? extends Tree> separators) {
+    int pairs = Math.min(elements.size(), separators.size());
+    if (index < 2 * pairs) {
+      return index % 2 == 0 ? elements.get(index / 2) : separators.get(index / 2);
+    }
+    return elements.get(index - pairs);
+  }
 }
@@ -137,7 +137,8 @@ public class PythonTreeMaker {
   }
 
   public void setParents(Tree root) {
-    for (Tree child : root.children()) {
+    for (int i = 0; i < root.childCount(); i++) {
+      Tree child = root.child(i);
       if (child != null) {
         ((PyTree) child).setParent(root);
         setParents(child);
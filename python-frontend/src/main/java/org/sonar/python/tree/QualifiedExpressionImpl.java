@@ -70,6 +70,16 @@ public class QualifiedExpressionImpl extends PyTree implements QualifiedExpressi
     return Stream.of(qualifier, dotToken, name).toList();
   }
 
+  @Override
+  public int childCount() {
+    return 3;
+  }
+
+  @Override
+  public Tree child(int index) {
+    return nonNullChild(index, qualifier, dotToken, name);
+  }
+
   @Override
   public InferredType type() {
     Symbol symbol = name.symbol();
@@ -75,4 +75,14 @@ public class RegularArgumentImpl extends PyTree implements RegularArgument {
   public List<Tree> computeChildren() {
     return Stream.of(keywordArgument, equalToken, expression).filter(Objects::nonNull).toList();
   }
+
+  @Override
+  public int childCount() {
+    return nonNullCount(keywordArgument, equalToken, expression);
+  }
+
+  @Override
+  public Tree child(int index) {
+    return nonNullChild(index, keywordArgument, equalToken, expression);
+  }
 }
@@ -53,4 +53,14 @@ public class StatementListImpl extends PyTree implements StatementList {
     return Stream.of(statements).flatMap(List::stream).filter(Objects::nonNull).collect(Collectors.toList());
   }
 
+  @Override
+  public int childCount() {
+    return statements.size();
+  }
+
+  @Override
+  public Tree child(int index) {
+    return statements.get(index);
+  }
+
 }
@@ -79,6 +79,25 @@ public class StringElementImpl extends PyTree implements StringElement {
       .toList();
   }
 
+  @Override
+  public int childCount() {
+    return 1 + fStringMiddles.size() + (fstringEnd == null ? 0 : 1);
+  }
+
+  @Override
+  public Tree child(int index) {
+    if (index == 0) {
+      return token;
+    }
+    if (index <= fStringMiddles.size()) {
+      return fStringMiddles.get(index - 1);
+    }
+    if (fstringEnd != null && index == fStringMiddles.size() + 1) {
+      return fstringEnd;
+    }
+    throw new IndexOutOfBoundsException(index);
+  }
+
   @Override
   public String value() {
     return value;
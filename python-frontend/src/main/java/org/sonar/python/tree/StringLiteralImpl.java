@@ -55,6 +55,16 @@ public class StringLiteralImpl extends PyTree implements StringLiteral {
     return Collections.unmodifiableList(stringElements);
   }
 
+  @Override
+  public int childCount() {
+    return stringElements.size();
+  }
+
+  @Override
+  public Tree child(int index) {
+    return stringElements.get(index);
+  }
+
   @Override
   public List<StringElement> stringElements() {
     return stringElements;
@@ -99,6 +99,16 @@ public class TokenImpl extends PyTree implements Token {
     return Collections.emptyList();
   }
 
+  @Override
+  public int childCount() {
+    return 0;
+  }
+
+  @Override
+  public Tree child(int index) {
+    throw new IndexOutOfBoundsException(index);
+  }
+
   @Override
   public Kind getKind() {
     return Tree.Kind.TOKEN;
@@ -0,0 +1,127 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.Tree.Kind;
+
+/**
+ * Nodes of a tree grouped by {@link Kind}, each group being in document order (i.e. pre-order traversal order).
+ * Allows to retrieve all the nodes of a given kind, or to visit the nodes of a set of kinds, without walking the whole tree.
+ */
+public class TreeKindIndex {
+
+  private static final Kind[] KINDS = Kind.values();
+  private static final Tree[] NO_NODES = new Tree[0];
+  private static final int[] NO_POSITIONS = new int[0];
+
+  private final Tree[][] nodesByKind;
+  private final int[][] positionsByKind;
+
+  private TreeKindIndex(Tree[][] nodesByKind, int[][] positionsByKind) {
+    this.nodesByKind = nodesByKind;
+    this.positionsByKind = positionsByKind;
+  }
+
+  public static TreeKindIndex build(Tree root) {
+    List<Tree> nodes = new ArrayList<>();
+    int[] counts = new int[KINDS.length];
+    Deque<Tree> stack = new ArrayDeque<>();
+    stack.push(root);
+    while (!stack.isEmpty()) {
+      Tree node = stack.pop();
+      nodes.add(node);
+      counts[node.getKind().ordinal()]++;
+      for (int i = node.childCount() - 1; i >= 0; i--) {
+        Tree child = node.child(i);
+        if (child != null) {
+          stack.push(child);
+        }
+      }
+    }
+    Tree[][] nodesByKind = new Tree[KINDS.length][];
+    int[][] positionsByKind = new int[KINDS.length][];
+    for (int i = 0; i < KINDS.length; i++) {
+      nodesByKind[i] = counts[i] == 0 ? NO_NODES : new Tree[counts[i]];
+      positionsByKind[i] = counts[i] == 0 ? NO_POSITIONS : new int[counts[i]];
+    }
+    int[] filled = new int[KINDS.length];
+    for (int position = 0; position < nodes.size(); position++) {
+      Tree node = nodes.get(position);
+      int kind = node.getKind().ordinal();
+      nodesByKind[kind][filled[kind]] = node;
+      positionsByKind[kind][filled[kind]] = position;
+      filled[kind]++;
+    }
+    return new TreeKindIndex(nodesByKind, positionsByKind);
+  }
+
+  /**
+   * @return the nodes of the given kind, in document order
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Tree> List<T> nodes(Kind kind) {
+    return (List<T>) Collections.unmodifiableList(Arrays.asList(nodesByKind[kind.ordinal()]));
+  }
+
+  public int count(Kind kind) {
+    return nodesByKind[kind.ordinal()].length;
+  }
+
+  /**
+   * Visits the nodes of the given kinds in document order, as a pre-order traversal of the tree restricted to these kinds would do.
+   */
+  public void forEach(Collection<Kind> kinds, Consumer<Tree> consumer) {
+    PriorityQueue<Cursor> cursors = new PriorityQueue<>(Math.max(1, kinds.size()), Comparator.comparingInt(Cursor::position));
+    for (Kind kind : kinds) {
+      if (count(kind) > 0) {
+        cursors.add(new Cursor(kind.ordinal()));
+      }
+    }
+    while (!cursors.isEmpty()) {
+      Cursor cursor = cursors.poll();
+      consumer.accept(nodesByKind[cursor.kind][cursor.index]);
+      cursor.index++;
+      if (cursor.index < positionsByKind[cursor.kind].length) {
+        cursors.add(cursor);
+      }
+    }
+  }
+
+  private class Cursor {
+    private final int kind;
+    private int index = 0;
+
+    private Cursor(int kind) {
+      this.kind = kind;
+    }
+
+    private int position() {
+      return positionsByKind[kind][index];
+    }
+  }
+}
@@ -104,14 +104,19 @@ public class TreeUtils {
       return Collections.singletonList((Token) tree);
     } 
     List<Token> tokens = new ArrayList<>();
-    for (Tree child : tree.children()) {
+    collectTokens(tree, tokens);
+    return tokens;
+  }
+
+  private static void collectTokens(Tree tree, List<Token> tokens) {
+    for (int i = 0; i < tree.childCount(); i++) {
+      Tree child = tree.child(i);
       if (child.is(Kind.TOKEN)) {
         tokens.add(((Token) child));
       } else {
-        tokens.addAll(tokens(child));
+        collectTokens(child, tokens);
       }
     }
-    return tokens;
   }
 
   public static List<Token> nonWhitespaceTokens(Tree tree) {
@@ -121,7 +126,13 @@ public class TreeUtils {
   }
 
   public static boolean hasDescendant(Tree tree, Predicate<Tree> predicate) {
-    return tree.children().stream().anyMatch(child -> predicate.test(child) || hasDescendant(child, predicate));
+    for (int i = 0; i < tree.childCount(); i++) {
+      Tree child = tree.child(i);
+      if (predicate.test(child) || hasDescendant(child, predicate)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   public static Stream<Expression> flattenTuples(Expression expression) {
@@ -467,12 +478,13 @@ public class TreeUtils {
     if (filter.test(tree)) {
       return Optional.of(tree);
     }
-    return tree.children()
-      .stream()
-      .map(c -> firstChild(c, filter))
-      .filter(Optional::isPresent)
-      .findFirst()
-      .map(Optional::get);
+    for (int i = 0; i < tree.childCount(); i++) {
+      Optional<Tree> result = firstChild(tree.child(i), filter);
+      if (result.isPresent()) {
+        return result;
+      }
+    }
+    return Optional.empty();
   }
 
   public static String treeToString(Tree tree, boolean renderMultiline) {
@@ -18,7 +18,9 @@ package org.sonar.plugins.python.api;
 
 import com.sonar.sslr.api.RecognitionException;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
@@ -28,6 +30,8 @@ import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PhaseTimer;
+import org.sonar.python.VisitorContextOptions;
 import org.sonar.python.PythonTestUtils;
 import org.sonar.python.caching.CacheContextImpl;
 import org.sonar.python.index.Descriptor;
@@ -113,4 +117,22 @@ class PythonVisitorContextTest {
     pythonVisitorContext = new PythonVisitorContext(pythonFile, parsingException, SonarProduct.SONARLINT);
     assertThat(pythonVisitorContext.sonarProduct()).isEqualTo(SonarProduct.SONARLINT);
   }
+
+  @Test
+  void semantic_phases_are_timed() {
+    List<String> phases = new ArrayList<>();
+    PhaseTimer phaseTimer = name -> () -> phases.add(name);
+    new PythonVisitorContext(PythonTestUtils.parse("def foo(x): return x"), pythonFile("mod.py"), null, "", ProjectLevelSymbolTable.empty(),
+      CacheContextImpl.dummyCache(), SonarProduct.SONARQUBE, VisitorContextOptions.DEFAULT.withPhaseTimer(phaseTimer));
+    assertThat(phases).containsExactly("SymbolTableBuilder", "SymbolTableBuilderV2", "TypeInferenceV2");
+  }
+
+  @Test
+  void visitor_context_options() {
+    assertThat(VisitorContextOptions.DEFAULT).isEqualTo(new VisitorContextOptions(null, true, PhaseTimer.NONE));
+    PhaseTimer phaseTimer = name -> PhaseTimer.NONE.start(name);
+    VisitorContextOptions options = VisitorContextOptions.DEFAULT.withDataFlowTypeInference(false).withPhaseTimer(phaseTimer);
+    assertThat(options).isEqualTo(new VisitorContextOptions(null, false, phaseTimer));
+    assertThat(options.withScopeTypeInferenceCache(null)).isEqualTo(options);
+  }
 }
@@ -0,0 +1,95 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.python.api.tree.Tree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeapSizeEstimatorTest {
+
+  private final HeapSizeEstimator estimator = new HeapSizeEstimator();
+
+  @Test
+  void null_and_shared_objects() {
+    assertThat(estimator.estimate(null)).isZero();
+    assertThat(estimator.estimate(Tree.Kind.NAME)).isZero();
+    assertThat(estimator.estimate(String.class)).isZero();
+    assertThat(estimator.estimate(new Node(1, null))).isEqualTo(24);
+  }
+
+  @Test
+  void strings_and_arrays() {
+    assertThat(estimator.estimate("")).isEqualTo(40);
+    assertThat(estimator.estimate("abcdefgh")).isEqualTo(48);
+    assertThat(estimator.estimate(new long[3])).isEqualTo(40);
+    assertThat(estimator.estimate(new Object[] {"", null})).isEqualTo(64);
+  }
+
+  @Test
+  void graphs_are_measured_once_per_object() {
+    Node leaf = new Node(1, null);
+    Node parent = new Node(2, leaf);
+    assertThat(estimator.estimate(parent)).isEqualTo(48);
+    assertThat(estimator.estimate(List.of(leaf, leaf))).isEqualTo(estimator.estimate(List.of(leaf)) + 6);
+
+    Node cycle = new Node(3, null);
+    cycle.next = cycle;
+    assertThat(estimator.estimate(cycle)).isEqualTo(24);
+  }
+
+  @Test
+  void collections() {
+    Map<String, Node> map = new HashMap<>();
+    map.put("", new Node(1, null));
+    assertThat(estimator.estimate(map)).isEqualTo(48 + 40 + 40 + 24);
+    Set<Node> set = new HashSet<>(map.values());
+    assertThat(estimator.estimate(set)).isEqualTo(48 + 40 + 24);
+    assertThat(estimator.estimate(new ArrayList<>(map.values()))).isEqualTo(40 + 6 + 24);
+    assertThat(estimator.estimate(ByteBuffer.allocateDirect(1000))).isEqualTo(48 + 1000);
+    assertThat(estimator.estimate(Thread.currentThread())).isEqualTo(16);
+  }
+
+  @Test
+  void excluded_classes() {
+    Node leaf = new Node(1, null);
+    Holder holder = new Holder(leaf);
+    assertThat(estimator.estimate(holder)).isEqualTo(16 + 24);
+    assertThat(new HeapSizeEstimator(Node.class).estimate(holder)).isEqualTo(16);
+  }
+
+  private static class Node {
+    private final long value;
+    private Node next;
+
+    Node(long value, Node next) {
+      this.value = value;
+      this.next = next;
+    }
+  }
+
+  private record Holder(Object content) {
+  }
+}
@@ -16,11 +16,14 @@
  */
 package org.sonar.python;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.regex.Pattern;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.sonar.plugins.python.api.ProjectPythonVersion;
+import org.sonar.plugins.python.api.PythonCheck;
 import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.PythonVisitorContext;
@@ -100,4 +103,43 @@ class SubscriptionVisitorTest {
     PythonVisitorContext context = new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("file"), null, "");
     SubscriptionVisitor.analyze(Collections.singleton(check), context);
   }
+
+  @Test
+  void nodes_are_visited_in_document_order_across_kinds() {
+    List<String> visited = new ArrayList<>();
+    PythonSubscriptionCheck check = new PythonSubscriptionCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> visited.add("call"));
+        context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, ctx -> visited.add("def"));
+        context.registerSyntaxNodeConsumer(Tree.Kind.NUMERIC_LITERAL, ctx -> visited.add("number"));
+        context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> visited.add("call2"));
+      }
+    };
+
+    FileInput fileInput = PythonTestUtils.parse("foo(1)\ndef bar():\n  baz(qix(2))");
+    PythonVisitorContext context = new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("file"), null, "");
+    SubscriptionVisitor.analyze(Collections.singleton(check), context);
+    assertThat(visited).containsExactly("call", "call2", "number", "def", "call", "call2", "call", "call2", "number");
+  }
+
+  @Test
+  void executions_are_recorded() {
+    PythonSubscriptionCheck check = new PythonSubscriptionCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {});
+      }
+    };
+
+    List<PythonCheck> recorded = new ArrayList<>();
+    FileInput fileInput = PythonTestUtils.parse("foo(1)\nbar(2)");
+    PythonVisitorContext context = new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("file"), null, "");
+    SubscriptionVisitor.analyze(Collections.singleton(check), context, (executedCheck, durationNanos) -> {
+      assertThat(durationNanos).isNotNegative();
+      recorded.add(executedCheck);
+    });
+    // Two calls, then leaving the file
+    assertThat(recorded).containsExactly(check, check, check);
+  }
 }
@@ -0,0 +1,81 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.caching;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheEncodingTest {
+
+  @Test
+  void small_payloads_are_not_encoded() {
+    byte[] data = "mod1;mod2".getBytes(StandardCharsets.UTF_8);
+    assertThat(CacheEncoding.encode(data)).isSameAs(data);
+    assertThat(CacheEncoding.decode(data)).isSameAs(data);
+    assertThat(CacheEncoding.encode(new byte[0])).isEmpty();
+  }
+
+  @Test
+  void small_payloads_looking_like_encoded_ones() {
+    byte[] data = {0, 'P', CacheEncoding.VERSION, 42};
+    byte[] encoded = CacheEncoding.encode(data);
+    assertThat(encoded).hasSize(CacheEncoding.HEADER_SIZE + data.length);
+    assertThat(CacheEncoding.decode(encoded)).isEqualTo(data);
+  }
+
+  @Test
+  void compressed_payloads() {
+    byte[] data = "builtins.str;typing.Optional;mod.MyClass.__init__;mod.MyClass.method;".repeat(50).getBytes(StandardCharsets.UTF_8);
+    byte[] encoded = CacheEncoding.encode(data);
+    assertThat(encoded[CacheEncoding.HEADER_SIZE - 1]).isEqualTo(CacheEncoding.DEFLATE);
+    assertThat(encoded.length).isLessThan(data.length / 10);
+    assertThat(CacheEncoding.decode(encoded)).isEqualTo(data);
+  }
+
+  @Test
+  void incompressible_payloads() {
+    byte[] data = new byte[1000];
+    new Random(42).nextBytes(data);
+    byte[] encoded = CacheEncoding.encode(data);
+    assertThat(encoded[CacheEncoding.HEADER_SIZE - 1]).isEqualTo(CacheEncoding.STORED);
+    assertThat(CacheEncoding.decode(encoded)).isEqualTo(data);
+  }
+
+  @Test
+  void invalid_payloads() {
+    byte[] unknownCodec = {0, 'P', CacheEncoding.VERSION, 42, 1, 2, 3};
+    assertThatThrownBy(() -> CacheEncoding.decode(unknownCodec))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Unknown cache payload codec: 42");
+
+    byte[] encoded = CacheEncoding.encode("builtins.str;".repeat(50).getBytes(StandardCharsets.UTF_8));
+    byte[] truncated = Arrays.copyOf(encoded, encoded.length - 2);
+    assertThatThrownBy(() -> CacheEncoding.decode(truncated))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Truncated cache payload");
+
+    byte[] corrupted = {0, 'P', CacheEncoding.VERSION, CacheEncoding.DEFLATE, -1, -1, -1, -1};
+    assertThatThrownBy(() -> CacheEncoding.decode(corrupted))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Invalid cache payload");
+  }
+}
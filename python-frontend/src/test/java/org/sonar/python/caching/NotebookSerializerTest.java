@@ -0,0 +1,53 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.caching;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.sonar.python.EscapeCharPositionInfo;
+import org.sonar.python.IPythonLocation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotebookSerializerTest {
+
+  @Test
+  void serialize_deserialize() throws IOException {
+    Map<Integer, IPythonLocation> locationMap = new LinkedHashMap<>();
+    locationMap.put(1, new IPythonLocation(17, 5));
+    locationMap.put(2, new IPythonLocation(18, 5, List.of(new EscapeCharPositionInfo(8, 1), new EscapeCharPositionInfo(12, 5))));
+    locationMap.put(3, new IPythonLocation(1, 300, List.of(), true));
+    NotebookSerializer.NotebookData notebookData = new NotebookSerializer.NotebookData("hash", "print('é')\nx = 1\n", locationMap);
+
+    NotebookSerializer.NotebookData deserialized = NotebookSerializer.deserialize(NotebookSerializer.serialize(notebookData));
+    assertThat(deserialized).isEqualTo(notebookData);
+    assertThat(deserialized.locationMap().keySet()).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  void deserialize_corrupted_data() throws IOException {
+    byte[] bytes = NotebookSerializer.serialize(new NotebookSerializer.NotebookData("hash", "x = 1", Map.of()));
+    bytes[bytes.length - 1] = 'X';
+    assertThatThrownBy(() -> NotebookSerializer.deserialize(bytes))
+      .isInstanceOf(IOException.class)
+      .hasMessage("Can't read data from cache, format corrupted");
+  }
+}
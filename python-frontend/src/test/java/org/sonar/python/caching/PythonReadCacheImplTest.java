@@ -19,13 +19,18 @@ package org.sonar.python.caching;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.slf4j.event.Level;
 import org.sonar.api.batch.sensor.cache.ReadCache;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.python.jfr.RecordedEvents;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -49,6 +54,42 @@ class PythonReadCacheImplTest {
     assertThat(result).isEqualTo(bytes);
   }
 
+  @Test
+  void read_encoded_bytes() throws IOException {
+    byte[] bytes = "builtins.str;".repeat(20).getBytes();
+    ReadCache readCache = mock(ReadCache.class);
+    when(readCache.read("key")).thenAnswer(invocation -> new ByteArrayInputStream(CacheEncoding.encode(bytes)));
+    when(readCache.contains("key")).thenReturn(true);
+
+    PythonReadCacheImpl pythonReadCache = new PythonReadCacheImpl(readCache);
+    assertThat(pythonReadCache.readBytes("key")).isEqualTo(bytes);
+    try (InputStream inputStream = pythonReadCache.read("key")) {
+      assertThat(inputStream.readAllBytes()).isEqualTo(bytes);
+    }
+  }
+
+  @Test
+  void read_invalid_encoded_bytes() {
+    ReadCache readCache = mock(ReadCache.class);
+    when(readCache.read("key")).thenReturn(new ByteArrayInputStream(new byte[] {0, 'P', CacheEncoding.VERSION, 42}));
+    when(readCache.contains("key")).thenReturn(true);
+
+    PythonReadCacheImpl pythonReadCache = new PythonReadCacheImpl(readCache);
+    assertThat(pythonReadCache.readBytes("key")).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).containsExactly("Unable to read data for key: \"key\"");
+  }
+
+  @Test
+  void read_io_exception() throws IOException {
+    InputStream inputStream = mock(InputStream.class);
+    when(inputStream.readAllBytes()).thenThrow(IOException.class);
+    ReadCache readCache = mock(ReadCache.class);
+    when(readCache.read("key")).thenReturn(inputStream);
+
+    PythonReadCacheImpl pythonReadCache = new PythonReadCacheImpl(readCache);
+    assertThatThrownBy(() -> pythonReadCache.read("key")).isInstanceOf(UncheckedIOException.class);
+  }
+
   @Test
   void read_bytes_no_such_key() {
     ReadCache readCache = mock(ReadCache.class);
@@ -79,6 +120,26 @@ class PythonReadCacheImplTest {
       .containsExactly("Unable to read data for key: \"key\"");
   }
 
+  @Test
+  void read_events() throws IOException {
+    byte[] bytes = "builtins.str;".repeat(20).getBytes();
+    ReadCache readCache = mock(ReadCache.class);
+    when(readCache.read("key")).thenAnswer(invocation -> new ByteArrayInputStream(CacheEncoding.encode(bytes)));
+    when(readCache.contains("key")).thenReturn(true);
+    PythonReadCacheImpl pythonReadCache = new PythonReadCacheImpl(readCache);
+
+    List<RecordedEvent> events = RecordedEvents.record("org.sonar.python.CacheRead", () -> {
+      pythonReadCache.readBytes("key");
+      pythonReadCache.readBytes("missing");
+    });
+    assertThat(events).hasSize(2);
+    assertThat(events.get(0).getString("key")).isEqualTo("key");
+    assertThat(events.get(0).getBoolean("hit")).isTrue();
+    assertThat(events.get(0).getLong("bytes")).isEqualTo(bytes.length);
+    assertThat(events.get(1).getString("key")).isEqualTo("missing");
+    assertThat(events.get(1).getBoolean("hit")).isFalse();
+  }
+
   @Test
   void contains() {
     ReadCache readCache = mock(ReadCache.class);
@@ -16,9 +16,15 @@
  */
 package org.sonar.python.caching;
 
+import java.io.IOException;
+import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.sonar.api.batch.sensor.cache.WriteCache;
+import org.sonar.python.jfr.RecordedEvents;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 class PythonWriteCacheImplTest {
 
@@ -34,6 +40,18 @@ class PythonWriteCacheImplTest {
       .write("key", bytes);
   }
 
+  @Test
+  void write_encoded() {
+    byte[] bytes = "builtins.str;".repeat(20).getBytes();
+    WriteCache writeCache = Mockito.spy(WriteCache.class);
+
+    PythonWriteCacheImpl pythonWriteCache = new PythonWriteCacheImpl(writeCache);
+    pythonWriteCache.write("key", bytes);
+
+    Mockito.verify(writeCache, Mockito.times(1))
+      .write("key", CacheEncoding.encode(bytes));
+  }
+
   @Test
   void copy_from_previous() {
     WriteCache writeCache = Mockito.spy(WriteCache.class);
@@ -44,4 +62,16 @@ class PythonWriteCacheImplTest {
     Mockito.verify(writeCache, Mockito.times(1))
       .copyFromPrevious("key");
   }
+
+  @Test
+  void write_event() throws IOException {
+    byte[] bytes = "builtins.str;".repeat(20).getBytes();
+    PythonWriteCacheImpl pythonWriteCache = new PythonWriteCacheImpl(Mockito.spy(WriteCache.class));
+
+    List<RecordedEvent> events = RecordedEvents.record("org.sonar.python.CacheWrite", () -> pythonWriteCache.write("key", bytes));
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getString("key")).isEqualTo("key");
+    assertThat(events.get(0).getLong("bytes")).isEqualTo(bytes.length);
+    assertThat(events.get(0).getLong("encodedBytes")).isEqualTo(CacheEncoding.encode(bytes).length);
+  }
 }
@@ -0,0 +1,96 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.index;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.python.PythonTestUtils.parse;
+import static org.sonar.python.PythonTestUtils.pythonFile;
+import static org.sonar.python.index.DescriptorsToProtobuf.fromProtobuf;
+import static org.sonar.python.index.DescriptorsToProtobuf.toProtobufModuleDescriptor;
+
+class DescriptorsFingerprintTest {
+
+  private static final PythonFile PYTHON_FILE = pythonFile("mod.py");
+
+  private static final String CODE = """
+    import os
+    x: int = 42
+    def foo(a, b=1, *args, c, **kwargs) -> str:
+        return str(a)
+    class A(B):
+        y = 1
+        def method(self): ...
+        def method(self, p): ...
+    """;
+
+  @Test
+  void same_api() {
+    byte[] fingerprint = fingerprint(CODE);
+    assertThat(fingerprint).isEqualTo(fingerprint(CODE));
+    assertThat(fingerprint(CODE.replace("return str(a)", "return str(b)"))).isEqualTo(fingerprint);
+  }
+
+  @Test
+  void same_api_after_serialization() {
+    Set<Descriptor> descriptors = descriptors(CODE);
+    Set<Descriptor> deserialized = fromProtobuf(toProtobufModuleDescriptor(descriptors));
+    assertThat(DescriptorsFingerprint.of(deserialized)).isEqualTo(DescriptorsFingerprint.of(descriptors));
+  }
+
+  @Test
+  void different_api() {
+    byte[] fingerprint = fingerprint(CODE);
+    assertThat(fingerprint(CODE.replace("def foo(a, b=1", "def foo(b, a=1"))).isNotEqualTo(fingerprint);
+    assertThat(fingerprint(CODE.replace("def foo", "async def foo"))).isNotEqualTo(fingerprint);
+    assertThat(fingerprint(CODE.replace("x: int", "w: int"))).isNotEqualTo(fingerprint);
+    assertThat(fingerprint(CODE.replace("class A(B)", "class A(C)"))).isNotEqualTo(fingerprint);
+    assertThat(fingerprint(CODE.replace("def method(self, p)", "def other(self, p)"))).isNotEqualTo(fingerprint);
+    assertThat(fingerprint(CODE + "z = 1\n")).isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  void moved_declarations() {
+    byte[] fingerprint = fingerprint(CODE);
+    assertThat(fingerprint("\n\n# moved\n" + CODE)).isNotEqualTo(fingerprint);
+    assertThat(fingerprint(CODE.replace("return str(a)", "b = a\n    return str(b)"))).isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  void same_api_in_another_directory() {
+    Set<Descriptor> descriptors = descriptors(CODE, pythonFile("mod.py"));
+    assertThat(DescriptorsFingerprint.of(descriptors)).isEqualTo(fingerprint(CODE));
+  }
+
+  private static byte[] fingerprint(String code) {
+    return DescriptorsFingerprint.of(descriptors(code));
+  }
+
+  private static Set<Descriptor> descriptors(String code) {
+    return descriptors(code, PYTHON_FILE);
+  }
+
+  private static Set<Descriptor> descriptors(String code, PythonFile pythonFile) {
+    ProjectLevelSymbolTable projectLevelSymbolTable = ProjectLevelSymbolTable.empty();
+    projectLevelSymbolTable.addModule(parse(code), "", pythonFile);
+    return projectLevelSymbolTable.descriptorsForModule("mod");
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.index;
+
+import org.junit.jupiter.api.Test;
+import org.sonar.python.types.protobuf.DescriptorsProtos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DescriptorsRebaserTest {
+
+  @Test
+  void rebase_module_descriptor() {
+    DescriptorsProtos.LocationInFile location = DescriptorsProtos.LocationInFile.newBuilder().setFileId("old/pkg/mod.py").setStartLine(3).build();
+    DescriptorsProtos.ModuleDescriptor moduleDescriptor = DescriptorsProtos.ModuleDescriptor.newBuilder()
+      .addClassDescriptors(DescriptorsProtos.ClassDescriptor.newBuilder()
+        .setName("A")
+        .setFullyQualifiedName("old.pkg.mod.A")
+        .addSuperClasses("old.pkg.other.B")
+        .addSuperClasses("builtins.object")
+        .setMetaClassFQN("abc.ABCMeta")
+        .setDefinitionLocation(location)
+        .addFunctionMembers(DescriptorsProtos.FunctionDescriptor.newBuilder()
+          .setName("method")
+          .setFullyQualifiedName("old.pkg.mod.A.method")
+          .addDecorators("old.pkg.decorators.deco")
+          .setAnnotatedReturnType("old.pkg.mod.A")
+          .setDefinitionLocation(location)))
+      .addVarDescriptors(DescriptorsProtos.VarDescriptor.newBuilder()
+        .setName("old")
+        .setFullyQualifiedName("old.pkg.mod.old")
+        .setAnnotatedType("old.pkg.mod_two.C"))
+      .build();
+
+    DescriptorsProtos.ModuleDescriptor rebased = DescriptorsRebaser.rebase(moduleDescriptor, "old.pkg.mod", "new.mod", "new/mod.py");
+
+    DescriptorsProtos.ClassDescriptor classDescriptor = rebased.getClassDescriptors(0);
+    assertThat(classDescriptor.getName()).isEqualTo("A");
+    assertThat(classDescriptor.getFullyQualifiedName()).isEqualTo("new.mod.A");
+    assertThat(classDescriptor.getSuperClassesList()).containsExactly("new.other.B", "builtins.object");
+    assertThat(classDescriptor.getMetaClassFQN()).isEqualTo("abc.ABCMeta");
+    assertThat(classDescriptor.getDefinitionLocation().getFileId()).isEqualTo("new/mod.py");
+    assertThat(classDescriptor.getDefinitionLocation().getStartLine()).isEqualTo(3);
+    DescriptorsProtos.FunctionDescriptor method = classDescriptor.getFunctionMembers(0);
+    assertThat(method.getFullyQualifiedName()).isEqualTo("new.mod.A.method");
+    assertThat(method.getDecoratorsList()).containsExactly("new.decorators.deco");
+    assertThat(method.getAnnotatedReturnType()).isEqualTo("new.mod.A");
+    assertThat(method.getDefinitionLocation().getFileId()).isEqualTo("new/mod.py");
+    DescriptorsProtos.VarDescriptor varDescriptor = rebased.getVarDescriptors(0);
+    assertThat(varDescriptor.getName()).isEqualTo("old");
+    assertThat(varDescriptor.getFullyQualifiedName()).isEqualTo("new.mod.old");
+    assertThat(varDescriptor.getAnnotatedType()).isEqualTo("new.mod_two.C");
+  }
+
+  @Test
+  void rebase_name() {
+    assertThat(DescriptorsRebaser.rebaseName("pkg.mod", "pkg.mod", "pkg.renamed")).isEqualTo("pkg.renamed");
+    assertThat(DescriptorsRebaser.rebaseName("pkg.mod.f", "pkg.mod", "pkg.renamed")).isEqualTo("pkg.renamed.f");
+    assertThat(DescriptorsRebaser.rebaseName("pkg.module", "pkg.mod", "other.mod")).isEqualTo("other.module");
+    assertThat(DescriptorsRebaser.rebaseName("pkgx.mod", "pkg.mod", "other.mod")).isEqualTo("pkgx.mod");
+    assertThat(DescriptorsRebaser.rebaseName("os.path", "mod", "pkg.mod")).isEqualTo("os.path");
+    assertThat(DescriptorsRebaser.rebaseName("mod.f", "mod", "pkg.mod")).isEqualTo("pkg.mod.f");
+  }
+
+  @Test
+  void package_name() {
+    assertThat(DescriptorsRebaser.packageName("mod")).isEmpty();
+    assertThat(DescriptorsRebaser.packageName("pkg.mod")).isEqualTo("pkg");
+    assertThat(DescriptorsRebaser.packageName("a.b.mod")).isEqualTo("a.b");
+  }
+}
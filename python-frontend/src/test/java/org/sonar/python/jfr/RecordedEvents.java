@@ -0,0 +1,50 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class RecordedEvents {
+
+  private RecordedEvents() {
+  }
+
+  /**
+   * Runs the action during a flight recording, and returns the events of the given name which were emitted.
+   */
+  public static List<RecordedEvent> record(String eventName, Runnable action) throws IOException {
+    Path file = Files.createTempFile("sonar-python", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(eventName).withoutThreshold();
+      recording.start();
+      action.run();
+      recording.stop();
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file).stream()
+        .filter(event -> event.getEventType().getName().equals(eventName))
+        .toList();
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
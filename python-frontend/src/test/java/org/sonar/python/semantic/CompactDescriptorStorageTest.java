@@ -0,0 +1,101 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.semantic;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.sonar.python.index.AmbiguousDescriptor;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.index.VariableDescriptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.python.PythonTestUtils.parseWithoutSymbols;
+import static org.sonar.python.PythonTestUtils.pythonFile;
+
+class CompactDescriptorStorageTest {
+
+  @Test
+  void put_and_get() {
+    Set<Descriptor> descriptors = descriptors("""
+      class A:
+          def method(self, p: int) -> str: ...
+      def f(a, *args, b=1): ...
+      x: int = 1
+      """);
+    CompactDescriptorStorage storage = new CompactDescriptorStorage();
+    storage.put("mod", descriptors);
+    assertThat(storage.moduleNames()).containsExactly("mod");
+    assertThat(storage.get("mod")).extracting(Descriptor::fullyQualifiedName).containsExactlyInAnyOrder("mod.A", "mod.f", "mod.x");
+    assertThat(storage.get("other")).isNull();
+    assertThat(storage.descriptorWithFQN("mod.f").kind()).isEqualTo(Descriptor.Kind.FUNCTION);
+    assertThat(storage.descriptorWithFQN("mod.unknown")).isNull();
+
+    storage.put("mod", descriptors("def g(): ..."));
+    assertThat(storage.descriptorWithFQN("mod.f")).isNull();
+    assertThat(storage.descriptorWithFQN("mod.g")).isNotNull();
+    storage.remove("mod");
+    storage.remove("mod");
+    assertThat(storage.get("mod")).isNull();
+    assertThat(storage.descriptorWithFQN("mod.g")).isNull();
+  }
+
+  @Test
+  void bounded_materialized_modules() {
+    CompactDescriptorStorage storage = new CompactDescriptorStorage(1, 1024);
+    storage.put("a", Set.of(new VariableDescriptor("x", "a.x", null)));
+    storage.put("b", Set.of(new VariableDescriptor("y", "b.y", null)));
+    Set<Descriptor> descriptors = storage.get("a");
+    assertThat(storage.get("a")).isSameAs(descriptors);
+    storage.get("b");
+    // "a" was evicted and is decoded again
+    assertThat(storage.get("a")).isNotSameAs(descriptors).extracting(Descriptor::fullyQualifiedName).containsExactly("a.x");
+  }
+
+  @Test
+  void fqn_shared_by_several_modules() {
+    CompactDescriptorStorage storage = new CompactDescriptorStorage();
+    storage.put("pkg", Set.of(new VariableDescriptor("x", "pkg.x", "int")));
+    storage.put("other", Set.of(new VariableDescriptor("x", "pkg.x", "str")));
+    assertThat(storage.descriptorWithFQN("pkg.x")).isInstanceOf(AmbiguousDescriptor.class);
+    assertThat(((AmbiguousDescriptor) storage.descriptorWithFQN("pkg.x")).alternatives()).hasSize(2);
+    storage.remove("other");
+    assertThat(storage.descriptorWithFQN("pkg.x").kind()).isEqualTo(Descriptor.Kind.VARIABLE);
+  }
+
+  @Test
+  void removed_modules_space_is_reclaimed() {
+    CompactDescriptorStorage storage = new CompactDescriptorStorage(10, 64);
+    Set<Descriptor> descriptors = descriptors("def f(a, b, c): ...\nclass A: ...\n");
+    for (int i = 0; i < 50; i++) {
+      storage.put("mod", descriptors);
+    }
+    storage.put("other", descriptors);
+    long usedBytes = storage.usedBytes();
+    assertThat(storage.chunksCount()).isLessThanOrEqualTo(4);
+    assertThat(storage.get("mod")).hasSize(2);
+    assertThat(storage.get("other")).hasSize(2);
+
+    storage.remove("other");
+    assertThat(storage.usedBytes()).isEqualTo(usedBytes / 2);
+  }
+
+  private static Set<Descriptor> descriptors(String code) {
+    ProjectLevelSymbolTable projectLevelSymbolTable = ProjectLevelSymbolTable.empty();
+    projectLevelSymbolTable.addModule(parseWithoutSymbols(code), "", pythonFile("mod.py"));
+    return projectLevelSymbolTable.descriptorsForModule("mod");
+  }
+}
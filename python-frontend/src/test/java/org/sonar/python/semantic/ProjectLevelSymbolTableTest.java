@@ -415,6 +415,99 @@ class ProjectLevelSymbolTableTest {
     assertThat(projectLevelSymbolTable.getSymbolsFromModule("mod")).isNull();
   }
 
+  @Test
+  void test_remove_module_updates_fqn_index() {
+    ProjectLevelSymbolTable projectLevelSymbolTable = empty();
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("class A: pass"), "", pythonFile("mod.py"));
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("def f(): pass"), "", pythonFile("other.py"));
+    assertThat(projectLevelSymbolTable.getSymbol("mod.A")).isNotNull();
+
+    projectLevelSymbolTable.removeModule("", "mod.py");
+    assertThat(projectLevelSymbolTable.getSymbol("mod.A")).isNull();
+    assertThat(projectLevelSymbolTable.getSymbol("other.f")).isNotNull();
+
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("class B: pass"), "", pythonFile("mod.py"));
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("class C: pass"), "", pythonFile("mod.py"));
+    assertThat(projectLevelSymbolTable.getSymbol("mod.B")).isNull();
+    assertThat(projectLevelSymbolTable.getSymbol("mod.C")).isNotNull();
+  }
+
+  @Test
+  void test_remove_module_with_shared_fqn() {
+    ProjectLevelSymbolTable projectLevelSymbolTable = empty();
+    VariableDescriptor first = new VariableDescriptor("x", "pkg.x", null);
+    VariableDescriptor second = new VariableDescriptor("x", "pkg.x", "int");
+    VariableDescriptor third = new VariableDescriptor("x", "pkg.x", "str");
+    projectLevelSymbolTable.insertEntry("pkg", Set.of(first));
+    projectLevelSymbolTable.insertEntry("pkg.x", Set.of(second));
+    projectLevelSymbolTable.insertEntry("other", Set.of(third));
+    assertThat(projectLevelSymbolTable.getSymbol("pkg.x").is(Symbol.Kind.AMBIGUOUS)).isTrue();
+
+    projectLevelSymbolTable.removeModule("pkg", "x.py");
+    assertThat(projectLevelSymbolTable.getSymbol("pkg.x").is(Symbol.Kind.AMBIGUOUS)).isTrue();
+    projectLevelSymbolTable.removeModule("", "other.py");
+    assertThat(projectLevelSymbolTable.getSymbol("pkg.x").is(Symbol.Kind.OTHER)).isTrue();
+    projectLevelSymbolTable.removeModule("", "pkg.py");
+    assertThat(projectLevelSymbolTable.getSymbol("pkg.x")).isNull();
+  }
+
+  @Test
+  void test_dependent_modules() {
+    ProjectLevelSymbolTable projectLevelSymbolTable = empty();
+    projectLevelSymbolTable.addModule("pkg.mod", Set.of(), Set.of("os"));
+    projectLevelSymbolTable.addModule("a", Set.of(), Set.of("pkg.mod"));
+    projectLevelSymbolTable.addModule("b", Set.of(), Set.of("pkg"));
+    projectLevelSymbolTable.addModule("c", Set.of(), Set.of("a"));
+    projectLevelSymbolTable.addModule("d", Set.of(), Set.of("os"));
+    assertThat(projectLevelSymbolTable.dependentModules("pkg.mod")).containsExactlyInAnyOrder("a", "b", "c");
+    assertThat(projectLevelSymbolTable.dependentModules("a")).containsExactly("c");
+    assertThat(projectLevelSymbolTable.dependentModules("d")).isEmpty();
+
+    projectLevelSymbolTable.addModule("c", Set.of(), Set.of("os"));
+    assertThat(projectLevelSymbolTable.dependentModules("pkg.mod")).containsExactlyInAnyOrder("a", "b");
+    projectLevelSymbolTable.removeModule("", "b.py");
+    assertThat(projectLevelSymbolTable.dependentModules("pkg.mod")).containsExactly("a");
+    assertThat(projectLevelSymbolTable.importsByModule()).doesNotContainKey("b");
+  }
+
+  @Test
+  void test_compact_storage() {
+    ProjectLevelSymbolTable projectLevelSymbolTable = empty();
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("class A: pass"), "", pythonFile("mod.py"));
+    projectLevelSymbolTable.enableCompactStorage();
+    projectLevelSymbolTable.enableCompactStorage();
+    assertThat(projectLevelSymbolTable.getSymbol("mod.A").kind()).isEqualTo(Symbol.Kind.CLASS);
+
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("def f(): pass"), "", pythonFile("other.py"));
+    projectLevelSymbolTable.insertEntry("third", Set.of(new VariableDescriptor("x", "third.x", null)));
+    assertThat(projectLevelSymbolTable.getSymbolsFromModule("other")).extracting(Symbol::name).containsExactly("f");
+    assertThat(projectLevelSymbolTable.getSymbolsFromModule(null)).isNull();
+    assertThat(projectLevelSymbolTable.descriptorsForModule("third")).extracting(Descriptor::name).containsExactly("x");
+    assertThat(projectLevelSymbolTable.getSymbol("other.f").kind()).isEqualTo(Symbol.Kind.FUNCTION);
+
+    projectLevelSymbolTable.removeModule("", "mod.py");
+    assertThat(projectLevelSymbolTable.getSymbol("mod.A")).isNull();
+    assertThat(projectLevelSymbolTable.getSymbolsFromModule("mod")).isNull();
+    assertThat(projectLevelSymbolTable.importsByModule()).containsOnlyKeys("other");
+  }
+
+  @Test
+  void test_estimated_sizes() {
+    ProjectLevelSymbolTable projectLevelSymbolTable = empty();
+    Map<String, Long> emptySizes = projectLevelSymbolTable.estimatedSizes();
+    assertThat(emptySizes).containsOnlyKeys("ProjectLevelSymbolTable", "TypeShedDescriptorsProvider");
+    assertThat(emptySizes.get("TypeShedDescriptorsProvider")).isZero();
+
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("class A:\n  def m(self): pass"), "", pythonFile("mod.py"));
+    projectLevelSymbolTable.typeShedDescriptorsProvider().descriptorsForModule("os");
+    Map<String, Long> sizes = projectLevelSymbolTable.estimatedSizes();
+    assertThat(sizes.get("ProjectLevelSymbolTable")).isGreaterThan(emptySizes.get("ProjectLevelSymbolTable"));
+    assertThat(sizes.get("TypeShedDescriptorsProvider")).isPositive();
+
+    projectLevelSymbolTable.enableCompactStorage();
+    assertThat(projectLevelSymbolTable.estimatedSizes().get("ProjectLevelSymbolTable")).isGreaterThan(CompactDescriptorStorage.DEFAULT_CHUNK_SIZE);
+  }
+
   @Test
   void test_insert_entry() {
     ProjectLevelSymbolTable projectLevelSymbolTable = empty();
@@ -424,6 +517,20 @@ class ProjectLevelSymbolTableTest {
     assertThat(projectLevelSymbolTable.getSymbol("mod.x").name()).isEqualTo("x");
   }
 
+  @Test
+  void test_add_module_from_descriptors() {
+    ProjectLevelSymbolTable projectLevelSymbolTable = empty();
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("class A: pass"), "", pythonFile("mod.py"));
+    assertThat(projectLevelSymbolTable.getSymbol("mod.A")).isNotNull();
+
+    VariableDescriptor variableDescriptor = new VariableDescriptor("x", "other.x", null);
+    projectLevelSymbolTable.addModule("other", Set.of(variableDescriptor), Set.of("mod"));
+    assertThat(projectLevelSymbolTable.descriptorsForModule("other")).containsExactly(variableDescriptor);
+    assertThat(projectLevelSymbolTable.importsByModule()).containsEntry("other", Set.of("mod"));
+    assertThat(projectLevelSymbolTable.getSymbol("other.x").name()).isEqualTo("x");
+    assertThat(projectLevelSymbolTable.getSymbol("mod.A")).isNotNull();
+  }
+
   @Test
   void test_add_module_after_creation() {
     FileInput tree = parseWithoutSymbols(
@@ -991,6 +1098,11 @@ class ProjectLevelSymbolTableTest {
     projectSymbolTable.addModule(parseWithoutSymbols(urls), "", pythonFile("urls.py"));
 
     assertThat(projectSymbolTable.isDjangoView("views.foo")).isTrue();
+    assertThat(projectSymbolTable.djangoViews()).containsExactly("views.foo");
+
+    ProjectLevelSymbolTable otherProjectSymbolTable = empty();
+    otherProjectSymbolTable.addDjangoViews(projectSymbolTable.djangoViews());
+    assertThat(otherProjectSymbolTable.isDjangoView("views.foo")).isTrue();
 
     FileInput fileInput = parse(new SymbolTableBuilder("", pythonFile("views.py"), projectSymbolTable), views);
     Map<String, Symbol> symbolByName = getSymbolByName(fileInput);
@@ -0,0 +1,140 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.semantic.v2;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PythonTestUtils;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.types.v2.PythonType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.python.PythonTestUtils.getAllDescendant;
+import static org.sonar.python.PythonTestUtils.pythonFile;
+
+class ScopeTypeInferenceCacheTest {
+
+  private static final PythonFile PYTHON_FILE = pythonFile("mod");
+
+  private static final String ORIGINAL_CODE = """
+    def foo(param):
+        x = 42
+        if param:
+            x = "hello"
+        return x
+
+    def bar():
+        y = [1, 2]
+        return y
+    """;
+
+  @Test
+  void unchanged_functions_are_reused() {
+    var cache = new ScopeTypeInferenceCache(ProjectLevelSymbolTable.empty());
+    inferTypes(ORIGINAL_CODE, cache);
+    assertThat(cache.reusedScopes()).isZero();
+    assertThat(cache.recomputedScopes()).isEqualTo(2);
+
+    String modifiedCode = ORIGINAL_CODE.replace("y = [1, 2]", "y = {1, 2}");
+    FileInput fileInput = inferTypes(modifiedCode, cache);
+    assertThat(cache.reusedScopes()).isEqualTo(1);
+    assertThat(cache.recomputedScopes()).isEqualTo(1);
+    assertThat(nameTypes(fileInput)).isEqualTo(nameTypes(inferTypes(modifiedCode, null)));
+  }
+
+  @Test
+  void all_functions_are_recomputed_when_module_skeleton_changes() {
+    var cache = new ScopeTypeInferenceCache(ProjectLevelSymbolTable.empty());
+    inferTypes(ORIGINAL_CODE, cache);
+    inferTypes(ORIGINAL_CODE + "\nz = 3\n", cache);
+    assertThat(cache.reusedScopes()).isZero();
+    assertThat(cache.recomputedScopes()).isEqualTo(2);
+  }
+
+  @Test
+  void nested_functions_are_recomputed_when_enclosing_function_changes() {
+    var cache = new ScopeTypeInferenceCache(ProjectLevelSymbolTable.empty());
+    String code = """
+      def outer():
+          a = 1
+          def inner():
+              b = a
+              return b
+          return inner
+      """;
+    inferTypes(code, cache);
+    inferTypes(code.replace("a = 1", "a = '1'"), cache);
+    assertThat(cache.reusedScopes()).isZero();
+    assertThat(cache.recomputedScopes()).isEqualTo(2);
+  }
+
+  @Test
+  void results_referencing_module_types_are_not_reused() {
+    var cache = new ScopeTypeInferenceCache(ProjectLevelSymbolTable.empty());
+    String code = """
+      class A: ...
+      def foo():
+          a = A()
+          return a
+      """;
+    inferTypes(code, cache);
+    inferTypes(code, cache);
+    assertThat(cache.reusedScopes()).isZero();
+    assertThat(cache.recomputedScopes()).isEqualTo(1);
+  }
+
+  @Test
+  void module_fingerprint_ignores_function_bodies_only() {
+    String fingerprint = ScopeTypeInferenceCache.moduleFingerprint(PythonTestUtils.parse(ORIGINAL_CODE));
+    assertThat(ScopeTypeInferenceCache.moduleFingerprint(PythonTestUtils.parse(ORIGINAL_CODE.replace("x = 42", "x = 43"))))
+      .isEqualTo(fingerprint);
+    assertThat(ScopeTypeInferenceCache.moduleFingerprint(PythonTestUtils.parse(ORIGINAL_CODE.replace("foo(param)", "foo(param, other)"))))
+      .isNotEqualTo(fingerprint);
+
+    String withGlobal = """
+      x = 1
+      def foo():
+          global x
+          x = 2
+      """;
+    assertThat(ScopeTypeInferenceCache.moduleFingerprint(PythonTestUtils.parse(withGlobal.replace("x = 2", "x = '2'"))))
+      .isNotEqualTo(ScopeTypeInferenceCache.moduleFingerprint(PythonTestUtils.parse(withGlobal)));
+  }
+
+  private static FileInput inferTypes(String code, ScopeTypeInferenceCache cache) {
+    FileInput fileInput = PythonTestUtils.parse(code);
+    var symbolTable = new SymbolTableBuilderV2(fileInput).build();
+    TypeTable typeTable = cache != null ? cache.typeTable() : new ProjectLevelTypeTable(ProjectLevelSymbolTable.empty());
+    new TypeInferenceV2(typeTable, PYTHON_FILE, symbolTable, "", cache).inferTypes(fileInput);
+    return fileInput;
+  }
+
+  private static List<String> nameTypes(FileInput fileInput) {
+    List<Name> names = getAllDescendant(fileInput, t -> t.is(Tree.Kind.NAME));
+    return names.stream()
+      .map(name -> name.name() + ":" + typeName(name.typeV2()))
+      .toList();
+  }
+
+  private static String typeName(PythonType type) {
+    return type.unwrappedType().displayName().orElse(type.getClass().getSimpleName());
+  }
+}
@@ -887,6 +887,40 @@ public class TypeInferenceV2Test {
     assertThat(lastExpressionStatement.expressions().get(0).typeV2().unwrappedType()).isEqualTo(INT_TYPE);
   }
 
+  @Test
+  void inferTrivialTypesOnly() {
+    FileInput root = parse("""
+      def foo():
+        x = 42
+        x
+      """);
+    var symbolTable = new SymbolTableBuilderV2(root).build();
+    new TypeInferenceV2(PROJECT_LEVEL_TYPE_TABLE, pythonFile, symbolTable, "my_package").inferTrivialTypes(root);
+
+    var functionDef = (FunctionDef) root.statements().statements().get(0);
+    assertThat(functionDef.name().typeV2()).isInstanceOf(FunctionType.class);
+    var lastExpressionStatement = (ExpressionStatement) functionDef.body().statements().get(functionDef.body().statements().size() - 1);
+    assertThat(lastExpressionStatement.expressions().get(0).typeV2()).isEqualTo(PythonType.UNKNOWN);
+  }
+
+  @Test
+  void fallbackScopes() {
+    FileInput root = parse("""
+      def foo():
+        x = 42
+        x
+      def bar():
+        try:
+          x = 42
+        except:
+          pass
+      """);
+    var symbolTable = new SymbolTableBuilderV2(root).build();
+    var typeInference = new TypeInferenceV2(PROJECT_LEVEL_TYPE_TABLE, pythonFile, symbolTable, "my_package");
+    typeInference.inferTypes(root);
+    assertThat(typeInference.fallbackScopes()).isEqualTo(1);
+  }
+
   @Test
   void inferTypesInsideFunction4() {
     FileInput root = inferTypes("""
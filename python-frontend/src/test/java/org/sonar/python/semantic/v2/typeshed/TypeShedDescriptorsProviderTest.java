@@ -17,8 +17,11 @@
 package org.sonar.python.semantic.v2.typeshed;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 import java.util.Set;
+import jdk.jfr.consumer.RecordedEvent;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.slf4j.event.Level;
@@ -28,6 +31,7 @@ import org.sonar.python.index.AmbiguousDescriptor;
 import org.sonar.python.index.ClassDescriptor;
 import org.sonar.python.index.Descriptor;
 import org.sonar.python.index.FunctionDescriptor;
+import org.sonar.python.jfr.RecordedEvents;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -56,6 +60,20 @@ class TypeShedDescriptorsProviderTest {
     assertThat(provider.builtinDescriptors()).isSameAs(builtinDescriptors);
   }
 
+  @Test
+  void module_load_events() throws IOException {
+    var provider = typeshedDescriptorsProvider();
+    List<RecordedEvent> events = RecordedEvents.record("org.sonar.python.TypeShedModuleLoad", () -> {
+      provider.descriptorsForModule("os");
+      provider.descriptorsForModule("os");
+      provider.descriptorsForModule("unknown_module");
+    });
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getString("moduleName")).isEqualTo("os");
+    assertThat(events.get(0).getString("sourceDirectory")).endsWith("/stdlib_protobuf/");
+    assertThat(events.get(0).getLong("bytes")).isPositive();
+  }
+
   @Test
   void builtin312DescriptorsTest() {
     var provider = new TypeShedDescriptorsProvider(Set.of(), Set.of(PythonVersionUtils.Version.V_312));
@@ -2787,6 +2787,32 @@ class PythonTreeMakerTest extends RuleTest {
     }
   }
 
+  @Test
+  void indexed_child_access() {
+    setRootRule(PythonGrammar.FILE_INPUT);
+    FileInput tree = parse("""
+      import os; x = y = a.b, c,
+      def foo(self, *args, p: int = 1, **kwargs) -> None:
+          foo(1, x, *y, key=v,)
+          print(f"{x!r:>{width}} and {y}" 'str' b'bytes')
+          z = -1 + 2 * 3j if x is not None and y not in x else ~y
+          return
+      """, treeMaker::fileInput);
+    assertIndexedChildAccess(tree);
+  }
+
+  private static void assertIndexedChildAccess(Tree tree) {
+    List<Tree> children = tree.children();
+    assertThat(tree.childCount()).isEqualTo(children.size());
+    for (int i = 0; i < children.size(); i++) {
+      assertThat(tree.child(i)).isSameAs(children.get(i));
+      if (children.get(i) != null) {
+        assertIndexedChildAccess(children.get(i));
+      }
+    }
+    assertThatThrownBy(() -> tree.child(children.size())).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
   private void assertUnaryExpression(String operator, Tree.Kind kind) {
     setRootRule(PythonGrammar.EXPR);
     Expression parse = parse(operator + "1", treeMaker::expression);
@@ -0,0 +1,65 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.python.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.python.api.tree.CallExpression;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Name;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PythonTestUtils;
+import org.sonar.python.parser.PythonParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TreeKindIndexTest {
+
+  @Test
+  void nodes_by_kind() {
+    FileInput fileInput = PythonTestUtils.parse("a(b(1))\nc = d()");
+    TreeKindIndex index = ((FileInputImpl) fileInput).kindIndex();
+
+    List<CallExpression> calls = index.nodes(Tree.Kind.CALL_EXPR);
+    assertThat(calls).extracting(call -> ((Name) call.callee()).name()).containsExactly("a", "b", "d");
+    assertThat(index.count(Tree.Kind.NAME)).isEqualTo(4);
+    assertThat(index.count(Tree.Kind.FILE_INPUT)).isEqualTo(1);
+    assertThat(index.nodes(Tree.Kind.CLASSDEF)).isEmpty();
+    assertThat(index.count(Tree.Kind.CLASSDEF)).isZero();
+  }
+
+  @Test
+  void index_is_built_once_on_first_access() {
+    FileInput fileInput = new PythonTreeMaker().fileInput(PythonParser.create().parse("pass"));
+    assertThat(((FileInputImpl) fileInput).kindIndex()).isSameAs(((FileInputImpl) fileInput).kindIndex());
+    assertThat(((FileInputImpl) fileInput).kindIndex().count(Tree.Kind.PASS_STMT)).isEqualTo(1);
+  }
+
+  @Test
+  void for_each_follows_document_order() {
+    FileInput fileInput = PythonTestUtils.parse("x = [a(1), 2]\ndef f(): return b(3)");
+    TreeKindIndex index = TreeKindIndex.build(fileInput);
+
+    List<Tree> visited = new ArrayList<>();
+    index.forEach(Set.of(Tree.Kind.CALL_EXPR, Tree.Kind.NUMERIC_LITERAL, Tree.Kind.FUNCDEF, Tree.Kind.CLASSDEF), visited::add);
+
+    List<Tree> expected = PythonTestUtils.getAllDescendant(fileInput, t -> t.is(Tree.Kind.CALL_EXPR, Tree.Kind.NUMERIC_LITERAL, Tree.Kind.FUNCDEF));
+    assertThat(visited).containsExactlyElementsOf(expected);
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.sonar.api.config.Configuration;
+import org.sonar.api.rule.RuleKey;
+
+/**
+ * Decides which files are too large to be fully analyzed, typically generated code (e.g. protobuf or OpenAPI modules).
+ * <p>
+ * Files exceeding any of the thresholds get a reduced analysis: measures, CPD tokens and highlighting are still computed, types are
+ * inferred without data flow analysis, and only the rules of the reduced rule set are executed. By default, this rule set contains
+ * the built-in rules which only rely on tokens, comments or the syntax tree.
+ * <p>
+ * Reduced analysis is opt-in: all thresholds are disabled by default, and a threshold set to 0 or less is disabled.
+ */
+public class AnalysisTiers {
+
+  static final String MAX_CHARACTERS_PROPERTY = "sonar.python.analysis.full.maxchars";
+  static final String MAX_LINES_PROPERTY = "sonar.python.analysis.full.maxlines";
+  static final String MAX_TOKENS_PROPERTY = "sonar.python.analysis.full.maxtokens";
+  static final String REDUCED_RULES_PROPERTY = "sonar.python.analysis.reduced.rules";
+
+  static final Set<String> DEFAULT_REDUCED_RULES = Set.of(
+    "python:ParsingError",
+    "python:NoSonar",
+    "python:LineLength",
+    "python:OneStatementPerLine",
+    "python:BackticksUsage",
+    "python:ExecStatementUsage",
+    "python:PrintStatementUsage",
+    "python:FileComplexity",
+    "python:S104",
+    "python:S113",
+    "python:S139",
+    "python:S1131",
+    "python:S1134",
+    "python:S1135",
+    "python:S1451");
+
+  public enum Tier {
+    FULL,
+    REDUCED
+  }
+
+  private final int maxCharacters;
+  private final int maxLines;
+  private final int maxTokens;
+  private final Set<String> reducedRules;
+
+  AnalysisTiers(int maxCharacters, int maxLines, int maxTokens, Set<String> reducedRules) {
+    this.maxCharacters = maxCharacters;
+    this.maxLines = maxLines;
+    this.maxTokens = maxTokens;
+    this.reducedRules = reducedRules;
+  }
+
+  public static AnalysisTiers fromConfiguration(Configuration configuration) {
+    String[] reducedRules = configuration.getStringArray(REDUCED_RULES_PROPERTY);
+    return new AnalysisTiers(
+      configuration.getInt(MAX_CHARACTERS_PROPERTY).orElse(0),
+      configuration.getInt(MAX_LINES_PROPERTY).orElse(0),
+      configuration.getInt(MAX_TOKENS_PROPERTY).orElse(0),
+      reducedRules.length == 0 ? DEFAULT_REDUCED_RULES : Arrays.stream(reducedRules).map(String::trim).collect(Collectors.toSet()));
+  }
+
+  /**
+   * @return true if the rule is executed on files getting a reduced analysis
+   */
+  public boolean isInReducedRuleSet(@Nullable RuleKey ruleKey) {
+    return ruleKey != null && reducedRules.contains(ruleKey.toString());
+  }
+
+  /**
+   * To be checked before parsing the file.
+   * @return a description of the exceeded threshold if any
+   */
+  public Optional<String> exceededSizeThreshold(String content) {
+    if (isExceeded(content.length(), maxCharacters)) {
+      return Optional.of(String.format("%d characters > %d", content.length(), maxCharacters));
+    }
+    if (maxLines > 0) {
+      int lines = countLines(content);
+      if (lines > maxLines) {
+        return Optional.of(String.format("%d lines > %d", lines, maxLines));
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * To be checked once the file is parsed.
+   * @return a description of the exceeded threshold if any
+   */
+  public Optional<String> exceededTokensThreshold(int tokens) {
+    if (isExceeded(tokens, maxTokens)) {
+      return Optional.of(String.format("%d tokens > %d", tokens, maxTokens));
+    }
+    return Optional.empty();
+  }
+
+  private static boolean isExceeded(int value, int threshold) {
+    return threshold > 0 && value > threshold;
+  }
+
+  private static int countLines(String content) {
+    int lines = 1;
+    for (int i = 0; i < content.length(); i++) {
+      if (content.charAt(i) == '\n') {
+        lines++;
+      }
+    }
+    return lines;
+  }
+}
@@ -20,6 +20,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.sonar.api.SonarProduct;
 import org.sonar.api.batch.fs.FilePredicates;
 import org.sonar.api.batch.fs.InputFile;
@@ -32,6 +34,8 @@ import org.sonar.api.measures.FileLinesContextFactory;
 import org.sonar.plugins.python.api.ProjectPythonVersion;
 import org.sonar.plugins.python.api.PythonVersionUtils;
 import org.sonar.plugins.python.api.caching.CacheContext;
+import org.sonar.plugins.python.caching.NamespacedCacheContext;
+import org.sonar.plugins.python.caching.NotebookCaching;
 import org.sonar.plugins.python.indexer.PythonIndexer;
 import org.sonar.plugins.python.indexer.SonarQubePythonIndexer;
 import org.sonar.python.caching.CacheContextImpl;
@@ -42,6 +46,9 @@ import static org.sonar.plugins.python.api.PythonVersionUtils.PYTHON_VERSION_KEY
 
 public final class IPynbSensor implements Sensor {
 
+  private static final Logger LOG = LoggerFactory.getLogger(IPynbSensor.class);
+  // Notebooks and Python files are analyzed by different sensors sharing the same cache
+  static final String NOTEBOOK_CACHE_NAMESPACE = "ipynb:";
   private final PythonChecks checks;
   private final FileLinesContextFactory fileLinesContextFactory;
   private final NoSonarFilter noSonarFilter;
@@ -86,9 +93,8 @@ public final class IPynbSensor implements Sensor {
   }
 
   private void processNotebooksFiles(List<PythonInputFile> pythonFiles, SensorContext context) {
-    pythonFiles = parseNotebooks(pythonFiles, context);
-    // Disable caching for IPynb files for now see: SONARPY-2020
-    CacheContext cacheContext = CacheContextImpl.dummyCache();
+    CacheContext cacheContext = new NamespacedCacheContext(CacheContextImpl.of(context), NOTEBOOK_CACHE_NAMESPACE);
+    pythonFiles = parseNotebooks(pythonFiles, context, new NotebookCaching(cacheContext));
     PythonIndexer pythonIndexer = new SonarQubePythonIndexer(pythonFiles, cacheContext, context);
     PythonScanner scanner = new PythonScanner(context, checks, fileLinesContextFactory, noSonarFilter, PythonParser.createIPythonParser(), pythonIndexer);
     scanner.execute(pythonFiles, context);
@@ -96,17 +102,27 @@ public final class IPynbSensor implements Sensor {
     updateDatabricksTelemetry(scanner);
   }
 
-  private List<PythonInputFile> parseNotebooks(List<PythonInputFile> pythonFiles, SensorContext context) {
+  private List<PythonInputFile> parseNotebooks(List<PythonInputFile> pythonFiles, SensorContext context, NotebookCaching notebookCaching) {
     List<PythonInputFile> generatedIPythonFiles = new ArrayList<>();
 
     sensorTelemetryStorage.updateMetric(TelemetryMetricKey.NOTEBOOK_TOTAL_KEY, pythonFiles.size());
     var numberOfExceptions = 0;
+    var numberOfCachedNotebooks = 0;
 
     for (PythonInputFile inputFile : pythonFiles) {
       try {
         sensorTelemetryStorage.updateMetric(TelemetryMetricKey.NOTEBOOK_PRESENT_KEY, true);
+        GeneratedIPythonFile cachedFile = notebookCaching.read(inputFile);
+        if (cachedFile != null) {
+          numberOfCachedNotebooks++;
+          generatedIPythonFiles.add(cachedFile);
+          continue;
+        }
         var result = IpynbNotebookParser.parseNotebook(inputFile);
-        result.ifPresent(generatedIPythonFiles::add);
+        result.ifPresent(generatedFile -> {
+          notebookCaching.write(generatedFile);
+          generatedIPythonFiles.add(generatedFile);
+        });
       } catch (Exception e) {
         numberOfExceptions++;
         if (context.config().getBoolean(FAIL_FAST_PROPERTY_NAME).orElse(false) && !isErrorOnTestFile(inputFile)) {
@@ -116,6 +132,9 @@ public final class IPynbSensor implements Sensor {
     }
 
     sensorTelemetryStorage.updateMetric(TelemetryMetricKey.NOTEBOOK_EXCEPTION_KEY, numberOfExceptions);
+    if (numberOfCachedNotebooks > 0) {
+      LOG.debug("The Python code of {} out of {} notebooks was retrieved from the cache.", numberOfCachedNotebooks, pythonFiles.size());
+    }
     return generatedIPythonFiles;
   }
 
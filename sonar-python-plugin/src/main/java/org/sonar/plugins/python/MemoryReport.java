@@ -0,0 +1,138 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.python.HeapSizeEstimator;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.types.TypeShed;
+
+/**
+ * Memory used by the analysis: bytes allocated by the analysis of each file, and estimated heap size of the long-lived stores
+ * (project symbol table and typeshed caches) at the end of each phase of the analysis. Saved next to the performance measure report.
+ */
+class MemoryReport {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MemoryReport.class);
+
+  static final String MEMORY_REPORT_PROPERTY = "sonar.python.performance.measure.memory";
+  static final String MEMORY_REPORT_FILES_PROPERTY = "sonar.python.performance.measure.memory.files";
+  static final String MEMORY_REPORT_DESTINATION_FILE = "sonar-python-memory.json";
+  static final int DEFAULT_FILES = 20;
+
+  private final int maxFiles;
+  private final Path reportPath;
+  @Nullable
+  private final com.sun.management.ThreadMXBean threadMXBean;
+  private final List<Map<String, Object>> phases = new ArrayList<>();
+  // The file which allocated the least of the kept files comes first, to be replaced by a file which allocated more
+  private final PriorityQueue<FileAllocations> files = new PriorityQueue<>(Comparator.comparingLong(FileAllocations::allocatedBytes));
+  private long totalAllocatedBytes = 0;
+
+  MemoryReport(int maxFiles, Path reportPath) {
+    this.maxFiles = maxFiles;
+    this.reportPath = reportPath;
+    this.threadMXBean = allocatedBytesMXBean();
+  }
+
+  @CheckForNull
+  static MemoryReport fromConfiguration(SensorContext context) {
+    if (!context.config().getBoolean(MEMORY_REPORT_PROPERTY).orElse(Boolean.FALSE)) {
+      return null;
+    }
+    Path reportPath = PythonSensor.performanceReportFile(context, MEMORY_REPORT_DESTINATION_FILE);
+    return reportPath == null ? null : new MemoryReport(context.config().getInt(MEMORY_REPORT_FILES_PROPERTY).orElse(DEFAULT_FILES), reportPath);
+  }
+
+  @CheckForNull
+  private static com.sun.management.ThreadMXBean allocatedBytesMXBean() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean allocationsBean && allocationsBean.isThreadAllocatedMemorySupported()) {
+      allocationsBean.setThreadAllocatedMemoryEnabled(true);
+      return allocationsBean;
+    }
+    LOG.debug("Allocated bytes per thread are not supported by this JVM: they are not part of the memory report");
+    return null;
+  }
+
+  /**
+   * Bytes allocated so far by the current thread, to be passed to {@link #endOfFile(PythonInputFile, long)}.
+   */
+  long allocatedBytes() {
+    return threadMXBean == null ? 0L : threadMXBean.getCurrentThreadAllocatedBytes();
+  }
+
+  void endOfFile(PythonInputFile inputFile, long allocatedBytesAtStart) {
+    if (threadMXBean == null) {
+      return;
+    }
+    long allocatedBytes = allocatedBytes() - allocatedBytesAtStart;
+    totalAllocatedBytes += allocatedBytes;
+    FileAllocations least = files.peek();
+    if (maxFiles <= 0 || (files.size() == maxFiles && least != null && least.allocatedBytes() >= allocatedBytes)) {
+      return;
+    }
+    files.add(new FileAllocations(inputFile.toString(), inputFile.wrappedFile().lines(), allocatedBytes));
+    if (files.size() > maxFiles) {
+      files.poll();
+    }
+  }
+
+  void endOfPhase(String phase, ProjectLevelSymbolTable projectLevelSymbolTable) {
+    Map<String, Long> stores = new LinkedHashMap<>(projectLevelSymbolTable.estimatedSizes());
+    stores.put("TypeShed", new HeapSizeEstimator(ProjectLevelSymbolTable.class).estimate(TypeShed.getLoadedTypeShedSymbols()));
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("phase", phase);
+    json.put("heapUsedBytes", ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    json.put("stores", stores);
+    phases.add(json);
+  }
+
+  void writeReport() {
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("phases", phases);
+    report.put("totalAllocatedBytes", totalAllocatedBytes);
+    report.put("files", files.stream()
+      .sorted(Comparator.comparingLong(FileAllocations::allocatedBytes).reversed())
+      .map(FileAllocations::toJson)
+      .toList());
+    PythonSensor.writePerformanceReport(reportPath, report, "Memory report");
+  }
+
+  private record FileAllocations(String file, int lines, long allocatedBytes) {
+    Map<String, Object> toJson() {
+      Map<String, Object> json = new LinkedHashMap<>();
+      json.put("file", file);
+      json.put("lines", lines);
+      json.put("allocatedBytes", allocatedBytes);
+      return json;
+    }
+  }
+}
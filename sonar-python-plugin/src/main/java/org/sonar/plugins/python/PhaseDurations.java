@@ -0,0 +1,69 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.sonar.python.PhaseTimer;
+import org.sonarsource.performance.measure.PerformanceMeasure;
+
+/**
+ * Durations of the phases of the analysis of a file.
+ * <p>
+ * Each phase is also measured with {@link PerformanceMeasure}, which aggregates the phases of all files in the performance measure
+ * report when it is activated. The durations recorded here are those of a single file, in order to find the files which are the
+ * most expensive to analyze. A phase started several times for the same file is reported once, with its cumulative duration.
+ * <p>
+ * Phases are meant to be measured with try-with-resources statements, so that failing phases are measured too.
+ */
+class PhaseDurations implements PhaseTimer {
+
+  private final Map<String, Long> durationNanosByPhase = new LinkedHashMap<>();
+
+  @Override
+  public Phase start(String name) {
+    return new Phase(name, PerformanceMeasure.start(name), System.nanoTime());
+  }
+
+  public Map<String, Long> durationNanosByPhase() {
+    return Collections.unmodifiableMap(durationNanosByPhase);
+  }
+
+  public long totalDurationNanos() {
+    return durationNanosByPhase.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  public class Phase implements PhaseTimer.Phase {
+    private final String name;
+    private final PerformanceMeasure.Duration measure;
+    private final long startNanos;
+
+    private Phase(String name, PerformanceMeasure.Duration measure, long startNanos) {
+      this.name = name;
+      this.measure = measure;
+      this.startNanos = startNanos;
+    }
+
+    @Override
+    public void close() {
+      long durationNanos = System.nanoTime() - startNanos;
+      measure.stop();
+      durationNanosByPhase.merge(name, durationNanos, Long::sum);
+    }
+  }
+}
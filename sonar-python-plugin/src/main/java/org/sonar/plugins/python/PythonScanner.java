@@ -30,8 +30,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.regex.Pattern;
 import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.SonarProduct;
@@ -57,15 +59,20 @@ import org.sonar.plugins.python.api.internal.EndOfAnalysis;
 import org.sonar.plugins.python.api.quickfix.PythonQuickFix;
 import org.sonar.plugins.python.api.quickfix.PythonTextEdit;
 import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.cpd.PythonCpdAnalyzer;
 import org.sonar.plugins.python.indexer.PythonIndexer;
+import org.sonar.plugins.python.jfr.ScanFileEvent;
 import org.sonar.python.IPythonLocation;
 import org.sonar.python.SubscriptionVisitor;
+import org.sonar.python.VisitorContextOptions;
 import org.sonar.python.metrics.FileLinesVisitor;
 import org.sonar.python.metrics.FileMetrics;
 import org.sonar.python.parser.PythonParser;
+import org.sonar.python.tree.FileInputImpl;
 import org.sonar.python.tree.IPythonTreeMaker;
 import org.sonar.python.tree.PythonTreeMaker;
+import org.sonarsource.performance.measure.PerformanceMeasure;
 
 public class PythonScanner extends Scanner {
 
@@ -78,7 +85,20 @@ public class PythonScanner extends Scanner {
   private final PythonCpdAnalyzer cpdAnalyzer;
   private final PythonIndexer indexer;
   private final Map<PythonInputFile, Set<PythonCheck>> checksExecutedWithoutParsingByFiles = new HashMap<>();
+  private final AnalysisTiers analysisTiers;
+  @Nullable
+  private final RuleProfiler ruleProfiler;
+  @Nullable
+  private final SlowestFiles slowestFiles;
+  @Nullable
+  private final MemoryReport memoryReport;
   private int recognitionErrorCount = 0;
+  private int reducedAnalysisCount = 0;
+  private int fullyScannedWithoutParsingCount = 0;
+  private int partiallyScannedWithoutParsingCount = 0;
+  private int typeInferenceFallbackScopes = 0;
+  private final long globalSymbolsDurationNanos;
+  private final Map<String, Long> durationNanosByPhase = new HashMap<>();
   private static final Pattern DATABRICKS_MAGIC_COMMAND_PATTERN = Pattern.compile("^\\h*#\\h*(MAGIC|COMMAND).*");
   private boolean foundDatabricks = false;
 
@@ -92,7 +112,16 @@ public class PythonScanner extends Scanner {
     this.cpdAnalyzer = new PythonCpdAnalyzer(context);
     this.parser = parser;
     this.indexer = indexer;
+    this.analysisTiers = AnalysisTiers.fromConfiguration(context.config());
+    this.ruleProfiler = RuleProfiler.fromConfiguration(context, checks);
+    this.slowestFiles = SlowestFiles.fromConfiguration(context);
+    this.memoryReport = MemoryReport.fromConfiguration(context);
+    long start = System.nanoTime();
     this.indexer.buildOnce(context);
+    this.globalSymbolsDurationNanos = System.nanoTime() - start;
+    if (memoryReport != null) {
+      memoryReport.endOfPhase("GlobalSymbols", indexer.projectLevelSymbolTable());
+    }
   }
 
   @Override
@@ -102,22 +131,72 @@ public class PythonScanner extends Scanner {
 
   @Override
   protected void scanFile(PythonInputFile inputFile) throws IOException {
+    ScanFileEvent event = new ScanFileEvent();
+    event.begin();
+    PerformanceMeasure.Duration fileDuration = PerformanceMeasure.start("ScanFile");
+    PhaseDurations phaseDurations = new PhaseDurations();
+    long allocatedBytes = memoryReport == null ? 0L : memoryReport.allocatedBytes();
+    AnalysisTiers.Tier tier;
+    try {
+      tier = scanFile(inputFile, phaseDurations);
+    } finally {
+      fileDuration.stop();
+    }
+    phaseDurations.durationNanosByPhase().forEach((phase, durationNanos) -> durationNanosByPhase.merge(phase, durationNanos, Long::sum));
+    if (memoryReport != null) {
+      memoryReport.endOfFile(inputFile, allocatedBytes);
+    }
+    if (slowestFiles != null) {
+      slowestFiles.add(inputFile, phaseDurations);
+    }
+    event.end();
+    if (event.shouldCommit()) {
+      event.fileKey = inputFile.wrappedFile().key();
+      event.lines = inputFile.wrappedFile().lines();
+      event.reducedAnalysis = tier == AnalysisTiers.Tier.REDUCED;
+      event.commit();
+    }
+  }
+
+  private AnalysisTiers.Tier scanFile(PythonInputFile inputFile, PhaseDurations phaseDurations) throws IOException {
     var pythonFile = SonarQubePythonFile.create(inputFile);
     PythonVisitorContext visitorContext;
     InputFile.Type fileType = inputFile.wrappedFile().type();
+    AnalysisTiers.Tier tier = AnalysisTiers.Tier.FULL;
+    String reducedAnalysisReason = null;
     try {
-      AstNode astNode = parser.parse(inputFile.contents());
-      PythonTreeMaker treeMaker = getTreeMaker(inputFile);
-      FileInput parse = treeMaker.fileInput(astNode);
+      String content;
+      try (PhaseDurations.Phase phase = phaseDurations.start("ReadContents")) {
+        content = inputFile.contents();
+      }
+      Optional<String> exceededThreshold = analysisTiers.exceededSizeThreshold(content);
+      AstNode astNode;
+      try (PhaseDurations.Phase phase = phaseDurations.start("Parser")) {
+        astNode = parser.parse(content);
+      }
+      FileInput parse;
+      try (PhaseDurations.Phase phase = phaseDurations.start("TreeMaker")) {
+        parse = getTreeMaker(inputFile).fileInput(astNode);
+      }
+      if (exceededThreshold.isEmpty()) {
+        exceededThreshold = analysisTiers.exceededTokensThreshold(((FileInputImpl) parse).kindIndex().count(Tree.Kind.TOKEN));
+      }
+      if (exceededThreshold.isPresent()) {
+        tier = AnalysisTiers.Tier.REDUCED;
+        reducedAnalysisReason = exceededThreshold.get();
+        reducedAnalysisCount++;
+      }
       visitorContext = new PythonVisitorContext(parse,
         pythonFile,
         getWorkingDirectory(context),
         indexer.packageName(inputFile),
         indexer.projectLevelSymbolTable(),
         indexer.cacheContext(),
-        context.runtime().getProduct());
+        context.runtime().getProduct(),
+        visitorContextOptions(inputFile, tier, phaseDurations));
+      typeInferenceFallbackScopes += visitorContext.typeInferenceFallbackScopes();
       if (fileType == InputFile.Type.MAIN) {
-        saveMeasures(inputFile, visitorContext);
+        saveMeasures(inputFile, visitorContext, phaseDurations);
       }
     } catch (RecognitionException e) {
       visitorContext = new PythonVisitorContext(pythonFile, e, context.runtime().getProduct());
@@ -135,26 +214,60 @@ public class PythonScanner extends Scanner {
         .save();
     }
     List<PythonSubscriptionCheck> checksBasedOnTree = new ArrayList<>();
-    for (PythonCheck check : checks.all()) {
-      if (!isCheckApplicable(check, fileType)
-        || checksExecutedWithoutParsingByFiles.getOrDefault(inputFile, Collections.emptySet()).contains(check)) {
-        continue;
-      }
-      if (check instanceof PythonSubscriptionCheck pythonSubscriptionCheck) {
-        checksBasedOnTree.add(pythonSubscriptionCheck);
-      } else {
-        check.scanFile(visitorContext);
+    Set<String> skippedRepositories = new TreeSet<>();
+    try (PhaseDurations.Phase phase = phaseDurations.start("VisitorChecks")) {
+      for (PythonCheck check : checks.all()) {
+        if (!isCheckApplicable(check, fileType)
+          || checksExecutedWithoutParsingByFiles.getOrDefault(inputFile, Collections.emptySet()).contains(check)) {
+          continue;
+        }
+        if (tier == AnalysisTiers.Tier.REDUCED) {
+          RuleKey ruleKey = checks.ruleKey(check);
+          if (!analysisTiers.isInReducedRuleSet(ruleKey)) {
+            skippedRepositories.add(ruleKey == null ? "unknown" : ruleKey.repository());
+            continue;
+          }
+        }
+        if (check instanceof PythonSubscriptionCheck pythonSubscriptionCheck) {
+          checksBasedOnTree.add(pythonSubscriptionCheck);
+        } else {
+          scanFile(check, visitorContext);
+        }
       }
     }
-    SubscriptionVisitor.analyze(checksBasedOnTree, visitorContext);
-    saveIssues(inputFile, visitorContext.getIssues());
+    if (tier == AnalysisTiers.Tier.REDUCED) {
+      LOG.warn("File {} is too large to be fully analyzed ({}): data flow type inference is skipped, as well as the rules of repositories {} " +
+        "which are not in the reduced rule set \"{}\"", inputFile, reducedAnalysisReason, skippedRepositories, AnalysisTiers.REDUCED_RULES_PROPERTY);
+    }
+    try (PhaseDurations.Phase phase = phaseDurations.start("SubscriptionChecks")) {
+      SubscriptionVisitor.analyze(checksBasedOnTree, visitorContext, ruleProfiler);
+    }
+    try (PhaseDurations.Phase phase = phaseDurations.start("SaveIssues")) {
+      saveIssues(inputFile, visitorContext.getIssues());
+    }
+    if (ruleProfiler != null) {
+      ruleProfiler.endOfFile(inputFile.toString(), visitorContext.getIssues());
+    }
 
     if (visitorContext.rootTree() != null && !isInSonarLint(context)) {
-      new SymbolVisitor(context.newSymbolTable().onFile(inputFile.wrappedFile())).visitFileInput(visitorContext.rootTree());
-      new PythonHighlighter(context, inputFile).scanFile(visitorContext);
+      try (PhaseDurations.Phase phase = phaseDurations.start("Highlighting")) {
+        new SymbolVisitor(context.newSymbolTable().onFile(inputFile.wrappedFile())).visitFileInput(visitorContext.rootTree());
+        new PythonHighlighter(context, inputFile).scanFile(visitorContext);
+      }
     }
 
     searchForDataBricks(visitorContext);
+    return tier;
+  }
+
+  private void scanFile(PythonCheck check, PythonVisitorContext visitorContext) {
+    if (ruleProfiler == null) {
+      check.scanFile(visitorContext);
+      return;
+    }
+    long start = System.nanoTime();
+    check.scanFile(visitorContext);
+    ruleProfiler.record(check, System.nanoTime() - start);
   }
 
   private void searchForDataBricks(PythonVisitorContext visitorContext) {
@@ -208,7 +321,15 @@ public class PythonScanner extends Scanner {
       // We must avoid pushing measures twice due to the risk of duplicate cache key error.
       return false;
     }
-    return restoreAndPushMeasuresIfApplicable(inputFile);
+    if (!restoreAndPushMeasuresIfApplicable(inputFile)) {
+      return false;
+    }
+    if (indexer.canBeFullyScannedWithoutParsing(inputFile)) {
+      fullyScannedWithoutParsingCount++;
+    } else {
+      partiallyScannedWithoutParsingCount++;
+    }
+    return true;
   }
 
   private boolean checkRequiresParsingOfImpactedFile(PythonInputFile inputFile, PythonCheck check) {
@@ -217,11 +338,24 @@ public class PythonScanner extends Scanner {
 
   @Override
   public void endOfAnalysis() {
+    if (memoryReport != null) {
+      memoryReport.endOfPhase("RulesExecution", indexer.projectLevelSymbolTable());
+    }
     indexer.postAnalysis(context);
     checks.all().stream()
       .filter(EndOfAnalysis.class::isInstance)
       .map(EndOfAnalysis.class::cast)
       .forEach(c -> c.endOfAnalysis(indexer.cacheContext()));
+    if (memoryReport != null) {
+      memoryReport.endOfPhase("EndOfAnalysis", indexer.projectLevelSymbolTable());
+      memoryReport.writeReport();
+    }
+    if (ruleProfiler != null) {
+      ruleProfiler.writeReport();
+    }
+    if (slowestFiles != null) {
+      slowestFiles.writeReport();
+    }
   }
 
   boolean isCheckApplicable(PythonCheck pythonCheck, InputFile.Type fileType) {
@@ -232,6 +366,17 @@ public class PythonScanner extends Scanner {
     return fileType == InputFile.Type.MAIN;
   }
 
+  /**
+   * Type inference results are only reused, and data flow type inference is only performed, for the files which are fully analyzed.
+   */
+  private VisitorContextOptions visitorContextOptions(PythonInputFile inputFile, AnalysisTiers.Tier tier, PhaseDurations phaseDurations) {
+    boolean fullAnalysis = tier == AnalysisTiers.Tier.FULL;
+    return VisitorContextOptions.DEFAULT
+      .withScopeTypeInferenceCache(fullAnalysis ? indexer.scopeTypeInferenceCache(inputFile) : null)
+      .withDataFlowTypeInference(fullAnalysis)
+      .withPhaseTimer(phaseDurations);
+  }
+
   // visible for testing
   static File getWorkingDirectory(SensorContext context) {
     return isInSonarLint(context) ? null : context.fileSystem().workDir();
@@ -255,6 +400,10 @@ public class PythonScanner extends Scanner {
   protected void reportStatistics(int numSkippedFiles, int numTotalFiles) {
     LOG.info("The Python analyzer was able to leverage cached data from previous analyses for {} out of {} files. These files were not parsed.",
       numSkippedFiles, numTotalFiles);
+    if (reducedAnalysisCount > 0) {
+      LOG.info("{} out of {} files were too large to be fully analyzed. Thresholds can be configured with \"{}\", \"{}\" and \"{}\".",
+        reducedAnalysisCount, numTotalFiles, AnalysisTiers.MAX_CHARACTERS_PROPERTY, AnalysisTiers.MAX_LINES_PROPERTY, AnalysisTiers.MAX_TOKENS_PROPERTY);
+    }
   }
 
   private void saveIssues(PythonInputFile inputFile, List<PreciseIssue> issues) {
@@ -328,36 +477,42 @@ public class PythonScanner extends Scanner {
     return newLocation;
   }
 
-  private void saveMeasures(PythonInputFile inputFile, PythonVisitorContext visitorContext) {
-    FileMetrics fileMetrics = new FileMetrics(visitorContext, isNotebook(inputFile));
+  private void saveMeasures(PythonInputFile inputFile, PythonVisitorContext visitorContext, PhaseDurations phaseDurations) {
+    FileMetrics fileMetrics;
+    try (PhaseDurations.Phase phase = phaseDurations.start("FileMetrics")) {
+      fileMetrics = new FileMetrics(visitorContext, isNotebook(inputFile));
+    }
     FileLinesVisitor fileLinesVisitor = fileMetrics.fileLinesVisitor();
 
     noSonarFilter.noSonarInFile(inputFile.wrappedFile(), fileLinesVisitor.getLinesWithNoSonar());
 
     if (!isInSonarLint(context)) {
       if (inputFile.kind() == PythonInputFile.Kind.PYTHON) {
-        cpdAnalyzer.pushCpdTokens(inputFile.wrappedFile(), visitorContext);
-      }
-
-      Set<Integer> linesOfCode = fileLinesVisitor.getLinesOfCode();
-      saveMetricOnFile(inputFile, CoreMetrics.NCLOC, linesOfCode.size());
-      saveMetricOnFile(inputFile, CoreMetrics.STATEMENTS, fileMetrics.numberOfStatements());
-      saveMetricOnFile(inputFile, CoreMetrics.FUNCTIONS, fileMetrics.numberOfFunctions());
-      saveMetricOnFile(inputFile, CoreMetrics.CLASSES, fileMetrics.numberOfClasses());
-      saveMetricOnFile(inputFile, CoreMetrics.COMPLEXITY, fileMetrics.complexity());
-      saveMetricOnFile(inputFile, CoreMetrics.COGNITIVE_COMPLEXITY, fileMetrics.cognitiveComplexity());
-      saveMetricOnFile(inputFile, CoreMetrics.COMMENT_LINES, fileLinesVisitor.getCommentLineCount());
-
-      FileLinesContext fileLinesContext = fileLinesContextFactory.createFor(inputFile.wrappedFile());
-      if (inputFile.kind() == PythonInputFile.Kind.PYTHON) {
-        for (int line : linesOfCode) {
-          fileLinesContext.setIntValue(CoreMetrics.NCLOC_DATA_KEY, line, 1);
+        try (PhaseDurations.Phase phase = phaseDurations.start("Cpd")) {
+          cpdAnalyzer.pushCpdTokens(inputFile.wrappedFile(), visitorContext);
         }
       }
-      for (int line : fileLinesVisitor.getExecutableLines()) {
-        fileLinesContext.setIntValue(CoreMetrics.EXECUTABLE_LINES_DATA_KEY, line, 1);
+      try (PhaseDurations.Phase phase = phaseDurations.start("SaveMeasures")) {
+        Set<Integer> linesOfCode = fileLinesVisitor.getLinesOfCode();
+        saveMetricOnFile(inputFile, CoreMetrics.NCLOC, linesOfCode.size());
+        saveMetricOnFile(inputFile, CoreMetrics.STATEMENTS, fileMetrics.numberOfStatements());
+        saveMetricOnFile(inputFile, CoreMetrics.FUNCTIONS, fileMetrics.numberOfFunctions());
+        saveMetricOnFile(inputFile, CoreMetrics.CLASSES, fileMetrics.numberOfClasses());
+        saveMetricOnFile(inputFile, CoreMetrics.COMPLEXITY, fileMetrics.complexity());
+        saveMetricOnFile(inputFile, CoreMetrics.COGNITIVE_COMPLEXITY, fileMetrics.cognitiveComplexity());
+        saveMetricOnFile(inputFile, CoreMetrics.COMMENT_LINES, fileLinesVisitor.getCommentLineCount());
+
+        FileLinesContext fileLinesContext = fileLinesContextFactory.createFor(inputFile.wrappedFile());
+        if (inputFile.kind() == PythonInputFile.Kind.PYTHON) {
+          for (int line : linesOfCode) {
+            fileLinesContext.setIntValue(CoreMetrics.NCLOC_DATA_KEY, line, 1);
+          }
+        }
+        for (int line : fileLinesVisitor.getExecutableLines()) {
+          fileLinesContext.setIntValue(CoreMetrics.EXECUTABLE_LINES_DATA_KEY, line, 1);
+        }
+        fileLinesContext.save();
       }
-      fileLinesContext.save();
     }
   }
 
@@ -366,11 +521,12 @@ public class PythonScanner extends Scanner {
   }
 
   private boolean restoreAndPushMeasuresIfApplicable(PythonInputFile inputFile) {
-    if (inputFile.wrappedFile().type() == InputFile.Type.TEST) {
+    // CPD tokens are neither computed for test files nor for notebooks
+    if (inputFile.wrappedFile().type() == InputFile.Type.TEST || isNotebook(inputFile)) {
       return true;
     }
 
-    return cpdAnalyzer.pushCachedCpdTokens(inputFile.wrappedFile(), indexer.cacheContext());
+    return indexer.canUseCachedCpdTokens() && cpdAnalyzer.pushCachedCpdTokens(inputFile.wrappedFile(), indexer.cacheContext());
   }
 
   private void saveMetricOnFile(PythonInputFile inputFile, Metric<Integer> metric, Integer value) {
@@ -418,6 +574,38 @@ public class PythonScanner extends Scanner {
     return recognitionErrorCount;
   }
 
+  public int getReducedAnalysisCount() {
+    return reducedAnalysisCount;
+  }
+
+  public int getFullyScannedWithoutParsingCount() {
+    return fullyScannedWithoutParsingCount;
+  }
+
+  public int getPartiallyScannedWithoutParsingCount() {
+    return partiallyScannedWithoutParsingCount;
+  }
+
+  public int getTypeInferenceFallbackScopes() {
+    return typeInferenceFallbackScopes;
+  }
+
+  public long getGlobalSymbolsDurationNanos() {
+    return globalSymbolsDurationNanos;
+  }
+
+  /**
+   * Cumulative duration of the given phases of the analysis of all the parsed files.
+   * @see PhaseDurations
+   */
+  public long getDurationNanos(String... phases) {
+    long durationNanos = 0;
+    for (String phase : phases) {
+      durationNanos += durationNanosByPhase.getOrDefault(phase, 0L);
+    }
+    return durationNanos;
+  }
+
   public boolean getFoundDatabricks() {
     return foundDatabricks;
   }
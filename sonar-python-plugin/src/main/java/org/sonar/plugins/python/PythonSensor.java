@@ -17,10 +17,16 @@
 package org.sonar.plugins.python;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +45,7 @@ import org.sonar.plugins.python.api.PythonCustomRuleRepository;
 import org.sonar.plugins.python.api.PythonVersionUtils;
 import org.sonar.plugins.python.api.SonarLintCache;
 import org.sonar.plugins.python.api.caching.CacheContext;
+import org.sonar.plugins.python.caching.Caching;
 import org.sonar.plugins.python.indexer.PythonIndexer;
 import org.sonar.plugins.python.indexer.SonarQubePythonIndexer;
 import org.sonar.plugins.python.warnings.AnalysisWarningsWrapper;
@@ -46,6 +53,7 @@ import org.sonar.python.caching.CacheContextImpl;
 import org.sonar.python.checks.CheckList;
 import org.sonar.python.parser.PythonParser;
 import org.sonar.python.types.TypeShed;
+import org.sonarsource.analyzer.commons.internal.json.simple.JSONValue;
 import org.sonarsource.performance.measure.PerformanceMeasure;
 
 import static org.sonar.plugins.python.api.PythonVersionUtils.PYTHON_VERSION_KEY;
@@ -53,7 +61,7 @@ import static org.sonar.plugins.python.api.PythonVersionUtils.PYTHON_VERSION_KEY
 @DependedUpon(value = "org.sonar.plugins.python.PythonSensor_before_com.sonarsource.dbd.SonarLintPythonBugDetectionSensor")
 public final class PythonSensor implements Sensor {
 
-  private static final String PERFORMANCE_MEASURE_PROPERTY = "sonar.python.performance.measure";
+  static final String PERFORMANCE_MEASURE_PROPERTY = "sonar.python.performance.measure";
   private static final String PERFORMANCE_MEASURE_FILE_PATH_PROPERTY = "sonar.python.performance.measure.path";
   private static final String PERFORMANCE_MEASURE_DESTINATION_FILE = "sonar-python-performance-measure.json";
 
@@ -114,6 +122,7 @@ public final class PythonSensor implements Sensor {
 
   @Override
   public void execute(SensorContext context) {
+    long start = System.nanoTime();
     PerformanceMeasure.Duration durationReport = createPerformanceMeasureReport(context);
     List<PythonInputFile> pythonFiles = getInputFiles(context);
     String[] pythonVersionParameter = context.config().getStringArray(PYTHON_VERSION_KEY);
@@ -132,6 +141,9 @@ public final class PythonSensor implements Sensor {
     PythonScanner scanner = new PythonScanner(context, checks, fileLinesContextFactory, noSonarFilter, PythonParser.create(), pythonIndexer);
     scanner.execute(pythonFiles, context);
     updateDatabricksTelemetry(scanner);
+    sensorTelemetryStorage.updateMetric(TelemetryMetricKey.PYTHON_REDUCED_ANALYSIS_FILES_KEY, scanner.getReducedAnalysisCount());
+    updatePerformanceTelemetry(scanner, pythonIndexer, pythonFiles);
+    sensorTelemetryStorage.updateMetric(TelemetryMetricKey.PYTHON_ANALYSIS_DURATION_KEY, millis(System.nanoTime() - start));
     sensorTelemetryStorage.send(context);
     durationReport.stop();
   }
@@ -140,6 +152,33 @@ public final class PythonSensor implements Sensor {
     sensorTelemetryStorage.updateMetric(TelemetryMetricKey.PYTHON_DATABRICKS_FOUND, scanner.getFoundDatabricks());
   }
 
+  private void updatePerformanceTelemetry(PythonScanner scanner, PythonIndexer pythonIndexer, List<PythonInputFile> pythonFiles) {
+    sensorTelemetryStorage.updateMetric(TelemetryMetricKey.PYTHON_GLOBAL_SYMBOLS_DURATION_KEY, millis(scanner.getGlobalSymbolsDurationNanos()));
+    sensorTelemetryStorage.updateMetric(TelemetryMetricKey.PYTHON_PARSING_DURATION_KEY, millis(scanner.getDurationNanos("Parser", "TreeMaker")));
+    sensorTelemetryStorage.updateMetric(TelemetryMetricKey.PYTHON_SEMANTIC_DURATION_KEY,
+      millis(scanner.getDurationNanos("SymbolTableBuilder", "SymbolTableBuilderV2", "TypeInferenceV2")));
+    sensorTelemetryStorage.updateMetric(TelemetryMetricKey.PYTHON_RULES_DURATION_KEY, millis(scanner.getDurationNanos("VisitorChecks", "SubscriptionChecks")));
+    sensorTelemetryStorage.updateMetric(TelemetryMetricKey.PYTHON_FULLY_SKIPPED_FILES_KEY, scanner.getFullyScannedWithoutParsingCount());
+    sensorTelemetryStorage.updateMetric(TelemetryMetricKey.PYTHON_PARTIALLY_SKIPPED_FILES_KEY, scanner.getPartiallyScannedWithoutParsingCount());
+    sensorTelemetryStorage.updateMetric(TelemetryMetricKey.PYTHON_TYPE_INFERENCE_FALLBACK_SCOPES_KEY, scanner.getTypeInferenceFallbackScopes());
+    sensorTelemetryStorage.updateMetric(TelemetryMetricKey.PYTHON_TYPESHED_MODULES_KEY,
+      pythonIndexer.projectLevelSymbolTable().typeShedDescriptorsProvider().stubModules().size());
+    sensorTelemetryStorage.updateMetric(TelemetryMetricKey.PYTHON_LARGEST_FILE_LINES_KEY,
+      pythonFiles.stream().mapToInt(file -> file.wrappedFile().lines()).max().orElse(0));
+    if (pythonIndexer instanceof SonarQubePythonIndexer sonarQubePythonIndexer) {
+      Caching caching = sonarQubePythonIndexer.caching();
+      int reads = caching.entriesHits() + caching.entriesMisses();
+      if (reads > 0) {
+        // Percentage of the reads of the cached data of files which found an entry of the previous analysis
+        sensorTelemetryStorage.updateMetric(TelemetryMetricKey.PYTHON_CACHE_HIT_RATIO_KEY, caching.entriesHits() * 100 / reads);
+      }
+    }
+  }
+
+  private static int millis(long durationNanos) {
+    return (int) TimeUnit.NANOSECONDS.toMillis(durationNanos);
+  }
+
   private void updatePythonVersionTelemetry(SensorContext context, String[] pythonVersionParameter) {
     if (context.runtime().getProduct() == SonarProduct.SONARLINT) {
       return;
@@ -158,6 +197,36 @@ public final class PythonSensor implements Sensor {
     return Collections.unmodifiableList(list);
   }
 
+  /**
+   * Location of another report about the performance of the analysis, saved next to the performance measure report.
+   */
+  @CheckForNull
+  static Path performanceReportFile(SensorContext context, String fileName) {
+    return context.config().get(PERFORMANCE_MEASURE_FILE_PATH_PROPERTY)
+      .filter(path -> !path.isEmpty())
+      .map(path -> Path.of(path).resolveSibling(fileName))
+      .orElseGet(() -> Optional.ofNullable(context.fileSystem().workDir())
+        .filter(File::exists)
+        .map(file -> file.toPath().resolve(fileName))
+        .orElse(null));
+  }
+
+  /**
+   * Saves a report about the performance of the analysis as JSON. A report which cannot be saved does not fail the analysis.
+   */
+  static void writePerformanceReport(Path reportPath, Object report, String reportName) {
+    try {
+      Path parent = reportPath.getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      Files.writeString(reportPath, JSONValue.toJSONString(report), StandardCharsets.UTF_8);
+      LOG.info("{} saved to {}", reportName, reportPath);
+    } catch (IOException e) {
+      LOG.warn("Unable to save {} to {}", reportName, reportPath, e);
+    }
+  }
+
   private static PerformanceMeasure.Duration createPerformanceMeasureReport(SensorContext context) {
     return PerformanceMeasure.reportBuilder()
       .activate(context.config().getBoolean(PERFORMANCE_MEASURE_PROPERTY).orElse(Boolean.FALSE))
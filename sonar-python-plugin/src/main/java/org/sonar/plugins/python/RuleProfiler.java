@@ -0,0 +1,156 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.annotation.CheckForNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.plugins.python.api.PythonCheck;
+import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
+import org.sonar.python.SubscriptionVisitor;
+
+/**
+ * Opt-in profiling of the cost of each rule: cumulative execution time, number of executions and number of issues.
+ * <p>
+ * For subscription checks, each execution of a syntax node consumer is timed; for other checks, each call to
+ * {@link PythonCheck#scanFile}. The profile is written next to the performance measure report, with the slowest rules of each
+ * file.
+ */
+class RuleProfiler implements SubscriptionVisitor.ExecutionRecorder {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RuleProfiler.class);
+
+  static final String RULE_PROFILING_PROPERTY = "sonar.python.performance.measure.rules";
+  static final String SLOWEST_RULES_PER_FILE_PROPERTY = "sonar.python.performance.measure.rules.top";
+  static final String RULE_PROFILE_DESTINATION_FILE = "sonar-python-rule-profile.json";
+  static final int DEFAULT_SLOWEST_RULES_PER_FILE = 5;
+
+  private final Function<PythonCheck, RuleKey> ruleKeys;
+  private final int slowestRulesPerFile;
+  private final Path reportPath;
+  private final Map<PythonCheck, RuleCost> costByCheck = new HashMap<>();
+  private final Map<PythonCheck, RuleCost> fileCostByCheck = new HashMap<>();
+  private final List<FileCost> fileCosts = new ArrayList<>();
+
+  RuleProfiler(Function<PythonCheck, RuleKey> ruleKeys, int slowestRulesPerFile, Path reportPath) {
+    this.ruleKeys = ruleKeys;
+    this.slowestRulesPerFile = slowestRulesPerFile;
+    this.reportPath = reportPath;
+  }
+
+  @CheckForNull
+  static RuleProfiler fromConfiguration(SensorContext context, PythonChecks checks) {
+    if (!context.config().getBoolean(RULE_PROFILING_PROPERTY).orElse(Boolean.FALSE)) {
+      return null;
+    }
+    Path reportPath = PythonSensor.performanceReportFile(context, RULE_PROFILE_DESTINATION_FILE);
+    if (reportPath == null) {
+      LOG.warn("Rules are not profiled: no destination for the profile could be found");
+      return null;
+    }
+    int slowestRulesPerFile = context.config().getInt(SLOWEST_RULES_PER_FILE_PROPERTY).orElse(DEFAULT_SLOWEST_RULES_PER_FILE);
+    return new RuleProfiler(checks::ruleKey, slowestRulesPerFile, reportPath);
+  }
+
+  @Override
+  public void record(PythonCheck check, long durationNanos) {
+    fileCostByCheck.computeIfAbsent(check, c -> new RuleCost()).addExecution(durationNanos);
+  }
+
+  void endOfFile(String file, List<PreciseIssue> issues) {
+    issues.forEach(issue -> fileCostByCheck.computeIfAbsent(issue.check(), c -> new RuleCost()).issues++);
+    long fileDurationNanos = 0;
+    for (Map.Entry<PythonCheck, RuleCost> entry : fileCostByCheck.entrySet()) {
+      RuleCost fileCost = entry.getValue();
+      fileDurationNanos += fileCost.durationNanos;
+      costByCheck.computeIfAbsent(entry.getKey(), c -> new RuleCost()).add(fileCost);
+    }
+    List<Map<String, Object>> slowestRules = sortedByDuration(fileCostByCheck).stream()
+      .limit(slowestRulesPerFile)
+      .toList();
+    fileCosts.add(new FileCost(file, fileDurationNanos, slowestRules));
+    fileCostByCheck.clear();
+  }
+
+  void writeReport() {
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("rules", sortedByDuration(costByCheck));
+    report.put("files", fileCosts.stream()
+      .sorted(Comparator.comparingLong(FileCost::durationNanos).reversed())
+      .map(FileCost::toJson)
+      .toList());
+    PythonSensor.writePerformanceReport(reportPath, report, "Rule profile of " + fileCosts.size() + " files");
+  }
+
+  private List<Map<String, Object>> sortedByDuration(Map<PythonCheck, RuleCost> costs) {
+    return costs.entrySet().stream()
+      .sorted(Comparator.comparingLong((Map.Entry<PythonCheck, RuleCost> entry) -> entry.getValue().durationNanos).reversed())
+      .map(entry -> entry.getValue().toJson(ruleKey(entry.getKey())))
+      .toList();
+  }
+
+  private String ruleKey(PythonCheck check) {
+    RuleKey ruleKey = ruleKeys.apply(check);
+    return ruleKey != null ? ruleKey.toString() : check.getClass().getName();
+  }
+
+  private static class RuleCost {
+    private long durationNanos;
+    private long executions;
+    private long issues;
+
+    void addExecution(long durationNanos) {
+      this.durationNanos += durationNanos;
+      executions++;
+    }
+
+    void add(RuleCost other) {
+      durationNanos += other.durationNanos;
+      executions += other.executions;
+      issues += other.issues;
+    }
+
+    Map<String, Object> toJson(String ruleKey) {
+      Map<String, Object> json = new LinkedHashMap<>();
+      json.put("ruleKey", ruleKey);
+      json.put("durationNanos", durationNanos);
+      json.put("executions", executions);
+      json.put("issues", issues);
+      return json;
+    }
+  }
+
+  private record FileCost(String file, long durationNanos, List<Map<String, Object>> slowestRules) {
+    Map<String, Object> toJson() {
+      Map<String, Object> json = new LinkedHashMap<>();
+      json.put("file", file);
+      json.put("durationNanos", durationNanos);
+      json.put("slowestRules", slowestRules);
+      return json;
+    }
+  }
+}
@@ -24,6 +24,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.plugins.python.jfr.ScannerEvent;
 import org.sonarsource.analyzer.commons.ProgressReport;
 
 public abstract class Scanner {
@@ -36,6 +37,8 @@ public abstract class Scanner {
   }
 
   public void execute(List<PythonInputFile> files, SensorContext context) {
+    ScannerEvent event = new ScannerEvent();
+    event.begin();
     ProgressReport progressReport = new ProgressReport(this.name() + " progress", TimeUnit.SECONDS.toMillis(10));
     String name = this.name();
     LOG.info("Starting {}", name);
@@ -46,6 +49,7 @@ public abstract class Scanner {
     for (PythonInputFile file : files) {
       if (context.isCancelled()) {
         progressReport.cancel();
+        commit(event, files.size(), numScannedWithoutParsing);
         return;
       }
       try {
@@ -70,6 +74,17 @@ public abstract class Scanner {
     endOfAnalysis();
     progressReport.stop();
     this.reportStatistics(numScannedWithoutParsing, files.size());
+    commit(event, files.size(), numScannedWithoutParsing);
+  }
+
+  private void commit(ScannerEvent event, int files, int filesScannedWithoutParsing) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.scanner = name();
+      event.files = files;
+      event.filesScannedWithoutParsing = filesScannedWithoutParsing;
+      event.commit();
+    }
   }
 
   protected abstract String name();
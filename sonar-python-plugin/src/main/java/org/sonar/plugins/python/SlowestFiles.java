@@ -0,0 +1,87 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import javax.annotation.CheckForNull;
+import org.sonar.api.batch.sensor.SensorContext;
+
+/**
+ * Files which took the longest to analyze, with their size and the duration of each phase of their analysis. Only kept when the
+ * performance measure report is activated, and saved next to it.
+ */
+class SlowestFiles {
+
+  static final String SLOWEST_FILES_PROPERTY = "sonar.python.performance.measure.slowestFiles";
+  static final String SLOWEST_FILES_DESTINATION_FILE = "sonar-python-slowest-files.json";
+  static final int DEFAULT_SLOWEST_FILES = 20;
+
+  private final int maxFiles;
+  private final Path reportPath;
+  // The fastest of the kept files comes first, to be replaced by a slower one
+  private final PriorityQueue<FileDurations> files = new PriorityQueue<>(Comparator.comparingLong(FileDurations::durationNanos));
+
+  SlowestFiles(int maxFiles, Path reportPath) {
+    this.maxFiles = maxFiles;
+    this.reportPath = reportPath;
+  }
+
+  @CheckForNull
+  static SlowestFiles fromConfiguration(SensorContext context) {
+    int maxFiles = context.config().getInt(SLOWEST_FILES_PROPERTY).orElse(DEFAULT_SLOWEST_FILES);
+    if (!context.config().getBoolean(PythonSensor.PERFORMANCE_MEASURE_PROPERTY).orElse(Boolean.FALSE) || maxFiles <= 0) {
+      return null;
+    }
+    Path reportPath = PythonSensor.performanceReportFile(context, SLOWEST_FILES_DESTINATION_FILE);
+    return reportPath == null ? null : new SlowestFiles(maxFiles, reportPath);
+  }
+
+  void add(PythonInputFile inputFile, PhaseDurations phaseDurations) {
+    long durationNanos = phaseDurations.totalDurationNanos();
+    FileDurations fastest = files.peek();
+    if (files.size() == maxFiles && fastest != null && fastest.durationNanos() >= durationNanos) {
+      return;
+    }
+    files.add(new FileDurations(inputFile.toString(), inputFile.wrappedFile().lines(), durationNanos, phaseDurations.durationNanosByPhase()));
+    if (files.size() > maxFiles) {
+      files.poll();
+    }
+  }
+
+  void writeReport() {
+    var report = files.stream()
+      .sorted(Comparator.comparingLong(FileDurations::durationNanos).reversed())
+      .map(FileDurations::toJson)
+      .toList();
+    PythonSensor.writePerformanceReport(reportPath, report, "Slowest files to analyze");
+  }
+
+  private record FileDurations(String file, int lines, long durationNanos, Map<String, Long> durationNanosByPhase) {
+    Map<String, Object> toJson() {
+      Map<String, Object> json = new LinkedHashMap<>();
+      json.put("file", file);
+      json.put("lines", lines);
+      json.put("durationNanos", durationNanos);
+      json.put("phases", durationNanosByPhase);
+      return json;
+    }
+  }
+}
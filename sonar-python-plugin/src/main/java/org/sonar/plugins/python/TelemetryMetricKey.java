@@ -24,7 +24,19 @@ public enum TelemetryMetricKey {
   PYTHON_VERSION_SET_KEY("python.version.set"),
   PYTHON_VERSION_KEY("python.version"),
   PYTHON_DATABRICKS_FOUND("python.notebook.databricks.python"),
-  IPYNB_DATABRICKS_FOUND("python.notebook.databricks.ipynb");
+  IPYNB_DATABRICKS_FOUND("python.notebook.databricks.ipynb"),
+  PYTHON_REDUCED_ANALYSIS_FILES_KEY("python.analysis.reduced_files"),
+  PYTHON_ANALYSIS_DURATION_KEY("python.analysis.duration_ms"),
+  PYTHON_GLOBAL_SYMBOLS_DURATION_KEY("python.analysis.global_symbols.duration_ms"),
+  PYTHON_PARSING_DURATION_KEY("python.analysis.parsing.duration_ms"),
+  PYTHON_SEMANTIC_DURATION_KEY("python.analysis.semantic.duration_ms"),
+  PYTHON_RULES_DURATION_KEY("python.analysis.rules.duration_ms"),
+  PYTHON_FULLY_SKIPPED_FILES_KEY("python.analysis.fully_skipped_files"),
+  PYTHON_PARTIALLY_SKIPPED_FILES_KEY("python.analysis.partially_skipped_files"),
+  PYTHON_CACHE_HIT_RATIO_KEY("python.cache.hit_ratio"),
+  PYTHON_TYPESHED_MODULES_KEY("python.typeshed.loaded_modules"),
+  PYTHON_TYPE_INFERENCE_FALLBACK_SCOPES_KEY("python.analysis.type_inference.fallback_scopes"),
+  PYTHON_LARGEST_FILE_LINES_KEY("python.analysis.largest_file_lines");
 
   private final String key;
 
@@ -0,0 +1,107 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python.caching;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Kinds of data stored in the analysis cache. Each kind has its own version, so that the data of the other kinds can still be
+ * used after an upgrade of the plugin.
+ * <p>
+ * Kinds computed by the analyzer itself (type inference, symbol tables, Typeshed, notebook conversion) are versioned with the implementation version of
+ * the plugin, so that any upgrade invalidates them. The version of the other kinds only depends on their format version, which has
+ * to be incremented whenever their serialization format changes.
+ */
+public enum CachedData {
+  /**
+   * Descriptors of the global symbols of each module. The types they refer to may depend on the Python versions of the project.
+   */
+  DESCRIPTORS("descriptors", 1, true, true, true),
+  /**
+   * Modules imported by each module, along with the list of the modules of the project and the content hash of each file.
+   */
+  IMPORTS("imports", 1, true, false, true),
+  /**
+   * CPD tokens of each file, which only depend on the lexer.
+   */
+  CPD_TOKENS("cpd", 1, false, false, false),
+  /**
+   * Typeshed modules used by the project.
+   */
+  TYPESHED_MODULES("typeshed_modules", 1, true, false, false),
+  /**
+   * Python code generated from each notebook, along with the locations of its lines in the notebook.
+   */
+  NOTEBOOKS("notebooks", 1, true, false, false);
+
+  private static final Logger LOG = LoggerFactory.getLogger(CachedData.class);
+  private static final String UNKNOWN_ANALYZER_VERSION = "unknownPluginVersion";
+
+  private final String key;
+  private final int formatVersion;
+  private final boolean dependsOnAnalyzer;
+  private final boolean dependsOnPythonVersions;
+  private final boolean storedInProjectIndex;
+
+  CachedData(String key, int formatVersion, boolean dependsOnAnalyzer, boolean dependsOnPythonVersions, boolean storedInProjectIndex) {
+    this.key = key;
+    this.formatVersion = formatVersion;
+    this.dependsOnAnalyzer = dependsOnAnalyzer;
+    this.dependsOnPythonVersions = dependsOnPythonVersions;
+    this.storedInProjectIndex = storedInProjectIndex;
+  }
+
+  public String key() {
+    return key;
+  }
+
+  /**
+   * @return the version of the data of this kind, for the given analysis settings
+   */
+  public String version(String analyzerVersion, List<String> pythonVersions, boolean consolidatedIndex) {
+    StringBuilder version = new StringBuilder(Integer.toString(formatVersion));
+    if (dependsOnAnalyzer) {
+      version.append(';').append(analyzerVersion);
+    }
+    if (dependsOnPythonVersions && !pythonVersions.isEmpty()) {
+      version.append(';').append(String.join(",", pythonVersions));
+    }
+    if (storedInProjectIndex && consolidatedIndex) {
+      // Switching between the per-file entries and the consolidated index invalidates the data stored in the index
+      version.append(";consolidated");
+    }
+    return version.toString();
+  }
+
+  /**
+   * @return the implementation version of the plugin
+   */
+  public static String analyzerVersion() {
+    return analyzerVersion(CachedData.class);
+  }
+
+  static String analyzerVersion(Class<?> cls) {
+    String implementationVersion = cls.getPackage().getImplementationVersion();
+    if (implementationVersion == null) {
+      LOG.warn("Implementation version of the Python plugin not found. Cached data may not be invalidated properly, which may lead to inaccurate analysis results.");
+      return UNKNOWN_ANALYZER_VERSION;
+    }
+    return implementationVersion;
+  }
+}
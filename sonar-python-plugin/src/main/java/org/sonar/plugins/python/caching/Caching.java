@@ -17,13 +17,19 @@
 package org.sonar.plugins.python.caching;
 
 import com.google.protobuf.InvalidProtocolBufferException;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.plugins.python.api.caching.CacheContext;
@@ -45,23 +51,56 @@ public class Caching {
   public static final String CACHE_VERSION_KEY = "python:cache_version";
   public static final String CPD_TOKENS_CACHE_KEY_PREFIX = "python:cpd:data:";
   public static final String CPD_TOKENS_STRING_TABLE_KEY_PREFIX = "python:cpd:stringTable:";
+  public static final String CONTENT_KEYS_CACHE_KEY_PREFIX = "python:content_keys:";
+  public static final String PROJECT_INDEX_SHARD_KEY_PREFIX = "python:index:shard:";
+  public static final String PROJECT_INDEX_SHARDS_COUNT_KEY = "python:index:shards";
 
   private static final Logger LOG = LoggerFactory.getLogger(Caching.class);
 
-  public final String cacheVersion;
+  private final Map<CachedData, String> cacheVersions = new EnumMap<>(CachedData.class);
+  private final Map<CachedData, Boolean> upToDateCacheVersions = new EnumMap<>(CachedData.class);
 
-  public Caching(CacheContext cacheContext, String cacheVersion) {
+  /**
+   * When set, imports, descriptors, content hashes and module names of all files are stored in the sharded {@link ProjectIndex}
+   * rather than in separate entries for each file. The index of the previous analysis is read at once when first accessed, and the index of the
+   * current analysis is written by {@link #writeProjectIndex()}.
+   */
+  private final boolean consolidatedIndex;
+  private ProjectIndex previousProjectIndex = null;
+  private final ProjectIndex currentProjectIndex = new ProjectIndex();
+  private boolean projectIndexWritten = false;
+
+  private int entriesHits = 0;
+  private int entriesMisses = 0;
+
+  public Caching(CacheContext cacheContext) {
+    this(cacheContext, List.of(), false);
+  }
+
+  public Caching(CacheContext cacheContext, List<String> pythonVersions, boolean consolidatedIndex) {
     this.cacheContext = cacheContext;
-    this.cacheVersion = cacheVersion;
+    this.consolidatedIndex = consolidatedIndex;
+    String analyzerVersion = CachedData.analyzerVersion();
+    for (CachedData cachedData : CachedData.values()) {
+      cacheVersions.put(cachedData, cachedData.version(analyzerVersion, pythonVersions, consolidatedIndex));
+    }
   }
 
   public void writeImportsMapEntry(String fileKey, Set<String> imports) {
+    if (consolidatedIndex) {
+      currentProjectIndex.getOrCreate(normalizedKey(fileKey)).imports = Set.copyOf(imports);
+      return;
+    }
     byte[] importData = String.join(";", imports).getBytes(StandardCharsets.UTF_8);
     String cacheKey = importsMapCacheKey(fileKey);
     cacheContext.getWriteCache().write(cacheKey, importData);
   }
 
   public void writeFileContentHash(String fileKey, byte[] hash) {
+    if (consolidatedIndex) {
+      currentProjectIndex.getOrCreate(normalizedKey(fileKey)).contentHash = hash;
+      return;
+    }
     String cacheKey = fileContentHashCacheKey(fileKey);
     cacheContext.getWriteCache().write(cacheKey, hash);
   }
@@ -76,50 +115,176 @@ public class Caching {
     cacheContext.getWriteCache().write(TYPESHED_MODULES_KEY, stubModulesBytes);
   }
 
-  public void writeCacheVersion() {
-    cacheContext.getWriteCache().write(CACHE_VERSION_KEY, cacheVersion.getBytes(StandardCharsets.UTF_8));
+  public void writeCacheVersions() {
+    cacheVersions.forEach((cachedData, version) ->
+      cacheContext.getWriteCache().write(cacheVersionKey(cachedData), version.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  public String cacheVersion(CachedData cachedData) {
+    return cacheVersions.get(cachedData);
   }
 
   public void writeProjectLevelSymbolTableEntry(String fileKey, Set<Descriptor> descriptors) {
+    if (consolidatedIndex) {
+      currentProjectIndex.getOrCreate(normalizedKey(fileKey)).descriptors = toProtobufModuleDescriptor(descriptors).toByteString();
+      return;
+    }
     String cacheKey = projectSymbolTableCacheKey(fileKey);
     cacheContext.getWriteCache().write(cacheKey, toProtobufModuleDescriptor(descriptors).toByteArray());
   }
 
   public void copyFromPrevious(String fileKey) {
+    if (consolidatedIndex) {
+      ProjectIndex.Entry previousEntry = previousProjectIndex().get(normalizedKey(fileKey));
+      if (previousEntry != null) {
+        currentProjectIndex.put(normalizedKey(fileKey), previousEntry.copy());
+      }
+      return;
+    }
     cacheContext.getWriteCache().copyFromPrevious(importsMapCacheKey(fileKey));
     cacheContext.getWriteCache().copyFromPrevious(projectSymbolTableCacheKey(fileKey));
     cacheContext.getWriteCache().copyFromPrevious(fileContentHashCacheKey(fileKey));
   }
 
+  /**
+   * Records which file had the given content in this analysis, so that the data cached for that file can be retrieved for a file
+   * with the same content in the next analysis, even if it was moved or renamed. With the consolidated index, the module name is
+   * stored along with the content hash of the file, which has to be written as well.
+   */
+  public void writeContentKeyEntry(byte[] contentHash, String fileKey, String moduleFqn) {
+    if (consolidatedIndex) {
+      currentProjectIndex.getOrCreate(normalizedKey(fileKey)).moduleFqn = moduleFqn;
+      return;
+    }
+    byte[] entry = (fileKey + "\n" + moduleFqn).getBytes(StandardCharsets.UTF_8);
+    cacheContext.getWriteCache().write(contentKeyCacheKey(contentHash), entry);
+  }
+
+  @CheckForNull
+  public ContentKeyEntry readContentKeyEntry(byte[] contentHash) {
+    if (consolidatedIndex) {
+      String fileKey = previousProjectIndex().fileKeyByContentHash(contentHash);
+      return fileKey == null ? null : new ContentKeyEntry(fileKey, previousProjectIndex().get(fileKey).moduleFqn);
+    }
+    byte[] bytes = cacheContext.getReadCache().readBytes(contentKeyCacheKey(contentHash));
+    if (bytes == null) {
+      return null;
+    }
+    String[] entry = new String(bytes, StandardCharsets.UTF_8).split("\n", -1);
+    return entry.length == 2 ? new ContentKeyEntry(entry[0], entry[1]) : null;
+  }
+
+  public record ContentKeyEntry(String fileKey, String moduleFqn) {
+  }
+
+  /**
+   * Writes the project index built during this analysis. Does nothing unless the consolidated index is used: the per-file
+   * entries are then written as soon as they are computed.
+   */
+  public void writeProjectIndex() {
+    if (!consolidatedIndex || projectIndexWritten) {
+      return;
+    }
+    projectIndexWritten = true;
+    List<byte[]> shards = currentProjectIndex.toShards(ProjectIndex.DEFAULT_FILES_PER_SHARD);
+    for (int i = 0; i < shards.size(); i++) {
+      cacheContext.getWriteCache().write(PROJECT_INDEX_SHARD_KEY_PREFIX + i, shards.get(i));
+    }
+    cacheContext.getWriteCache().write(PROJECT_INDEX_SHARDS_COUNT_KEY, String.valueOf(shards.size()).getBytes(StandardCharsets.UTF_8));
+    LOG.debug("Wrote project index for {} files in {} shard(s).", currentProjectIndex.size(), shards.size());
+  }
+
+  private ProjectIndex previousProjectIndex() {
+    if (previousProjectIndex == null) {
+      previousProjectIndex = readProjectIndex();
+    }
+    return previousProjectIndex;
+  }
+
+  private ProjectIndex readProjectIndex() {
+    byte[] shardsCountBytes = cacheContext.getReadCache().readBytes(PROJECT_INDEX_SHARDS_COUNT_KEY);
+    if (shardsCountBytes == null) {
+      return new ProjectIndex();
+    }
+    try {
+      int shardsCount = Integer.parseInt(new String(shardsCountBytes, StandardCharsets.UTF_8));
+      List<byte[]> shards = new ArrayList<>(shardsCount);
+      for (int i = 0; i < shardsCount; i++) {
+        byte[] shard = cacheContext.getReadCache().readBytes(PROJECT_INDEX_SHARD_KEY_PREFIX + i);
+        if (shard == null) {
+          throw new IOException("Missing project index shard " + i);
+        }
+        shards.add(shard);
+      }
+      return ProjectIndex.fromShards(shards);
+    } catch (IOException | NumberFormatException e) {
+      LOG.debug("Failed to read the project index from the cache: {}", e.getMessage());
+      return new ProjectIndex();
+    }
+  }
+
   @CheckForNull
   public Set<Descriptor> readProjectLevelSymbolTableEntry(String fileKey) {
+    return readProjectLevelSymbolTableEntry(fileKey, UnaryOperator.identity());
+  }
+
+  /**
+   * Reads the descriptors cached for a file, applying the given transformation to their serialized form before deserializing them.
+   */
+  @CheckForNull
+  public Set<Descriptor> readProjectLevelSymbolTableEntry(String fileKey, UnaryOperator<DescriptorsProtos.ModuleDescriptor> transformation) {
+    try {
+      DescriptorsProtos.ModuleDescriptor moduleDescriptor = consolidatedIndex ? readProjectIndexDescriptors(fileKey) : readModuleDescriptor(fileKey);
+      return countAccess(moduleDescriptor == null ? null : fromProtobuf(transformation.apply(moduleDescriptor)));
+    } catch (InvalidProtocolBufferException e) {
+      LOG.debug("Failed to deserialize project level symbol table entry for module: \"{}\"", fileKey);
+      return countAccess(null);
+    }
+  }
+
+  @CheckForNull
+  private DescriptorsProtos.ModuleDescriptor readModuleDescriptor(String fileKey) throws InvalidProtocolBufferException {
     String key = projectSymbolTableCacheKey(fileKey);
     if (cacheContext.getReadCache().contains(key)) {
       byte[] bytes = cacheContext.getReadCache().readBytes(key);
       if (bytes != null) {
-        try {
-          return fromProtobuf(DescriptorsProtos.ModuleDescriptor.parseFrom(bytes));
-        } catch (InvalidProtocolBufferException e) {
-          LOG.debug("Failed to deserialize project level symbol table entry for module: \"{}\"", fileKey);
-        }
+        return DescriptorsProtos.ModuleDescriptor.parseFrom(bytes);
       }
     }
     return null;
   }
 
+  @CheckForNull
+  private DescriptorsProtos.ModuleDescriptor readProjectIndexDescriptors(String fileKey) throws InvalidProtocolBufferException {
+    ProjectIndex.Entry entry = previousProjectIndex().get(normalizedKey(fileKey));
+    if (entry == null || entry.descriptors == null) {
+      return null;
+    }
+    return DescriptorsProtos.ModuleDescriptor.parseFrom(entry.descriptors);
+  }
+
   @CheckForNull
   public Set<String> readImportMapEntry(String fileKey) {
+    if (consolidatedIndex) {
+      ProjectIndex.Entry entry = previousProjectIndex().get(normalizedKey(fileKey));
+      return countAccess(entry == null || entry.imports == null ? null : new HashSet<>(entry.imports));
+    }
     String cacheKey = importsMapCacheKey(fileKey);
     byte[] bytes = cacheContext.getReadCache().readBytes(cacheKey);
     if (bytes != null) {
-      return new HashSet<>(Arrays.asList(new String(bytes, StandardCharsets.UTF_8).split(";")));
+      return countAccess(new HashSet<>(Arrays.asList(new String(bytes, StandardCharsets.UTF_8).split(";"))));
     }
-    return null;
+    return countAccess(null);
   }
 
+  @CheckForNull
   public byte[] readFileContentHash(String fileKey) {
+    if (consolidatedIndex) {
+      ProjectIndex.Entry entry = previousProjectIndex().get(normalizedKey(fileKey));
+      return countAccess(entry == null ? null : entry.contentHash);
+    }
     String cacheKey = fileContentHashCacheKey(fileKey);
-    return cacheContext.getReadCache().readBytes(cacheKey);
+    return countAccess(cacheContext.getReadCache().readBytes(cacheKey));
   }
 
   public Set<String> readFilesList() {
@@ -138,20 +303,52 @@ public class Caching {
     return Collections.emptySet();
   }
 
-  public boolean isCacheVersionUpToDate() {
-    byte[] bytes = cacheContext.getReadCache().readBytes(CACHE_VERSION_KEY);
+  /**
+   * @return true if the data of the given kind stored by the previous analysis can be used during this analysis
+   */
+  public boolean isCacheVersionUpToDate(CachedData cachedData) {
+    return upToDateCacheVersions.computeIfAbsent(cachedData, this::readCacheVersion);
+  }
+
+  private boolean readCacheVersion(CachedData cachedData) {
+    String cacheVersion = cacheVersions.get(cachedData);
+    byte[] bytes = cacheContext.getReadCache().readBytes(cacheVersionKey(cachedData));
     if (bytes != null) {
       String retrievedVersion = new String(bytes, StandardCharsets.UTF_8);
       if (retrievedVersion.equals(cacheVersion)) {
-        LOG.debug("Cache version still up to date: \"{}\".", cacheVersion);
+        LOG.debug("Cache version of {} still up to date: \"{}\".", cachedData.key(), cacheVersion);
         return true;
       }
-      LOG.info("The cache version has changed since the previous analysis, cached data will not be used during this analysis." +
-        " Retrieved: \"{}\". Current version: \"{}\".", retrievedVersion, cacheVersion);
+      LOG.info("The cache version of {} has changed since the previous analysis, this cached data will not be used during this analysis." +
+        " Retrieved: \"{}\". Current version: \"{}\".", cachedData.key(), retrievedVersion, cacheVersion);
     }
     return false;
   }
 
+  @CheckForNull
+  private <T> T countAccess(@Nullable T entry) {
+    if (entry == null) {
+      entriesMisses++;
+    } else {
+      entriesHits++;
+    }
+    return entry;
+  }
+
+  /**
+   * Number of reads of the cached data of a file (content hash, imports or descriptors) which found an entry of the previous analysis.
+   */
+  public int entriesHits() {
+    return entriesHits;
+  }
+
+  /**
+   * Number of reads of the cached data of a file (content hash, imports or descriptors) which found no entry of the previous analysis.
+   */
+  public int entriesMisses() {
+    return entriesMisses;
+  }
+
   public boolean isCacheEnabled() {
     return cacheContext.isCacheEnabled();
   }
@@ -160,6 +357,18 @@ public class Caching {
     return cacheContext;
   }
 
+  private static String normalizedKey(String key) {
+    return key.replace('\\', '/');
+  }
+
+  public static String cacheVersionKey(CachedData cachedData) {
+    return CACHE_VERSION_KEY + ":" + cachedData.key();
+  }
+
+  public static String contentKeyCacheKey(byte[] contentHash) {
+    return CONTENT_KEYS_CACHE_KEY_PREFIX + new String(contentHash, StandardCharsets.UTF_8);
+  }
+
   public static String importsMapCacheKey(String key) {
     return IMPORTS_MAP_CACHE_KEY_PREFIX + key.replace('\\', '/');
   }
@@ -0,0 +1,85 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python.caching;
+
+import java.io.InputStream;
+import javax.annotation.CheckForNull;
+import org.sonar.plugins.python.api.caching.CacheContext;
+import org.sonar.plugins.python.api.caching.PythonReadCache;
+import org.sonar.plugins.python.api.caching.PythonWriteCache;
+
+/**
+ * Cache context in which all keys are prefixed with a namespace, so that several sensors sharing the same analysis cache can
+ * store the same kind of data (such as the list of project files or the cache version) without overwriting each other.
+ */
+public class NamespacedCacheContext implements CacheContext {
+
+  private final CacheContext delegate;
+  private final PythonReadCache readCache;
+  private final PythonWriteCache writeCache;
+
+  public NamespacedCacheContext(CacheContext delegate, String namespace) {
+    this.delegate = delegate;
+    this.readCache = new NamespacedReadCache(delegate.getReadCache(), namespace);
+    this.writeCache = new NamespacedWriteCache(delegate.getWriteCache(), namespace);
+  }
+
+  @Override
+  public boolean isCacheEnabled() {
+    return delegate.isCacheEnabled();
+  }
+
+  @Override
+  public PythonReadCache getReadCache() {
+    return readCache;
+  }
+
+  @Override
+  public PythonWriteCache getWriteCache() {
+    return writeCache;
+  }
+
+  private record NamespacedReadCache(PythonReadCache readCache, String namespace) implements PythonReadCache {
+    @Override
+    public InputStream read(String key) {
+      return readCache.read(namespace + key);
+    }
+
+    @CheckForNull
+    @Override
+    public byte[] readBytes(String key) {
+      return readCache.readBytes(namespace + key);
+    }
+
+    @Override
+    public boolean contains(String key) {
+      return readCache.contains(namespace + key);
+    }
+  }
+
+  private record NamespacedWriteCache(PythonWriteCache writeCache, String namespace) implements PythonWriteCache {
+    @Override
+    public void write(String key, byte[] data) {
+      writeCache.write(namespace + key, data);
+    }
+
+    @Override
+    public void copyFromPrevious(String key) {
+      writeCache.copyFromPrevious(namespace + key);
+    }
+  }
+}
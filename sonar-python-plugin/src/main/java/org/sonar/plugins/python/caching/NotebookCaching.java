@@ -0,0 +1,101 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python.caching;
+
+import java.io.IOException;
+import javax.annotation.CheckForNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.plugins.python.GeneratedIPythonFile;
+import org.sonar.plugins.python.PythonInputFile;
+import org.sonar.plugins.python.api.caching.CacheContext;
+import org.sonar.python.caching.NotebookSerializer;
+
+/**
+ * Stores the Python code generated from each notebook, so that unchanged notebooks are not converted again.
+ */
+public class NotebookCaching {
+
+  public static final String NOTEBOOK_CACHE_KEY_PREFIX = "python:notebook:";
+
+  private static final Logger LOG = LoggerFactory.getLogger(NotebookCaching.class);
+
+  private final CacheContext cacheContext;
+  private Caching caching;
+
+  public NotebookCaching(CacheContext cacheContext) {
+    this.cacheContext = cacheContext;
+  }
+
+  /**
+   * @return the generated file of an unchanged notebook, if it was stored by the previous analysis. {@code null} otherwise.
+   */
+  @CheckForNull
+  public GeneratedIPythonFile read(PythonInputFile notebook) {
+    InputFile inputFile = notebook.wrappedFile();
+    if (!cacheContext.isCacheEnabled() || inputFile.status() != InputFile.Status.SAME || !isCacheVersionUpToDate()) {
+      return null;
+    }
+    String key = notebookCacheKey(inputFile.key());
+    byte[] bytes = cacheContext.getReadCache().readBytes(key);
+    if (bytes == null) {
+      return null;
+    }
+    try {
+      NotebookSerializer.NotebookData notebookData = NotebookSerializer.deserialize(bytes);
+      // InputFile.Status is not reliable in some cases: the hash of the content is checked as well
+      if (!notebookData.contentHash().equals(inputFile.md5Hash())) {
+        return null;
+      }
+      cacheContext.getWriteCache().copyFromPrevious(key);
+      return new GeneratedIPythonFile(inputFile, notebookData.pythonContent(), notebookData.locationMap());
+    } catch (IOException e) {
+      LOG.debug("Failed to deserialize the generated code of notebook: \"{}\"", inputFile.key());
+      return null;
+    }
+  }
+
+  /**
+   * The generated code depends on the notebook parser: it is not reused after an upgrade of the plugin. The version is written
+   * along with the versions of the other kinds of cached data, by the indexer of the notebooks.
+   */
+  private boolean isCacheVersionUpToDate() {
+    if (caching == null) {
+      caching = new Caching(cacheContext);
+    }
+    return caching.isCacheVersionUpToDate(CachedData.NOTEBOOKS);
+  }
+
+  public void write(GeneratedIPythonFile generatedFile) {
+    if (!cacheContext.isCacheEnabled()) {
+      return;
+    }
+    InputFile inputFile = generatedFile.wrappedFile();
+    try {
+      NotebookSerializer.NotebookData notebookData = new NotebookSerializer.NotebookData(inputFile.md5Hash(), generatedFile.contents(),
+        generatedFile.locationMap());
+      cacheContext.getWriteCache().write(notebookCacheKey(inputFile.key()), NotebookSerializer.serialize(notebookData));
+    } catch (IOException e) {
+      LOG.debug("Failed to write the generated code of notebook to the cache: \"{}\"", inputFile.key());
+    }
+  }
+
+  public static String notebookCacheKey(String key) {
+    return NOTEBOOK_CACHE_KEY_PREFIX + key.replace('\\', '/');
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python.caching;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.types.protobuf.DescriptorsProtos;
+
+import static org.sonar.python.index.DescriptorsToProtobuf.fromProtobuf;
+import static org.sonar.python.index.DescriptorsToProtobuf.toProtobufModuleDescriptor;
+
+/**
+ * Project index stored in a local file, so that the global symbols of the files which did not change are not computed again
+ * when the IDE restarts.
+ * <p>
+ * The file starts with the versions of the descriptors and imports it contains: a file written with another format, or for other
+ * Python versions, is ignored. It is followed by the shards of a {@link ProjectIndex}. Only the entries which are read or written
+ * during the current session are saved, so that the entries of deleted files are dropped.
+ */
+public class PersistentProjectIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PersistentProjectIndex.class);
+
+  private final Path path;
+  private final String version;
+  private final ProjectIndex previousIndex;
+  private final ProjectIndex currentIndex = new ProjectIndex();
+  private boolean modified = false;
+
+  private PersistentProjectIndex(Path path, String version, ProjectIndex previousIndex) {
+    this.path = path;
+    this.version = version;
+    this.previousIndex = previousIndex;
+  }
+
+  public static PersistentProjectIndex load(Path path, List<String> pythonVersions) {
+    String analyzerVersion = CachedData.analyzerVersion();
+    String version = CachedData.DESCRIPTORS.version(analyzerVersion, pythonVersions, false) + "/" + CachedData.IMPORTS.version(analyzerVersion, pythonVersions, false);
+    if (!Files.isRegularFile(path)) {
+      return new PersistentProjectIndex(path, version, new ProjectIndex());
+    }
+    try (DataInputStream input = new DataInputStream(Files.newInputStream(path))) {
+      String storedVersion = input.readUTF();
+      if (!storedVersion.equals(version)) {
+        LOG.debug("The persistent project index was written with another version and will not be used: \"{}\"", path);
+        return new PersistentProjectIndex(path, version, new ProjectIndex());
+      }
+      int shardsCount = input.readInt();
+      List<byte[]> shards = new ArrayList<>();
+      for (int i = 0; i < shardsCount; i++) {
+        shards.add(readShard(input));
+      }
+      return new PersistentProjectIndex(path, version, ProjectIndex.fromShards(shards));
+    } catch (IOException e) {
+      LOG.debug("Failed to read the persistent project index: \"{}\" ({})", path, e.getMessage());
+      return new PersistentProjectIndex(path, version, new ProjectIndex());
+    }
+  }
+
+  /**
+   * @return the descriptors and imports stored for a file, provided that its content did not change. {@code null} otherwise.
+   */
+  @CheckForNull
+  public IndexedModule read(String key, byte[] contentHash) {
+    ProjectIndex.Entry entry = previousIndex.get(key);
+    if (entry == null || entry.imports == null || entry.descriptors == null || !MessageDigest.isEqual(entry.contentHash, contentHash)) {
+      return null;
+    }
+    try {
+      Set<Descriptor> descriptors = fromProtobuf(DescriptorsProtos.ModuleDescriptor.parseFrom(entry.descriptors));
+      currentIndex.put(key, entry);
+      return new IndexedModule(descriptors, entry.imports);
+    } catch (InvalidProtocolBufferException e) {
+      LOG.debug("Failed to deserialize the descriptors of \"{}\" from the persistent project index", key);
+      return null;
+    }
+  }
+
+  public void write(String key, byte[] contentHash, Set<Descriptor> descriptors, Set<String> imports) {
+    ProjectIndex.Entry entry = currentIndex.getOrCreate(key);
+    entry.contentHash = contentHash;
+    entry.imports = Set.copyOf(imports);
+    entry.descriptors = toProtobufModuleDescriptor(descriptors).toByteString();
+    modified = true;
+  }
+
+  /**
+   * Writes the index to its file, unless it is identical to the one which was read.
+   */
+  public void save() {
+    if (!modified && currentIndex.size() == previousIndex.size()) {
+      return;
+    }
+    try {
+      Files.createDirectories(path.getParent());
+      // The index is written to a temporary file first, so that an interrupted write does not leave a truncated index behind
+      Path temporaryFile = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+      try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(temporaryFile))) {
+        writeIndex(output);
+      }
+      Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      LOG.debug("Failed to write the persistent project index: \"{}\" ({})", path, e.getMessage());
+    }
+  }
+
+  private void writeIndex(DataOutputStream output) throws IOException {
+    output.writeUTF(version);
+    List<byte[]> shards = currentIndex.toShards(ProjectIndex.DEFAULT_FILES_PER_SHARD);
+    output.writeInt(shards.size());
+    for (byte[] shard : shards) {
+      output.writeInt(shard.length);
+      output.write(shard);
+    }
+  }
+
+  private static byte[] readShard(DataInputStream input) throws IOException {
+    int length = input.readInt();
+    if (length < 0) {
+      throw new IOException("Invalid shard length: " + length);
+    }
+    byte[] shard = new byte[length];
+    input.readFully(shard);
+    return shard;
+  }
+
+  public record IndexedModule(Set<Descriptor> descriptors, Set<String> imports) {
+  }
+}
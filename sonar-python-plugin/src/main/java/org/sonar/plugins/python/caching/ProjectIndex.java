@@ -0,0 +1,239 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python.caching;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+/**
+ * Per-file data of the project index (content hash, module name, imports and serialized descriptors), stored in a few shards
+ * instead of four cache entries per file.
+ * <p>
+ * Each shard is self-contained: a format version, a table of the strings used by the shard (file keys and module names),
+ * then one record per file. Imports are stored as varint indices in the string table. Descriptors are kept as serialized
+ * {@code ModuleDescriptor} bytes: they are only parsed when read, and are copied as-is from one analysis to the next.
+ */
+class ProjectIndex {
+
+  static final int FORMAT_VERSION = 2;
+  static final int DEFAULT_FILES_PER_SHARD = 2048;
+
+  private final Map<String, Entry> entries;
+  private Map<ByteString, String> fileKeysByContentHash = null;
+
+  ProjectIndex() {
+    this(new HashMap<>());
+  }
+
+  private ProjectIndex(Map<String, Entry> entries) {
+    this.entries = entries;
+  }
+
+  @CheckForNull
+  Entry get(String fileKey) {
+    return entries.get(fileKey);
+  }
+
+  Entry getOrCreate(String fileKey) {
+    return entries.computeIfAbsent(fileKey, k -> new Entry());
+  }
+
+  void put(String fileKey, Entry entry) {
+    entries.put(fileKey, entry);
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return the key of the file which had the given content, the first one in the order of the keys when several files had the
+   * same content. Only files of which the module name is known are considered. The index must not be modified afterwards.
+   */
+  @CheckForNull
+  String fileKeyByContentHash(byte[] contentHash) {
+    if (fileKeysByContentHash == null) {
+      fileKeysByContentHash = new HashMap<>();
+      new TreeMap<>(entries).forEach((fileKey, entry) -> {
+        if (entry.contentHash != null && entry.moduleFqn != null) {
+          fileKeysByContentHash.putIfAbsent(ByteString.copyFrom(entry.contentHash), fileKey);
+        }
+      });
+    }
+    return fileKeysByContentHash.get(ByteString.copyFrom(contentHash));
+  }
+
+  List<byte[]> toShards(int filesPerShard) {
+    List<byte[]> shards = new ArrayList<>();
+    // Sorting the files keeps the content of the shards stable from one analysis to the next
+    Map<String, Entry> sortedEntries = new TreeMap<>(entries);
+    Map<String, Entry> shardEntries = new LinkedHashMap<>();
+    for (Map.Entry<String, Entry> entry : sortedEntries.entrySet()) {
+      shardEntries.put(entry.getKey(), entry.getValue());
+      if (shardEntries.size() == filesPerShard) {
+        shards.add(writeShard(shardEntries));
+        shardEntries.clear();
+      }
+    }
+    if (!shardEntries.isEmpty()) {
+      shards.add(writeShard(shardEntries));
+    }
+    return shards;
+  }
+
+  static ProjectIndex fromShards(List<byte[]> shards) throws IOException {
+    Map<String, Entry> entries = new HashMap<>();
+    for (byte[] shard : shards) {
+      readShard(shard, entries);
+    }
+    return new ProjectIndex(entries);
+  }
+
+  private static byte[] writeShard(Map<String, Entry> shardEntries) {
+    Map<String, Integer> stringTable = new LinkedHashMap<>();
+    shardEntries.forEach((fileKey, entry) -> {
+      stringTable.computeIfAbsent(fileKey, k -> stringTable.size());
+      if (entry.moduleFqn != null) {
+        stringTable.computeIfAbsent(entry.moduleFqn, k -> stringTable.size());
+      }
+      if (entry.imports != null) {
+        entry.imports.forEach(imported -> stringTable.computeIfAbsent(imported, k -> stringTable.size()));
+      }
+    });
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+      output.writeUInt32NoTag(FORMAT_VERSION);
+      output.writeUInt32NoTag(stringTable.size());
+      for (String string : stringTable.keySet()) {
+        output.writeStringNoTag(string);
+      }
+      output.writeUInt32NoTag(shardEntries.size());
+      for (Map.Entry<String, Entry> shardEntry : shardEntries.entrySet()) {
+        Entry entry = shardEntry.getValue();
+        output.writeUInt32NoTag(stringTable.get(shardEntry.getKey()));
+        writeOptionalBytes(output, entry.contentHash == null ? null : ByteString.copyFrom(entry.contentHash));
+        output.writeBoolNoTag(entry.moduleFqn != null);
+        if (entry.moduleFqn != null) {
+          output.writeUInt32NoTag(stringTable.get(entry.moduleFqn));
+        }
+        if (entry.imports == null) {
+          output.writeBoolNoTag(false);
+        } else {
+          output.writeBoolNoTag(true);
+          output.writeUInt32NoTag(entry.imports.size());
+          for (String imported : entry.imports) {
+            output.writeUInt32NoTag(stringTable.get(imported));
+          }
+        }
+        writeOptionalBytes(output, entry.descriptors);
+      }
+      output.flush();
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      // Writing to an in-memory stream
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeOptionalBytes(CodedOutputStream output, @Nullable ByteString bytes) throws IOException {
+    output.writeBoolNoTag(bytes != null);
+    if (bytes != null) {
+      output.writeBytesNoTag(bytes);
+    }
+  }
+
+  private static void readShard(byte[] shard, Map<String, Entry> entries) throws IOException {
+    CodedInputStream input = CodedInputStream.newInstance(shard);
+    // Descriptors are kept as views on the shard rather than copies, and are only parsed on demand
+    input.enableAliasing(true);
+    int formatVersion = input.readUInt32();
+    if (formatVersion != FORMAT_VERSION) {
+      throw new IOException("Unsupported project index format: " + formatVersion);
+    }
+    String[] stringTable = new String[input.readUInt32()];
+    for (int i = 0; i < stringTable.length; i++) {
+      stringTable[i] = input.readString();
+    }
+    int entriesCount = input.readUInt32();
+    for (int i = 0; i < entriesCount; i++) {
+      String fileKey = string(stringTable, input.readUInt32());
+      Entry entry = new Entry();
+      ByteString contentHash = readOptionalBytes(input);
+      entry.contentHash = contentHash == null ? null : contentHash.toByteArray();
+      if (input.readBool()) {
+        entry.moduleFqn = string(stringTable, input.readUInt32());
+      }
+      if (input.readBool()) {
+        int importsCount = input.readUInt32();
+        Set<String> imports = new HashSet<>();
+        for (int j = 0; j < importsCount; j++) {
+          imports.add(string(stringTable, input.readUInt32()));
+        }
+        entry.imports = imports;
+      }
+      entry.descriptors = readOptionalBytes(input);
+      entries.put(fileKey, entry);
+    }
+  }
+
+  @CheckForNull
+  private static ByteString readOptionalBytes(CodedInputStream input) throws IOException {
+    return input.readBool() ? input.readBytes() : null;
+  }
+
+  private static String string(String[] stringTable, int index) throws IOException {
+    if (index >= stringTable.length) {
+      throw new IOException("Invalid string table index: " + index);
+    }
+    return stringTable[index];
+  }
+
+  static class Entry {
+    @Nullable
+    byte[] contentHash;
+    @Nullable
+    String moduleFqn;
+    @Nullable
+    Set<String> imports;
+    @Nullable
+    ByteString descriptors;
+
+    Entry copy() {
+      Entry copy = new Entry();
+      copy.contentHash = contentHash;
+      copy.moduleFqn = moduleFqn;
+      copy.imports = imports;
+      copy.descriptors = descriptors;
+      return copy;
+    }
+  }
+}
@@ -0,0 +1,264 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python.indexer;
+
+import com.sonar.sslr.api.AstNode;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.plugins.python.PythonInputFile;
+import org.sonar.plugins.python.SonarQubePythonFile;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.parser.PythonParser;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.semantic.SymbolUtils;
+import org.sonar.python.tree.PythonTreeMaker;
+
+import static org.sonar.python.semantic.SymbolUtils.pythonPackageName;
+
+/**
+ * Computes the global symbols of files of the project on a background thread, so that analyses do not wait for the whole project
+ * to be indexed.
+ * <p>
+ * Files are indexed in a project level symbol table of their own, which initially contains the modules that were already indexed
+ * by the analysis thread. Modules modified on the analysis thread afterwards are updated in that table by {@link #fileModified},
+ * and the files which depend on them and were already indexed are indexed again. The results are retrieved by {@link #poll()} on
+ * the analysis thread, which adds them to the project level symbol table used by analyses: that table is never accessed by the
+ * background thread. The table of the background thread is released as soon as all files are indexed: modules modified later
+ * do not cause their dependents to be indexed again.
+ */
+class BackgroundIndexing {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BackgroundIndexing.class);
+  private static final String THREAD_NAME = "sonar-python-indexing";
+
+  private final Queue<IndexedFile> indexedFiles = new ConcurrentLinkedQueue<>();
+  private final Set<URI> modifiedFiles = ConcurrentHashMap.newKeySet();
+  private final Queue<ModifiedModule> modifiedModules = new ConcurrentLinkedQueue<>();
+  private final List<PythonInputFile> files;
+  private final List<String> packageNames;
+  private final String projectBaseDirAbsolutePath;
+  private ProjectLevelSymbolTable projectLevelSymbolTable;
+  private final Consumer<IndexedFile> onFileIndexed;
+  private final Runnable onCompletion;
+  private Future<?> task;
+
+  private BackgroundIndexing(List<PythonInputFile> files, List<String> packageNames, String projectBaseDirAbsolutePath,
+    ProjectLevelSymbolTable projectLevelSymbolTable, Consumer<IndexedFile> onFileIndexed, Runnable onCompletion) {
+    this.files = files;
+    this.packageNames = packageNames;
+    this.projectBaseDirAbsolutePath = projectBaseDirAbsolutePath;
+    this.projectLevelSymbolTable = projectLevelSymbolTable;
+    this.onFileIndexed = onFileIndexed;
+    this.onCompletion = onCompletion;
+  }
+
+  /**
+   * @param knownModules descriptors and imports of the modules that were already indexed, by fully qualified name
+   * @param onFileIndexed called on the background thread for each indexed file which was not modified since indexing started,
+   * again when the file is indexed again
+   * @param onCompletion called on the background thread once all files are indexed, unless indexing is cancelled
+   */
+  static BackgroundIndexing start(List<PythonInputFile> files, String projectBaseDirAbsolutePath, Map<String, IndexedModule> knownModules,
+    Consumer<IndexedFile> onFileIndexed, Runnable onCompletion) {
+    ProjectLevelSymbolTable projectLevelSymbolTable = ProjectLevelSymbolTable.empty();
+    knownModules.forEach((fqn, module) -> projectLevelSymbolTable.addModule(fqn, module.descriptors(), module.imports()));
+    List<String> packageNames = files.stream().map(file -> pythonPackageName(file.wrappedFile().file(), projectBaseDirAbsolutePath)).toList();
+    packageNames.forEach(projectLevelSymbolTable::addProjectPackage);
+
+    BackgroundIndexing backgroundIndexing = new BackgroundIndexing(files, packageNames, projectBaseDirAbsolutePath, projectLevelSymbolTable,
+      onFileIndexed, onCompletion);
+    ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, THREAD_NAME);
+      thread.setDaemon(true);
+      return thread;
+    });
+    backgroundIndexing.task = executor.submit(backgroundIndexing::run);
+    executor.shutdown();
+    return backgroundIndexing;
+  }
+
+  private void run() {
+    try {
+      PythonParser parser = PythonParser.create();
+      Deque<Integer> pendingFiles = new ArrayDeque<>();
+      IntStream.range(0, files.size()).forEach(pendingFiles::add);
+      boolean[] indexed = new boolean[files.size()];
+      while (!pendingFiles.isEmpty()) {
+        if (Thread.currentThread().isInterrupted()) {
+          LOG.debug("Background indexing of the project was cancelled.");
+          return;
+        }
+        updateModifiedModules(pendingFiles, indexed);
+        int i = pendingFiles.poll();
+        PythonInputFile file = files.get(i);
+        // Global Symbol Table is deactivated for Notebooks see: SONARPY-2021
+        // The global symbols of modified files are computed on the analysis thread
+        if (file.kind() != PythonInputFile.Kind.PYTHON || modifiedFiles.contains(file.wrappedFile().uri())) {
+          continue;
+        }
+        try {
+          IndexedFile indexedFile = index(parser, file, packageNames.get(i));
+          indexed[i] = true;
+          if (!modifiedFiles.contains(file.wrappedFile().uri())) {
+            onFileIndexed.accept(indexedFile);
+          }
+          indexedFiles.add(indexedFile);
+        } catch (Exception e) {
+          LOG.debug("Unable to construct project-level symbol table for file: {}", file);
+          LOG.debug(e.getMessage());
+        }
+      }
+      onCompletion.run();
+    } finally {
+      projectLevelSymbolTable = null;
+    }
+  }
+
+  /**
+   * Replaces the modules modified on the analysis thread in the table of the background thread, and indexes again the files which
+   * depend on them and were already indexed.
+   */
+  private void updateModifiedModules(Deque<Integer> pendingFiles, boolean[] indexed) {
+    ModifiedModule modifiedModule;
+    while ((modifiedModule = modifiedModules.poll()) != null) {
+      InputFile modifiedFile = modifiedModule.file().wrappedFile();
+      String packageName = pythonPackageName(modifiedFile.file(), projectBaseDirAbsolutePath);
+      String moduleFQN = SymbolUtils.fullyQualifiedModuleName(packageName, modifiedFile.filename());
+      projectLevelSymbolTable.removeModule(packageName, modifiedFile.filename());
+      IndexedModule module = modifiedModule.module();
+      if (module != null) {
+        projectLevelSymbolTable.addProjectPackage(packageName);
+        projectLevelSymbolTable.addModule(moduleFQN, module.descriptors(), module.imports());
+      }
+      Set<String> dependentModules = projectLevelSymbolTable.dependentModules(moduleFQN);
+      for (int i = 0; i < files.size(); i++) {
+        InputFile file = files.get(i).wrappedFile();
+        if (indexed[i] && !modifiedFiles.contains(file.uri())
+          && dependentModules.contains(SymbolUtils.fullyQualifiedModuleName(packageNames.get(i), file.filename()))) {
+          indexed[i] = false;
+          pendingFiles.add(i);
+        }
+      }
+    }
+  }
+
+  private IndexedFile index(PythonParser parser, PythonInputFile file, String packageName) throws IOException {
+    String contents = file.wrappedFile().contents();
+    AstNode astNode = parser.parse(contents);
+    FileInput astRoot = new PythonTreeMaker().fileInput(astNode);
+    Set<String> previousDjangoViews = Set.copyOf(projectLevelSymbolTable.djangoViews());
+    projectLevelSymbolTable.addModule(astRoot, packageName, SonarQubePythonFile.create(file.wrappedFile()));
+    String moduleFQN = SymbolUtils.fullyQualifiedModuleName(packageName, file.wrappedFile().filename());
+    Set<String> djangoViews = projectLevelSymbolTable.djangoViews().stream()
+      .filter(view -> !previousDjangoViews.contains(view))
+      .collect(Collectors.toSet());
+    return new IndexedFile(file, contentHash(contents), projectLevelSymbolTable.descriptorsForModule(moduleFQN),
+      projectLevelSymbolTable.importsByModule().get(moduleFQN), djangoViews);
+  }
+
+  /**
+   * Hash of the contents which were actually indexed, which may differ from the current contents of the file.
+   */
+  static byte[] contentHash(String contents) {
+    try {
+      return MessageDigest.getInstance("MD5").digest(contents.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("MD5 is not available", e);
+    }
+  }
+
+  /**
+   * Files modified on the analysis thread after indexing started are not returned by {@link #poll()}: their global symbols may
+   * already be outdated. The files depending on them are indexed again with their new global symbols.
+   *
+   * @param module the global symbols of the file computed on the analysis thread, null if the file was deleted
+   */
+  void fileModified(PythonInputFile file, @Nullable IndexedModule module) {
+    modifiedFiles.add(file.wrappedFile().uri());
+    modifiedModules.add(new ModifiedModule(file, module));
+  }
+
+  /**
+   * @return the files indexed since the previous call, only the latest result of each file when it was indexed again
+   */
+  List<IndexedFile> poll() {
+    Map<URI, IndexedFile> result = new LinkedHashMap<>();
+    IndexedFile indexedFile;
+    while ((indexedFile = indexedFiles.poll()) != null) {
+      URI uri = indexedFile.file().wrappedFile().uri();
+      if (!modifiedFiles.contains(uri)) {
+        result.remove(uri);
+        result.put(uri, indexedFile);
+      }
+    }
+    return new ArrayList<>(result.values());
+  }
+
+  boolean isDone() {
+    return task.isDone();
+  }
+
+  /**
+   * Interrupts the background thread: the files which are not indexed yet are not indexed anymore.
+   */
+  void cancel() {
+    task.cancel(true);
+  }
+
+  void await(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+    task.get(timeout, unit);
+  }
+
+  record IndexedModule(Set<Descriptor> descriptors, Set<String> imports) {
+  }
+
+  /**
+   * @param djangoViews the Django views registered by the file
+   */
+  record IndexedFile(PythonInputFile file, byte[] contentHash, Set<Descriptor> descriptors, Set<String> imports, Set<String> djangoViews) {
+  }
+
+  private record ModifiedModule(PythonInputFile file, @Nullable IndexedModule module) {
+  }
+}
@@ -22,6 +22,7 @@ import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
@@ -35,8 +36,12 @@ import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.plugins.python.api.SonarLintCache;
 import org.sonar.plugins.python.api.caching.CacheContext;
 import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.jfr.GlobalSymbolsEvent;
+import org.sonar.python.index.Descriptor;
 import org.sonar.python.parser.PythonParser;
 import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.semantic.SymbolUtils;
+import org.sonar.python.semantic.v2.ScopeTypeInferenceCache;
 import org.sonar.python.tree.PythonTreeMaker;
 
 import static org.sonar.python.semantic.SymbolUtils.pythonPackageName;
@@ -44,6 +49,7 @@ import static org.sonar.python.semantic.SymbolUtils.pythonPackageName;
 public abstract class PythonIndexer {
 
   private static final Logger LOG = LoggerFactory.getLogger(PythonIndexer.class);
+  private static final String COMPACT_SYMBOL_TABLE_PROPERTY = "sonar.python.symbolTable.compact";
 
   protected String projectBaseDirAbsolutePath;
 
@@ -93,6 +99,38 @@ public abstract class PythonIndexer {
     projectLevelSymbolTable.addModule(astRoot, packageName, pythonFile);
   }
 
+  /**
+   * Adds a file whose descriptors and imports were computed during a previous analysis.
+   */
+  void addFile(PythonInputFile inputFile, Set<Descriptor> descriptors, Set<String> imports) {
+    String packageName = pythonPackageName(inputFile.wrappedFile().file(), projectBaseDirAbsolutePath);
+    packageNames.put(inputFile.wrappedFile().uri(), packageName);
+    projectLevelSymbolTable.addProjectPackage(packageName);
+    String fullyQualifiedModuleName = SymbolUtils.fullyQualifiedModuleName(packageName, inputFile.wrappedFile().filename());
+    projectLevelSymbolTable.addModule(fullyQualifiedModuleName, descriptors, imports);
+  }
+
+  /**
+   * Large projects can opt for a project-level symbol table which keeps the descriptors of modules serialized off-heap.
+   */
+  void configureSymbolTableStorage(SensorContext context) {
+    if (context.config().getBoolean(COMPACT_SYMBOL_TABLE_PROPERTY).orElse(false)) {
+      LOG.debug("Using compact storage for the project-level symbol table");
+      projectLevelSymbolTable.enableCompactStorage();
+    }
+  }
+
+  static void commitGlobalSymbolsEvent(GlobalSymbolsEvent event, int files, int cacheHits, int fullySkippableFiles) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.files = files;
+      event.cacheHits = cacheHits;
+      event.cacheMisses = files - cacheHits;
+      event.fullySkippableFiles = fullySkippableFiles;
+      event.commit();
+    }
+  }
+
   public abstract void buildOnce(SensorContext context);
 
   public abstract void postAnalysis(SensorContext context);
@@ -101,6 +139,14 @@ public abstract class PythonIndexer {
     // no op by default
   }
 
+  /**
+   * @return the cache of function-level type inference results to reuse when the given file is analyzed again, if any
+   */
+  @CheckForNull
+  public ScopeTypeInferenceCache scopeTypeInferenceCache(PythonInputFile inputFile) {
+    return null;
+  }
+
   @CheckForNull
   public InputFile getFileWithId(String fileId) {
     // no op by default
@@ -130,6 +176,13 @@ public abstract class PythonIndexer {
     return false;
   }
 
+  /**
+   * @return true if the CPD tokens stored in the cache by the previous analysis can be pushed for partially skippable files
+   */
+  public boolean canUseCachedCpdTokens() {
+    return false;
+  }
+
   public abstract CacheContext cacheContext();
 
   class GlobalSymbolsScanner extends Scanner {
@@ -17,14 +17,31 @@
 package org.sonar.plugins.python.indexer;
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.api.Startable;
+import org.sonar.api.batch.fs.FileSystem;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.plugins.python.Python;
@@ -32,16 +49,24 @@ import org.sonar.plugins.python.api.SonarLintCache;
 import org.sonar.plugins.python.api.caching.CacheContext;
 import org.sonar.plugins.python.PythonInputFile;
 import org.sonar.plugins.python.PythonInputFileImpl;
+import org.sonar.plugins.python.caching.PersistentProjectIndex;
+import org.sonar.plugins.python.jfr.GlobalSymbolsEvent;
 import org.sonar.python.caching.CacheContextImpl;
 import org.sonar.python.caching.PythonReadCacheImpl;
 import org.sonar.python.caching.PythonWriteCacheImpl;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.index.DescriptorsFingerprint;
+import org.sonar.python.semantic.SymbolUtils;
+import org.sonar.python.semantic.v2.ScopeTypeInferenceCache;
 import org.sonarsource.api.sonarlint.SonarLintSide;
 import org.sonarsource.sonarlint.plugin.api.module.file.ModuleFileEvent;
 import org.sonarsource.sonarlint.plugin.api.module.file.ModuleFileListener;
 import org.sonarsource.sonarlint.plugin.api.module.file.ModuleFileSystem;
 
+import static org.sonar.plugins.python.api.PythonVersionUtils.PYTHON_VERSION_KEY;
+
 @SonarLintSide(lifespan = "MODULE")
-public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileListener {
+public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileListener, Startable {
 
   private final ModuleFileSystem moduleFileSystem;
 
@@ -51,6 +76,22 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
   private boolean shouldBuildProjectSymbolTable = true;
   private static final long DEFAULT_MAX_LINES_FOR_INDEXING = 300_000;
   private static final String MAX_LINES_PROPERTY = "sonar.python.sonarlint.indexing.maxlines";
+  private static final String PERSISTENT_INDEX_PROPERTY = "sonar.python.sonarlint.indexing.persistent";
+  private static final String PERSISTENT_INDEX_DIRECTORY_PROPERTY = "sonar.python.sonarlint.indexing.persistent.directory";
+  private static final String PERSISTENT_INDEX_DIRECTORY = "python-index";
+  private static final String SONARLINT_USER_HOME_VARIABLE = "SONARLINT_USER_HOME";
+  private static final String BACKGROUND_INDEXING_PROPERTY = "sonar.python.sonarlint.indexing.background";
+  private static final String INCREMENTAL_TYPE_INFERENCE_PROPERTY = "sonar.python.sonarlint.incrementalTypeInference";
+  private static final int MAX_SCOPE_TYPE_INFERENCE_CACHES = 50;
+  private boolean incrementalTypeInference = false;
+  private boolean indexInBackground = false;
+  private BackgroundIndexing backgroundIndexing;
+  private final Map<URI, ModuleTypeInferenceCache> scopeTypeInferenceCaches = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<URI, ModuleTypeInferenceCache> eldest) {
+      return size() > MAX_SCOPE_TYPE_INFERENCE_CACHES;
+    }
+  };
 
   public SonarLintPythonIndexer(ModuleFileSystem moduleFileSystem) {
     this.moduleFileSystem = moduleFileSystem;
@@ -59,14 +100,25 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
   @Override
   public void buildOnce(SensorContext context) {
     if (!shouldBuildProjectSymbolTable) {
+      publishBackgroundIndexingResults();
       return;
     }
+    GlobalSymbolsEvent event = new GlobalSymbolsEvent();
+    event.begin();
+    incrementalTypeInference = context.config().getBoolean(INCREMENTAL_TYPE_INFERENCE_PROPERTY).orElse(false);
+    indexInBackground = context.config().getBoolean(BACKGROUND_INDEXING_PROPERTY).orElse(false);
+    configureSymbolTableStorage(context);
     this.projectBaseDirAbsolutePath = context.fileSystem().baseDir().getAbsolutePath();
     shouldBuildProjectSymbolTable = false;
     List<PythonInputFile> files = getInputFiles(moduleFileSystem);
     collectPackageNames(files);
-    long nLines = files.stream().map(PythonInputFile::wrappedFile).map(InputFile::lines).mapToLong(Integer::longValue).sum();
     long maxLinesForIndexing = context.config().getLong(MAX_LINES_PROPERTY).orElse(DEFAULT_MAX_LINES_FOR_INDEXING);
+    if (context.config().getBoolean(PERSISTENT_INDEX_PROPERTY).orElse(false)) {
+      int cacheHits = buildUsingPersistentIndex(context, files, maxLinesForIndexing);
+      commitGlobalSymbolsEvent(event, files.size(), cacheHits, 0);
+      return;
+    }
+    long nLines = linesCount(files);
     if (nLines > maxLinesForIndexing) {
       // Avoid performance issues for large projects
       LOG.debug("Project symbol table deactivated due to project size (total number of lines is {}, maximum for indexing is {})", nLines, maxLinesForIndexing);
@@ -74,9 +126,242 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
       return;
     }
     LOG.debug("Input files for indexing: {}", files);
+    indexFiles(context, files, null);
+    commitGlobalSymbolsEvent(event, files.size(), 0, 0);
+  }
+
+  /**
+   * Only the files which changed since the index was saved are parsed. The maximum number of lines applies to these files only:
+   * for large projects, they are indexed over several sessions, the project symbol table being incomplete in the meantime.
+   * @return the number of files retrieved from the persistent index
+   */
+  private int buildUsingPersistentIndex(SensorContext context, List<PythonInputFile> files, long maxLinesForIndexing) {
+    PersistentProjectIndex persistentIndex = PersistentProjectIndex.load(persistentIndexPath(context),
+      Arrays.asList(context.config().getStringArray(PYTHON_VERSION_KEY)));
+    List<PythonInputFile> filesToIndex = new ArrayList<>();
+    for (PythonInputFile file : files) {
+      if (!restoreFromPersistentIndex(persistentIndex, file)) {
+        filesToIndex.add(file);
+      }
+    }
+    LOG.debug("Global symbols of {} out of {} files were retrieved from the persistent project index.", files.size() - filesToIndex.size(), files.size());
+
+    List<PythonInputFile> indexedFiles = new ArrayList<>();
+    long nLines = 0;
+    for (PythonInputFile file : filesToIndex) {
+      if (nLines >= maxLinesForIndexing) {
+        break;
+      }
+      indexedFiles.add(file);
+      nLines += file.wrappedFile().lines();
+    }
+    if (indexedFiles.size() < filesToIndex.size()) {
+      LOG.debug("Project symbol table is incomplete due to project size: {} files will be indexed during the next sessions (maximum number " +
+        "of lines to index is {})", filesToIndex.size() - indexedFiles.size(), maxLinesForIndexing);
+    }
+    LOG.debug("Input files for indexing: {}", indexedFiles);
+    indexFiles(context, indexedFiles, persistentIndex);
+    return files.size() - filesToIndex.size();
+  }
+
+  private void indexFiles(SensorContext context, List<PythonInputFile> files, @Nullable PersistentProjectIndex persistentIndex) {
+    if (indexInBackground) {
+      indexFilesInBackground(context, files, persistentIndex);
+      return;
+    }
     // computes "globalSymbolsByModuleName"
+    indexFilesNow(context, files, persistentIndex);
+    if (persistentIndex != null) {
+      persistentIndex.save();
+    }
+  }
+
+  private void indexFilesNow(SensorContext context, List<PythonInputFile> files, @Nullable PersistentProjectIndex persistentIndex) {
+    if (files.isEmpty()) {
+      return;
+    }
     GlobalSymbolsScanner globalSymbolsStep = new GlobalSymbolsScanner(context);
     globalSymbolsStep.execute(files, context);
+    if (persistentIndex != null) {
+      for (PythonInputFile file : files) {
+        saveToPersistentIndex(persistentIndex, file);
+      }
+    }
+  }
+
+  /**
+   * The files being analyzed, then the modules they import, are indexed before the analysis starts. The other files are indexed
+   * in the background: their global symbols are added to the project symbol table at the start of the next analyses, the files
+   * analyzed in the meantime being analyzed with an incomplete project symbol table.
+   */
+  private void indexFilesInBackground(SensorContext context, List<PythonInputFile> files, @Nullable PersistentProjectIndex persistentIndex) {
+    FileSystem fileSystem = context.fileSystem();
+    List<PythonInputFile> analyzedFiles = new ArrayList<>();
+    fileSystem.inputFiles(fileSystem.predicates().hasLanguage(Python.KEY)).forEach(file -> analyzedFiles.add(new PythonInputFileImpl(file)));
+    Set<URI> analyzedFileUris = analyzedFiles.stream().map(file -> file.wrappedFile().uri()).collect(Collectors.toSet());
+    indexFilesNow(context, files.stream().filter(file -> analyzedFileUris.contains(file.wrappedFile().uri())).toList(), persistentIndex);
+
+    Map<String, Set<String>> importsByModule = projectLevelSymbolTable().importsByModule();
+    Set<String> importedModules = analyzedFiles.stream()
+      .map(file -> importsByModule.get(moduleFQN(file)))
+      .filter(Objects::nonNull)
+      .flatMap(Set::stream)
+      .collect(Collectors.toSet());
+    List<PythonInputFile> importedFiles = files.stream()
+      .filter(file -> !analyzedFileUris.contains(file.wrappedFile().uri()) && importedModules.contains(moduleFQN(file)))
+      .toList();
+    indexFilesNow(context, importedFiles, persistentIndex);
+
+    Set<URI> indexedFileUris = new HashSet<>(analyzedFileUris);
+    importedFiles.forEach(file -> indexedFileUris.add(file.wrappedFile().uri()));
+    List<PythonInputFile> remainingFiles = files.stream().filter(file -> !indexedFileUris.contains(file.wrappedFile().uri())).toList();
+    if (remainingFiles.isEmpty()) {
+      if (persistentIndex != null) {
+        persistentIndex.save();
+      }
+      return;
+    }
+    LOG.debug("Global symbols of {} files will be computed in the background.", remainingFiles.size());
+    Map<String, BackgroundIndexing.IndexedModule> knownModules = new HashMap<>();
+    importsByModule.forEach((moduleFQN, imports) -> {
+      Set<Descriptor> descriptors = projectLevelSymbolTable().descriptorsForModule(moduleFQN);
+      if (descriptors != null) {
+        knownModules.put(moduleFQN, new BackgroundIndexing.IndexedModule(descriptors, imports));
+      }
+    });
+    // The persistent index is only accessed by the background thread from now on
+    backgroundIndexing = BackgroundIndexing.start(remainingFiles, projectBaseDirAbsolutePath, knownModules,
+      indexedFile -> {
+        if (persistentIndex != null) {
+          persistentIndex.write(persistentIndexKey(indexedFile.file()), indexedFile.contentHash(), indexedFile.descriptors(), indexedFile.imports());
+        }
+      },
+      () -> {
+        if (persistentIndex != null) {
+          persistentIndex.save();
+        }
+      });
+  }
+
+  private void publishBackgroundIndexingResults() {
+    if (backgroundIndexing == null) {
+      return;
+    }
+    // Checked before polling, so that no file indexed in the background is missed
+    boolean done = backgroundIndexing.isDone();
+    List<BackgroundIndexing.IndexedFile> indexedFiles = backgroundIndexing.poll();
+    for (BackgroundIndexing.IndexedFile indexedFile : indexedFiles) {
+      addFile(indexedFile.file(), indexedFile.descriptors(), indexedFile.imports());
+      projectLevelSymbolTable().addDjangoViews(indexedFile.djangoViews());
+    }
+    if (!indexedFiles.isEmpty()) {
+      // Reused inference results may depend on the project-level symbol table which just changed
+      scopeTypeInferenceCaches.clear();
+      LOG.debug("Global symbols of {} files indexed in the background were added to the project symbol table.", indexedFiles.size());
+    }
+    if (done) {
+      LOG.debug("Background indexing of the project is complete. Files analyzed before may need to be analyzed again to benefit from it.");
+      backgroundIndexing = null;
+    }
+  }
+
+  @Override
+  public void start() {
+    // no op
+  }
+
+  /**
+   * Called when the module is closed: files which are not indexed yet in the background are not indexed anymore.
+   */
+  @Override
+  public void stop() {
+    if (backgroundIndexing != null) {
+      backgroundIndexing.cancel();
+      backgroundIndexing = null;
+    }
+  }
+
+  void awaitBackgroundIndexing(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+    if (backgroundIndexing != null) {
+      backgroundIndexing.await(timeout, unit);
+    }
+  }
+
+  private boolean restoreFromPersistentIndex(PersistentProjectIndex persistentIndex, PythonInputFile file) {
+    try {
+      PersistentProjectIndex.IndexedModule indexedModule = persistentIndex.read(persistentIndexKey(file), contentHash(file));
+      if (indexedModule != null) {
+        addFile(file, indexedModule.descriptors(), indexedModule.imports());
+        return true;
+      }
+    } catch (IOException e) {
+      LOG.debug("Failed to read file \"{}\" to retrieve it from the persistent project index", file.wrappedFile().filename());
+    }
+    return false;
+  }
+
+  private void saveToPersistentIndex(PersistentProjectIndex persistentIndex, PythonInputFile file) {
+    String moduleFQN = moduleFQN(file);
+    Set<Descriptor> descriptors = projectLevelSymbolTable().descriptorsForModule(moduleFQN);
+    Set<String> imports = projectLevelSymbolTable().importsByModule().get(moduleFQN);
+    if (descriptors == null || imports == null) {
+      // The file failed to parse
+      return;
+    }
+    try {
+      persistentIndex.write(persistentIndexKey(file), contentHash(file), descriptors, imports);
+    } catch (IOException e) {
+      LOG.debug("Failed to read file \"{}\" to store it in the persistent project index", file.wrappedFile().filename());
+    }
+  }
+
+  private String persistentIndexKey(PythonInputFile file) {
+    // The module name is part of the key, as the descriptors of a module depend on its name
+    return moduleFQN(file) + "@" + file.wrappedFile().uri();
+  }
+
+  private String moduleFQN(PythonInputFile file) {
+    String packageName = SymbolUtils.pythonPackageName(file.wrappedFile().file(), projectBaseDirAbsolutePath);
+    return SymbolUtils.fullyQualifiedModuleName(packageName, file.wrappedFile().filename());
+  }
+
+  private static byte[] contentHash(PythonInputFile file) throws IOException {
+    return BackgroundIndexing.contentHash(file.wrappedFile().contents());
+  }
+
+  private static MessageDigest md5() {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("MD5 is not available", e);
+    }
+  }
+
+  /**
+   * SonarLint provides no work directory: {@link FileSystem#workDir()} falls back to the base directory of the module, i.e. to the
+   * sources of the user. The index is stored in the SonarLint storage directory instead, unless another directory is configured.
+   */
+  private Path persistentIndexPath(SensorContext context) {
+    Path directory = context.config().get(PERSISTENT_INDEX_DIRECTORY_PROPERTY)
+      .map(Path::of)
+      .orElseGet(() -> sonarLintUserHome(System.getenv(SONARLINT_USER_HOME_VARIABLE), System.getProperty("user.home")).resolve(PERSISTENT_INDEX_DIRECTORY));
+    // The directory is shared by all the modules
+    byte[] moduleHash = md5().digest(projectBaseDirAbsolutePath.getBytes(StandardCharsets.UTF_8));
+    return directory.resolve(HexFormat.of().formatHex(moduleHash));
+  }
+
+  /**
+   * Same location as the one used by SonarLint for its own storage.
+   */
+  static Path sonarLintUserHome(@Nullable String sonarLintUserHomeVariable, String userHome) {
+    if (sonarLintUserHomeVariable != null && !sonarLintUserHomeVariable.isBlank()) {
+      return Path.of(sonarLintUserHomeVariable);
+    }
+    return Path.of(userHome).resolve(".sonarlint");
+  }
+
+  private static long linesCount(List<PythonInputFile> files) {
+    return files.stream().map(PythonInputFile::wrappedFile).map(InputFile::lines).mapToLong(Integer::longValue).sum();
   }
 
   @Override
@@ -95,6 +380,32 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
     }
   }
 
+  @Override
+  public ScopeTypeInferenceCache scopeTypeInferenceCache(PythonInputFile inputFile) {
+    if (!incrementalTypeInference) {
+      return null;
+    }
+    return scopeTypeInferenceCaches.computeIfAbsent(inputFile.wrappedFile().uri(),
+      uri -> new ModuleTypeInferenceCache(moduleFQN(inputFile), new ScopeTypeInferenceCache(projectLevelSymbolTable()))).cache();
+  }
+
+  /**
+   * Only the reused inference results of the modified module are discarded, unless its API changed: the results of the modules
+   * depending on it are then discarded too.
+   */
+  private void invalidateScopeTypeInferenceCaches(URI modifiedFile, String moduleFQN, @Nullable byte[] previousApi) {
+    scopeTypeInferenceCaches.remove(modifiedFile);
+    Set<Descriptor> descriptors = projectLevelSymbolTable().descriptorsForModule(moduleFQN);
+    byte[] api = descriptors == null ? null : DescriptorsFingerprint.of(descriptors);
+    if (!Arrays.equals(previousApi, api)) {
+      Set<String> dependentModules = projectLevelSymbolTable().dependentModules(moduleFQN);
+      scopeTypeInferenceCaches.values().removeIf(cache -> dependentModules.contains(cache.moduleFQN()));
+    }
+  }
+
+  private record ModuleTypeInferenceCache(String moduleFQN, ScopeTypeInferenceCache cache) {
+  }
+
   @Override
   public InputFile getFileWithId(String fileId) {
     String compare = fileId.replace("\\", "/");
@@ -118,6 +429,12 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
     indexedFiles.put(inputFile.wrappedFile().absolutePath(), inputFile.wrappedFile());
   }
 
+  @Override
+  void addFile(PythonInputFile inputFile, Set<Descriptor> descriptors, Set<String> imports) {
+    super.addFile(inputFile, descriptors, imports);
+    indexedFiles.put(inputFile.wrappedFile().absolutePath(), inputFile.wrappedFile());
+  }
+
   @Override
   void removeFile(PythonInputFile inputFile) {
     super.removeFile(inputFile);
@@ -133,6 +450,9 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
       return;
     }
     ModuleFileEvent.Type type = moduleFileEvent.getType();
+    String moduleFQN = moduleFQN(target);
+    Set<Descriptor> previousDescriptors = projectLevelSymbolTable().descriptorsForModule(moduleFQN);
+    byte[] previousApi = previousDescriptors == null ? null : DescriptorsFingerprint.of(previousDescriptors);
     if (type.equals(ModuleFileEvent.Type.DELETED) || type.equals(ModuleFileEvent.Type.MODIFIED)) {
       removeFile(target);
     }
@@ -143,5 +463,13 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
         LOG.debug("Failed to load file \"{}\" ({}) to the project symbol table", target.wrappedFile().filename(), type);
       }
     }
+    if (backgroundIndexing != null) {
+      // Copied, as the background thread never accesses the project symbol table of the analysis thread
+      Set<Descriptor> descriptors = projectLevelSymbolTable().descriptorsForModule(moduleFQN);
+      Set<String> imports = projectLevelSymbolTable().importsByModule().getOrDefault(moduleFQN, Set.of());
+      backgroundIndexing.fileModified(target, descriptors == null ? null : new BackgroundIndexing.IndexedModule(Set.copyOf(descriptors), Set.copyOf(imports)));
+    }
+    // Reused inference results may depend on the project-level symbol table which just changed
+    invalidateScopeTypeInferenceCaches(target.wrappedFile().uri(), moduleFQN, previousApi);
   }
 }
@@ -17,8 +17,10 @@
 package org.sonar.plugins.python.indexer;
 
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -31,9 +33,15 @@ import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.plugins.python.PythonInputFile;
+import org.sonar.plugins.python.SonarQubePythonFile;
+import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.plugins.python.api.caching.CacheContext;
+import org.sonar.plugins.python.caching.CachedData;
 import org.sonar.plugins.python.caching.Caching;
+import org.sonar.plugins.python.jfr.GlobalSymbolsEvent;
 import org.sonar.python.index.Descriptor;
+import org.sonar.python.index.DescriptorsFingerprint;
+import org.sonar.python.index.DescriptorsRebaser;
 import org.sonar.python.semantic.DependencyGraph;
 import org.sonar.python.semantic.SymbolUtils;
 import org.sonar.python.semantic.v2.typeshed.TypeShedDescriptorsProvider;
@@ -49,6 +57,12 @@ public class SonarQubePythonIndexer extends PythonIndexer {
    * Setting it to true or false, forces the behavior from the analyzer independently of the server.
    */
   public static final String SONAR_CAN_SKIP_UNCHANGED_FILES_KEY = "sonar.python.skipUnchanged";
+  public static final String CONSOLIDATED_CACHE_KEY = "sonar.python.cache.consolidated";
+  /**
+   * Without the consolidated index, recording which file had which content costs an additional cache entry for each file, written
+   * on every analysis: global symbols of moved and renamed files are only retrieved from the cache when this is enabled.
+   */
+  public static final String RELOCATED_FILES_CACHE_KEY = "sonar.python.cache.relocatedFiles";
   private static final Logger LOG = LoggerFactory.getLogger(SonarQubePythonIndexer.class);
 
   private final Caching caching;
@@ -56,10 +70,14 @@ public class SonarQubePythonIndexer extends PythonIndexer {
   private final Set<PythonInputFile> partiallySkippableFiles = new HashSet<>();
   private final List<PythonInputFile> inputFiles = new ArrayList<>();
   private final Map<PythonInputFile, String> inputFileToFQN = new HashMap<>();
+  private final boolean cacheRelocatedFiles;
+  private final Set<String> writtenContentKeys = new HashSet<>();
 
   public SonarQubePythonIndexer(List<PythonInputFile> inputFiles, CacheContext cacheContext, SensorContext context) {
     this.projectBaseDirAbsolutePath = context.fileSystem().baseDir().getAbsolutePath();
-    this.caching = new Caching(cacheContext, getCacheVersion(context));
+    boolean consolidatedCache = context.config().getBoolean(CONSOLIDATED_CACHE_KEY).orElse(false);
+    this.caching = new Caching(cacheContext, Arrays.asList(context.config().getStringArray(PYTHON_VERSION_KEY)), consolidatedCache);
+    this.cacheRelocatedFiles = consolidatedCache || context.config().getBoolean(RELOCATED_FILES_CACHE_KEY).orElse(false);
     inputFiles.forEach(f -> {
       this.inputFiles.add(f);
       inputFileToFQN.put(f, SymbolUtils.fullyQualifiedModuleName(packageName(f), f.wrappedFile().filename()));
@@ -69,14 +87,19 @@ public class SonarQubePythonIndexer extends PythonIndexer {
   @Override
   public void buildOnce(SensorContext context) {
     LOG.debug("Input files for indexing: {}", inputFiles);
+    GlobalSymbolsEvent event = new GlobalSymbolsEvent();
+    event.begin();
+    configureSymbolTableStorage(context);
     collectPackageNames(inputFiles);
     if (shouldOptimizeAnalysis(context)) {
       computeGlobalSymbolsUsingCache(context);
+      commitGlobalSymbolsEvent(event, inputFiles.size(), partiallySkippableFiles.size(), fullySkippableFiles.size());
       return;
     }
     PerformanceMeasure.Duration duration = PerformanceMeasure.start("ProjectLevelSymbolTable");
     computeGlobalSymbols(inputFiles, context);
     duration.stop();
+    commitGlobalSymbolsEvent(event, inputFiles.size(), 0, 0);
   }
 
   @Override
@@ -86,13 +109,17 @@ public class SonarQubePythonIndexer extends PythonIndexer {
       if (!stubModules.isEmpty()) {
         caching.writeTypeshedModules(stubModules);
       }
+      caching.writeProjectIndex();
     }
   }
 
   private boolean shouldOptimizeAnalysis(SensorContext context) {
     return caching.isCacheEnabled()
       && (context.canSkipUnchangedFiles() || context.config().getBoolean(SONAR_CAN_SKIP_UNCHANGED_FILES_KEY).orElse(false))
-      && caching.isCacheVersionUpToDate();
+      // Typeshed modules are needed to load the symbols used by the files which are not parsed
+      && caching.isCacheVersionUpToDate(CachedData.IMPORTS)
+      && caching.isCacheVersionUpToDate(CachedData.DESCRIPTORS)
+      && caching.isCacheVersionUpToDate(CachedData.TYPESHED_MODULES);
   }
 
   private void computeGlobalSymbolsUsingCache(SensorContext context) {
@@ -104,32 +131,68 @@ public class SonarQubePythonIndexer extends PythonIndexer {
     Set<String> allProjectFilesFQNs = Stream.concat(currentProjectModulesFQNs.stream(), deletedModulesFQNs.stream())
       .collect(Collectors.toSet());
     Map<String, Set<String>> importsByModule = new HashMap<>();
-    // Deleted files are considered impactful to their dependents but will not be re-analyzed.
-    List<PythonInputFile> impactfulFiles = new ArrayList<>();
-    List<String> impactfulModulesFQNs = new ArrayList<>(deletedModulesFQNs);
+    Set<PythonInputFile> modifiedFiles = new HashSet<>();
+    Set<PythonInputFile> relocatedFiles = new HashSet<>();
     for (PythonInputFile inputFile : inputFiles) {
       String currFQN = inputFileToFQN.get(inputFile);
       boolean isUnimpacted = tryToUseCache(importsByModule, inputFile, currFQN);
       if (!isUnimpacted) {
-        // Failed to retrieve some data: consider the file as impactful.
-        impactfulFiles.add(inputFile);
-        impactfulModulesFQNs.add(currFQN);
+        // Failed to retrieve some data: consider the file as modified.
+        modifiedFiles.add(inputFile);
+        if (tryToUseRelocatedEntry(importsByModule, inputFile, currFQN, currentProjectModulesFQNs)) {
+          relocatedFiles.add(inputFile);
+        }
       } else {
         partiallySkippableFiles.add(inputFile);
       }
     }
-    // Impacted modules are computed from both modified files and deleted ones.
+    // Although we need to analyze all impacted files, we only need to recompute global symbols for modified files (no cross-file dependencies
+    // in the project symbol table)
+    computeGlobalSymbols(inputFiles.stream().filter(f -> modifiedFiles.contains(f) && !relocatedFiles.contains(f)).toList(), context);
+    if (!relocatedFiles.isEmpty()) {
+      LOG.info("Global symbols of {} out of {} modified files were retrieved from cached data of files with the same content.",
+        relocatedFiles.size(), modifiedFiles.size());
+    }
+
+    // Deleted files are considered impactful to their dependents but will not be re-analyzed.
+    // Modified files are only impactful to their dependents when the API they expose has changed.
+    List<String> impactfulModulesFQNs = new ArrayList<>(deletedModulesFQNs);
+    int unchangedApiCount = 0;
+    for (PythonInputFile modifiedFile : modifiedFiles) {
+      String currFQN = inputFileToFQN.get(modifiedFile);
+      Set<String> imports = projectLevelSymbolTable().importsByModule().get(currFQN);
+      if (imports != null) {
+        importsByModule.put(currFQN, imports);
+      }
+      if (hasUnchangedApi(modifiedFile, currFQN)) {
+        unchangedApiCount++;
+      } else {
+        impactfulModulesFQNs.add(currFQN);
+      }
+    }
     Set<String> impactedModulesFQN = DependencyGraph.from(importsByModule, allProjectFilesFQNs).impactedModules(impactfulModulesFQNs);
-    inputFiles.stream().filter(f -> !impactedModulesFQN.contains(inputFileToFQN.get(f))).forEach(fullySkippableFiles::add);
+    inputFiles.stream()
+      .filter(f -> !modifiedFiles.contains(f) && !impactedModulesFQN.contains(inputFileToFQN.get(f)))
+      .forEach(fullySkippableFiles::add);
     LOG.info(
       "Cached information of global symbols will be used for {} out of {} main files. Global symbols will be recomputed for the remaining files.",
-      inputFiles.size() - impactfulFiles.size(),
+      inputFiles.size() - modifiedFiles.size(),
       inputFiles.size());
+    LOG.info("The exposed API is unchanged for {} out of {} modified files.", unchangedApiCount, modifiedFiles.size());
     LOG.info("Fully optimized analysis can be performed for {} out of {} files.", fullySkippableFiles.size(), inputFiles.size());
     LOG.info("Partially optimized analysis can be performed for {} out of {} files.", partiallySkippableFiles.size(), inputFiles.size());
-    // Although we need to analyze all impacted files, we only need to recompute global symbols for modified files (no cross-file dependencies
-    // in the project symbol table)
-    computeGlobalSymbols(impactfulFiles, context);
+  }
+
+  /**
+   * Compares the descriptors which have just been computed for a modified file with the ones of the previous analysis.
+   */
+  private boolean hasUnchangedApi(PythonInputFile modifiedFile, String moduleFQN) {
+    Set<Descriptor> descriptors = projectLevelSymbolTable().descriptorsForModule(moduleFQN);
+    if (descriptors == null) {
+      return false;
+    }
+    Set<Descriptor> previousDescriptors = caching.readProjectLevelSymbolTableEntry(modifiedFile.wrappedFile().key());
+    return previousDescriptors != null && MessageDigest.isEqual(DescriptorsFingerprint.of(descriptors), DescriptorsFingerprint.of(previousDescriptors));
   }
 
   /*
@@ -147,6 +210,11 @@ public class SonarQubePythonIndexer extends PythonIndexer {
     if (!fileIsUnchanged(inputFile)) {
       return false;
     }
+    if (inputFile.kind() == PythonInputFile.Kind.IPYTHON) {
+      // Notebooks are not part of the project level symbol table: they neither impact nor are impacted by other files
+      writeContentHashToCache(inputFile);
+      return true;
+    }
 
     Set<String> imports = caching.readImportMapEntry(inputFile.wrappedFile().key());
     if (imports != null) {
@@ -155,12 +223,66 @@ public class SonarQubePythonIndexer extends PythonIndexer {
     Set<Descriptor> descriptors = caching.readProjectLevelSymbolTableEntry(inputFile.wrappedFile().key());
     if (descriptors != null && imports != null) {
       saveRetrievedDescriptors(inputFile.wrappedFile().key(), descriptors, caching);
+      writeContentKeyToCache(inputFile, currFQN);
       return true;
     }
 
     return false;
   }
 
+  /**
+   * Retrieves the cached data of a file of the previous analysis which had the same content, typically before it was moved or renamed.
+   * Descriptors are rebased on the new module name rather than recomputed from a full parse.
+   */
+  private boolean tryToUseRelocatedEntry(Map<String, Set<String>> importsByModule, PythonInputFile inputFile, String currFQN,
+    Set<String> currentProjectModulesFQNs) {
+    if (!cacheRelocatedFiles || inputFile.kind() != PythonInputFile.Kind.PYTHON) {
+      return false;
+    }
+    Caching.ContentKeyEntry previousEntry = caching.readContentKeyEntry(contentHash(inputFile));
+    if (previousEntry == null || isAmbiguousRelocation(previousEntry.moduleFqn(), currFQN, currentProjectModulesFQNs)) {
+      return false;
+    }
+    String previousFQN = previousEntry.moduleFqn();
+    String fileId = fileId(inputFile);
+    Set<String> previousImports = caching.readImportMapEntry(previousEntry.fileKey());
+    Set<Descriptor> descriptors = caching.readProjectLevelSymbolTableEntry(previousEntry.fileKey(),
+      moduleDescriptor -> DescriptorsRebaser.rebase(moduleDescriptor, previousFQN, currFQN, fileId));
+    if (previousImports == null || descriptors == null) {
+      return false;
+    }
+    // Modules imported relatively have to be rebased, but cannot be told apart from the ones imported absolutely: both are kept
+    Set<String> imports = new HashSet<>(previousImports);
+    previousImports.forEach(imported -> imports.add(DescriptorsRebaser.rebaseName(imported, previousFQN, currFQN)));
+    importsByModule.put(currFQN, imports);
+
+    String fileKey = inputFile.wrappedFile().key();
+    projectLevelSymbolTable().insertEntry(fileKey, descriptors);
+    writeContentHashToCache(inputFile);
+    caching.writeProjectLevelSymbolTableEntry(fileKey, descriptors);
+    caching.writeImportsMapEntry(fileKey, imports);
+    writeContentKeyToCache(inputFile, currFQN);
+    return true;
+  }
+
+  /**
+   * When a module moved to another package while its former package still exists, names starting with the former package may
+   * refer to modules which were not moved: descriptors cannot be rebased safely.
+   */
+  private static boolean isAmbiguousRelocation(String previousFQN, String currFQN, Set<String> currentProjectModulesFQNs) {
+    String previousPackage = DescriptorsRebaser.packageName(previousFQN);
+    if (previousPackage.isEmpty() || previousPackage.equals(DescriptorsRebaser.packageName(currFQN))) {
+      return false;
+    }
+    return currentProjectModulesFQNs.stream().anyMatch(fqn -> fqn.startsWith(previousPackage + "."));
+  }
+
+  private static String fileId(PythonInputFile inputFile) {
+    PythonFile pythonFile = SonarQubePythonFile.create(inputFile.wrappedFile());
+    Path path = SymbolUtils.pathOf(pythonFile);
+    return path != null ? path.toString() : pythonFile.toString();
+  }
+
   private boolean fileIsUnchanged(PythonInputFile inputFile) {
     if (!inputFile.wrappedFile().status().equals(InputFile.Status.SAME)) {
       return false;
@@ -184,12 +306,16 @@ public class SonarQubePythonIndexer extends PythonIndexer {
       saveGlobalSymbolsInCache(files);
       saveMainFilesListInCache(new HashSet<>(inputFileToFQN.values()));
       // Information on used Typeshed stubs needs to be done at the end of the analysis, as it is not computed during indexing anymore
-      caching.writeCacheVersion();
+      caching.writeCacheVersions();
     }
   }
 
   private void saveGlobalSymbolsInCache(List<PythonInputFile> files) {
     for (PythonInputFile inputFile : files) {
+      if (inputFile.kind() == PythonInputFile.Kind.IPYTHON) {
+        writeContentHashToCache(inputFile);
+        continue;
+      }
       String moduleFQN = inputFileToFQN.get(inputFile);
       Set<Descriptor> descriptors = projectLevelSymbolTable().descriptorsForModule(moduleFQN);
       Set<String> imports = projectLevelSymbolTable().importsByModule().get(moduleFQN);
@@ -200,13 +326,28 @@ public class SonarQubePythonIndexer extends PythonIndexer {
 
         caching.writeProjectLevelSymbolTableEntry(inputFile.wrappedFile().key(), descriptors);
         caching.writeImportsMapEntry(inputFile.wrappedFile().key(), imports);
+        writeContentKeyToCache(inputFile, moduleFQN);
       }
     }
   }
 
   private void writeContentHashToCache(PythonInputFile inputFile) {
-    var contentHash = inputFile.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8);
-    caching.writeFileContentHash(inputFile.wrappedFile().key(), contentHash);
+    caching.writeFileContentHash(inputFile.wrappedFile().key(), contentHash(inputFile));
+  }
+
+  private void writeContentKeyToCache(PythonInputFile inputFile, String moduleFQN) {
+    if (!cacheRelocatedFiles) {
+      return;
+    }
+    // Files with the same content, such as empty "__init__.py" files, share a single entry
+    byte[] contentHash = contentHash(inputFile);
+    if (writtenContentKeys.add(new String(contentHash, StandardCharsets.UTF_8))) {
+      caching.writeContentKeyEntry(contentHash, inputFile.wrappedFile().key(), moduleFQN);
+    }
+  }
+
+  private static byte[] contentHash(PythonInputFile inputFile) {
+    return inputFile.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8);
   }
 
   private Set<String> deletedModulesFQNs(Set<String> projectModulesFQNs) {
@@ -230,25 +371,16 @@ public class SonarQubePythonIndexer extends PythonIndexer {
   }
 
   @Override
-  public CacheContext cacheContext() {
-    return caching.cacheContext();
+  public boolean canUseCachedCpdTokens() {
+    return caching.isCacheVersionUpToDate(CachedData.CPD_TOKENS);
   }
 
-  private static String getCacheVersion(SensorContext context) {
-    String implementationVersion = getImplementationVersion(SonarQubePythonIndexer.class);
-    var pythonVersions = context.config().getStringArray(PYTHON_VERSION_KEY);
-    if (pythonVersions.length == 0) {
-      return implementationVersion;
-    }
-    return implementationVersion + ";" + String.join(",", pythonVersions);
+  @Override
+  public CacheContext cacheContext() {
+    return caching.cacheContext();
   }
 
-  private static String getImplementationVersion(Class<?> cls) {
-    String implementationVersion = cls.getPackage().getImplementationVersion();
-    if (implementationVersion == null) {
-      LOG.warn("Implementation version of the Python plugin not found. Cached data may not be invalidated properly, which may lead to inaccurate analysis results.");
-      return "unknownPluginVersion";
-    }
-    return implementationVersion;
+  public Caching caching() {
+    return caching;
   }
 }
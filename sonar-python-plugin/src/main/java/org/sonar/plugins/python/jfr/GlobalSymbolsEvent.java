@@ -0,0 +1,49 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Computation of the global symbols of the project by an indexer.
+ */
+@Name("org.sonar.python.GlobalSymbols")
+@Label("Global Symbols")
+@Category({"SonarPython", "Indexing"})
+@StackTrace(false)
+public class GlobalSymbolsEvent extends Event {
+
+  @Label("Files")
+  public int files;
+
+  @Label("Cache Hits")
+  @Description("Files whose global symbols were retrieved from the analysis cache")
+  public int cacheHits;
+
+  @Label("Cache Misses")
+  @Description("Files whose global symbols were computed")
+  public int cacheMisses;
+
+  @Label("Fully Skippable Files")
+  @Description("Files which are neither modified nor impacted by a modified file, whose analysis can rely on cached data only")
+  public int fullySkippableFiles;
+}
@@ -0,0 +1,42 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Analysis of a single file, from reading its contents to saving its issues.
+ */
+@Name("org.sonar.python.ScanFile")
+@Label("Scan File")
+@Category({"SonarPython", "Analysis"})
+@StackTrace(false)
+public class ScanFileEvent extends Event {
+
+  @Label("File Key")
+  public String fileKey;
+
+  @Label("Lines")
+  public int lines;
+
+  @Label("Reduced Analysis")
+  public boolean reducedAnalysis;
+}
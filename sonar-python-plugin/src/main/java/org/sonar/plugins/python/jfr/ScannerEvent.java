@@ -0,0 +1,42 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Execution of a scanner on all the files it is given, e.g. the execution of the rules by the Python sensor.
+ */
+@Name("org.sonar.python.Scanner")
+@Label("Scanner")
+@Category({"SonarPython", "Analysis"})
+@StackTrace(false)
+public class ScannerEvent extends Event {
+
+  @Label("Scanner")
+  public String scanner;
+
+  @Label("Files")
+  public int files;
+
+  @Label("Files Scanned Without Parsing")
+  public int filesScannedWithoutParsing;
+}
@@ -0,0 +1,64 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python;
+
+import org.junit.jupiter.api.Test;
+import org.sonar.api.config.internal.MapSettings;
+import org.sonar.api.rule.RuleKey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisTiersTest {
+
+  @Test
+  void thresholds_are_disabled_by_default() {
+    AnalysisTiers analysisTiers = AnalysisTiers.fromConfiguration(new MapSettings().asConfig());
+    assertThat(analysisTiers.exceededSizeThreshold("x = 1\n".repeat(1_000_000))).isEmpty();
+    assertThat(analysisTiers.exceededTokensThreshold(Integer.MAX_VALUE)).isEmpty();
+  }
+
+  @Test
+  void default_reduced_rule_set() {
+    AnalysisTiers analysisTiers = AnalysisTiers.fromConfiguration(new MapSettings().asConfig());
+    assertThat(analysisTiers.isInReducedRuleSet(RuleKey.of("python", "LineLength"))).isTrue();
+    assertThat(analysisTiers.isInReducedRuleSet(RuleKey.of("python", "S1192"))).isFalse();
+    assertThat(analysisTiers.isInReducedRuleSet(RuleKey.of("custom", "LineLength"))).isFalse();
+    assertThat(analysisTiers.isInReducedRuleSet(null)).isFalse();
+  }
+
+  @Test
+  void configured_reduced_rule_set() {
+    MapSettings settings = new MapSettings().setProperty(AnalysisTiers.REDUCED_RULES_PROPERTY, "python:S1192, custom:rule");
+    AnalysisTiers analysisTiers = AnalysisTiers.fromConfiguration(settings.asConfig());
+    assertThat(analysisTiers.isInReducedRuleSet(RuleKey.of("python", "S1192"))).isTrue();
+    assertThat(analysisTiers.isInReducedRuleSet(RuleKey.of("custom", "rule"))).isTrue();
+    assertThat(analysisTiers.isInReducedRuleSet(RuleKey.of("python", "LineLength"))).isFalse();
+  }
+
+  @Test
+  void configured_thresholds() {
+    MapSettings settings = new MapSettings()
+      .setProperty(AnalysisTiers.MAX_CHARACTERS_PROPERTY, 10)
+      .setProperty(AnalysisTiers.MAX_LINES_PROPERTY, 0)
+      .setProperty(AnalysisTiers.MAX_TOKENS_PROPERTY, -1);
+    AnalysisTiers analysisTiers = AnalysisTiers.fromConfiguration(settings.asConfig());
+    assertThat(analysisTiers.exceededSizeThreshold("x = 1")).isEmpty();
+    assertThat(analysisTiers.exceededSizeThreshold("x = 1\ny = 2\n")).contains("12 characters > 10");
+    assertThat(analysisTiers.exceededSizeThreshold("\n".repeat(10))).isEmpty();
+    assertThat(analysisTiers.exceededTokensThreshold(Integer.MAX_VALUE)).isEmpty();
+  }
+}
@@ -47,6 +47,11 @@ import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.api.utils.Version;
 import org.sonar.plugins.python.api.ProjectPythonVersion;
 import org.sonar.plugins.python.api.PythonVersionUtils;
+import org.sonar.plugins.python.caching.CachedData;
+import org.sonar.plugins.python.caching.Caching;
+import org.sonar.plugins.python.caching.NotebookCaching;
+import org.sonar.plugins.python.caching.TestReadCache;
+import org.sonar.plugins.python.caching.TestWriteCache;
 import org.sonar.plugins.python.indexer.PythonIndexer;
 import org.sonar.plugins.python.indexer.SonarLintPythonIndexer;
 import org.sonar.plugins.python.indexer.TestModuleFileSystem;
@@ -141,13 +146,17 @@ class IPynbSensorTest {
   }
 
   private PythonInputFile createInputFile(String name) {
+    return createInputFile(name, InputFile.Status.ADDED);
+  }
+
+  private PythonInputFile createInputFile(String name, InputFile.Status status) {
     return new PythonInputFileImpl(TestInputFileBuilder.create("moduleKey", name)
       .setModuleBaseDir(baseDir.toPath())
       .setCharset(UTF_8)
       .setType(InputFile.Type.MAIN)
       .setLanguage(IPynb.KEY)
       .initMetadata(TestUtils.fileContent(new File(baseDir, name), UTF_8))
-      .setStatus(InputFile.Status.ADDED)
+      .setStatus(status)
       .build());
   }
 
@@ -248,4 +257,82 @@ class IPynbSensorTest {
     verify(contextSpy, Mockito.times(1)).addTelemetryProperty(TelemetryMetricKey.NOTEBOOK_TOTAL_KEY.key(), "1");
     verify(contextSpy, Mockito.times(1)).addTelemetryProperty(TelemetryMetricKey.NOTEBOOK_EXCEPTION_KEY.key(), "0");
   }
+
+  @Test
+  void test_notebook_sensor_uses_cache_for_unchanged_notebooks() throws IOException {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.IPYTHON_REPOSITORY_KEY, "PrintStatementUsage"))
+        .build())
+      .build();
+    context.settings().setProperty("sonar.python.skipUnchanged", true);
+    context.setCacheEnabled(true);
+    TestReadCache readCache = new TestReadCache();
+    TestWriteCache writeCache = new TestWriteCache().bind(readCache);
+    context.setPreviousCache(readCache);
+    context.setNextCache(writeCache);
+    context.fileSystem().add(createInputFile(NOTEBOOK_FILE, InputFile.Status.ADDED).wrappedFile());
+    notebookSensor().execute(context);
+
+    String notebookKey = IPynbSensor.NOTEBOOK_CACHE_NAMESPACE + NotebookCaching.notebookCacheKey("moduleKey:notebook.ipynb");
+    assertThat(writeCache.getData()).containsKeys(
+      notebookKey,
+      IPynbSensor.NOTEBOOK_CACHE_NAMESPACE + Caching.fileContentHashCacheKey("moduleKey:notebook.ipynb"),
+      IPynbSensor.NOTEBOOK_CACHE_NAMESPACE + Caching.cacheVersionKey(CachedData.DESCRIPTORS),
+      IPynbSensor.NOTEBOOK_CACHE_NAMESPACE + Caching.cacheVersionKey(CachedData.NOTEBOOKS));
+    assertThat(writeCache.getData()).doesNotContainKey(Caching.cacheVersionKey(CachedData.DESCRIPTORS));
+
+    // Second analysis: the notebook is neither converted nor parsed again
+    context = SensorContextTester.create(baseDir);
+    context.fileSystem().setWorkDir(Files.createTempDirectory("workDir"));
+    context.settings().setProperty("sonar.python.skipUnchanged", true);
+    context.setCacheEnabled(true);
+    TestReadCache nextReadCache = new TestReadCache().putAll(writeCache);
+    TestWriteCache nextWriteCache = new TestWriteCache().bind(nextReadCache);
+    context.setPreviousCache(nextReadCache);
+    context.setNextCache(nextWriteCache);
+    context.fileSystem().add(createInputFile(NOTEBOOK_FILE, InputFile.Status.SAME).wrappedFile());
+    logTester.clear();
+    notebookSensor().execute(context);
+
+    assertThat(logTester.logs(Level.DEBUG)).contains("The Python code of 1 out of 1 notebooks was retrieved from the cache.");
+    assertThat(logTester.logs(Level.INFO))
+      .contains("Fully optimized analysis can be performed for 1 out of 1 files.")
+      .contains("The Python analyzer was able to leverage cached data from previous analyses for 1 out of 1 files. These files were not parsed.");
+    assertThat(nextWriteCache.getData()).containsKeys(notebookKey,
+      IPynbSensor.NOTEBOOK_CACHE_NAMESPACE + Caching.fileContentHashCacheKey("moduleKey:notebook.ipynb"));
+    assertThat(context.cpdTokens("moduleKey:notebook.ipynb")).isNull();
+  }
+
+  @Test
+  void test_notebook_sensor_does_not_reuse_notebooks_converted_by_another_version() throws IOException {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.IPYTHON_REPOSITORY_KEY, "PrintStatementUsage"))
+        .build())
+      .build();
+    context.settings().setProperty("sonar.python.skipUnchanged", true);
+    context.setCacheEnabled(true);
+    TestReadCache readCache = new TestReadCache();
+    TestWriteCache writeCache = new TestWriteCache().bind(readCache);
+    context.setPreviousCache(readCache);
+    context.setNextCache(writeCache);
+    context.fileSystem().add(createInputFile(NOTEBOOK_FILE, InputFile.Status.ADDED).wrappedFile());
+    notebookSensor().execute(context);
+
+    context = SensorContextTester.create(baseDir);
+    context.fileSystem().setWorkDir(Files.createTempDirectory("workDir"));
+    context.settings().setProperty("sonar.python.skipUnchanged", true);
+    context.setCacheEnabled(true);
+    TestReadCache nextReadCache = new TestReadCache().putAll(writeCache);
+    nextReadCache.put(IPynbSensor.NOTEBOOK_CACHE_NAMESPACE + Caching.cacheVersionKey(CachedData.NOTEBOOKS), "1;oldPluginVersion".getBytes(UTF_8));
+    context.setPreviousCache(nextReadCache);
+    context.setNextCache(new TestWriteCache().bind(nextReadCache));
+    context.fileSystem().add(createInputFile(NOTEBOOK_FILE, InputFile.Status.SAME).wrappedFile());
+    logTester.clear();
+    notebookSensor().execute(context);
+
+    assertThat(logTester.logs(Level.DEBUG)).doesNotContain("The Python code of 1 out of 1 notebooks was retrieved from the cache.");
+    assertThat(logTester.logs(Level.INFO)).anyMatch(log -> log.startsWith("The cache version of notebooks has changed since the previous analysis"));
+  }
 }
@@ -0,0 +1,47 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PhaseDurationsTest {
+
+  @Test
+  void phases_of_same_name_are_cumulated() {
+    PhaseDurations phaseDurations = new PhaseDurations();
+    phaseDurations.start("parse").close();
+    phaseDurations.start("checks").close();
+    phaseDurations.start("parse").close();
+    assertThat(phaseDurations.durationNanosByPhase()).containsOnlyKeys("parse", "checks");
+    assertThat(phaseDurations.totalDurationNanos())
+      .isEqualTo(phaseDurations.durationNanosByPhase().get("parse") + phaseDurations.durationNanosByPhase().get("checks"));
+  }
+
+  @Test
+  void failing_phases_are_measured() {
+    PhaseDurations phaseDurations = new PhaseDurations();
+    assertThatThrownBy(() -> {
+      try (PhaseDurations.Phase phase = phaseDurations.start("parse")) {
+        throw new IllegalStateException("Parsing failed");
+      }
+    }).isInstanceOf(IllegalStateException.class);
+    assertThat(phaseDurations.durationNanosByPhase()).containsOnlyKeys("parse");
+  }
+}
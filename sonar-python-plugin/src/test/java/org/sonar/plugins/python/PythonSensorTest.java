@@ -27,11 +27,14 @@ import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
+import jdk.jfr.consumer.RecordedEvent;
 import javax.annotation.Nullable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -86,19 +89,25 @@ import org.sonar.plugins.python.api.SonarLintCache;
 import org.sonar.plugins.python.api.caching.CacheContext;
 import org.sonar.plugins.python.api.internal.EndOfAnalysis;
 import org.sonar.plugins.python.api.tree.Token;
+import org.sonar.plugins.python.caching.CachedData;
 import org.sonar.plugins.python.caching.Caching;
 import org.sonar.plugins.python.caching.TestReadCache;
 import org.sonar.plugins.python.caching.TestWriteCache;
 import org.sonar.plugins.python.indexer.PythonIndexer;
 import org.sonar.plugins.python.indexer.SonarLintPythonIndexer;
 import org.sonar.plugins.python.indexer.TestModuleFileSystem;
+import org.sonar.plugins.python.jfr.RecordedEvents;
 import org.sonar.plugins.python.warnings.AnalysisWarningsWrapper;
 import org.sonar.python.api.PythonKeyword;
+import org.sonar.python.caching.CacheEncoding;
 import org.sonar.python.caching.CpdSerializer;
 import org.sonar.python.checks.CheckList;
 import org.sonar.python.index.VariableDescriptor;
 import org.sonar.python.tree.TokenImpl;
 import org.sonar.python.types.TypeShed;
+import org.sonarsource.analyzer.commons.internal.json.simple.JSONArray;
+import org.sonarsource.analyzer.commons.internal.json.simple.JSONObject;
+import org.sonarsource.analyzer.commons.internal.json.simple.parser.JSONParser;
 import org.sonarsource.sonarlint.core.analysis.api.ClientInputFile;
 import org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem.FileMetadata;
 import org.sonarsource.sonarlint.core.analysis.container.analysis.filesystem.SonarLintInputFile;
@@ -107,17 +116,21 @@ import org.sonarsource.sonarlint.core.commons.api.SonarLanguage;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.matches;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
-import static org.sonar.plugins.python.caching.Caching.CACHE_VERSION_KEY;
 import static org.sonar.plugins.python.caching.Caching.CPD_TOKENS_CACHE_KEY_PREFIX;
 import static org.sonar.plugins.python.caching.Caching.CPD_TOKENS_STRING_TABLE_KEY_PREFIX;
 import static org.sonar.plugins.python.caching.Caching.IMPORTS_MAP_CACHE_KEY_PREFIX;
 import static org.sonar.plugins.python.caching.Caching.PROJECT_SYMBOL_TABLE_CACHE_KEY_PREFIX;
 import static org.sonar.plugins.python.caching.Caching.TYPESHED_MODULES_KEY;
+import static org.sonar.plugins.python.caching.Caching.cacheVersionKey;
 import static org.sonar.plugins.python.caching.Caching.fileContentHashCacheKey;
 import static org.sonar.plugins.python.caching.Caching.importsMapCacheKey;
 import static org.sonar.plugins.python.caching.Caching.projectSymbolTableCacheKey;
@@ -824,6 +837,150 @@ class PythonSensorTest {
     assertThat(new String(Files.readAllBytes(defaultPerformanceFile), UTF_8)).contains("\"PythonSensor\"");
   }
 
+  @Test
+  void saving_performance_measure_of_phases_and_slowest_files() throws Exception {
+    context.setSettings(new MapSettings()
+      .setProperty("sonar.python.performance.measure", "true")
+      .setProperty("sonar.python.performance.measure.slowestFiles", "1"));
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, ONE_STATEMENT_PER_LINE_RULE_KEY))
+        .build())
+      .build();
+
+    inputFile(FILE_1);
+    inputFile(FILE_2);
+    sensor().execute(context);
+
+    String performanceMeasure = Files.readString(workDir.resolve("sonar-python-performance-measure.json"));
+    assertThat(performanceMeasure).contains("\"ScanFile\"", "\"Parser\"", "\"TypeInferenceV2\"", "\"SubscriptionChecks\"", "\"Cpd\"");
+
+    Path slowestFilesReport = workDir.resolve("sonar-python-slowest-files.json");
+    assertThat(logTester.logs(Level.INFO)).contains("Slowest files to analyze saved to " + slowestFilesReport);
+    JSONArray slowestFiles = (JSONArray) new JSONParser().parse(Files.readString(slowestFilesReport));
+    assertThat(slowestFiles).hasSize(1);
+    JSONObject slowestFile = (JSONObject) slowestFiles.get(0);
+    assertThat((Long) slowestFile.get("lines")).isPositive();
+    assertThat((JSONObject) slowestFile.get("phases")).containsKeys("ReadContents", "Parser", "TreeMaker", "SymbolTableBuilder",
+      "SymbolTableBuilderV2", "TypeInferenceV2", "FileMetrics", "Cpd", "SaveMeasures", "VisitorChecks", "SubscriptionChecks", "SaveIssues",
+      "Highlighting");
+  }
+
+  @Test
+  void performance_report_which_cannot_be_saved() throws Exception {
+    Path reportFile = Files.createFile(workDir.resolve("report.json"));
+    PythonSensor.writePerformanceReport(reportFile.resolve("nested.json"), List.of(), "Some report");
+    assertThat(logTester.logs(Level.WARN)).contains("Unable to save Some report to " + reportFile.resolve("nested.json"));
+  }
+
+  @Test
+  void memory_report() throws Exception {
+    context.setSettings(new MapSettings()
+      .setProperty("sonar.python.performance.measure.memory", "true")
+      .setProperty("sonar.python.performance.measure.memory.files", "1"));
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, ONE_STATEMENT_PER_LINE_RULE_KEY))
+        .build())
+      .build();
+
+    inputFile(FILE_1);
+    inputFile(FILE_2);
+    sensor().execute(context);
+
+    Path memoryReportFile = workDir.resolve("sonar-python-memory.json");
+    assertThat(logTester.logs(Level.INFO)).contains("Memory report saved to " + memoryReportFile);
+    JSONObject memoryReport = (JSONObject) new JSONParser().parse(Files.readString(memoryReportFile));
+    JSONArray phases = (JSONArray) memoryReport.get("phases");
+    assertThat(phases).extracting(phase -> ((JSONObject) phase).get("phase")).containsExactly("GlobalSymbols", "RulesExecution", "EndOfAnalysis");
+    JSONObject lastPhase = (JSONObject) phases.get(2);
+    assertThat((Long) lastPhase.get("heapUsedBytes")).isPositive();
+    JSONObject stores = (JSONObject) lastPhase.get("stores");
+    assertThat(stores).containsOnlyKeys("ProjectLevelSymbolTable", "TypeShedDescriptorsProvider", "TypeShed");
+    assertThat((Long) stores.get("ProjectLevelSymbolTable")).isPositive();
+
+    JSONArray files = (JSONArray) memoryReport.get("files");
+    assertThat(files).hasSize(1);
+    JSONObject file = (JSONObject) files.get(0);
+    assertThat((Long) file.get("allocatedBytes")).isPositive().isLessThanOrEqualTo((Long) memoryReport.get("totalAllocatedBytes"));
+  }
+
+  @Test
+  void flight_recorder_events() throws IOException {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, ONE_STATEMENT_PER_LINE_RULE_KEY))
+        .build())
+      .build();
+    PythonInputFile inputFile = inputFile(FILE_1);
+
+    Map<String, List<RecordedEvent>> eventsByName = RecordedEvents.record(() -> sensor().execute(context),
+      "org.sonar.python.Scanner", "org.sonar.python.ScanFile", "org.sonar.python.GlobalSymbols");
+
+    assertThat(eventsByName.get("org.sonar.python.Scanner"))
+      .extracting(event -> event.getString("scanner"))
+      .contains("rules execution");
+    RecordedEvent scanFile = eventsByName.get("org.sonar.python.ScanFile").get(0);
+    assertThat(scanFile.getString("fileKey")).isEqualTo(inputFile.wrappedFile().key());
+    assertThat(scanFile.getInt("lines")).isEqualTo(inputFile.wrappedFile().lines());
+    assertThat(scanFile.getBoolean("reducedAnalysis")).isFalse();
+    RecordedEvent globalSymbols = eventsByName.get("org.sonar.python.GlobalSymbols").get(0);
+    assertThat(globalSymbols.getInt("files")).isEqualTo(1);
+    assertThat(globalSymbols.getInt("cacheMisses")).isEqualTo(1);
+    assertThat(globalSymbols.getInt("fullySkippableFiles")).isZero();
+  }
+
+  @Test
+  void rule_profiling() throws Exception {
+    context.setSettings(new MapSettings()
+      .setProperty("sonar.python.performance.measure.rules", "true")
+      .setProperty("sonar.python.performance.measure.rules.top", "1"));
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, ONE_STATEMENT_PER_LINE_RULE_KEY))
+        .build())
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, FILE_COMPLEXITY_RULE_KEY))
+        .setParam("maximumFileComplexityThreshold", "2")
+        .build())
+      .build();
+
+    inputFile(FILE_1);
+    inputFile(FILE_2);
+    sensor().execute(context);
+
+    Path ruleProfile = workDir.resolve("sonar-python-rule-profile.json");
+    assertThat(logTester.logs(Level.INFO)).contains("Rule profile of 2 files saved to " + ruleProfile);
+    JSONObject profile = (JSONObject) new JSONParser().parse(Files.readString(ruleProfile));
+
+    JSONArray rules = (JSONArray) profile.get("rules");
+    assertThat(rules).hasSize(2);
+    Map<Object, JSONObject> rulesByKey = new HashMap<>();
+    rules.forEach(rule -> rulesByKey.put(((JSONObject) rule).get("ruleKey"), (JSONObject) rule));
+    JSONObject oneStatementPerLine = rulesByKey.get("python:" + ONE_STATEMENT_PER_LINE_RULE_KEY);
+    assertThat((Long) oneStatementPerLine.get("executions")).isPositive();
+    assertThat(oneStatementPerLine).containsEntry("issues", 3L);
+    assertThat(rulesByKey.get("python:" + FILE_COMPLEXITY_RULE_KEY)).containsEntry("issues", 2L);
+
+    JSONArray files = (JSONArray) profile.get("files");
+    assertThat(files).hasSize(2);
+    files.forEach(file -> assertThat((JSONArray) ((JSONObject) file).get("slowestRules")).hasSize(1));
+  }
+
+  @Test
+  void rule_profiling_not_activated_by_default() {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, ONE_STATEMENT_PER_LINE_RULE_KEY))
+        .build())
+      .build();
+
+    inputFile(FILE_2);
+    sensor().execute(context);
+    assertThat(workDir.resolve("sonar-python-rule-profile.json")).doesNotExist();
+    assertThat(workDir.resolve("sonar-python-memory.json")).doesNotExist();
+  }
+
   @Test
   void test_using_cache() throws IOException {
     activeRules = new ActiveRulesBuilder()
@@ -855,11 +1012,15 @@ class PythonSensorTest {
     context.setNextCache(writeCache);
     context.setCacheEnabled(true);
     context.setSettings(new MapSettings().setProperty("sonar.python.skipUnchanged", true));
-    sensor().execute(context);
+    var spyContext = spy(context);
+    sensor().execute(spyContext);
 
     assertThat(context.allIssues()).isEmpty();
     assertThat(logTester.logs(Level.INFO))
       .contains("The Python analyzer was able to leverage cached data from previous analyses for 1 out of 1 files. These files were not parsed.");
+    verify(spyContext, times(1)).addTelemetryProperty(TelemetryMetricKey.PYTHON_FULLY_SKIPPED_FILES_KEY.key(), "1");
+    verify(spyContext, times(1)).addTelemetryProperty(TelemetryMetricKey.PYTHON_PARTIALLY_SKIPPED_FILES_KEY.key(), "0");
+    verify(spyContext, times(1)).addTelemetryProperty(TelemetryMetricKey.PYTHON_CACHE_HIT_RATIO_KEY.key(), "100");
   }
 
   @Test
@@ -886,7 +1047,7 @@ class PythonSensorTest {
     assertThat(issue.primaryLocation().inputComponent()).isEqualTo(inputFile.wrappedFile());
     assertThat(issue.ruleKey().rule()).isEqualTo(ONE_STATEMENT_PER_LINE_RULE_KEY);
 
-    byte[] bytes = writeCache.getData().get(TYPESHED_MODULES_KEY);
+    byte[] bytes = CacheEncoding.decode(writeCache.getData().get(TYPESHED_MODULES_KEY));
     Set<String> resolvedTypeshedModules = new HashSet<>(Arrays.asList(new String(bytes, StandardCharsets.UTF_8).split(";")));
     // typing comes from TypeCheckBuilder querying the ProjectLevelType table (by looking for TypeVar) in its checks, which then queries & cache info in TypeShedDescriptorsProvider
     assertThat(resolvedTypeshedModules).containsExactlyInAnyOrder(
@@ -927,7 +1088,7 @@ class PythonSensorTest {
     assertThat(issue.primaryLocation().inputComponent()).isEqualTo(inputFile.wrappedFile());
     assertThat(issue.ruleKey().rule()).isEqualTo(ONE_STATEMENT_PER_LINE_RULE_KEY);
 
-    byte[] bytes = writeCache.getData().get(TYPESHED_MODULES_KEY);
+    byte[] bytes = CacheEncoding.decode(writeCache.getData().get(TYPESHED_MODULES_KEY));
     Set<String> resolvedTypeshedModules = new HashSet<>(Arrays.asList(new String(bytes, StandardCharsets.UTF_8).split(";")));
     assertThat(resolvedTypeshedModules).containsExactlyInAnyOrder(
       "typing", "math",
@@ -967,7 +1128,7 @@ class PythonSensorTest {
     assertThat(context.allIssues()).isEmpty();
     assertThat(logTester.logs(Level.INFO))
       .contains("The Python analyzer was able to leverage cached data from previous analyses for 1 out of 1 files. These files were not parsed.");
-    byte[] bytes = writeCache.getData().get(TYPESHED_MODULES_KEY);
+    byte[] bytes = CacheEncoding.decode(writeCache.getData().get(TYPESHED_MODULES_KEY));
     Set<String> resolvedTypeshedModules = new HashSet<>(Arrays.asList(new String(bytes, StandardCharsets.UTF_8).split(";")));
     assertThat(resolvedTypeshedModules).containsExactlyInAnyOrder("math");
   }
@@ -1112,11 +1273,11 @@ class PythonSensorTest {
     sensor().execute(context);
 
     assertThat(writeCache.getData().keySet()).containsExactlyInAnyOrder(
-      "python:cache_version", "python:files", "python:descriptors:moduleKey:pass.py", "python:imports:moduleKey:pass.py",
+      "python:cache_version:descriptors", "python:cache_version:imports", "python:cache_version:cpd", "python:cache_version:typeshed_modules", "python:cache_version:notebooks", "python:files", "python:descriptors:moduleKey:pass.py", "python:imports:moduleKey:pass.py",
       "python:cpd:data:moduleKey:pass.py", "python:cpd:stringTable:moduleKey:pass.py", "python:content_hashes:moduleKey:pass.py", "python:typeshed_modules");
 
-    byte[] tokenData = writeCache.getData().get("python:cpd:data:moduleKey:pass.py");
-    byte[] stringTable = writeCache.getData().get("python:cpd:stringTable:moduleKey:pass.py");
+    byte[] tokenData = CacheEncoding.decode(writeCache.getData().get("python:cpd:data:moduleKey:pass.py"));
+    byte[] stringTable = CacheEncoding.decode(writeCache.getData().get("python:cpd:stringTable:moduleKey:pass.py"));
 
     List<CpdSerializer.TokenInfo> actualTokens = CpdSerializer.deserialize(tokenData, stringTable);
     assertThat(actualTokens)
@@ -1172,14 +1333,14 @@ class PythonSensorTest {
     context.setSettings(new MapSettings().setProperty("sonar.python.skipUnchanged", true));
     sensor().execute(context);
 
-    byte[] mainTokensData = writeCache.getData().get("python:cpd:data:moduleKey:main.py");
-    byte[] mainTokensTable = writeCache.getData().get("python:cpd:stringTable:moduleKey:main.py");
+    byte[] mainTokensData = CacheEncoding.decode(writeCache.getData().get("python:cpd:data:moduleKey:main.py"));
+    byte[] mainTokensTable = CacheEncoding.decode(writeCache.getData().get("python:cpd:stringTable:moduleKey:main.py"));
     List<CpdSerializer.TokenInfo> actualTokensForMain = CpdSerializer.deserialize(mainTokensData, mainTokensTable);
     assertThat(actualTokensForMain)
       .hasSize(14);
 
-    byte[] passTokensData = writeCache.getData().get("python:cpd:data:moduleKey:pass.py");
-    byte[] passTokensTable = writeCache.getData().get("python:cpd:stringTable:moduleKey:pass.py");
+    byte[] passTokensData = CacheEncoding.decode(writeCache.getData().get("python:cpd:data:moduleKey:pass.py"));
+    byte[] passTokensTable = CacheEncoding.decode(writeCache.getData().get("python:cpd:stringTable:moduleKey:pass.py"));
     List<CpdSerializer.TokenInfo> actualTokensForPass = CpdSerializer.deserialize(passTokensData, passTokensTable);
     assertThat(actualTokensForPass)
       .hasSize(1);
@@ -1453,6 +1614,79 @@ class PythonSensorTest {
     verify(spyContext, times(1)).addTelemetryProperty(TelemetryMetricKey.PYTHON_DATABRICKS_FOUND.key(), "1");
   }
 
+  @Test
+  void reduced_analysis_of_large_files() {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, FILE_COMPLEXITY_RULE_KEY))
+        .setParam("maximumFileComplexityThreshold", "2")
+        .build())
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, "S1192"))
+        .build())
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CUSTOM_REPOSITORY_KEY, CUSTOM_RULE_KEY))
+        .build())
+      .build();
+    context.setSettings(new MapSettings().setProperty("sonar.python.analysis.full.maxlines", 5));
+
+    PythonInputFile inputFile = inputFile(FILE_2);
+    var spyContext = spy(context);
+    sensor().execute(spyContext);
+
+    assertThat(context.allIssues()).extracting(issue -> issue.ruleKey().rule()).containsExactly(FILE_COMPLEXITY_RULE_KEY);
+    assertThat(context.measure(inputFile.wrappedFile().key(), CoreMetrics.NCLOC)).isNotNull();
+    assertThat(logTester.logs(Level.WARN))
+      .anyMatch(log -> log.matches("File .*file2.py is too large to be fully analyzed \\(\\d+ lines > 5\\): data flow type inference is skipped, " +
+        "as well as the rules of repositories \\[customKey, python\\] which are not in the reduced rule set \"sonar.python.analysis.reduced.rules\""));
+    assertThat(logTester.logs(Level.INFO))
+      .contains("1 out of 1 files were too large to be fully analyzed. Thresholds can be configured with \"sonar.python.analysis.full.maxchars\", " +
+        "\"sonar.python.analysis.full.maxlines\" and \"sonar.python.analysis.full.maxtokens\".");
+    verify(spyContext, times(1)).addTelemetryProperty(TelemetryMetricKey.PYTHON_REDUCED_ANALYSIS_FILES_KEY.key(), "1");
+  }
+
+  @Test
+  void no_reduced_analysis_by_default() {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CUSTOM_REPOSITORY_KEY, CUSTOM_RULE_KEY))
+        .build())
+      .build();
+
+    inputFile(FILE_2);
+    var spyContext = spy(context);
+    sensor().execute(spyContext);
+
+    assertThat(logTester.logs(Level.WARN)).noneMatch(log -> log.contains("too large to be fully analyzed"));
+    verify(spyContext, times(1)).addTelemetryProperty(TelemetryMetricKey.PYTHON_REDUCED_ANALYSIS_FILES_KEY.key(), "0");
+  }
+
+  @Test
+  void send_performance_telemetry() {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, ONE_STATEMENT_PER_LINE_RULE_KEY))
+        .build())
+      .build();
+
+    PythonInputFile inputFile = inputFile("type_inference_fallback.py");
+    var spyContext = spy(context);
+    sensor().execute(spyContext);
+
+    for (TelemetryMetricKey key : List.of(TelemetryMetricKey.PYTHON_ANALYSIS_DURATION_KEY, TelemetryMetricKey.PYTHON_GLOBAL_SYMBOLS_DURATION_KEY,
+      TelemetryMetricKey.PYTHON_PARSING_DURATION_KEY, TelemetryMetricKey.PYTHON_SEMANTIC_DURATION_KEY, TelemetryMetricKey.PYTHON_RULES_DURATION_KEY,
+      TelemetryMetricKey.PYTHON_TYPESHED_MODULES_KEY)) {
+      verify(spyContext, times(1)).addTelemetryProperty(eq(key.key()), matches("\\d+"));
+    }
+    verify(spyContext, times(1)).addTelemetryProperty(TelemetryMetricKey.PYTHON_FULLY_SKIPPED_FILES_KEY.key(), "0");
+    verify(spyContext, times(1)).addTelemetryProperty(TelemetryMetricKey.PYTHON_PARTIALLY_SKIPPED_FILES_KEY.key(), "0");
+    verify(spyContext, times(1)).addTelemetryProperty(TelemetryMetricKey.PYTHON_TYPE_INFERENCE_FALLBACK_SCOPES_KEY.key(), "1");
+    verify(spyContext, times(1)).addTelemetryProperty(TelemetryMetricKey.PYTHON_LARGEST_FILE_LINES_KEY.key(),
+      String.valueOf(inputFile.wrappedFile().lines()));
+    // The cache is disabled: no cached data of files is read
+    verify(spyContext, never()).addTelemetryProperty(eq(TelemetryMetricKey.PYTHON_CACHE_HIT_RATIO_KEY.key()), anyString());
+  }
+
   @Test
   void detects_databricks_negative() {
     activeRules = new ActiveRulesBuilder()
@@ -1582,7 +1816,9 @@ class PythonSensorTest {
 
   TestReadCache getValidReadCache() {
     TestReadCache testReadCache = new TestReadCache();
-    testReadCache.put(CACHE_VERSION_KEY, "unknownPluginVersion".getBytes(UTF_8));
+    for (CachedData cachedData : CachedData.values()) {
+      testReadCache.put(cacheVersionKey(cachedData), cachedData.version(CachedData.analyzerVersion(), List.of(), false).getBytes(UTF_8));
+    }
     return testReadCache;
   }
 }
@@ -23,8 +23,10 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -46,6 +48,7 @@ import org.sonar.python.types.protobuf.DescriptorsProtos;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.sonar.plugins.python.caching.Caching.CONTENT_KEYS_CACHE_KEY_PREFIX;
 import static org.sonar.plugins.python.caching.Caching.IMPORTS_MAP_CACHE_KEY_PREFIX;
 import static org.sonar.plugins.python.caching.Caching.PROJECT_SYMBOL_TABLE_CACHE_KEY_PREFIX;
 import static org.sonar.python.index.DescriptorsToProtobuf.fromProtobuf;
@@ -55,8 +58,6 @@ class CachingTest {
   @RegisterExtension
   public LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(Level.DEBUG);
 
-  private final static String CACHE_VERSION = "dummyVersion";
-
 
   @Test
   void writeProjectLevelSymbolTableEntry() throws InvalidProtocolBufferException {
@@ -66,7 +67,7 @@ class CachingTest {
     PythonReadCache pythonReadCache = new PythonReadCacheImpl(readCache);
     CacheContextImpl cacheContext = new CacheContextImpl(true, pythonWriteCache, pythonReadCache);
 
-    Caching caching = new Caching(cacheContext, CACHE_VERSION);
+    Caching caching = new Caching(cacheContext);
     Set<Descriptor> initialDescriptors = Set.of(
       new ClassDescriptor("C", "mod.C", Collections.emptyList(), Collections.emptySet(), false, null, false, false, null, false),
       new FunctionDescriptor("foo", "mod.foo", Collections.emptyList(), false, false, Collections.emptyList(), false, null, null),
@@ -89,7 +90,7 @@ class CachingTest {
     PythonReadCache pythonReadCache = new PythonReadCacheImpl(readCache);
     CacheContextImpl cacheContext = new CacheContextImpl(true, pythonWriteCache, pythonReadCache);
 
-    Caching caching = new Caching(cacheContext, CACHE_VERSION);
+    Caching caching = new Caching(cacheContext);
     Set<Descriptor> initialDescriptors = Set.of(
       new ClassDescriptor("C", "mod.C", Collections.emptyList(), Collections.emptySet(), false, null, false, false, null, false),
       new FunctionDescriptor("foo", "mod.foo", Collections.emptyList(), false, false, Collections.emptyList(), false, null, null),
@@ -107,10 +108,26 @@ class CachingTest {
     TestReadCache readCache = new TestReadCache();
     CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(writeCache), new PythonReadCacheImpl(readCache));
 
-    Caching caching = new Caching(cacheContext, CACHE_VERSION);
+    Caching caching = new Caching(cacheContext);
     assertThat(caching.readProjectLevelSymbolTableEntry("unknown")).isNull();
   }
 
+  @Test
+  void entriesHitsAndMisses() {
+    TestWriteCache writeCache = new TestWriteCache();
+    TestReadCache readCache = new TestReadCache();
+    CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(writeCache), new PythonReadCacheImpl(readCache));
+    readCache.put(IMPORTS_MAP_CACHE_KEY_PREFIX + "mod", "os;sys".getBytes(StandardCharsets.UTF_8));
+
+    Caching caching = new Caching(cacheContext);
+    assertThat(caching.readImportMapEntry("mod")).containsExactlyInAnyOrder("os", "sys");
+    assertThat(caching.readFileContentHash("mod")).isNull();
+    assertThat(caching.readProjectLevelSymbolTableEntry("mod")).isNull();
+    assertThat(caching.readFilesList()).isEmpty();
+    assertThat(caching.entriesHits()).isEqualTo(1);
+    assertThat(caching.entriesMisses()).isEqualTo(2);
+  }
+
   @Test
   void readProjectLevelSymbolTableIOException() throws IOException {
     TestWriteCache writeCache = new TestWriteCache();
@@ -123,7 +140,7 @@ class CachingTest {
     Mockito.when(pythonReadCache.read(cacheKey)).thenReturn(inputStream);
 
     CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(writeCache), pythonReadCache);
-    Caching caching = new Caching(cacheContext, CACHE_VERSION);
+    Caching caching = new Caching(cacheContext);
     assertThat(caching.readProjectLevelSymbolTableEntry("mod")).isNull();
     assertThat(logTester.logs(Level.DEBUG)).contains("Unable to read data for key: \"python:descriptors:mod\"");
   }
@@ -135,7 +152,7 @@ class CachingTest {
     PythonReadCache pythonReadCache = new PythonReadCacheImpl(new TestReadCache());
     CacheContextImpl cacheContext = new CacheContextImpl(true, pythonWriteCache, pythonReadCache);
 
-    Caching caching = new Caching(cacheContext, CACHE_VERSION);
+    Caching caching = new Caching(cacheContext);
     Set<String> imports = Set.of("mod2", "pkg1.mod3", "pkg2.pkg3.mod4");
 
     String cacheKey = IMPORTS_MAP_CACHE_KEY_PREFIX + "mod";
@@ -154,7 +171,7 @@ class CachingTest {
     PythonReadCache pythonReadCache = new PythonReadCacheImpl(readCache);
     CacheContextImpl cacheContext = new CacheContextImpl(true, pythonWriteCache, pythonReadCache);
 
-    Caching caching = new Caching(cacheContext, CACHE_VERSION);
+    Caching caching = new Caching(cacheContext);
     Set<String> imports = Set.of("mod2", "pkg1.mod3", "pkg2.pkg3.mod4");
     String cacheKey = IMPORTS_MAP_CACHE_KEY_PREFIX + "mod";
     readCache.put(cacheKey, String.join(";", imports).getBytes(StandardCharsets.UTF_8));
@@ -167,10 +184,123 @@ class CachingTest {
     TestReadCache readCache = new TestReadCache();
     CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(writeCache), new PythonReadCacheImpl(readCache));
 
-    Caching caching = new Caching(cacheContext, CACHE_VERSION);
+    Caching caching = new Caching(cacheContext);
     assertThat(caching.readImportMapEntry("unknown")).isNull();
   }
 
+  @Test
+  void cacheVersions() {
+    TestWriteCache writeCache = new TestWriteCache();
+    TestReadCache readCache = new TestReadCache();
+    CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(writeCache), new PythonReadCacheImpl(readCache));
+
+    Caching caching = new Caching(cacheContext, List.of("3.11", "3.12"), true);
+    assertThat(caching.cacheVersion(CachedData.DESCRIPTORS)).isEqualTo("1;unknownPluginVersion;3.11,3.12;consolidated");
+    assertThat(caching.cacheVersion(CachedData.IMPORTS)).isEqualTo("1;unknownPluginVersion;consolidated");
+    assertThat(caching.cacheVersion(CachedData.CPD_TOKENS)).isEqualTo("1");
+    assertThat(caching.cacheVersion(CachedData.TYPESHED_MODULES)).isEqualTo("1;unknownPluginVersion");
+    assertThat(caching.cacheVersion(CachedData.NOTEBOOKS)).isEqualTo("1;unknownPluginVersion");
+    assertThat(logTester.logs(Level.WARN)).contains("Implementation version of the Python plugin not found. Cached data may not be invalidated properly, " +
+      "which may lead to inaccurate analysis results.");
+    caching.writeCacheVersions();
+    assertThat(writeCache.getData()).containsOnlyKeys("python:cache_version:descriptors", "python:cache_version:imports",
+      "python:cache_version:cpd", "python:cache_version:typeshed_modules", "python:cache_version:notebooks");
+    assertThat(caching.isCacheVersionUpToDate(CachedData.DESCRIPTORS)).isFalse();
+
+    readCache.putAll(writeCache);
+    readCache.put(Caching.cacheVersionKey(CachedData.CPD_TOKENS), "0".getBytes(StandardCharsets.UTF_8));
+    logTester.clear();
+    // Python versions only matter for descriptors
+    Caching nextCaching = new Caching(cacheContext, List.of("3.12"), true);
+    assertThat(nextCaching.isCacheVersionUpToDate(CachedData.DESCRIPTORS)).isFalse();
+    assertThat(nextCaching.isCacheVersionUpToDate(CachedData.IMPORTS)).isTrue();
+    assertThat(nextCaching.isCacheVersionUpToDate(CachedData.CPD_TOKENS)).isFalse();
+    assertThat(nextCaching.isCacheVersionUpToDate(CachedData.TYPESHED_MODULES)).isTrue();
+    assertThat(logTester.logs(Level.INFO)).containsExactly(
+      "The cache version of descriptors has changed since the previous analysis, this cached data will not be used during this analysis. " +
+        "Retrieved: \"1;unknownPluginVersion;3.11,3.12;consolidated\". Current version: \"1;unknownPluginVersion;3.12;consolidated\".",
+      "The cache version of cpd has changed since the previous analysis, this cached data will not be used during this analysis. " +
+        "Retrieved: \"0\". Current version: \"1\".");
+    assertThat(logTester.logs(Level.DEBUG)).contains("Cache version of imports still up to date: \"1;unknownPluginVersion;consolidated\".");
+  }
+
+  @Test
+  void analyzer_upgrade_only_invalidates_analyzer_dependent_data() {
+    TestWriteCache writeCache = new TestWriteCache();
+    TestReadCache readCache = new TestReadCache();
+    CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(writeCache), new PythonReadCacheImpl(readCache));
+    for (CachedData cachedData : CachedData.values()) {
+      readCache.put(Caching.cacheVersionKey(cachedData), cachedData.version("1.0.0.1", List.of(), false).getBytes(StandardCharsets.UTF_8));
+    }
+
+    Caching caching = new Caching(cacheContext, List.of(), false);
+    assertThat(caching.isCacheVersionUpToDate(CachedData.DESCRIPTORS)).isFalse();
+    assertThat(caching.isCacheVersionUpToDate(CachedData.IMPORTS)).isFalse();
+    assertThat(caching.isCacheVersionUpToDate(CachedData.TYPESHED_MODULES)).isFalse();
+    assertThat(caching.isCacheVersionUpToDate(CachedData.CPD_TOKENS)).isTrue();
+  }
+
+  @Test
+  void analyzer_version() {
+    assertThat(CachedData.analyzerVersion(Test.class)).isEqualTo(Test.class.getPackage().getImplementationVersion());
+    assertThat(CachedData.analyzerVersion(CachingTest.class)).isEqualTo("unknownPluginVersion");
+  }
+
+  @Test
+  void contentKeyEntry() {
+    TestWriteCache writeCache = new TestWriteCache();
+    TestReadCache readCache = new TestReadCache();
+    CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(writeCache), new PythonReadCacheImpl(readCache));
+    byte[] contentHash = "hash".getBytes(StandardCharsets.UTF_8);
+
+    Caching caching = new Caching(cacheContext);
+    assertThat(caching.readContentKeyEntry(contentHash)).isNull();
+    caching.writeContentKeyEntry(contentHash, "moduleKey:pkg/mod.py", "pkg.mod");
+    assertThat(writeCache.getData()).containsKey(CONTENT_KEYS_CACHE_KEY_PREFIX + "hash");
+
+    readCache.putAll(writeCache);
+    assertThat(caching.readContentKeyEntry(contentHash)).isEqualTo(new Caching.ContentKeyEntry("moduleKey:pkg/mod.py", "pkg.mod"));
+
+    readCache.put(CONTENT_KEYS_CACHE_KEY_PREFIX + "corrupted", "moduleKey:pkg/mod.py".getBytes(StandardCharsets.UTF_8));
+    assertThat(caching.readContentKeyEntry("corrupted".getBytes(StandardCharsets.UTF_8))).isNull();
+  }
+
+  @Test
+  void contentKeyEntryInProjectIndex() {
+    TestWriteCache writeCache = new TestWriteCache();
+    TestReadCache readCache = new TestReadCache();
+    CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(writeCache), new PythonReadCacheImpl(readCache));
+    byte[] contentHash = "hash".getBytes(StandardCharsets.UTF_8);
+
+    Caching caching = new Caching(cacheContext, List.of(), true);
+    caching.writeFileContentHash("moduleKey:pkg\\mod.py", contentHash);
+    caching.writeContentKeyEntry(contentHash, "moduleKey:pkg\\mod.py", "pkg.mod");
+    caching.writeFileContentHash("moduleKey:other.py", "other".getBytes(StandardCharsets.UTF_8));
+    caching.writeProjectIndex();
+    assertThat(writeCache.getData().keySet()).noneMatch(key -> key.startsWith(CONTENT_KEYS_CACHE_KEY_PREFIX));
+
+    readCache.putAll(writeCache);
+    Caching nextCaching = new Caching(cacheContext, List.of(), true);
+    assertThat(nextCaching.readContentKeyEntry(contentHash)).isEqualTo(new Caching.ContentKeyEntry("moduleKey:pkg/mod.py", "pkg.mod"));
+    // The module name of "other.py" is unknown
+    assertThat(nextCaching.readContentKeyEntry("other".getBytes(StandardCharsets.UTF_8))).isNull();
+    assertThat(nextCaching.readContentKeyEntry("unknown".getBytes(StandardCharsets.UTF_8))).isNull();
+  }
+
+  @Test
+  void readTransformedProjectLevelSymbolTableEntry() {
+    TestReadCache readCache = new TestReadCache();
+    CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(new TestWriteCache()), new PythonReadCacheImpl(readCache));
+    Set<Descriptor> descriptors = Set.of(new VariableDescriptor("x", "mod.x", null));
+    readCache.put(PROJECT_SYMBOL_TABLE_CACHE_KEY_PREFIX + "mod", DescriptorsToProtobuf.toProtobufModuleDescriptor(descriptors).toByteArray());
+
+    Caching caching = new Caching(cacheContext);
+    Set<Descriptor> transformed = caching.readProjectLevelSymbolTableEntry("mod",
+      moduleDescriptor -> moduleDescriptor.toBuilder().clearVarDescriptors().build());
+    assertThat(transformed).isEmpty();
+    assertThat(caching.readProjectLevelSymbolTableEntry("unknown", UnaryOperator.identity())).isNull();
+  }
+
   @Test
   void corruptedDataInCache() {
     TestWriteCache writeCache = new TestWriteCache();
@@ -180,10 +310,81 @@ class CachingTest {
     CacheContextImpl cacheContext = new CacheContextImpl(true, pythonWriteCache, pythonReadCache);
 
 
-    Caching caching = new Caching(cacheContext, CACHE_VERSION);
+    Caching caching = new Caching(cacheContext);
     String module = "mod";
     readCache.put(PROJECT_SYMBOL_TABLE_CACHE_KEY_PREFIX + "mod", new byte[] {42});
     assertThat(caching.readProjectLevelSymbolTableEntry(module)).isNull();
     assertThat(logTester.logs(Level.DEBUG)).contains("Failed to deserialize project level symbol table entry for module: \"mod\"");
   }
+
+  @Test
+  void consolidatedProjectIndex() {
+    TestWriteCache writeCache = new TestWriteCache();
+    TestReadCache readCache = new TestReadCache();
+    CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(writeCache), new PythonReadCacheImpl(readCache));
+
+    Caching caching = new Caching(cacheContext, List.of(), true);
+    Set<Descriptor> descriptors = Set.of(new VariableDescriptor("x", "mod.x", null));
+    caching.writeImportsMapEntry("dir\\mod", Set.of("mod2", "pkg1.mod3"));
+    caching.writeProjectLevelSymbolTableEntry("dir\\mod", descriptors);
+    caching.writeFileContentHash("dir\\mod", new byte[] {1, 2, 3});
+    caching.writeImportsMapEntry("other", Set.of("mod2"));
+    caching.writeProjectIndex();
+    caching.writeProjectIndex();
+
+    assertThat(writeCache.getData()).containsOnlyKeys(Caching.PROJECT_INDEX_SHARDS_COUNT_KEY, Caching.PROJECT_INDEX_SHARD_KEY_PREFIX + "0");
+    assertThat(logTester.logs(Level.DEBUG)).containsOnlyOnce("Wrote project index for 2 files in 1 shard(s).");
+
+    readCache.putAll(writeCache);
+    TestWriteCache nextWriteCache = new TestWriteCache();
+    nextWriteCache.bind(readCache);
+    Caching nextCaching = new Caching(new CacheContextImpl(true, new PythonWriteCacheImpl(nextWriteCache), new PythonReadCacheImpl(readCache)), List.of(), true);
+    assertThat(nextCaching.readImportMapEntry("dir/mod")).containsExactlyInAnyOrder("mod2", "pkg1.mod3");
+    assertThat(nextCaching.readProjectLevelSymbolTableEntry("dir/mod")).extracting(Descriptor::fullyQualifiedName).containsExactly("mod.x");
+    assertThat(nextCaching.readFileContentHash("dir/mod")).containsExactly(1, 2, 3);
+    assertThat(nextCaching.readProjectLevelSymbolTableEntry("other")).isNull();
+    assertThat(nextCaching.readFileContentHash("other")).isNull();
+    assertThat(nextCaching.readImportMapEntry("unknown")).isNull();
+
+    nextCaching.copyFromPrevious("dir/mod");
+    nextCaching.copyFromPrevious("unknown");
+    nextCaching.writeFileContentHash("dir/mod", new byte[] {4});
+    nextCaching.writeProjectIndex();
+    readCache.putAll(nextWriteCache);
+    Caching lastCaching = new Caching(new CacheContextImpl(true, new PythonWriteCacheImpl(new TestWriteCache()), new PythonReadCacheImpl(readCache)), List.of(), true);
+    assertThat(lastCaching.readImportMapEntry("dir/mod")).containsExactlyInAnyOrder("mod2", "pkg1.mod3");
+    assertThat(lastCaching.readFileContentHash("dir/mod")).containsExactly(4);
+    assertThat(lastCaching.readImportMapEntry("other")).isNull();
+    // The previous index is not modified by the current analysis
+    assertThat(nextCaching.readFileContentHash("dir/mod")).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  void consolidatedProjectIndexNotWrittenByDefault() {
+    TestWriteCache writeCache = new TestWriteCache();
+    CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(writeCache), new PythonReadCacheImpl(new TestReadCache()));
+
+    Caching caching = new Caching(cacheContext);
+    caching.writeImportsMapEntry("mod", Set.of("mod2"));
+    caching.writeProjectIndex();
+    assertThat(writeCache.getData()).containsOnlyKeys(IMPORTS_MAP_CACHE_KEY_PREFIX + "mod");
+  }
+
+  @Test
+  void corruptedConsolidatedProjectIndex() {
+    TestReadCache readCache = new TestReadCache();
+    CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(new TestWriteCache()), new PythonReadCacheImpl(readCache));
+    readCache.put(Caching.PROJECT_INDEX_SHARDS_COUNT_KEY, "2".getBytes(StandardCharsets.UTF_8));
+    readCache.put(Caching.PROJECT_INDEX_SHARD_KEY_PREFIX + "0", new byte[] {42});
+
+    Caching caching = new Caching(cacheContext, List.of(), true);
+    assertThat(caching.readImportMapEntry("mod")).isNull();
+    assertThat(caching.readProjectLevelSymbolTableEntry("mod")).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).contains("Failed to read the project index from the cache: Missing project index shard 1");
+
+    readCache.put(Caching.PROJECT_INDEX_SHARDS_COUNT_KEY, "1".getBytes(StandardCharsets.UTF_8));
+    caching = new Caching(cacheContext, List.of(), true);
+    assertThat(caching.readFileContentHash("mod")).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).contains("Failed to read the project index from the cache: Unsupported project index format: 42");
+  }
 }
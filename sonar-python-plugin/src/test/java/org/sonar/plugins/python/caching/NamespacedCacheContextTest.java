@@ -0,0 +1,53 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python.caching;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.python.api.caching.CacheContext;
+import org.sonar.python.caching.CacheContextImpl;
+import org.sonar.python.caching.PythonReadCacheImpl;
+import org.sonar.python.caching.PythonWriteCacheImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NamespacedCacheContextTest {
+
+  @Test
+  void keys_are_prefixed() throws IOException {
+    TestReadCache readCache = new TestReadCache();
+    TestWriteCache writeCache = new TestWriteCache().bind(readCache);
+    readCache.put("ns:key", "value".getBytes(StandardCharsets.UTF_8));
+    readCache.put("other", "other".getBytes(StandardCharsets.UTF_8));
+    CacheContext cacheContext = new NamespacedCacheContext(
+      new CacheContextImpl(true, new PythonWriteCacheImpl(writeCache), new PythonReadCacheImpl(readCache)), "ns:");
+
+    assertThat(cacheContext.isCacheEnabled()).isTrue();
+    assertThat(cacheContext.getReadCache().contains("key")).isTrue();
+    assertThat(cacheContext.getReadCache().contains("other")).isFalse();
+    assertThat(cacheContext.getReadCache().readBytes("key")).isEqualTo("value".getBytes(StandardCharsets.UTF_8));
+    try (InputStream inputStream = cacheContext.getReadCache().read("key")) {
+      assertThat(inputStream.readAllBytes()).isEqualTo("value".getBytes(StandardCharsets.UTF_8));
+    }
+
+    cacheContext.getWriteCache().write("written", new byte[] {1});
+    cacheContext.getWriteCache().copyFromPrevious("key");
+    assertThat(writeCache.getData()).containsOnlyKeys("ns:written", "ns:key");
+  }
+}
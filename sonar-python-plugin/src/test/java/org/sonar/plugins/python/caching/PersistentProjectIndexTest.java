@@ -0,0 +1,120 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python.caching;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.event.Level;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.index.VariableDescriptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersistentProjectIndexTest {
+
+  private static final byte[] HASH = "hash".getBytes(StandardCharsets.UTF_8);
+  private static final Set<Descriptor> DESCRIPTORS = Set.of(new VariableDescriptor("x", "mod.x", null));
+
+  @RegisterExtension
+  public LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(Level.DEBUG);
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void write_and_read() throws IOException {
+    Path path = tempDir.resolve("index").resolve("module");
+    PersistentProjectIndex index = PersistentProjectIndex.load(path, List.of());
+    assertThat(index.read("mod@file:/mod.py", HASH)).isNull();
+    index.write("mod@file:/mod.py", HASH, DESCRIPTORS, Set.of("os"));
+    index.write("other@file:/other.py", HASH, Set.of(), Set.of());
+    index.save();
+    assertThat(path).isRegularFile();
+
+    PersistentProjectIndex nextIndex = PersistentProjectIndex.load(path, List.of());
+    PersistentProjectIndex.IndexedModule indexedModule = nextIndex.read("mod@file:/mod.py", HASH);
+    assertThat(indexedModule).isNotNull();
+    assertThat(indexedModule.descriptors()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(DESCRIPTORS);
+    assertThat(indexedModule.imports()).containsExactly("os");
+    assertThat(nextIndex.read("mod@file:/mod.py", "other".getBytes(StandardCharsets.UTF_8))).isNull();
+
+    // Entries which were not read during this session are dropped
+    nextIndex.save();
+    PersistentProjectIndex lastIndex = PersistentProjectIndex.load(path, List.of());
+    assertThat(lastIndex.read("mod@file:/mod.py", HASH)).isNotNull();
+    assertThat(lastIndex.read("other@file:/other.py", HASH)).isNull();
+  }
+
+  @Test
+  void unchanged_index_is_not_written() throws IOException {
+    Path path = tempDir.resolve("module");
+    PersistentProjectIndex index = PersistentProjectIndex.load(path, List.of());
+    index.write("mod@file:/mod.py", HASH, DESCRIPTORS, Set.of());
+    index.save();
+    Files.setLastModifiedTime(path, FileTime.fromMillis(0));
+
+    PersistentProjectIndex nextIndex = PersistentProjectIndex.load(path, List.of());
+    assertThat(nextIndex.read("mod@file:/mod.py", HASH)).isNotNull();
+    nextIndex.save();
+    assertThat(Files.getLastModifiedTime(path).toMillis()).isZero();
+  }
+
+  @Test
+  void index_of_other_version_is_ignored() {
+    Path path = tempDir.resolve("module");
+    PersistentProjectIndex index = PersistentProjectIndex.load(path, List.of("3.11"));
+    index.write("mod@file:/mod.py", HASH, DESCRIPTORS, Set.of());
+    index.save();
+
+    assertThat(PersistentProjectIndex.load(path, List.of("3.11")).read("mod@file:/mod.py", HASH)).isNotNull();
+    assertThat(PersistentProjectIndex.load(path, List.of("3.12")).read("mod@file:/mod.py", HASH)).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).contains("The persistent project index was written with another version and will not be used: \"" + path + "\"");
+  }
+
+  @Test
+  void corrupted_index() throws IOException {
+    Path path = tempDir.resolve("module");
+    PersistentProjectIndex index = PersistentProjectIndex.load(path, List.of());
+    index.write("mod@file:/mod.py", HASH, DESCRIPTORS, Set.of());
+    index.save();
+    byte[] bytes = Files.readAllBytes(path);
+    Files.write(path, Arrays.copyOf(bytes, bytes.length - 4));
+
+    assertThat(PersistentProjectIndex.load(path, List.of()).read("mod@file:/mod.py", HASH)).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).anyMatch(log -> log.startsWith("Failed to read the persistent project index: \"" + path + "\""));
+  }
+
+  @Test
+  void failure_to_write_index() throws IOException {
+    Path file = Files.createFile(tempDir.resolve("file"));
+    Path path = file.resolve("module");
+    PersistentProjectIndex index = PersistentProjectIndex.load(path, List.of());
+    index.write("mod@file:/mod.py", HASH, DESCRIPTORS, Set.of());
+    index.save();
+    assertThat(logTester.logs(Level.DEBUG)).anyMatch(log -> log.startsWith("Failed to write the persistent project index: \"" + path + "\""));
+  }
+}
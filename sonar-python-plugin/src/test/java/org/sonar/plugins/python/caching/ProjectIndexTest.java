@@ -0,0 +1,98 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python.caching;
+
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProjectIndexTest {
+
+  @Test
+  void sharded_round_trip() throws IOException {
+    ProjectIndex index = new ProjectIndex();
+    for (int i = 0; i < 5; i++) {
+      ProjectIndex.Entry entry = index.getOrCreate("file" + i);
+      entry.imports = Set.of("common", "mod" + i);
+      entry.contentHash = new byte[] {(byte) i};
+      entry.moduleFqn = "mod" + i;
+      entry.descriptors = ByteString.copyFrom(new byte[] {(byte) i, 42});
+    }
+    index.getOrCreate("empty");
+
+    List<byte[]> shards = index.toShards(2);
+    assertThat(shards).hasSize(3);
+
+    ProjectIndex readIndex = ProjectIndex.fromShards(shards);
+    assertThat(readIndex.size()).isEqualTo(6);
+    ProjectIndex.Entry entry = readIndex.get("file3");
+    assertThat(entry.imports).containsExactlyInAnyOrder("common", "mod3");
+    assertThat(entry.contentHash).containsExactly(3);
+    assertThat(entry.moduleFqn).isEqualTo("mod3");
+    assertThat(entry.descriptors.toByteArray()).containsExactly(3, 42);
+    ProjectIndex.Entry empty = readIndex.get("empty");
+    assertThat(empty.imports).isNull();
+    assertThat(empty.contentHash).isNull();
+    assertThat(empty.moduleFqn).isNull();
+    assertThat(empty.descriptors).isNull();
+    assertThat(readIndex.get("unknown")).isNull();
+  }
+
+  @Test
+  void file_key_by_content_hash() {
+    ProjectIndex index = new ProjectIndex();
+    for (String fileKey : List.of("b/__init__.py", "a/__init__.py", "no_module.py")) {
+      index.getOrCreate(fileKey).contentHash = new byte[] {0};
+    }
+    index.getOrCreate("b/__init__.py").moduleFqn = "b";
+    index.getOrCreate("a/__init__.py").moduleFqn = "a";
+    index.getOrCreate("mod.py").moduleFqn = "mod";
+    index.getOrCreate("mod.py").contentHash = new byte[] {1};
+    index.getOrCreate("no_module.py").contentHash = new byte[] {2};
+
+    assertThat(index.fileKeyByContentHash(new byte[] {0})).isEqualTo("a/__init__.py");
+    assertThat(index.fileKeyByContentHash(new byte[] {1})).isEqualTo("mod.py");
+    assertThat(index.fileKeyByContentHash(new byte[] {2})).isNull();
+    assertThat(index.fileKeyByContentHash(new byte[] {3})).isNull();
+  }
+
+  @Test
+  void shards_are_stable() {
+    ProjectIndex index = new ProjectIndex();
+    index.getOrCreate("b").imports = Set.of("x");
+    index.getOrCreate("a").imports = Set.of("y");
+    ProjectIndex otherIndex = new ProjectIndex();
+    otherIndex.getOrCreate("a").imports = Set.of("y");
+    otherIndex.getOrCreate("b").imports = Set.of("x");
+    assertThat(index.toShards(1)).containsExactlyElementsOf(otherIndex.toShards(1));
+  }
+
+  @Test
+  void invalid_string_index() {
+    // Format version, a single string "a", one entry referring to the missing string at index 5
+    byte[] shard = {ProjectIndex.FORMAT_VERSION, 1, 1, 'a', 1, 5};
+    List<byte[]> shards = List.of(shard);
+    assertThatThrownBy(() -> ProjectIndex.fromShards(shards))
+      .isInstanceOf(IOException.class)
+      .hasMessage("Invalid string table index: 5");
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python.indexer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.plugins.python.PythonInputFile;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.index.VariableDescriptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.plugins.python.TestUtils.createInputFile;
+
+class BackgroundIndexingTest {
+
+  private File baseDir;
+  private final List<String> indexedFiles = new CopyOnWriteArrayList<>();
+
+  @BeforeEach
+  void init() throws IOException {
+    baseDir = Files.createTempDirectory("backgroundIndexing").toFile();
+  }
+
+  @Test
+  void dependents_of_modified_modules_are_indexed_again() throws Exception {
+    PythonInputFile modifiedFile = file("mod.py", "def f(): ...\n");
+    PythonInputFile dependentFile = file("dependent.py", "from mod import f\n");
+    PythonInputFile otherFile = file("other.py", "def g(): ...\n");
+    Map<String, BackgroundIndexing.IndexedModule> knownModules = Map.of("mod", module(new VariableDescriptor("f", "mod.f", null)));
+    CountDownLatch dependentIndexed = new CountDownLatch(1);
+    CountDownLatch modified = new CountDownLatch(1);
+
+    BackgroundIndexing backgroundIndexing = BackgroundIndexing.start(List.of(dependentFile, otherFile), baseDir.getAbsolutePath(), knownModules,
+      indexedFile -> {
+        indexedFiles.add(indexedFile.file().wrappedFile().filename());
+        if (dependentIndexed.getCount() > 0) {
+          dependentIndexed.countDown();
+          await(modified);
+        }
+      }, () -> {
+      });
+    dependentIndexed.await(10, TimeUnit.SECONDS);
+    backgroundIndexing.fileModified(modifiedFile, module(new VariableDescriptor("renamed", "mod.renamed", null)));
+    modified.countDown();
+    backgroundIndexing.await(10, TimeUnit.SECONDS);
+
+    assertThat(indexedFiles).containsExactly("dependent.py", "other.py", "dependent.py");
+    assertThat(backgroundIndexing.poll()).extracting(indexedFile -> indexedFile.file().wrappedFile().filename())
+      .containsExactly("other.py", "dependent.py");
+  }
+
+  @Test
+  void dependents_of_deleted_modules_are_indexed_again() throws Exception {
+    PythonInputFile deletedFile = file("mod.py", "def f(): ...\n");
+    PythonInputFile dependentFile = file("dependent.py", "import mod\n");
+    Map<String, BackgroundIndexing.IndexedModule> knownModules = Map.of("mod", module(new VariableDescriptor("f", "mod.f", null)));
+    CountDownLatch dependentIndexed = new CountDownLatch(1);
+    CountDownLatch deleted = new CountDownLatch(1);
+
+    BackgroundIndexing backgroundIndexing = BackgroundIndexing.start(List.of(dependentFile, deletedFile), baseDir.getAbsolutePath(), knownModules,
+      indexedFile -> {
+        indexedFiles.add(indexedFile.file().wrappedFile().filename());
+        if (dependentIndexed.getCount() > 0) {
+          dependentIndexed.countDown();
+          await(deleted);
+        }
+      }, () -> {
+      });
+    dependentIndexed.await(10, TimeUnit.SECONDS);
+    backgroundIndexing.fileModified(deletedFile, null);
+    deleted.countDown();
+    backgroundIndexing.await(10, TimeUnit.SECONDS);
+
+    // The deleted file is not indexed anymore
+    assertThat(indexedFiles).containsExactly("dependent.py", "dependent.py");
+    assertThat(backgroundIndexing.poll()).extracting(indexedFile -> indexedFile.file().wrappedFile().filename())
+      .containsExactly("dependent.py");
+  }
+
+  @Test
+  void django_views() throws Exception {
+    PythonInputFile urls = file("urls.py", """
+      from django.urls import path
+      import views
+      urlpatterns = [path('foo', views.foo, name='foo')]
+      """);
+    PythonInputFile views = file("views.py", "def foo(): ...\n");
+
+    BackgroundIndexing backgroundIndexing = BackgroundIndexing.start(List.of(urls, views), baseDir.getAbsolutePath(), Map.of(),
+      indexedFile -> {
+      }, () -> {
+      });
+    backgroundIndexing.await(10, TimeUnit.SECONDS);
+
+    assertThat(backgroundIndexing.poll()).extracting(BackgroundIndexing.IndexedFile::djangoViews)
+      .containsExactly(Set.of("views.foo"), Set.of());
+  }
+
+  private PythonInputFile file(String name, String contents) throws IOException {
+    Path path = baseDir.toPath().resolve(name);
+    Files.createDirectories(path.getParent());
+    Files.writeString(path, contents, StandardCharsets.UTF_8);
+    return createInputFile(baseDir, name, InputFile.Status.SAME, InputFile.Type.MAIN);
+  }
+
+  private static BackgroundIndexing.IndexedModule module(Descriptor descriptor) {
+    return new BackgroundIndexing.IndexedModule(Set.of(descriptor), Set.of());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -25,6 +25,8 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -49,7 +51,9 @@ import org.sonarsource.sonarlint.plugin.api.module.file.ModuleFileEvent;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
 class SonarLintPythonIndexerTest {
@@ -65,10 +69,12 @@ class SonarLintPythonIndexerTest {
   TestModuleFileSystem moduleFileSystem;
   SonarLintPythonIndexer pythonIndexer;
   ProjectLevelSymbolTable projectLevelSymbolTable;
+  Path persistentIndexDir;
 
   @BeforeEach
   void init() throws IOException {
     context = SensorContextTester.create(baseDir);
+    persistentIndexDir = Files.createTempDirectory("persistentIndex");
     Path workDir = Files.createTempDirectory("workDir");
     context.fileSystem().setWorkDir(workDir);
 
@@ -174,6 +180,256 @@ class SonarLintPythonIndexerTest {
     assertThat(modAddSymbol).isNotNull();
   }
 
+  @Test
+  void test_persistent_index() {
+    enablePersistentIndex(context);
+    new SonarLintPythonIndexer(moduleFileSystem).buildOnce(context);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Global symbols of 0 out of 2 files were retrieved from the persistent project index.");
+
+    logTester.clear();
+    SonarLintPythonIndexer indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(context);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Global symbols of 2 out of 2 files were retrieved from the persistent project index.");
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("main")).hasSize(1);
+    Symbol modAddSymbol = indexer.projectLevelSymbolTable().getSymbol("mod.add");
+    assertThat(modAddSymbol).isNotNull();
+    assertThat(modAddSymbol.is(Symbol.Kind.FUNCTION)).isTrue();
+    assertThat(indexer.getFileWithId(file2.wrappedFile().absolutePath())).isEqualTo(file2.wrappedFile());
+
+    // Removing a file retrieved from the persistent index
+    ModuleFileEvent moduleFileEvent = mock(ModuleFileEvent.class);
+    when(moduleFileEvent.getType()).thenReturn(ModuleFileEvent.Type.DELETED);
+    when(moduleFileEvent.getTarget()).thenReturn(file2.wrappedFile());
+    indexer.process(moduleFileEvent);
+    assertThat(indexer.projectLevelSymbolTable().getSymbol("mod.add")).isNull();
+
+    logTester.clear();
+    PythonInputFile modifiedFile = createInputFileWithContents("mod.py", "def modified(): pass\n");
+    moduleFileSystem = new TestModuleFileSystem(new ArrayList<>(Arrays.asList(file1, modifiedFile)));
+    indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(context);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Global symbols of 1 out of 2 files were retrieved from the persistent project index.");
+    assertThat(indexer.projectLevelSymbolTable().getSymbol("mod.add")).isNull();
+    assertThat(indexer.projectLevelSymbolTable().getSymbol("mod.modified")).isNotNull();
+  }
+
+  @Test
+  void test_persistent_index_completed_over_several_sessions() {
+    enablePersistentIndex(context);
+    context.settings().setProperty("sonar.python.sonarlint.indexing.maxlines", 1);
+    SonarLintPythonIndexer indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(context);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Project symbol table is incomplete due to project size: 1 files will be indexed during the " +
+      "next sessions (maximum number of lines to index is 1)");
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("main")).hasSize(1);
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("mod")).isNull();
+
+    logTester.clear();
+    indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(context);
+    assertThat(logTester.logs(Level.DEBUG))
+      .contains("Global symbols of 1 out of 2 files were retrieved from the persistent project index.")
+      .noneMatch(log -> log.startsWith("Project symbol table is incomplete"));
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("main")).hasSize(1);
+    assertThat(indexer.projectLevelSymbolTable().getSymbol("mod.add")).isNotNull();
+
+    logTester.clear();
+    new SonarLintPythonIndexer(moduleFileSystem).buildOnce(context);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Global symbols of 2 out of 2 files were retrieved from the persistent project index.");
+  }
+
+  @Test
+  void test_background_indexing() throws Exception {
+    SensorContextTester backgroundContext = backgroundIndexingContext();
+    SonarLintPythonIndexer indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(backgroundContext);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Global symbols of 1 files will be computed in the background.");
+    // The analyzed file and the modules it imports are indexed first
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("main")).hasSize(1);
+    assertThat(indexer.projectLevelSymbolTable().getSymbol("mod.add")).isNotNull();
+
+    indexer.awaitBackgroundIndexing(10, TimeUnit.SECONDS);
+    assertThat(indexer.projectLevelSymbolTable().getSymbol("added.new_func")).isNull();
+
+    indexer.buildOnce(backgroundContext);
+    assertThat(indexer.projectLevelSymbolTable().getSymbol("added.new_func")).isNotNull();
+    assertThat(indexer.getFileWithId(createInputFile("added.py").wrappedFile().absolutePath())).isNotNull();
+    assertThat(logTester.logs(Level.DEBUG))
+      .contains("Global symbols of 1 files indexed in the background were added to the project symbol table.")
+      .anyMatch(log -> log.startsWith("Background indexing of the project is complete."));
+  }
+
+  @Test
+  void test_background_indexing_of_modified_file() throws Exception {
+    SensorContextTester backgroundContext = backgroundIndexingContext();
+    SonarLintPythonIndexer indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(backgroundContext);
+    indexer.awaitBackgroundIndexing(10, TimeUnit.SECONDS);
+
+    PythonInputFile modifiedFile = createInputFileWithContents("added.py", "def modified(): pass\n");
+    ModuleFileEvent moduleFileEvent = mock(ModuleFileEvent.class);
+    when(moduleFileEvent.getType()).thenReturn(ModuleFileEvent.Type.MODIFIED);
+    when(moduleFileEvent.getTarget()).thenReturn(modifiedFile.wrappedFile());
+    indexer.process(moduleFileEvent);
+
+    // The outdated global symbols computed in the background are discarded
+    indexer.buildOnce(backgroundContext);
+    assertThat(indexer.projectLevelSymbolTable().getSymbol("added.modified")).isNotNull();
+    assertThat(indexer.projectLevelSymbolTable().getSymbol("added.new_func")).isNull();
+    assertThat(logTester.logs(Level.DEBUG))
+      .noneMatch(log -> log.endsWith("indexed in the background were added to the project symbol table."))
+      .anyMatch(log -> log.startsWith("Background indexing of the project is complete."));
+  }
+
+  @Test
+  void test_background_indexing_with_persistent_index() throws Exception {
+    SensorContextTester backgroundContext = backgroundIndexingContext();
+    enablePersistentIndex(backgroundContext);
+    SonarLintPythonIndexer indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(backgroundContext);
+    indexer.awaitBackgroundIndexing(10, TimeUnit.SECONDS);
+
+    logTester.clear();
+    indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(backgroundContext);
+    assertThat(logTester.logs(Level.DEBUG))
+      .contains("Global symbols of 3 out of 3 files were retrieved from the persistent project index.")
+      .noneMatch(log -> log.endsWith("will be computed in the background."));
+    assertThat(indexer.projectLevelSymbolTable().getSymbol("added.new_func")).isNotNull();
+  }
+
+  @Test
+  void test_background_indexing_persists_the_indexed_contents() throws Exception {
+    SensorContextTester backgroundContext = SensorContextTester.create(baseDir);
+    backgroundContext.fileSystem().setWorkDir(Files.createTempDirectory("workDir"));
+    backgroundContext.fileSystem().add(file1.wrappedFile());
+    backgroundContext.settings().setProperty("sonar.python.sonarlint.indexing.background", true);
+    enablePersistentIndex(backgroundContext);
+    // "added.py" is modified right after being indexed in the background
+    InputFile addedFile = spy(createInputFile("added.py").wrappedFile());
+    String indexedContents = addedFile.contents();
+    doReturn(indexedContents, indexedContents, "def modified(): pass\n").when(addedFile).contents();
+    moduleFileSystem.addFile(new PythonInputFileImpl(addedFile));
+    SonarLintPythonIndexer indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(backgroundContext);
+    indexer.awaitBackgroundIndexing(10, TimeUnit.SECONDS);
+
+    logTester.clear();
+    indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(backgroundContext);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Global symbols of 2 out of 3 files were retrieved from the persistent project index.");
+  }
+
+  @Test
+  void test_background_indexing_is_cancelled_when_stopped() throws Exception {
+    SensorContextTester backgroundContext = backgroundIndexingContext();
+    SonarLintPythonIndexer indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.start();
+    indexer.buildOnce(backgroundContext);
+    indexer.stop();
+
+    indexer.awaitBackgroundIndexing(10, TimeUnit.SECONDS);
+    indexer.buildOnce(backgroundContext);
+    assertThat(indexer.projectLevelSymbolTable().getSymbol("added.new_func")).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).noneMatch(log -> log.startsWith("Background indexing of the project is complete."));
+  }
+
+  @Test
+  void test_persistent_index_is_not_stored_in_the_sources() throws IOException {
+    Path sourcesDir = Files.createTempDirectory("sources");
+    // As in SonarLint, where there is no work directory
+    context.fileSystem().setWorkDir(sourcesDir);
+    enablePersistentIndex(context);
+    new SonarLintPythonIndexer(moduleFileSystem).buildOnce(context);
+    try (Stream<Path> persistentIndexFiles = Files.list(persistentIndexDir)) {
+      assertThat(persistentIndexFiles).hasSize(1);
+    }
+    assertThat(sourcesDir).isEmptyDirectory();
+  }
+
+  @Test
+  void test_sonarlint_user_home() {
+    assertThat(SonarLintPythonIndexer.sonarLintUserHome(null, "/home/user")).isEqualTo(Path.of("/home/user", ".sonarlint"));
+    assertThat(SonarLintPythonIndexer.sonarLintUserHome(" ", "/home/user")).isEqualTo(Path.of("/home/user", ".sonarlint"));
+    assertThat(SonarLintPythonIndexer.sonarLintUserHome("/sonarlint", "/home/user")).isEqualTo(Path.of("/sonarlint"));
+  }
+
+  private void enablePersistentIndex(SensorContextTester sensorContext) {
+    sensorContext.settings().setProperty("sonar.python.sonarlint.indexing.persistent", true);
+    sensorContext.settings().setProperty("sonar.python.sonarlint.indexing.persistent.directory", persistentIndexDir.toString());
+  }
+
+  private SensorContextTester backgroundIndexingContext() throws IOException {
+    SensorContextTester backgroundContext = SensorContextTester.create(baseDir);
+    backgroundContext.fileSystem().setWorkDir(Files.createTempDirectory("workDir"));
+    backgroundContext.fileSystem().add(file1.wrappedFile());
+    backgroundContext.settings().setProperty("sonar.python.sonarlint.indexing.background", true);
+    moduleFileSystem.addFile(createInputFile("added.py"));
+    logTester.clear();
+    return backgroundContext;
+  }
+
+  @Test
+  void test_compact_symbol_table() {
+    context.settings().setProperty("sonar.python.symbolTable.compact", true);
+    SonarLintPythonIndexer indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(context);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Using compact storage for the project-level symbol table");
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("main")).hasSize(1);
+    assertThat(indexer.projectLevelSymbolTable().getSymbol("mod.add").is(Symbol.Kind.FUNCTION)).isTrue();
+
+    PythonInputFile modifiedFile = createInputFileWithContents("mod.py", "def modified(): pass\n");
+    ModuleFileEvent moduleFileEvent = mock(ModuleFileEvent.class);
+    when(moduleFileEvent.getType()).thenReturn(ModuleFileEvent.Type.MODIFIED);
+    when(moduleFileEvent.getTarget()).thenReturn(modifiedFile.wrappedFile());
+    indexer.process(moduleFileEvent);
+    assertThat(indexer.projectLevelSymbolTable().getSymbol("mod.add")).isNull();
+    assertThat(indexer.projectLevelSymbolTable().getSymbol("mod.modified")).isNotNull();
+  }
+
+  @Test
+  void test_scope_type_inference_cache() {
+    assertThat(pythonIndexer.scopeTypeInferenceCache(file1)).isNull();
+
+    SonarLintPythonIndexer indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    context.settings().setProperty("sonar.python.sonarlint.incrementalTypeInference", true);
+    indexer.buildOnce(context);
+    var cache = indexer.scopeTypeInferenceCache(file1);
+    assertThat(cache).isNotNull();
+    assertThat(indexer.scopeTypeInferenceCache(file1)).isSameAs(cache);
+    assertThat(indexer.scopeTypeInferenceCache(file2)).isNotSameAs(cache);
+
+    var modCache = indexer.scopeTypeInferenceCache(file2);
+    ModuleFileEvent moduleFileEvent = mock(ModuleFileEvent.class);
+    when(moduleFileEvent.getType()).thenReturn(ModuleFileEvent.Type.MODIFIED);
+    when(moduleFileEvent.getTarget()).thenReturn(file2.wrappedFile());
+    indexer.process(moduleFileEvent);
+    // The API of "mod" did not change: only its own cache is discarded
+    assertThat(indexer.scopeTypeInferenceCache(file2)).isNotSameAs(modCache);
+    assertThat(indexer.scopeTypeInferenceCache(file1)).isSameAs(cache);
+
+    PythonInputFile modifiedFile = createInputFileWithContents("mod.py", "def add(p1, p2, p3):\n    return p1 + p2 + p3\n");
+    when(moduleFileEvent.getTarget()).thenReturn(modifiedFile.wrappedFile());
+    indexer.process(moduleFileEvent);
+    // "main" imports "mod", whose API changed
+    assertThat(indexer.scopeTypeInferenceCache(file1)).isNotSameAs(cache);
+  }
+
+  @Test
+  void test_scope_type_inference_cache_of_independent_module() {
+    context.settings().setProperty("sonar.python.sonarlint.incrementalTypeInference", true);
+    SonarLintPythonIndexer indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(context);
+    var modCache = indexer.scopeTypeInferenceCache(file2);
+
+    ModuleFileEvent moduleFileEvent = mock(ModuleFileEvent.class);
+    when(moduleFileEvent.getType()).thenReturn(ModuleFileEvent.Type.DELETED);
+    when(moduleFileEvent.getTarget()).thenReturn(file1.wrappedFile());
+    indexer.process(moduleFileEvent);
+    // "mod" does not import "main"
+    assertThat(indexer.scopeTypeInferenceCache(file2)).isSameAs(modCache);
+  }
+
   @Test
   void test_indexer_non_python_file() {
     testNonPythonFile("txt");
@@ -232,6 +488,16 @@ class SonarLintPythonIndexerTest {
     return createInputFile(name, Python.KEY);
   }
 
+  private PythonInputFile createInputFileWithContents(String name, String contents) {
+    return new PythonInputFileImpl(TestInputFileBuilder.create("moduleKey", name)
+      .setModuleBaseDir(baseDir.toPath())
+      .setCharset(StandardCharsets.UTF_8)
+      .setType(InputFile.Type.MAIN)
+      .setLanguage(Python.KEY)
+      .setContents(contents)
+      .build());
+  }
+
   private PythonInputFile createInputFile(String name, String languageKey) {
     return new PythonInputFileImpl(TestInputFileBuilder.create("moduleKey", name)
       .setModuleBaseDir(baseDir.toPath())
@@ -16,6 +16,7 @@
  */
 package org.sonar.plugins.python.indexer;
 
+import com.google.protobuf.InvalidProtocolBufferException;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -26,7 +27,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import jdk.jfr.consumer.RecordedEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -36,27 +39,39 @@ import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.plugins.python.PythonInputFile;
+import org.sonar.plugins.python.api.LocationInFile;
 import org.sonar.plugins.python.api.caching.PythonReadCache;
 import org.sonar.plugins.python.api.caching.PythonWriteCache;
+import org.sonar.plugins.python.caching.CachedData;
 import org.sonar.plugins.python.caching.TestReadCache;
 import org.sonar.plugins.python.caching.TestWriteCache;
+import org.sonar.plugins.python.jfr.RecordedEvents;
 import org.sonar.python.caching.CacheContextImpl;
 import org.sonar.python.caching.PythonReadCacheImpl;
 import org.sonar.python.caching.PythonWriteCacheImpl;
+import org.sonar.python.caching.CacheEncoding;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.index.FunctionDescriptor;
 import org.sonar.python.index.VariableDescriptor;
 import org.sonar.python.types.TypeShed;
+import org.sonar.python.types.protobuf.DescriptorsProtos;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 import static org.sonar.plugins.python.TestUtils.createInputFile;
-import static org.sonar.plugins.python.caching.Caching.CACHE_VERSION_KEY;
+import static org.sonar.plugins.python.caching.Caching.CONTENT_KEYS_CACHE_KEY_PREFIX;
 import static org.sonar.plugins.python.caching.Caching.PROJECT_FILES_KEY;
+import static org.sonar.plugins.python.caching.Caching.PROJECT_INDEX_SHARDS_COUNT_KEY;
+import static org.sonar.plugins.python.caching.Caching.PROJECT_INDEX_SHARD_KEY_PREFIX;
 import static org.sonar.plugins.python.caching.Caching.TYPESHED_MODULES_KEY;
+import static org.sonar.plugins.python.caching.Caching.cacheVersionKey;
+import static org.sonar.plugins.python.caching.Caching.contentKeyCacheKey;
 import static org.sonar.plugins.python.caching.Caching.fileContentHashCacheKey;
 import static org.sonar.plugins.python.caching.Caching.importsMapCacheKey;
 import static org.sonar.plugins.python.caching.Caching.projectSymbolTableCacheKey;
+import static org.sonar.python.index.DescriptorsToProtobuf.fromProtobuf;
 import static org.sonar.python.index.DescriptorsToProtobuf.toProtobufModuleDescriptor;
 
 class SonarQubePythonIndexerTest {
@@ -73,7 +88,6 @@ class SonarQubePythonIndexerTest {
   private TestReadCache readCache;
   private TestWriteCache writeCache;
   private CacheContextImpl cacheContext;
-  private String cacheVersion;
 
   @BeforeEach
   void init() throws IOException {
@@ -86,8 +100,9 @@ class SonarQubePythonIndexerTest {
     writeCache = new TestWriteCache();
     readCache = new TestReadCache();
     writeCache.bind(readCache);
-    cacheVersion = "unknownPluginVersion";
-    readCache.put(CACHE_VERSION_KEY, cacheVersion.getBytes(StandardCharsets.UTF_8));
+    for (CachedData cachedData : CachedData.values()) {
+      readCache.put(cacheVersionKey(cachedData), cachedData.version(CachedData.analyzerVersion(), List.of(), false).getBytes(StandardCharsets.UTF_8));
+    }
     PythonWriteCache pythonWriteCache = new PythonWriteCacheImpl(writeCache);
     PythonReadCache pythonReadCache = new PythonReadCacheImpl(readCache);
     cacheContext = new CacheContextImpl(true, pythonWriteCache, pythonReadCache);
@@ -120,7 +135,28 @@ class SonarQubePythonIndexerTest {
       .contains("1/1 source file has been analyzed");
     assertThat(logTester.logs(Level.WARN)).contains("Implementation version of the Python plugin not found. Cached data may not be invalidated properly, " +
       "which may lead to inaccurate analysis results.");
-    assertThat(logTester.logs(Level.DEBUG)).contains("Cache version still up to date: \"unknownPluginVersion\".");
+    assertThat(logTester.logs(Level.DEBUG)).contains("Cache version of descriptors still up to date: \"1;unknownPluginVersion\".");
+  }
+
+  @Test
+  void test_global_symbols_event() throws IOException {
+    file1 = createInputFile(baseDir, "main.py", InputFile.Status.CHANGED, InputFile.Type.MAIN);
+    file2 = createInputFile(baseDir, "mod.py", InputFile.Status.SAME, InputFile.Type.MAIN);
+    readCache.put(importsMapCacheKey("moduleKey:main.py"), importsAsByteArray(List.of("mod")));
+    readCache.put(importsMapCacheKey("moduleKey:mod.py"), String.join(";", Collections.emptyList()).getBytes(StandardCharsets.UTF_8));
+    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), toProtobufModuleDescriptor(Set.of()).toByteArray());
+    readCache.put(projectSymbolTableCacheKey("moduleKey:mod.py"), toProtobufModuleDescriptor(Set.of()).toByteArray());
+    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    readCache.put(fileContentHashCacheKey("moduleKey:mod.py"), file2.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    pythonIndexer = new SonarQubePythonIndexer(List.of(file1, file2), cacheContext, context);
+
+    List<RecordedEvent> events = RecordedEvents.record("org.sonar.python.GlobalSymbols", () -> pythonIndexer.buildOnce(context));
+    assertThat(events).hasSize(1);
+    RecordedEvent event = events.get(0);
+    assertThat(event.getInt("files")).isEqualTo(2);
+    assertThat(event.getInt("cacheHits")).isEqualTo(1);
+    assertThat(event.getInt("cacheMisses")).isEqualTo(1);
+    assertThat(event.getInt("fullySkippableFiles")).isEqualTo(1);
   }
 
   @Test
@@ -151,6 +187,214 @@ class SonarQubePythonIndexerTest {
       .contains("1/1 source file has been analyzed");
   }
 
+  @Test
+  void test_modified_dependency_with_unchanged_api() {
+    file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.MAIN);
+    file2 = createInputFile(baseDir, "mod.py", InputFile.Status.CHANGED, InputFile.Type.MAIN);
+
+    List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
+
+    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
+    // Same descriptors as the current version of "mod.py", whose content changed without changing its API
+    TestWriteCache previousWriteCache = new TestWriteCache().bind(readCache);
+    var previousCacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(previousWriteCache), new PythonReadCacheImpl(readCache));
+    new SonarQubePythonIndexer(List.of(file2), previousCacheContext, context).buildOnce(context);
+    readCache.put(projectSymbolTableCacheKey("moduleKey:mod.py"), previousWriteCache.getData().get(projectSymbolTableCacheKey("moduleKey:mod.py")));
+    readCache.put(importsMapCacheKey("moduleKey:main.py"), importsAsByteArray(List.of("mod")));
+    readCache.put(importsMapCacheKey("moduleKey:mod.py"), importsAsByteArray(Collections.emptyList()));
+    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), serializedSymbolTable);
+    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    logTester.clear();
+    pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
+    pythonIndexer.buildOnce(context);
+
+    assertThat(pythonIndexer.canBeFullyScannedWithoutParsing(file1)).isTrue();
+    assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file2)).isFalse();
+    assertThat(pythonIndexer.canBeFullyScannedWithoutParsing(file2)).isFalse();
+    assertThat(logTester.logs(Level.INFO))
+      .contains("The exposed API is unchanged for 1 out of 1 modified files.")
+      .contains("Fully optimized analysis can be performed for 1 out of 2 files.")
+      .contains("Partially optimized analysis can be performed for 1 out of 2 files.");
+  }
+
+  @Test
+  void test_modified_dependency_with_moved_declarations() {
+    file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.MAIN);
+    file2 = createInputFile(baseDir, "mod.py", InputFile.Status.CHANGED, InputFile.Type.MAIN);
+
+    List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
+
+    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
+    // Same function as in the current version of "mod.py", defined at a different location: issues of "main" may have secondary
+    // locations on its definition
+    LocationInFile previousLocation = new LocationInFile("mod.py", 10, 4, 11, 18);
+    FunctionDescriptor previousAdd = new FunctionDescriptor.FunctionDescriptorBuilder()
+      .withName("add")
+      .withFullyQualifiedName("mod.add")
+      .withParameters(List.of(
+        new FunctionDescriptor.Parameter("p1", null, false, false, false, false, false, previousLocation),
+        new FunctionDescriptor.Parameter("p2", null, false, false, false, false, false, previousLocation)))
+      .withDefinitionLocation(previousLocation)
+      .build();
+    readCache.put(importsMapCacheKey("moduleKey:main.py"), importsAsByteArray(List.of("mod")));
+    readCache.put(importsMapCacheKey("moduleKey:mod.py"), importsAsByteArray(Collections.emptyList()));
+    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), serializedSymbolTable);
+    readCache.put(projectSymbolTableCacheKey("moduleKey:mod.py"), toProtobufModuleDescriptor(Set.of(previousAdd)).toByteArray());
+    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
+    pythonIndexer.buildOnce(context);
+
+    assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file1)).isTrue();
+    assertThat(pythonIndexer.canBeFullyScannedWithoutParsing(file1)).isFalse();
+    assertThat(logTester.logs(Level.INFO))
+      .contains("The exposed API is unchanged for 0 out of 1 modified files.")
+      .contains("Fully optimized analysis can be performed for 0 out of 2 files.");
+  }
+
+  @Test
+  void test_modified_dependency_importing_modified_api() {
+    file1 = createInputFile(baseDir, "main.py", InputFile.Status.CHANGED, InputFile.Type.MAIN);
+    file2 = createInputFile(baseDir, "mod.py", InputFile.Status.CHANGED, InputFile.Type.MAIN);
+    PythonInputFile file3 = createInputFile(baseDir, "added.py", InputFile.Status.SAME, InputFile.Type.MAIN);
+
+    List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2, file3));
+
+    // "main" keeps the same API, but imports "mod" whose API changed: "added", which imports "main", is impacted
+    readCache.put(importsMapCacheKey("moduleKey:added.py"), importsAsByteArray(List.of("main")));
+    readCache.put(projectSymbolTableCacheKey("moduleKey:added.py"), toProtobufModuleDescriptor(Set.of()).toByteArray());
+    readCache.put(fileContentHashCacheKey("moduleKey:added.py"), file3.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    readCache.put(projectSymbolTableCacheKey("moduleKey:mod.py"),
+      toProtobufModuleDescriptor(Set.of(new VariableDescriptor("outdated", "mod.outdated", null))).toByteArray());
+    TestWriteCache previousWriteCache = new TestWriteCache().bind(readCache);
+    var previousCacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(previousWriteCache), new PythonReadCacheImpl(readCache));
+    new SonarQubePythonIndexer(List.of(file1, file2), previousCacheContext, context).buildOnce(context);
+    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), previousWriteCache.getData().get(projectSymbolTableCacheKey("moduleKey:main.py")));
+    logTester.clear();
+
+    pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
+    pythonIndexer.buildOnce(context);
+
+    assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file3)).isTrue();
+    assertThat(pythonIndexer.canBeFullyScannedWithoutParsing(file3)).isFalse();
+    assertThat(logTester.logs(Level.INFO))
+      .contains("The exposed API is unchanged for 1 out of 2 modified files.")
+      .contains("Fully optimized analysis can be performed for 0 out of 3 files.");
+  }
+
+  @Test
+  void test_consolidated_cache() {
+    file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.MAIN);
+    file2 = createInputFile(baseDir, "mod.py", InputFile.Status.SAME, InputFile.Type.MAIN);
+    List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
+    context.settings().setProperty("sonar.python.cache.consolidated", true);
+
+    // The cache version in the read cache is not the one of the consolidated format: global symbols are computed for all files
+    pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
+    pythonIndexer.buildOnce(context);
+    pythonIndexer.postAnalysis(context);
+    assertThat(writeCache.getData())
+      .containsKeys(cacheVersionKey(CachedData.DESCRIPTORS), PROJECT_FILES_KEY, PROJECT_INDEX_SHARDS_COUNT_KEY, PROJECT_INDEX_SHARD_KEY_PREFIX + "0")
+      .doesNotContainKeys(importsMapCacheKey("moduleKey:main.py"), projectSymbolTableCacheKey("moduleKey:main.py"), fileContentHashCacheKey("moduleKey:main.py"));
+    assertThat(new String(writeCache.getData().get(cacheVersionKey(CachedData.DESCRIPTORS)), StandardCharsets.UTF_8)).isEqualTo("1;unknownPluginVersion;consolidated");
+
+    TestReadCache nextReadCache = new TestReadCache().putAll(writeCache);
+    TestWriteCache nextWriteCache = new TestWriteCache().bind(nextReadCache);
+    CacheContextImpl nextCacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(nextWriteCache), new PythonReadCacheImpl(nextReadCache));
+    logTester.clear();
+    pythonIndexer = new SonarQubePythonIndexer(inputFiles, nextCacheContext, context);
+    pythonIndexer.buildOnce(context);
+    pythonIndexer.postAnalysis(context);
+
+    assertThat(pythonIndexer.canBeFullyScannedWithoutParsing(file1)).isTrue();
+    assertThat(pythonIndexer.canBeFullyScannedWithoutParsing(file2)).isTrue();
+    assertThat(logTester.logs(Level.INFO)).contains("Fully optimized analysis can be performed for 2 out of 2 files.");
+    assertThat(nextWriteCache.getData().get(PROJECT_INDEX_SHARD_KEY_PREFIX + "0")).isEqualTo(writeCache.getData().get(PROJECT_INDEX_SHARD_KEY_PREFIX + "0"));
+  }
+
+  @Test
+  void test_moved_file() throws InvalidProtocolBufferException {
+    file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.MAIN);
+    file2 = createInputFile(baseDir, "mod.py", InputFile.Status.ADDED, InputFile.Type.MAIN);
+    List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
+
+    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
+    byte[] previousEntry = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("y", "old_mod.y", null))).toByteArray();
+    byte[] file2Hash = file2.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8);
+    readCache.put(importsMapCacheKey("moduleKey:main.py"), importsAsByteArray(List.of("old_mod")));
+    readCache.put(importsMapCacheKey("moduleKey:old_mod.py"), importsAsByteArray(List.of("os", "old_mod.helpers")));
+    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), serializedSymbolTable);
+    readCache.put(projectSymbolTableCacheKey("moduleKey:old_mod.py"), previousEntry);
+    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    readCache.put(fileContentHashCacheKey("moduleKey:old_mod.py"), file2Hash);
+    readCache.put(contentKeyCacheKey(file2Hash), "moduleKey:old_mod.py\nold_mod".getBytes(StandardCharsets.UTF_8));
+    context.settings().setProperty("sonar.python.cache.relocatedFiles", true);
+    pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
+    pythonIndexer.buildOnce(context);
+
+    assertThat(pythonIndexer.canBeFullyScannedWithoutParsing(file1)).isTrue();
+    assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file2)).isFalse();
+    assertThat(logTester.logs(Level.INFO))
+      .contains("0/0 source files have been analyzed")
+      .contains("Global symbols of 1 out of 1 modified files were retrieved from cached data of files with the same content.");
+
+    Map<String, byte[]> data = writeCache.getData();
+    Set<Descriptor> descriptors = fromProtobuf(DescriptorsProtos.ModuleDescriptor.parseFrom(CacheEncoding.decode(data.get(projectSymbolTableCacheKey("moduleKey:mod.py")))));
+    assertThat(descriptors).extracting(Descriptor::fullyQualifiedName).containsExactly("mod.y");
+    assertThat(new String(data.get(importsMapCacheKey("moduleKey:mod.py")), StandardCharsets.UTF_8).split(";"))
+      .containsExactlyInAnyOrder("os", "old_mod.helpers", "mod.helpers");
+    assertThat(data.get(fileContentHashCacheKey("moduleKey:mod.py"))).isEqualTo(file2Hash);
+    assertThat(new String(data.get(contentKeyCacheKey(file2Hash)), StandardCharsets.UTF_8)).isEqualTo("moduleKey:mod.py\nmod");
+  }
+
+  @Test
+  void test_moved_file_is_not_retrieved_by_default() {
+    file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.MAIN);
+    file2 = createInputFile(baseDir, "mod.py", InputFile.Status.ADDED, InputFile.Type.MAIN);
+    List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
+
+    byte[] file2Hash = file2.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8);
+    readCache.put(importsMapCacheKey("moduleKey:main.py"), importsAsByteArray(List.of("old_mod")));
+    readCache.put(importsMapCacheKey("moduleKey:old_mod.py"), importsAsByteArray(List.of("os")));
+    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray());
+    readCache.put(projectSymbolTableCacheKey("moduleKey:old_mod.py"), toProtobufModuleDescriptor(Set.of(new VariableDescriptor("y", "old_mod.y", null))).toByteArray());
+    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    readCache.put(contentKeyCacheKey(file2Hash), "moduleKey:old_mod.py\nold_mod".getBytes(StandardCharsets.UTF_8));
+    pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
+    pythonIndexer.buildOnce(context);
+
+    assertThat(logTester.logs(Level.INFO)).noneMatch(log -> log.startsWith("Global symbols of 1 out of 1 modified files were retrieved"));
+    // Entries of unchanged and modified files alike are not written: they would otherwise be written again on every analysis
+    assertThat(writeCache.getData()).containsKeys(fileContentHashCacheKey("moduleKey:main.py"), fileContentHashCacheKey("moduleKey:mod.py"));
+    assertThat(writeCache.getData().keySet()).noneMatch(key -> key.startsWith(CONTENT_KEYS_CACHE_KEY_PREFIX));
+  }
+
+  @Test
+  void test_moved_file_with_consolidated_cache() {
+    file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.MAIN);
+    file2 = createInputFile(baseDir, "mod.py", InputFile.Status.SAME, InputFile.Type.MAIN);
+    context.settings().setProperty("sonar.python.cache.consolidated", true);
+    pythonIndexer = new SonarQubePythonIndexer(new ArrayList<>(Arrays.asList(file1, file2)), cacheContext, context);
+    pythonIndexer.buildOnce(context);
+    pythonIndexer.postAnalysis(context);
+    assertThat(writeCache.getData().keySet()).noneMatch(key -> key.startsWith(CONTENT_KEYS_CACHE_KEY_PREFIX));
+
+    // "mod.py" is moved to "pkg/renamed.py", in a directory which is not a package
+    PythonInputFile movedFile = createInputFile(baseDir, "pkg/renamed.py", InputFile.Status.ADDED, InputFile.Type.MAIN);
+    TestReadCache nextReadCache = new TestReadCache().putAll(writeCache);
+    TestWriteCache nextWriteCache = new TestWriteCache().bind(nextReadCache);
+    CacheContextImpl nextCacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(nextWriteCache), new PythonReadCacheImpl(nextReadCache));
+    logTester.clear();
+    pythonIndexer = new SonarQubePythonIndexer(new ArrayList<>(Arrays.asList(file1, movedFile)), nextCacheContext, context);
+    pythonIndexer.buildOnce(context);
+    pythonIndexer.postAnalysis(context);
+
+    assertThat(logTester.logs(Level.INFO)).contains("Global symbols of 1 out of 1 modified files were retrieved from cached data of files with the same content.");
+    // Like the ones retrieved for unchanged files, the descriptors are stored under the key of the file
+    assertThat(pythonIndexer.projectLevelSymbolTable().descriptorsForModule(movedFile.wrappedFile().key()))
+      .extracting(Descriptor::fullyQualifiedName).containsExactly("renamed.add");
+    assertThat(nextWriteCache.getData().keySet()).noneMatch(key -> key.startsWith(CONTENT_KEYS_CACHE_KEY_PREFIX));
+  }
+
   @Test
   void test_deleted_dependency() {
     file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.MAIN);
@@ -283,7 +527,7 @@ class SonarQubePythonIndexerTest {
     List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
 
     pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
-    readCache.put(CACHE_VERSION_KEY, "outdatedVersion".getBytes(StandardCharsets.UTF_8));
+    readCache.put(cacheVersionKey(CachedData.DESCRIPTORS), "0".getBytes(StandardCharsets.UTF_8));
 
     byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
     byte[] outdatedEntry = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("outdated", "mod.outdated", null))).toByteArray();
@@ -299,8 +543,8 @@ class SonarQubePythonIndexerTest {
     assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file1)).isFalse();
     assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file2)).isFalse();
     assertThat(logTester.logs(Level.INFO))
-      .contains("The cache version has changed since the previous analysis, cached data will not be used during this analysis. " +
-        "Retrieved: \"outdatedVersion\". Current version: \"unknownPluginVersion\".")
+      .contains("The cache version of descriptors has changed since the previous analysis, this cached data will not be used during this analysis. " +
+        "Retrieved: \"0\". Current version: \"1;unknownPluginVersion\".")
       .contains("2/2 source files have been analyzed");
   }
 
@@ -328,11 +572,36 @@ class SonarQubePythonIndexerTest {
     assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file1)).isFalse();
     assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file2)).isFalse();
     assertThat(logTester.logs(Level.INFO))
-      .contains("The cache version has changed since the previous analysis, cached data will not be used during this analysis. " +
-        "Retrieved: \"unknownPluginVersion\". Current version: \"unknownPluginVersion;3.11\".")
+      .contains("The cache version of descriptors has changed since the previous analysis, this cached data will not be used during this analysis. " +
+        "Retrieved: \"1;unknownPluginVersion\". Current version: \"1;unknownPluginVersion;3.11\".")
       .contains("2/2 source files have been analyzed");
   }
 
+  @Test
+  void test_outdated_cpd_tokens_cache_version() {
+    file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.MAIN);
+    file2 = createInputFile(baseDir, "mod.py", InputFile.Status.SAME, InputFile.Type.MAIN);
+    List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
+
+    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
+    byte[] modEntry = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("y", "mod.y", null))).toByteArray();
+    readCache.put(cacheVersionKey(CachedData.CPD_TOKENS), "0".getBytes(StandardCharsets.UTF_8));
+    readCache.put(importsMapCacheKey("moduleKey:main.py"), importsAsByteArray(List.of("mod")));
+    readCache.put(importsMapCacheKey("moduleKey:mod.py"), importsAsByteArray(Collections.emptyList()));
+    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), serializedSymbolTable);
+    readCache.put(projectSymbolTableCacheKey("moduleKey:mod.py"), modEntry);
+    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    readCache.put(fileContentHashCacheKey("moduleKey:mod.py"), file2.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
+    pythonIndexer.buildOnce(context);
+
+    // Only CPD tokens have to be recomputed
+    assertThat(pythonIndexer.canBeFullyScannedWithoutParsing(file1)).isTrue();
+    assertThat(pythonIndexer.canBeFullyScannedWithoutParsing(file2)).isTrue();
+    assertThat(pythonIndexer.canUseCachedCpdTokens()).isFalse();
+    assertThat(writeCache.getData()).containsEntry(cacheVersionKey(CachedData.CPD_TOKENS), "1".getBytes(StandardCharsets.UTF_8));
+  }
+
   @Test
   void test_test_files_use_cache() {
     file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.TEST);
@@ -0,0 +1,64 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.python.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class RecordedEvents {
+
+  private RecordedEvents() {
+  }
+
+  /**
+   * Runs the action during a flight recording, and returns the events of the given name which were emitted.
+   */
+  public static List<RecordedEvent> record(String eventName, Runnable action) throws IOException {
+    return record(action, eventName).getOrDefault(eventName, List.of());
+  }
+
+  /**
+   * Runs the action during a flight recording, and returns the events of the given names which were emitted, grouped by name.
+   */
+  public static Map<String, List<RecordedEvent>> record(Runnable action, String... eventNames) throws IOException {
+    Path file = Files.createTempFile("sonar-python", ".jfr");
+    try (Recording recording = new Recording()) {
+      for (String eventName : eventNames) {
+        recording.enable(eventName).withoutThreshold();
+      }
+      recording.start();
+      action.run();
+      recording.stop();
+      recording.dump(file);
+      // Events are recorded by any recording which is active at the same time, even when they are not enabled by this one
+      List<String> names = Arrays.asList(eventNames);
+      return RecordingFile.readAllEvents(file).stream()
+        .filter(event -> names.contains(event.getEventType().getName()))
+        .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
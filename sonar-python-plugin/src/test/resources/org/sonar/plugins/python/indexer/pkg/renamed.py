@@ -0,0 +1,2 @@
+def add(p1, p2):
+    return p1 + p2
@@ -0,0 +1,10 @@
+def flow_sensitive(value):
+    result = value
+    return result
+
+def ast_based(value):
+    try:
+        result = int(value)
+    except ValueError:
+        result = 0
+    return result